@@ -0,0 +1,99 @@
+package net.zeddev.zedlog.bench;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import net.zeddev.zedlog.logger.AbstractDataLogger;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@code CompositeDataLogger.notifyLog()} with a log file set, so
+ * that each entry is buffered, encoded into the XML log and (every so often)
+ * flushed to disk.
+ * The log grows with each entry, so each iteration starts with a new logger
+ * and file, and runs for a fixed number of entries.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = CompositeNotifyBenchmark.ENTRIES)
+@Measurement(iterations = 10, batchSize = CompositeNotifyBenchmark.ENTRIES)
+public class CompositeNotifyBenchmark {
+
+	/** The number of entries notified in each iteration. */
+	public static final int ENTRIES = 1000;
+
+	// the child logger making the entries
+	private static final class BenchLogger extends AbstractDataLogger {
+
+		@Override
+		public String type() {
+			return "CharTyped";
+		}
+
+	}
+
+	private CompositeDataLogger loggers;
+	private BenchLogger child;
+	private File logFile;
+
+	private LogEntry logEntry;
+
+	@Setup(Level.Iteration)
+	public void setUp() throws Exception {
+
+		loggers = new CompositeDataLogger();
+		child = new BenchLogger();
+		loggers.addLogger(child);
+
+		logFile = File.createTempFile("zedlog-bench", ".xml");
+		loggers.setLogFile(logFile);
+
+		logEntry = new LogEntry(child, "A", new KeyEvent(KeyEvent.Type.TYPED, 65, 'A'));
+
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() {
+		loggers.shutdown();
+		child.shutdown();
+		logFile.delete();
+	}
+
+	@Benchmark
+	public void notifyLog() {
+		loggers.notifyLog(child, logEntry);
+	}
+
+}
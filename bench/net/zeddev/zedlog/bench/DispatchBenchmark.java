@@ -0,0 +1,118 @@
+package net.zeddev.zedlog.bench;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import net.zeddev.zedlog.logger.AbstractDataLogger;
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.DataLoggerObserver;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the dispatch of log entries through {@code AbstractDataLogger}
+ * (and its {@code DataLoggerNotificationThread}) to an observer.
+ * {@code notify} measures the cost to the logging thread (which includes
+ * entries dropped when the queue is full), while {@code deliver} measures the
+ * latency from an entry being logged to its delivery.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+	// a logger making entries on demand
+	private static final class BenchLogger extends AbstractDataLogger {
+
+		@Override
+		public String type() {
+			return "MouseMovement";
+		}
+
+		public void log(LogEntry logEntry) {
+			notifyDataLoggerObservers(this, logEntry);
+		}
+
+	}
+
+	private BenchLogger dataLogger;
+	private LogEntry logEntry;
+
+	// the last entry delivered to the observer
+	private volatile LogEntry delivered = null;
+
+	@Setup
+	public void setUp() {
+
+		dataLogger = new BenchLogger();
+		dataLogger.addObserver(new DataLoggerObserver() {
+
+			@Override
+			public void notifyLog(DataLogger logger, LogEntry logEntry) {
+				delivered = logEntry;
+			}
+
+		});
+
+		MouseMovedEvent event = new MouseMovedEvent();
+		event.setX(100);
+		event.setY(200);
+
+		logEntry = new LogEntry(dataLogger, event.toString(), event);
+
+	}
+
+	@TearDown
+	public void tearDown() {
+		dataLogger.shutdown();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void notifyEntry() {
+		dataLogger.log(logEntry);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public LogEntry deliver() {
+
+		// NOTE a new entry each time, so its delivery is seen
+		// NOTE relies on the queue being drained, which holds as JMH runs each
+		//	  benchmark method in its own fork (i.e. not after notifyEntry())
+		LogEntry sent = new LogEntry(dataLogger, logEntry.getMessage(), logEntry.getEvent());
+		dataLogger.log(sent);
+
+		while (delivered != sent)
+			Thread.yield();
+
+		return delivered;
+
+	}
+
+}
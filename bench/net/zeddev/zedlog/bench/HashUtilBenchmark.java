@@ -0,0 +1,59 @@
+package net.zeddev.zedlog.bench;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import net.zeddev.zedlog.util.HashUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@code HashUtil.hashAll()}, with the fields hashed by
+ * {@code LogEntry.hashCode()} (a logger, event, message and timestamp).
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HashUtilBenchmark {
+
+	private Object parent;
+	private Object event;
+	private String message;
+	private long timestamp;
+
+	@Setup
+	public void setUp() {
+		parent = new Object();
+		event = new Object();
+		message = "MouseClicked (640, 480)";
+		timestamp = 1370000000000L;
+	}
+
+	@Benchmark
+	public int hashAll() {
+		return HashUtil.hashAll(parent, event, message, timestamp);
+	}
+
+}
@@ -0,0 +1,131 @@
+package net.zeddev.zedlog.bench;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.StringWriter;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Benchmarks the encoding and decoding of a single {@code LogEntry}, to and
+ * from XML ({@code toXML()}/{@code fromXML()}) and the legacy pipe format
+ * ({@code write()}/{@code read()}).
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@SuppressWarnings("deprecation")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogEntryCodecBenchmark {
+
+	// the field delimiter of the pipe format
+	private static final Pattern DELIMITER = Pattern.compile("\\|");
+
+	private LogEntry logEntry;
+
+	private Document document;
+
+	// the entry encoded in each format
+	private Element xmlEntry;
+	private String pipeEntry;
+
+	@Setup
+	public void setUp() throws Exception {
+
+		MouseClickedEvent event = new MouseClickedEvent();
+		event.setX(640);
+		event.setY(480);
+		event.setButtonCode(1);
+		event.setClickCount(2);
+
+		logEntry = new LogEntry();
+		logEntry.setTimestamp(1370000000000L);
+		logEntry.setMessage(event.toString());
+		logEntry.setEvent(event);
+
+		document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		document.appendChild(document.createElement("entries"));
+
+		logEntry.toXML(document.getDocumentElement());
+		xmlEntry = (Element) document.getDocumentElement().getFirstChild();
+
+		StringWriter output = new StringWriter();
+		logEntry.write(output);
+		pipeEntry = output.toString();
+
+	}
+
+	@Benchmark
+	public Element toXML() throws Exception {
+
+		Element parent = document.createElement("entries");
+		logEntry.toXML(parent);
+
+		return parent;
+
+	}
+
+	@Benchmark
+	public LogEntry fromXML() throws Exception {
+
+		LogEntry decoded = new LogEntry();
+		decoded.fromXML(xmlEntry);
+
+		return decoded;
+
+	}
+
+	@Benchmark
+	public String write() throws Exception {
+
+		StringWriter output = new StringWriter();
+		logEntry.write(output);
+
+		return output.toString();
+
+	}
+
+	@Benchmark
+	public LogEntry read() throws Exception {
+
+		Scanner scanner = new Scanner(pipeEntry);
+		scanner.useDelimiter(DELIMITER);
+
+		LogEntry decoded = new LogEntry();
+		decoded.read(scanner);
+
+		return decoded;
+
+	}
+
+}
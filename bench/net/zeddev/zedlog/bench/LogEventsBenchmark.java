@@ -0,0 +1,62 @@
+package net.zeddev.zedlog.bench;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@code LogEvents.newLogEvent()}, by type name and by type id.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogEventsBenchmark {
+
+	@Param({"KeyEvent", "MouseMoved", "MouseWheelMoved"})
+	public String type;
+
+	private int typeId;
+
+	@Setup
+	public void setUp() {
+		typeId = LogEvents.typeId(type);
+	}
+
+	@Benchmark
+	public LogEvent byName() {
+		return LogEvents.newLogEvent(type);
+	}
+
+	@Benchmark
+	public LogEvent byId() {
+		return LogEvents.newLogEvent(typeId);
+	}
+
+}
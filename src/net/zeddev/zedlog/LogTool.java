@@ -0,0 +1,1171 @@
+package net.zeddev.zedlog;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.Rectangle;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.DataLoggerNotificationThread;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.impl.DataLoggers;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.SyntheticInputSource;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import net.zeddev.zedlog.logger.io.LogEntryWriter;
+import net.zeddev.zedlog.logger.io.LogFilter;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import net.zeddev.zedlog.logger.io.ParallelLogReader;
+import net.zeddev.zedlog.logger.io.ParallelLogWriter;
+import net.zeddev.zedlog.logger.tools.Heatmap;
+import net.zeddev.zedlog.logger.tools.EventQueueReplaySink;
+import net.zeddev.zedlog.logger.tools.HeatmapBuilder;
+import net.zeddev.zedlog.logger.tools.LogCompactor;
+import net.zeddev.zedlog.logger.tools.LogQuery;
+import net.zeddev.zedlog.logger.tools.LogSorter;
+import net.zeddev.zedlog.logger.tools.LogVerifier;
+import net.zeddev.zedlog.logger.tools.NoOpReplaySink;
+import net.zeddev.zedlog.logger.tools.RecordingReplaySink;
+import net.zeddev.zedlog.logger.tools.ReplaySink;
+import net.zeddev.zedlog.logger.tools.ReplayTimings;
+import net.zeddev.zedlog.logger.tools.ReplayTool;
+import net.zeddev.zedlog.logger.tools.ReplayToolObserver;
+import net.zeddev.zedlog.logger.tools.SessionStats;
+import net.zeddev.zedlog.logger.tools.SyncPolicy;
+import net.zeddev.zedlog.util.DaemonThreadFactory;
+
+/**
+ * Headless log maintenance commands (i.e. {@code zedlog convert ...}).
+ * Logs are streamed between files, so memory use does not depend on the size
+ * of the logs.  Decoding and encoding is done in parallel, using every
+ * available processor.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogTool {
+
+	// the available commands
+	private static final List<String> COMMANDS = Arrays.asList(
+		"convert", "merge", "split", "verify", "compact", "query",
+		"heatmap", "stats", "replay", "sort", "generate"
+	);
+
+	// the accepted date/time formats for -from and -to
+	private static final String[] TIME_FORMATS = {
+		"yyyy-MM-dd'T'HH:mm:ss.SSS",
+		"yyyy-MM-dd'T'HH:mm:ss",
+		"yyyy-MM-dd HH:mm:ss",
+		"yyyy-MM-dd"
+	};
+
+	private final ExecutorService executor;
+
+	// the command line options
+	private LogFormat format = null;
+	private long from = Long.MIN_VALUE;
+	private long to = Long.MAX_VALUE;
+	private long interval = 0;
+	private long window = SessionStats.DEFAULT_WINDOW;
+	private double speed = 1.0;
+	private long maxGap = 0;
+	private boolean fast = false;
+	private boolean catchUp = false;
+	private SyncPolicy sync = SyncPolicy.EACH_EVENT;
+	private String sinkName = "robot";
+	private int tolerance = 0;
+	private int runSize = LogSorter.DEFAULT_RUN_SIZE;
+	private String outFile = null;
+	private boolean countOnly = false;
+	private int screenWidth = 1920;
+	private int screenHeight = 1080;
+	private int cellSize = 4;
+	private Heatmap.Layer layer = Heatmap.Layer.CLICKS;
+	private long events = 10000;
+	private double rate = 0.0;
+	private int burstSize = 0;
+	private long burstPause = 0;
+	private String mix = null;
+	private SyntheticInputSource.Pattern pattern = SyntheticInputSource.Pattern.WALK;
+	private long seed = 0;
+	private final LogFilter filter = new LogFilter();
+	private final List<String> files = new ArrayList<>();
+
+	public LogTool() {
+		executor = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(),
+			new DaemonThreadFactory("Log tool worker")
+		);
+	}
+
+	/**
+	 * Returns whether the given argument names a {@code LogTool} command.
+	 *
+	 * @param arg The first command line argument.
+	 * @return Whether {@code arg} is a command.
+	 */
+	public static boolean isCommand(String arg) {
+		return COMMANDS.contains(arg);
+	}
+
+	/**
+	 * Prints the usage of the commands.
+	 *
+	 * @param output The stream to print to.
+	 */
+	public static void usage(PrintStream output) {
+
+		output.print(
+		"Commands: \n" +
+		"convert <in> <out> [-format <format>] \n" +
+		"    Converts a log between the xml, pipe and binary formats. \n" +
+		"merge <out> <in>... [-format <format>] \n" +
+		"    Merges logs into a single chronological log. \n" +
+		"split <in> <prefix> -interval <ms> [-format <format>] \n" +
+		"    Splits a log into files covering the given interval each. \n" +
+		"verify <in>... \n" +
+		"    Checks that logs are readable and in chronological order. \n" +
+		"compact <in> <out> [-tolerance <pixels>] [-format <format>] \n" +
+		"    Drops redundant mouse movement, checking the replay is unchanged. \n" +
+		"query <in>... [-out <file>] [-count] \n" +
+		"    Prints (or writes) the selected entries of the logs. \n" +
+		"heatmap <in>... -out <image or .csv> [-layer clicks|movement] \n" +
+		"        [-screen <width>x<height>] [-cell <pixels>] \n" +
+		"    Draws the density of mouse clicks or movement. \n" +
+		"stats <in>... [-out <.csv>] [-window <ms>] \n" +
+		"    Reports the event rates, peak rates (per window) and gaps. \n" +
+		"replay <in> [-fast] [-speed <factor>] [-maxgap <ms>] [-catchup] \n" +
+		"        [-sink robot|none|queue|record] [-sync <policy>] \n" +
+		"        [-out <timings .csv>] \n" +
+		"    Replays a log (streamed), reporting the rate and timing accuracy. \n" +
+		"    Only -from and -to apply, seeking to the nearest keyframe. \n" +
+		"    The sync policy is each (event), none, or discrete, <n> (events) \n" +
+		"    and/or <n>ms joined with +. \n" +
+		"sort <in> <out> [-run <entries>] [-format <format>] \n" +
+		"    Sorts a log chronologically (in runs, spilled to temporary files), \n" +
+		"    marking it as sorted. \n" +
+		"generate <out.xml> [-events <n>] [-rate <events/s>] \n" +
+		"        [-burst <events>,<pause ms>] [-mix <type>=<weight>,...] \n" +
+		"        [-pattern uniform|walk|sweep|circle] [-seed <n>] \n" +
+		"        [-screen <width>x<height>] \n" +
+		"    Logs synthetic input (without the native hook), reporting the \n" +
+		"    rate and the entries dropped.  The mix types are KeyPressed, \n" +
+		"    KeyReleased, KeyTyped, MouseClicked, MousePressed, MouseReleased, \n" +
+		"    MouseMoved, MouseDragged and MouseWheel. \n" +
+		" \n" +
+		"Entries may be selected (except by compact and verify) with: \n" +
+		"-from <time>, -to <time>, -type <event type> (repeatable), \n" +
+		"-region <x>,<y>,<width>,<height> and -button <button code>. \n" +
+		" \n" +
+		"The output format defaults to the output file extension (.xml, .log \n" +
+		"or .zlog).  Times are either milliseconds since the epoch, or \n" +
+		"yyyy-MM-dd'T'HH:mm:ss local time. \n" +
+		" \n"
+		);
+
+	}
+
+	// parses a -from/-to time
+	private static long parseTime(String value) {
+
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException ex) {
+			// try the date formats instead
+		}
+
+		for (String pattern : TIME_FORMATS) {
+
+			SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+			dateFormat.setLenient(false);
+
+			try {
+				return dateFormat.parse(value).getTime();
+			} catch (ParseException ex) {
+				// try the next format
+			}
+
+		}
+
+		throw new IllegalArgumentException(
+			String.format("Invalid time %s.", value)
+		);
+
+	}
+
+	// parses a -region rectangle
+	private static Rectangle parseRegion(String value) {
+
+		String[] fields = value.split(",");
+
+		try {
+
+			if (fields.length == 4) {
+
+				Rectangle region = new Rectangle(
+					Integer.parseInt(fields[0].trim()), Integer.parseInt(fields[1].trim()),
+					Integer.parseInt(fields[2].trim()), Integer.parseInt(fields[3].trim())
+				);
+
+				if (region.width > 0 && region.height > 0)
+					return region;
+
+			}
+
+		} catch (NumberFormatException ex) {
+			// reported below
+		}
+
+		throw new IllegalArgumentException(
+			String.format("Invalid region %s.", value)
+		);
+
+	}
+
+	// returns the argument following an option
+	private static String optionValue(String[] args, int i) {
+
+		if (i >= args.length) {
+			throw new IllegalArgumentException(
+				String.format("%s requires a value.", args[i - 1])
+			);
+		}
+
+		return args[i];
+
+	}
+
+	// handles the command line arguments following the command
+	private void handleArgs(String[] args) {
+
+		for (int i = 1; i < args.length;) {
+			String arg = args[i++];
+
+			switch (arg) {
+
+			case "-format":
+				format = LogFormat.getByName(optionValue(args, i++));
+			break;
+
+			case "-from":
+				from = parseTime(optionValue(args, i++));
+			break;
+
+			case "-to":
+				to = parseTime(optionValue(args, i++));
+			break;
+
+			case "-type":
+				filter.addType(optionValue(args, i++));
+			break;
+
+			case "-region":
+				filter.setRegion(parseRegion(optionValue(args, i++)));
+			break;
+
+			case "-button":
+				try {
+					filter.setButtonCode(Integer.parseInt(optionValue(args, i++)));
+				} catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("Invalid button code.");
+				}
+			break;
+
+			case "-out":
+				outFile = optionValue(args, i++);
+			break;
+
+			case "-layer":
+				layer = Heatmap.Layer.getByName(optionValue(args, i++));
+			break;
+
+			case "-screen": {
+
+				String[] size = optionValue(args, i++).split("x");
+
+				try {
+					screenWidth = size.length == 2 ? Integer.parseInt(size[0]) : -1;
+					screenHeight = size.length == 2 ? Integer.parseInt(size[1]) : -1;
+				} catch (NumberFormatException ex) {
+					screenWidth = -1;
+				}
+
+				if (screenWidth <= 0 || screenHeight <= 0)
+					throw new IllegalArgumentException("Invalid screen size.");
+
+			} break;
+
+			case "-cell":
+				try {
+					cellSize = Integer.parseInt(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					cellSize = -1;
+				}
+
+				if (cellSize <= 0)
+					throw new IllegalArgumentException("Invalid cell size.");
+			break;
+
+			case "-count":
+				countOnly = true;
+			break;
+
+			case "-interval":
+				try {
+					interval = Long.parseLong(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("Invalid interval.");
+				}
+			break;
+
+			case "-window":
+				try {
+					window = Long.parseLong(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					window = -1;
+				}
+
+				if (window <= 0)
+					throw new IllegalArgumentException("Invalid window.");
+			break;
+
+			case "-speed":
+				try {
+					speed = Double.parseDouble(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					speed = -1;
+				}
+
+				if (!(speed > 0) || Double.isInfinite(speed))
+					throw new IllegalArgumentException("Invalid speed.");
+			break;
+
+			case "-maxgap":
+				try {
+					maxGap = Long.parseLong(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					maxGap = -1;
+				}
+
+				if (maxGap < 0)
+					throw new IllegalArgumentException("Invalid maximum gap.");
+			break;
+
+			case "-fast":
+				fast = true;
+			break;
+
+			case "-catchup":
+				catchUp = true;
+			break;
+
+			case "-sync":
+				sync = SyncPolicy.parse(optionValue(args, i++));
+			break;
+
+			case "-sink":
+				sinkName = optionValue(args, i++);
+			break;
+
+			case "-tolerance":
+				try {
+					tolerance = Integer.parseInt(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("Invalid tolerance.");
+				}
+
+				if (tolerance < 0)
+					throw new IllegalArgumentException("Invalid tolerance.");
+			break;
+
+			case "-run":
+				try {
+					runSize = Integer.parseInt(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("Invalid run size.");
+				}
+
+				if (runSize <= 0)
+					throw new IllegalArgumentException("Invalid run size.");
+			break;
+
+			case "-events":
+				try {
+					events = Long.parseLong(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					events = -1;
+				}
+
+				if (events <= 0)
+					throw new IllegalArgumentException("Invalid number of events.");
+			break;
+
+			case "-rate":
+				try {
+					rate = Double.parseDouble(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					rate = -1;
+				}
+
+				if (!(rate >= 0) || Double.isInfinite(rate))
+					throw new IllegalArgumentException("Invalid rate.");
+			break;
+
+			case "-burst": {
+
+				String[] burst = optionValue(args, i++).split(",");
+
+				try {
+					burstSize = burst.length == 2 ? Integer.parseInt(burst[0]) : -1;
+					burstPause = burst.length == 2 ? Long.parseLong(burst[1]) : -1;
+				} catch (NumberFormatException ex) {
+					burstSize = -1;
+				}
+
+				if (burstSize <= 0 || burstPause < 0)
+					throw new IllegalArgumentException("Invalid burst.");
+
+			} break;
+
+			case "-mix":
+				mix = optionValue(args, i++);
+			break;
+
+			case "-pattern":
+				pattern = SyntheticInputSource.Pattern.getByName(optionValue(args, i++));
+			break;
+
+			case "-seed":
+				try {
+					seed = Long.parseLong(optionValue(args, i++));
+				} catch (NumberFormatException ex) {
+					throw new IllegalArgumentException("Invalid seed.");
+				}
+			break;
+
+			default:
+				if (arg.startsWith("-")) {
+					throw new IllegalArgumentException(
+						String.format("Unknown argument %s.", arg)
+					);
+				}
+
+				files.add(arg);
+			break;
+
+			}
+
+		}
+
+	}
+
+	// checks the number of file arguments
+	private void requireFiles(int min, int max) {
+
+		if (files.size() < min || files.size() > max)
+			throw new IllegalArgumentException("Wrong number of files given.");
+
+	}
+
+	// opens a log for reading (in parallel), without the filter
+	private LogEntryReader openReader(File file) throws IOException {
+		return new ParallelLogReader(LogFormat.open(file), executor);
+	}
+
+	// returns the filter selecting entries, including the time range
+	private LogFilter selection() {
+
+		if (from > to)
+			throw new IllegalArgumentException("-from is after -to.");
+
+		filter.setTimeRange(from, to);
+
+		return filter;
+
+	}
+
+	// creates a query using the filter
+	private LogQuery newQuery() {
+		return new LogQuery(selection(), executor);
+	}
+
+	// opens the selected entries of the given logs
+	private LogEntryReader openSelected(LogQuery query, List<String> files)
+			throws IOException {
+
+		List<File> logFiles = new ArrayList<>();
+		for (String file : files)
+			logFiles.add(new File(file));
+
+		return query.open(logFiles);
+
+	}
+
+	// opens a log for writing (in parallel)
+	private LogEntryWriter openWriter(File file, List<String> loggerTypes)
+			throws IOException {
+		return openWriter(file, loggerTypes, false);
+	}
+
+	// opens a log for writing (in parallel), optionally marked as sorted
+	private LogEntryWriter openWriter(File file, List<String> loggerTypes, boolean sorted)
+			throws IOException {
+
+		return new ParallelLogWriter(
+			outputFormat(file).newWriter(file, loggerTypes, sorted), executor
+		);
+
+	}
+
+	// returns the format of the given output file
+	private LogFormat outputFormat(File file) {
+		return format != null ? format : LogFormat.forFileName(file);
+	}
+
+	// copies the entries from reader to writer
+	private long copy(LogEntryReader reader, LogEntryWriter writer) throws IOException {
+
+		long count = 0;
+
+		LogEntry logEntry;
+		while ((logEntry = reader.read()) != null) {
+			writer.write(logEntry);
+			count++;
+		}
+
+		return count;
+
+	}
+
+	private int convert() throws IOException {
+
+		requireFiles(2, 2);
+
+		File out = new File(files.get(1));
+
+		long count;
+
+		try (LogEntryReader reader = openSelected(newQuery(), files.subList(0, 1));
+			 LogEntryWriter writer = openWriter(out, reader.loggerTypes())) {
+			count = copy(reader, writer);
+		}
+
+		System.out.printf("Wrote %d entries to %s.\n", count, out);
+
+		return 0;
+
+	}
+
+	private int merge() throws IOException {
+
+		requireFiles(2, Integer.MAX_VALUE);
+
+		File out = new File(files.get(0));
+
+		long count;
+
+		try (LogEntryReader reader = openSelected(newQuery(), files.subList(1, files.size()));
+			 LogEntryWriter writer = openWriter(out, reader.loggerTypes())) {
+			count = copy(reader, writer);
+		}
+
+		System.out.printf("Merged %d entries into %s.\n", count, out);
+
+		return 0;
+
+	}
+
+	private int split() throws IOException {
+
+		requireFiles(2, 2);
+
+		if (interval <= 0)
+			throw new IllegalArgumentException("split requires a positive -interval.");
+
+		File in = new File(files.get(0));
+		String prefix = files.get(1);
+
+		LogFormat outFormat = format != null ? format : LogFormat.detect(in);
+
+		int parts = 0;
+
+		try (LogEntryReader reader = openSelected(newQuery(), files.subList(0, 1))) {
+
+			LogEntryWriter writer = null;
+			long start = 0;
+			long part = -1;
+
+			try {
+
+				LogEntry logEntry;
+				while ((logEntry = reader.read()) != null) {
+
+					if (part < 0)
+						start = logEntry.getTimestamp();
+
+					// NOTE out of order entries stay in the current part
+					long entryPart = (logEntry.getTimestamp() - start) / interval;
+
+					if (entryPart > part) {
+
+						if (writer != null)
+							writer.close();
+
+						part = entryPart;
+
+						File out = new File(String.format(
+							"%s-%04d.%s", prefix, ++parts, outFormat.getExtension()
+						));
+
+						writer = new ParallelLogWriter(
+							outFormat.newWriter(out, reader.loggerTypes()), executor
+						);
+
+					}
+
+					writer.write(logEntry);
+
+				}
+
+			} finally {
+
+				if (writer != null)
+					writer.close();
+
+			}
+
+		}
+
+		System.out.printf("Split %s into %d files.\n", in, parts);
+
+		return 0;
+
+	}
+
+	private int verify() {
+
+		requireFiles(1, Integer.MAX_VALUE);
+
+		LogVerifier verifier = new LogVerifier(executor);
+		int result = 0;
+
+		for (String file : files) {
+
+			LogVerifier.Report report = verifier.verify(new File(file));
+
+			System.out.println(report);
+
+			if (!report.isValid())
+				result = 1;
+
+		}
+
+		return result;
+
+	}
+
+	private int compact() throws IOException {
+
+		requireFiles(2, 2);
+
+		File in = new File(files.get(0));
+		File out = new File(files.get(1));
+
+		LogCompactor compactor = new LogCompactor(tolerance);
+
+		try (LogEntryReader reader = openReader(in);
+			 LogEntryWriter writer = openWriter(out, reader.loggerTypes())) {
+			compactor.compact(reader, writer);
+		}
+
+		// check the compacted log replays the same
+		long mismatch;
+
+		try (LogEntryReader original = openReader(in);
+			 LogEntryReader compacted = openReader(out)) {
+			mismatch = LogCompactor.verify(original, compacted, tolerance);
+		}
+
+		if (mismatch >= 0) {
+
+			out.delete();
+
+			System.err.printf(
+				"Error: Compacted replay differs at discrete entry #%d; %s not written.\n",
+				mismatch, out
+			);
+
+			return 1;
+
+		}
+
+		System.out.printf(
+			"Compacted %s to %s (tolerance %d px, replay verified). \n" +
+			"    %d -> %d entries (%.1f%% fewer) \n" +
+			"    %d -> %d bytes (%.1f%% smaller) \n",
+			in, out, tolerance,
+			compactor.getEntriesRead(), compactor.getEntriesWritten(),
+			percentReduction(compactor.getEntriesRead(), compactor.getEntriesWritten()),
+			in.length(), out.length(),
+			percentReduction(in.length(), out.length())
+		);
+
+		return 0;
+
+	}
+
+	// returns the reduction from before to after, as a percentage
+	private static double percentReduction(long before, long after) {
+		return before > 0 ? 100.0 * (before - after) / before : 0.0;
+	}
+
+	private int query() throws IOException {
+
+		requireFiles(1, Integer.MAX_VALUE);
+
+		LogQuery query = newQuery();
+		long count = 0;
+
+		try (LogEntryReader reader = openSelected(query, files)) {
+
+			if (outFile != null) {
+
+				try (LogEntryWriter writer = openWriter(new File(outFile), reader.loggerTypes())) {
+					count = copy(reader, writer);
+				}
+
+			} else {
+
+				SimpleDateFormat dateFormat = new SimpleDateFormat(TIME_FORMATS[0]);
+
+				LogEntry logEntry;
+				while ((logEntry = reader.read()) != null) {
+
+					if (!countOnly) {
+						System.out.printf(
+							"%s %s %s\n",
+							dateFormat.format(new Date(logEntry.getTimestamp())),
+							logEntry.getEvent().type(), logEntry.getEvent()
+						);
+					}
+
+					count++;
+
+				}
+
+			}
+
+		}
+
+		System.out.printf(
+			"%d matching entries (%d blocks skipped).\n",
+			count, query.getBlocksSkipped()
+		);
+
+		return 0;
+
+	}
+
+	private int heatmap() throws IOException {
+
+		requireFiles(1, Integer.MAX_VALUE);
+
+		if (outFile == null)
+			throw new IllegalArgumentException("heatmap requires -out.");
+
+		ForkJoinPool pool = new ForkJoinPool();
+
+		try {
+
+			HeatmapBuilder builder = new HeatmapBuilder(pool, screenWidth, screenHeight, cellSize);
+			builder.setFilter(selection());
+
+			for (String file : files)
+				builder.add(new File(file));
+
+			Heatmap heatmap = builder.build();
+
+			File out = new File(outFile);
+
+			if (out.getName().toLowerCase().endsWith(".csv")) {
+
+				try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+						new FileOutputStream(out), StandardCharsets.UTF_8))) {
+					heatmap.writeCsv(writer);
+				}
+
+			} else {
+				heatmap.writeImage(out, layer);
+			}
+
+			System.out.printf(
+				"Wrote %dx%d heatmap to %s (%d clicks, %d moves, %d off screen).\n",
+				heatmap.getWidth(), heatmap.getHeight(), out,
+				heatmap.getTotal(Heatmap.Layer.CLICKS),
+				heatmap.getTotal(Heatmap.Layer.MOVEMENT),
+				heatmap.getOutside()
+			);
+
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return 0;
+
+	}
+
+	private int stats() throws IOException {
+
+		requireFiles(1, Integer.MAX_VALUE);
+
+		SessionStats stats = new SessionStats(window);
+
+		try (LogEntryReader reader = openSelected(newQuery(), files)) {
+
+			LogEntry logEntry;
+			while ((logEntry = reader.read()) != null)
+				stats.add(logEntry);
+
+		}
+
+		Writer output = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+		stats.writeText(output);
+		output.flush();
+
+		if (outFile != null) {
+
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(outFile), StandardCharsets.UTF_8))) {
+				stats.writeCsv(writer);
+			}
+
+		}
+
+		return 0;
+
+	}
+
+	// returns the replay sink named by -sink (null for a robot)
+	private ReplaySink replaySink() {
+
+		switch (sinkName) {
+			case "robot":
+				return null;
+			case "none":
+				return new NoOpReplaySink();
+			case "queue":
+				return new EventQueueReplaySink();
+			case "record":
+				return new RecordingReplaySink();
+			default:
+				throw new IllegalArgumentException(
+					String.format("Unknown replay sink %s.", sinkName)
+				);
+		}
+
+	}
+
+	private int replay() throws IOException {
+
+		requireFiles(1, 1);
+
+		ReplaySink sink = replaySink();
+
+		File in = new File(files.get(0));
+		if (!in.isFile())
+			throw new FileNotFoundException(String.format("%s does not exist.", in));
+
+		ReplayTimings timings = new ReplayTimings();
+
+		if (from > to)
+			throw new IllegalArgumentException("-from is after -to.");
+
+		ReplayTool tool = new ReplayTool(in);
+		tool.setRange(from, to);
+		tool.setSink(sink);
+		tool.setSpeed(speed);
+		tool.setMaxGap(maxGap);
+		tool.setCatchUp(catchUp);
+		tool.setSync(sync);
+		tool.setTimings(timings);
+
+		final long[] count = {0};
+
+		tool.addObserver(new ReplayToolObserver() {
+
+			@Override
+			public void replayedEvent(LogEvent event) {
+				count[0]++;
+			}
+
+			@Override
+			public void replayFinished() {
+			}
+
+		});
+
+		Writer rawOutput = null;
+		if (outFile != null) {
+			rawOutput = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(outFile), StandardCharsets.UTF_8));
+			timings.setRawOutput(rawOutput);
+		}
+
+		long start = System.nanoTime();
+
+		try {
+
+			// NOTE runs on this thread, so returns once finished
+			(fast ? tool.replayFast() : tool.replayTimed()).run();
+
+			timings.flush();
+
+		} finally {
+
+			if (rawOutput != null)
+				rawOutput.close();
+
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf(
+			"Replayed %d events in %.3fs (%.0f events/s).\n",
+			count[0], seconds, seconds > 0 ? count[0] / seconds : 0.0
+		);
+
+		if (tool.getSkipped() > 0)
+			System.out.printf("Skipped %d late mouse moves.\n", tool.getSkipped());
+
+		if (sink instanceof RecordingReplaySink) {
+			System.out.printf(
+				"Recorded %d input actions.\n", ((RecordingReplaySink) sink).size()
+			);
+		}
+
+		Writer output = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+		timings.writeText(output);
+		output.flush();
+
+		return 0;
+
+	}
+
+	private int sort() throws IOException {
+
+		requireFiles(2, 2);
+
+		File out = new File(files.get(1));
+
+		LogSorter sorter = new LogSorter(executor, runSize, LogSorter.DEFAULT_FAN_IN);
+
+		try (LogEntryReader reader = openSelected(newQuery(), files.subList(0, 1));
+			 LogEntryWriter writer = openWriter(out, reader.loggerTypes(), true)) {
+			sorter.sort(reader, writer);
+		}
+
+		System.out.printf(
+			"Sorted %d entries (%d out of order) into %s, using %d runs and %d merge passes.\n",
+			sorter.getEntriesRead(), sorter.getOutOfOrder(), out,
+			sorter.getRunCount(), sorter.getMergePasses()
+		);
+
+		if (outputFormat(out) == LogFormat.PIPE)
+			System.out.println("Note: The pipe format cannot be marked as sorted.");
+
+		return 0;
+
+	}
+
+	// sets the weights of the given -mix (of the form <type>=<weight>,...)
+	private void setMix(SyntheticInputSource source) {
+
+		for (InputEvent.Type type : InputEvent.Type.values())
+			source.setWeight(type, 0);
+
+		for (String part : mix.split(",")) {
+
+			String[] weight = part.split("=");
+			int value;
+
+			try {
+				value = weight.length == 2 ? Integer.parseInt(weight[1]) : -1;
+			} catch (NumberFormatException ex) {
+				value = -1;
+			}
+
+			if (value < 0)
+				throw new IllegalArgumentException(String.format("Invalid mix %s.", part));
+
+			source.setWeight(InputEvent.Type.getByName(weight[0]), value);
+
+		}
+
+	}
+
+	private int generate() throws IOException {
+
+		requireFiles(1, 1);
+
+		SyntheticInputSource source = new SyntheticInputSource(seed);
+		source.setRate(rate);
+		source.setPattern(pattern);
+		source.setScreenSize(screenWidth, screenHeight);
+
+		if (burstSize > 0)
+			source.setBurst(burstSize, burstPause);
+
+		if (mix != null)
+			setMix(source);
+
+		CompositeDataLogger composite = new CompositeDataLogger();
+		composite.setLogFile(new File(files.get(0)));
+
+		List<DataLogger> loggers = new ArrayList<>();
+		for (String type : DataLoggers.typeList()) {
+			DataLogger logger = DataLoggers.newDataLogger(type, source);
+			loggers.add(logger);
+			composite.addLogger(logger);
+		}
+
+		long start = System.nanoTime();
+		long generated;
+		double seconds;
+
+		try {
+
+			generated = source.generate(events);
+			seconds = (System.nanoTime() - start) / 1e9;
+
+			// wait for the loggers to deliver their queued entries
+			int logged;
+			do {
+
+				logged = composite.entryCount();
+
+				try {
+					Thread.sleep(DataLoggerNotificationThread.WAIT_CYCLE * 4);
+				} catch (InterruptedException ex) {
+					break;
+				}
+
+			} while (composite.entryCount() != logged);
+
+		} finally {
+
+			for (DataLogger logger : loggers)
+				logger.shutdown();
+
+			// NOTE also writes the log file
+			composite.shutdown();
+
+		}
+
+		int logged = composite.entryCount();
+
+		System.out.printf(
+			"Generated %d events in %.3fs (%.0f events/s).\n",
+			generated, seconds, seconds > 0 ? generated / seconds : 0.0
+		);
+
+		System.out.printf(
+			"Logged %d entries to %s (%d dropped).\n",
+			logged, files.get(0), generated - logged
+		);
+
+		return 0;
+
+	}
+
+	/**
+	 * Runs the command given on the command line.
+	 *
+	 * @param args The command line arguments (the first being the command).
+	 * @return The program exit status.
+	 */
+	public int run(String[] args) {
+
+		try {
+
+			handleArgs(args);
+
+			switch (args[0]) {
+				case "convert":
+					return convert();
+				case "merge":
+					return merge();
+				case "split":
+					return split();
+				case "verify":
+					return verify();
+				case "compact":
+					return compact();
+				case "query":
+					return query();
+				case "heatmap":
+					return heatmap();
+				case "stats":
+					return stats();
+				case "replay":
+					return replay();
+				case "sort":
+					return sort();
+				case "generate":
+					return generate();
+				default:
+					throw new IllegalArgumentException(
+						String.format("Unknown command %s.", args[0])
+					);
+			}
+
+		} catch (IllegalArgumentException ex) {
+
+			System.err.println("Error: " + ex.getMessage());
+			usage(System.err);
+
+			return 2;
+
+		} catch (IOException ex) {
+
+			System.err.println("Error: " + ex.getMessage());
+
+			return 1;
+
+		} finally {
+			executor.shutdownNow();
+		}
+
+	}
+
+}
@@ -186,6 +186,14 @@ public final class ZedLog implements UncaughtExceptionHandler {
 		
 		System.out.print(
 		" \n" +
+		"Usage: zedlog [options] \n" +
+		"       zedlog <command> [arguments] \n" +
+		" \n"
+		);
+		
+		LogTool.usage(System.out);
+		
+		System.out.print(
 		"Options: \n" +
 		"-help, -h \n" +
 		"    Displays this help/usage information. \n" + 
@@ -388,6 +396,10 @@ public final class ZedLog implements UncaughtExceptionHandler {
 
 	public static void main(String[] args) {
 
+		// run headless log commands without the GUI or native hook
+		if (args.length > 0 && LogTool.isCommand(args[0]))
+			System.exit(new LogTool().run(args));
+
 		ZedLog zedlog = new ZedLog();
 		
 		zedlog.init(args);
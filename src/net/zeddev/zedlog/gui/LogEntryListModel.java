@@ -0,0 +1,177 @@
+package net.zeddev.zedlog.gui;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.AbstractListModel;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * A list model of the latest log entries, held in a ring buffer.
+ * Adding entries takes constant time (per entry) however many have been
+ * added, and when the model is full the oldest entries are dropped.  Like
+ * other Swing models, it must only be used on the event dispatch thread.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogEntryListModel extends AbstractListModel<LogEntry> {
+
+	// the initial size of an unbounded buffer
+	private static final int INITIAL_SIZE = 1024;
+
+	// the maximum number of entries held (0 if unbounded)
+	private final int capacity;
+
+	// the entries, from head (the oldest) wrapping around the end
+	private LogEntry[] entries;
+	private int head = 0;
+	private int size = 0;
+
+	// the number of entries dropped since cleared
+	private long dropped = 0;
+
+	/**
+	 * Creates a new {@code LogEntryListModel}.
+	 *
+	 * @param capacity The maximum number of entries held (0 for no limit).
+	 */
+	public LogEntryListModel(int capacity) {
+
+		require(capacity >= 0);
+
+		this.capacity = capacity;
+		this.entries = new LogEntry[capacity > 0 ? Math.min(capacity, INITIAL_SIZE) : INITIAL_SIZE];
+
+	}
+
+	/** Returns the maximum number of entries held (0 if unbounded). */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/** Returns the number of (oldest) entries dropped since the model was cleared. */
+	public long getDropped() {
+		return dropped;
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public LogEntry getElementAt(int index) {
+		return entries[(head + index) % entries.length];
+	}
+
+	// grows the buffer (up to the capacity), keeping the entries in order
+	private void grow() {
+
+		int length = entries.length * 2;
+		if (capacity > 0)
+			length = Math.min(length, capacity);
+
+		LogEntry[] grown = new LogEntry[length];
+		for (int i = 0; i < size; i++)
+			grown[i] = getElementAt(i);
+
+		entries = grown;
+		head = 0;
+
+	}
+
+	/**
+	 * Adds an entry, dropping the oldest if full.
+	 *
+	 * @param logEntry The entry to add (must not be {@code null}).
+	 */
+	public void add(LogEntry logEntry) {
+		addAll(Arrays.asList(logEntry));
+	}
+
+	/**
+	 * Adds the entries, dropping the oldest if full.
+	 * Listeners are notified once, of the entries added and dropped.
+	 *
+	 * @param logEntries The entries to add, in order (must not be {@code null}).
+	 */
+	public void addAll(List<LogEntry> logEntries) {
+
+		requireNotNull(logEntries);
+
+		int count = logEntries.size();
+		if (count == 0)
+			return;
+
+		// NOTE only the last entries of a large batch would be kept
+		int first = 0;
+		if (capacity > 0 && count > capacity)
+			first = count - capacity;
+
+		int removed = 0;
+
+		for (int i = first; i < count; i++) {
+
+			if (size == entries.length && (capacity == 0 || size < capacity))
+				grow();
+
+			if (size < entries.length) {
+				entries[(head + size) % entries.length] = logEntries.get(i);
+				size++;
+			} else {
+
+				// full, so overwrite the oldest
+				entries[head] = logEntries.get(i);
+				head = (head + 1) % entries.length;
+				removed++;
+
+			}
+
+		}
+
+		// the dropped entries include those of the batch never held
+		int added = count - first;
+		dropped += removed + first;
+
+		// NOTE entries are dropped from the start, and added to the end
+		if (removed > 0)
+			fireIntervalRemoved(this, 0, removed - 1);
+
+		fireIntervalAdded(this, size - added, size - 1);
+
+	}
+
+	/** Removes every entry. */
+	public void clear() {
+
+		int oldSize = size;
+
+		Arrays.fill(entries, null);
+		head = 0;
+		size = 0;
+		dropped = 0;
+
+		if (oldSize > 0)
+			fireIntervalRemoved(this, 0, oldSize - 1);
+
+	}
+
+}
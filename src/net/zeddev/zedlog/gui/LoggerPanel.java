@@ -15,53 +15,124 @@ package net.zeddev.zedlog.gui;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.awt.Component;
 import java.awt.GridLayout;
-
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import javax.swing.BoundedRangeModel;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
+import javax.swing.ListSelectionModel;
 
 import net.zeddev.zedlog.logger.DataLogger;
 import net.zeddev.zedlog.logger.DataLoggerObserver;
 import net.zeddev.zedlog.logger.LogEntry;
-import net.zeddev.zedlog.logger.LogEvent;
-import net.zeddev.zedlog.logger.impl.event.MouseEvent;
 import static net.zeddev.zedlog.util.Assertions.*;
 
 /**
  * {@code DataLogger} view component.
+ * Shows the latest entries of the logger, one per row.  Only the visible
+ * rows are rendered, and at most {@code capacity} entries are held, so the
+ * cost of showing an entry does not depend on the length of the session.
+ * New entries are added in batches, at most 30 times a second (see
+ * {@code UpdateCoalescer}).
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
 public final class LoggerPanel extends JPanel implements DataLoggerObserver {
 
+	/** The default maximum number of entries shown. */
+	public static final int DEFAULT_CAPACITY = 100000;
+
+	// the (fixed) width of each row, in characters
+	private static final int ROW_CHARS = 120;
+
 	private final DataLogger logger;
 
-	/** Creates new form {@code LoggerPanel}. */
+	private final LogEntryListModel model;
+
+	// batches the entries notified on the logger thread
+	private final UpdateCoalescer<LogEntry> updates = new UpdateCoalescer<>(
+		new UpdateCoalescer.Target<LogEntry>() {
+			@Override
+			public void update(List<LogEntry> logEntries) {
+				addLogs(logEntries);
+			}
+		}
+	);
+
+	/** Creates new form {@code LoggerPanel}, showing the default number of entries. */
 	public LoggerPanel(final DataLogger logger) {
+		this(logger, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates new form {@code LoggerPanel}.
+	 *
+	 * @param logger The logger to show (must not be {@code null}).
+	 * @param capacity The maximum number of entries shown (0 for no limit);
+	 * older entries are dropped from the view (but not the log).
+	 */
+	public LoggerPanel(final DataLogger logger, int capacity) {
 
 		super();
 		
 		requireNotNull(logger);
 
 		this.logger = logger;
-		logger.addObserver(this);
+		this.model = new LogEntryListModel(capacity);
 
 		initComponents();
 		buildForm();
+
+		logger.addObserver(this);
 		
 	}
 	
 	/* --------  GUI INITIALISATION -------- */
 
+	// renders an entry as its time and message
+	private static final class EntryRenderer extends DefaultListCellRenderer {
+
+		private final DateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list, Object value,
+				int index, boolean isSelected, boolean cellHasFocus) {
+
+			LogEntry logEntry = (LogEntry) value;
+
+			String text = String.format(
+				"%s  %s",
+				timeFormat.format(new Date(logEntry.getTimestamp())),
+				logEntry.getMessage().trim()
+			);
+
+			return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+
+		}
+
+	}
+
 	// initialises the GUI components
 	private void initComponents() {
 
-		txtLogEntries.setEditable(false);
-		
-		txtLogEntries.setColumns(20);
-		txtLogEntries.setRows(5);
-		txtLogEntries.setLineWrap(true);
+		lstLogEntries.setModel(model);
+		lstLogEntries.setCellRenderer(new EntryRenderer());
+		lstLogEntries.setSelectionMode(ListSelectionModel.SINGLE_INTERVAL_SELECTION);
+		lstLogEntries.setVisibleRowCount(5);
+
+		// NOTE fixed sizes, so the list never measures every row
+		int charWidth = lstLogEntries.getFontMetrics(lstLogEntries.getFont()).charWidth('m');
+		int lineHeight = lstLogEntries.getFontMetrics(lstLogEntries.getFont()).getHeight();
+
+		lstLogEntries.setFixedCellWidth(ROW_CHARS * charWidth);
+		lstLogEntries.setFixedCellHeight(lineHeight + 2);
 		
 	}
 	
@@ -69,26 +140,24 @@ public final class LoggerPanel extends JPanel implements DataLoggerObserver {
 	private void buildForm() {
 		
 		setLayout(new GridLayout(0, 1));
-		
-		JScrollPane scrollLogEntries = new javax.swing.JScrollPane();
 
 		scrollLogEntries.setDoubleBuffered(true);
-		scrollLogEntries.setEnabled(false);
-		
-		scrollLogEntries.setViewportView(txtLogEntries);
+		scrollLogEntries.setViewportView(lstLogEntries);
 		
 		add(scrollLogEntries);
 		
 	}
 	
 	/* --------  END GUI INITIALISATION -------- */
-	
-	public JTextArea getTxtLogEntries() {
-		return txtLogEntries;
+
+	/** Returns the model of the shown entries. */
+	public LogEntryListModel getModel() {
+		return model;
 	}
 
 	public void shutdown() {
 		logger.removeObserver(this);
+		updates.stop();
 	}
 
 	@Override
@@ -97,57 +166,37 @@ public final class LoggerPanel extends JPanel implements DataLoggerObserver {
 		shutdown();
 	}
 
-	private LogEvent lastToNotify = null;
-
-	private void addLog(final DataLogger logger, final LogEntry logEntry) {
+	// whether the view is scrolled to the latest entry
+	private boolean isAtEnd() {
 
-		StringBuilder logEntries = new StringBuilder(getTxtLogEntries().getText());
+		BoundedRangeModel scroll = scrollLogEntries.getVerticalScrollBar().getModel();
 
-		// add newline to separate different logger messages
-		if (lastToNotify == null) {
-			lastToNotify = logEntry.getEvent();
-		} else if (lastToNotify.type().equals(logEntry.getEvent().type())) {
+		return scroll.getValue() + scroll.getExtent() >= scroll.getMaximum();
 
-			// dont append if already a newline
-			if (logEntries.charAt(logEntries.length()-1) != '\n')
-				logEntries.append("\n");
-
-			lastToNotify = logEntry.getEvent();
+	}
 
-		}
+	// shows the given entries (on the event dispatch thread)
+	private void addLogs(final List<LogEntry> logEntries) {
 
-		// add newline to mouse events (for aesthetics)
-		String entryText = logEntry.toString();
-		if (logEntry.getEvent() instanceof MouseEvent)
-			entryText += "\n";
-		
-		logEntries.append(entryText);
-		
-		getTxtLogEntries().setText(logEntries.toString());
+		// follow the latest entry, unless scrolled back
+		boolean follow = isAtEnd();
 
-		// move the end of the text area
-		getTxtLogEntries().setCaretPosition(
-			getTxtLogEntries().getText().length() - 1
-		);
+		model.addAll(logEntries);
 
+		if (follow)
+			lstLogEntries.ensureIndexIsVisible(model.getSize() - 1);
 
 	}
 
 	@Override
 	public void notifyLog(final DataLogger logger, final LogEntry logEntry) {
 
-		// Removed 2013-05-07
-		//SwingUtilities.invokeLater(new Runnable() {
-		//	public void run(){
-		//		addLog(logger, logEntry);
-		//	}
-		//});
-
-		addLog(logger, logEntry);
+		updates.add(logEntry);
 
 	}
 
 	// form elements
-	private JTextArea txtLogEntries = new JTextArea();
+	private JList<LogEntry> lstLogEntries = new JList<>();
+	private JScrollPane scrollLogEntries = new JScrollPane();
 	
 }
@@ -0,0 +1,146 @@
+package net.zeddev.zedlog.gui;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+import java.awt.Component;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.ProgressMonitor;
+import javax.swing.SwingWorker;
+
+import net.zeddev.litelogger.Logger;
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import net.zeddev.zedlog.logger.tools.TextExporter;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Saves the entries of a {@code CompositeDataLogger} to a text file, in the
+ * background.
+ * The entries are streamed to the file by a {@code TextExporter}, while a
+ * {@code ProgressMonitor} shows the progress and allows the save to be
+ * cancelled.  A cancelled (or failed) save deletes the partial file.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class TextExportWorker extends SwingWorker<Boolean, Long> {
+
+	private final Logger logger = Logger.getLogger(this);
+
+	private final CompositeDataLogger loggers;
+	private final File saveFile;
+
+	private final ProgressMonitor monitor;
+
+	private final TextExporter exporter = new TextExporter() {
+
+		@Override
+		protected void progress(long entriesWritten) {
+			publish(entriesWritten);
+		}
+
+	};
+
+	/**
+	 * Creates a new {@code TextExportWorker}.
+	 * Must be created on the event dispatch thread.
+	 *
+	 * @param parent The parent of the progress monitor.
+	 * @param loggers The loggers whose entries are saved (must not be
+	 * {@code null}).
+	 * @param saveFile The file to save to (must not be {@code null}).
+	 */
+	public TextExportWorker(Component parent, CompositeDataLogger loggers, File saveFile) {
+
+		requireNotNull(loggers);
+		requireNotNull(saveFile);
+
+		this.loggers = loggers;
+		this.saveFile = saveFile;
+
+		// NOTE entries made during the save are not saved
+		monitor = new ProgressMonitor(
+			parent, String.format("Saving to %s.", saveFile.getName()),
+			null, 0, Math.max(loggers.entryCount(), 1)
+		);
+
+	}
+
+	@Override
+	protected Boolean doInBackground() throws IOException {
+
+		try (
+			LogEntryReader reader = loggers.entryReader();
+			Writer output = new BufferedWriter(new FileWriter(saveFile))
+		) {
+			return exporter.export(reader, output);
+		}
+
+	}
+
+	@Override
+	protected void process(List<Long> progress) {
+
+		if (monitor.isCanceled()) {
+			exporter.cancel();
+			return;
+		}
+
+		long entriesWritten = progress.get(progress.size() - 1);
+		monitor.setProgress((int) Math.min(entriesWritten, monitor.getMaximum()));
+
+	}
+
+	@Override
+	protected void done() {
+
+		monitor.close();
+
+		boolean saved = false;
+
+		try {
+			saved = get();
+		} catch (ExecutionException ex) {
+			logger.error(
+				String.format("Error saving log to file '%s'.", saveFile.getPath()),
+				ex.getCause()
+			);
+		} catch (InterruptedException ex) {
+			// NOTE done() is only called once the result is available
+			Thread.currentThread().interrupt();
+		}
+
+		if (saved) {
+			logger.info(String.format("Log saved successfully to '%s'.", saveFile.getPath()));
+		} else {
+
+			saveFile.delete();
+
+			if (exporter.isCancelled())
+				logger.info(String.format("Saving to '%s' cancelled.", saveFile.getPath()));
+
+		}
+
+	}
+
+}
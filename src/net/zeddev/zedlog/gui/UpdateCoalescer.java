@@ -0,0 +1,154 @@
+package net.zeddev.zedlog.gui;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.Timer;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Batches updates made from any thread, handing them to the event dispatch
+ * thread at a limited frame rate.
+ * Each update is buffered, and at most one batch is handed over each frame,
+ * so the cost of showing updates on the GUI is bounded however fast they
+ * come (i.e. mouse movement).
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class UpdateCoalescer<T> {
+
+	/** The default number of batches handed over each second. */
+	public static final int DEFAULT_FRAME_RATE = 30;
+
+	/**
+	 * Receives the batches of updates (on the event dispatch thread).
+	 *
+	 * @param <T> The type of update.
+	 */
+	public static interface Target<T> {
+
+		/**
+		 * Applies a batch of updates.
+		 *
+		 * @param updates The updates since the last batch, in the order made
+		 * (never empty).
+		 */
+		public void update(List<T> updates);
+
+	}
+
+	private final Target<T> target;
+
+	// fires (once) a frame after the first update of a batch
+	private final Timer timer;
+
+	// the updates of the next batch (guarded by this)
+	private List<T> pending = new ArrayList<>();
+	private boolean scheduled = false;
+
+	/**
+	 * Creates a new {@code UpdateCoalescer}.
+	 *
+	 * @param target The receiver of the batches (must not be {@code null}).
+	 * @param frameRate The maximum number of batches each second.
+	 */
+	public UpdateCoalescer(final Target<T> target, int frameRate) {
+
+		requireNotNull(target);
+		require(frameRate > 0);
+
+		this.target = target;
+
+		this.timer = new Timer(1000 / frameRate, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent event) {
+				flush();
+			}
+		});
+
+		// NOTE only runs while there are updates, so idle costs nothing
+		timer.setRepeats(false);
+
+	}
+
+	/**
+	 * Creates a new {@code UpdateCoalescer}, with the default frame rate.
+	 *
+	 * @param target The receiver of the batches (must not be {@code null}).
+	 */
+	public UpdateCoalescer(final Target<T> target) {
+		this(target, DEFAULT_FRAME_RATE);
+	}
+
+	/**
+	 * Adds an update to the next batch.
+	 * Thread safe.
+	 *
+	 * @param update The update.
+	 */
+	public synchronized void add(T update) {
+
+		pending.add(update);
+
+		if (!scheduled) {
+			scheduled = true;
+			timer.start();
+		}
+
+	}
+
+	// takes the pending updates
+	private synchronized List<T> takePending() {
+
+		List<T> updates = pending;
+
+		pending = new ArrayList<>(Math.max(16, updates.size()));
+		scheduled = false;
+
+		return updates;
+
+	}
+
+	/**
+	 * Hands the pending updates to the target now.
+	 * Must be called on the event dispatch thread.
+	 */
+	public void flush() {
+
+		List<T> updates = takePending();
+
+		if (!updates.isEmpty())
+			target.update(updates);
+
+	}
+
+	/** Discards the pending updates (which are not handed over). */
+	public synchronized void stop() {
+
+		timer.stop();
+
+		pending.clear();
+		scheduled = false;
+
+	}
+
+}
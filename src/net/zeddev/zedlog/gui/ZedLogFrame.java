@@ -16,10 +16,11 @@ package net.zeddev.zedlog.gui;
  */
 
 import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.EventQueue;
+import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowEvent;
@@ -27,6 +28,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
@@ -35,9 +37,12 @@ import javax.swing.JFrame;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
+import javax.swing.JTextArea;
 import javax.swing.JToolBar;
 import javax.swing.WindowConstants;
 
@@ -54,25 +59,33 @@ import net.zeddev.zedlog.gui.dialog.ReplayToolDialog;
 import net.zeddev.zedlog.gui.dialog.SimpleDialog;
 import net.zeddev.zedlog.logger.DataLogger;
 import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputListener;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.logger.tools.SessionStats;
+import net.zeddev.zedlog.management.ManagementRegistry;
 
 import static net.zeddev.zedlog.util.Assertions.*;
 
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.mouse.NativeMouseEvent;
-import org.jnativehook.mouse.NativeMouseListener;
 
 /**
  * The main GUI frame.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class ZedLogFrame extends JFrame implements NativeMouseListener {
+public final class ZedLogFrame extends JFrame implements InputListener {
 
 	private final Logger logger = Logger.getLogger(this);
 	private final WindowLogHandler logWindow = new WindowLogHandler();
 
 	private final CompositeDataLogger loggers;
 
+	// the statistics of the current session
+	private final SessionStats sessionStats = new SessionStats();
+
+	// the management beans of the loggers
+	private final ManagementRegistry management;
+
 	// the program log output file
 	private WriterLogHandler msgLogFile = null;
 
@@ -87,6 +100,11 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 		// initialise the encapsulated loggers
 		this.loggers = loggers;
 		initLoggerTabs();
+
+		loggers.addObserver(sessionStats);
+
+		management = new ManagementRegistry(loggers, sessionStats);
+		management.registerAll();
 		
 		initComponents();
 		buildForm();
@@ -107,7 +125,7 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 		Logger.addObserver(new MsgBoxLogHandler(LogLevel.WARNING));
 		Logger.addObserver(logWindow);
 		
-		GlobalScreen.getInstance().addNativeMouseListener(this);
+		NativeInputSource.getInstance().addInputListener(InputEvent.Type.MOUSE_CLICKED, this);
 
 	}
 	
@@ -116,6 +134,15 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 
 		logger.info("Shutting down GUI.");
 
+		management.unregisterAll();
+
+		// stop the panels observing the (cached) loggers
+		for (int i = 0; i < tabs.getTabCount(); i++) {
+			Component tab = tabs.getComponentAt(i);
+			if (tab instanceof LoggerPanel)
+				((LoggerPanel) tab).shutdown();
+		}
+
 		loggers.shutdown();
 		
 		// dispose the window, in own thread to avoid deadlock
@@ -151,7 +178,7 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 
 		// remove the logger tabs
 		while (tabs.getTabCount() > 0)
-			tabs.remove(0);
+			removeLoggerTab(0);
 
 	}
 
@@ -164,6 +191,18 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 
 	}
 	
+	// removes the tab at the given index, no longer observing its logger
+	// NOTE the (cached) logger keeps listening to input while observed
+	private void removeLoggerTab(int index) {
+
+		Component tab = tabs.getComponentAt(index);
+		if (tab instanceof LoggerPanel)
+			((LoggerPanel) tab).shutdown();
+
+		tabs.remove(index);
+
+	}
+
 	// adds a tab for the given data logger
 	private void addLoggerTab(final DataLogger logger) {
 
@@ -259,6 +298,14 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 		mitemReplay.setText("Replay Events");
 		mitemReplay.setToolTipText("Replay/simulate the events recorded by ZedLog.");
 
+		mitemReplayFile.setMnemonic('F');
+		mitemReplayFile.setText("Replay Log File...");
+		mitemReplayFile.setToolTipText("Replay the events of a saved log, without opening it.");
+
+		mitemStats.setMnemonic('S');
+		mitemStats.setText("Session Statistics");
+		mitemStats.setToolTipText("Show the event rates and gaps of the current session.");
+
 		mitemMsgLogFile.setText("Set Log File");
 		mitemMsgLogFile.setToolTipText("Set the program log file.");
 
@@ -384,6 +431,18 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 			}
 		});
 
+		mitemReplayFile.addActionListener(new java.awt.event.ActionListener() {
+			public void actionPerformed(java.awt.event.ActionEvent evt) {
+				mitemReplayFileActionPerformed(evt);
+			}
+		});
+
+		mitemStats.addActionListener(new java.awt.event.ActionListener() {
+			public void actionPerformed(java.awt.event.ActionEvent evt) {
+				mitemStatsActionPerformed(evt);
+			}
+		});
+
 		mitemMsgLogFile.addActionListener(new java.awt.event.ActionListener() {
 			public void actionPerformed(java.awt.event.ActionEvent evt) {
 				mitemMsgLogFileActionPerformed(evt);
@@ -451,6 +510,10 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 		menuTools.add(mitemHide);
 
 		menuTools.add(mitemReplay);
+
+		menuTools.add(mitemReplayFile);
+
+		menuTools.add(mitemStats);
 		menuTools.add(new JPopupMenu.Separator());
 
 		menuProgramLog.setText("Program Log");
@@ -575,6 +638,7 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 		}
 
 		addLoggerTab(dataLogger);
+		management.register(dataLogger);
 
 		logger.info(String.format("Added logger %s", dataLogger.type()));
 
@@ -604,7 +668,8 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 
 				}
 
-				tabs.remove(tabs.getSelectedIndex());
+				removeLoggerTab(tabs.getSelectedIndex());
+				management.unregister(dataLogger);
 
 			}
 
@@ -618,6 +683,7 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 
 		try {
 			loggers.clearAll();
+			sessionStats.clear();
 		} catch (IOException ex) {
 			logger.error("Failed to clear data loggers!", ex);
 		}
@@ -701,11 +767,10 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 
 	}
 	
-	private void saveToFile(File saveFile) throws IOException {
+	private void saveToFile(File saveFile) {
 
-		FileWriter output = new FileWriter(saveFile);
-		output.write(loggers.toString());
-		output.close();
+		// NOTE streamed in the background, reporting its own outcome
+		new TextExportWorker(this, loggers, saveFile).execute();
 
 	}
 	
@@ -767,14 +832,7 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 			logger.info(String.format("Saving to %s.", saveFile.getPath()));
 
 			// save the log output to file
-			try {
-				saveToFile(saveFile);
-			} catch (IOException ex) {
-				logger.error(String.format("Error saving log to file '%s'.", saveFile.getPath()), ex);
-				return;
-			}
-
-			logger.info(String.format("Log saved successfully to '%s'.", saveFile.getPath()));
+			saveToFile(saveFile);
 
 		}
 
@@ -814,6 +872,33 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 		replayTool.setVisible(true);
 	}
 
+	private void mitemReplayFileActionPerformed(ActionEvent evt) {
+
+		File logFile = SimpleDialog.openFile(this);
+
+		if (logFile != null) {
+			ReplayToolDialog replayTool = new ReplayToolDialog(this, logFile);
+			replayTool.setVisible(true);
+		}
+
+	}
+
+	private void mitemStatsActionPerformed(ActionEvent evt) {
+
+		StringWriter report = new StringWriter();
+		sessionStats.writeText(report);
+
+		JTextArea text = new JTextArea(report.toString());
+		text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+		text.setEditable(false);
+
+		JOptionPane.showMessageDialog(
+			this, new JScrollPane(text), "Session Statistics",
+			JOptionPane.PLAIN_MESSAGE
+		);
+
+	}
+
 	private void mitemMsgLogFileActionPerformed(ActionEvent evt) {
 
 		JFileChooser fileChooser = new JFileChooser();
@@ -877,9 +962,9 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 	}
 
 	@Override
-	public void nativeMouseClicked(NativeMouseEvent event) {
+	public void inputReceived(InputEvent event) {
 
-		if (event.getButton() == 3 && event.getPoint().equals(new Point(0, 0))) {
+		if (event.getButton() == 3 && event.getX() == 0 && event.getY() == 0) {
 			// FIXME This really needs to be done better.
 
 			showHide();
@@ -888,16 +973,6 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 
 	}
 
-	@Override
-	public void nativeMousePressed(NativeMouseEvent event) {
-		// IGNORED
-	}
-
-	@Override
-	public void nativeMouseReleased(NativeMouseEvent nme) {
-		// IGNORED
-	}
-
 	/* --------  END EVENT HANDLERS  -------- */
 	
 	/* --------  FORM ELEMENTS  -------- */
@@ -927,6 +1002,8 @@ public final class ZedLogFrame extends JFrame implements NativeMouseListener {
 	
 	private JMenuItem mitemHide = new JMenuItem();
 	private JMenuItem mitemReplay = new JMenuItem();
+	private JMenuItem mitemReplayFile = new JMenuItem();
+	private JMenuItem mitemStats = new JMenuItem();
 	private JMenuItem mitemMsgLogFile = new JMenuItem();
 	private JMenuItem mitemLogWindow = new JMenuItem();
 	
@@ -19,24 +19,34 @@ import java.awt.Component;
 import java.awt.Frame;
 import java.awt.event.ActionEvent;
 import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.StringWriter;
 import java.util.List;
 
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JProgressBar;
+import javax.swing.JSpinner;
 import javax.swing.JToggleButton;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
 import net.zeddev.litelogger.Logger;
+import net.zeddev.zedlog.gui.UpdateCoalescer;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.LogEvent;
 import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.tools.ReplayTimings;
 import net.zeddev.zedlog.logger.tools.ReplayTool;
 import net.zeddev.zedlog.logger.tools.ReplayToolObserver;
+import net.zeddev.zedlog.logger.tools.SyncPolicy;
 
 /**
  * Windows for running the {@code RepeatTool}.
@@ -51,6 +61,16 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 	
 	private final ReplayTool tool;
 
+	// batches the replayed events, notified on the replay thread
+	private final UpdateCoalescer<LogEvent> replayed = new UpdateCoalescer<>(
+		new UpdateCoalescer.Target<LogEvent>() {
+			@Override
+			public void update(List<LogEvent> events) {
+				showReplayed(events);
+			}
+		}
+	);
+
 	/** Creates new form {@code ReplayToolDialog}. */
 	public ReplayToolDialog(final Frame parent, final CompositeDataLogger loggers) {
 
@@ -59,6 +79,28 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 		logEntries = loggers.logEntries();
 		
 		tool = new ReplayTool(logEntries);
+
+		init();
+
+	}
+
+	/** Creates new form {@code ReplayToolDialog}, replaying a saved log. */
+	public ReplayToolDialog(final Frame parent, final File logFile) {
+
+		super(parent, true);
+
+		// NOTE the log is streamed, so the number of entries is not known
+		logEntries = null;
+
+		tool = new ReplayTool(logFile);
+
+		init();
+
+	}
+
+	// initialises the dialog
+	private void init() {
+
 		tool.addObserver(this);
 
 		initComponents();
@@ -85,8 +127,12 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 		});
 		
 		// setup the progress bar limits
-		progressBar.setMaximum(logEntries.size());
-		progressBar.setMinimum(0);
+		if (logEntries != null) {
+			progressBar.setMaximum(logEntries.size());
+			progressBar.setMinimum(0);
+		} else {
+			progressBar.setIndeterminate(true);
+		}
 		
 		progressBar.setEnabled(false);
 
@@ -100,6 +146,20 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 			}
 		});
 		
+		cmbSpeed.setSelectedItem("1x");
+		cmbSpeed.setToolTipText("The speed of timed replays.");
+
+		spnMaxGap.setToolTipText("The longest pause between timed events, in seconds (0 for no limit).");
+
+		cmbSync.setSelectedItem(SyncPolicy.EACH_EVENT.toString());
+		cmbSync.setToolTipText(
+			"How often to wait for replayed input to be handled: after each event, "
+			+ "every n events, every n ms, or around clicks and keys."
+		);
+
+		chkCatchUp.setSelected(true);
+		chkCatchUp.setToolTipText("Skip mouse moves which are late, when later moves are already due.");
+
 		btnClose.setMnemonic('C');
 		btnClose.setToolTipText("Close the replay tool.");
 		btnClose.addActionListener(new java.awt.event.ActionListener() {
@@ -130,6 +190,29 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 		
 	}
 	
+	// builds the box which contains the timing options
+	private Box timingBox() {
+
+		Box timing = new Box(BoxLayout.LINE_AXIS);
+
+		timing.add(new JLabel("Speed: "));
+		timing.add(cmbSpeed);
+		timing.add(Box.createHorizontalStrut(SPACING));
+
+		timing.add(new JLabel("Max pause (s): "));
+		timing.add(spnMaxGap);
+		timing.add(Box.createHorizontalStrut(SPACING));
+
+		timing.add(chkCatchUp);
+		timing.add(Box.createHorizontalStrut(SPACING));
+
+		timing.add(new JLabel("Sync: "));
+		timing.add(cmbSync);
+
+		return timing;
+
+	}
+
 	// builds the box which contains the command buttons
 	private Box buttonBox() {
 		
@@ -158,6 +241,7 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 			
 			addLine(inner, lblCurrent);
 			addLine(inner, progressBar);
+			addLine(inner, timingBox());
 			addLine(inner, buttonBox());
 			
 			outer.add(inner);
@@ -175,6 +259,8 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 		
 		tool.removeObserver(this);
 		tool.stop();
+
+		replayed.stop();
 		
 		dispose();
 		
@@ -188,6 +274,17 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 
 			progressBar.setValue(0);
 
+			String speed = (String) cmbSpeed.getSelectedItem();
+			tool.setSpeed(Double.parseDouble(speed.substring(0, speed.length() - 1)));
+
+			double maxGap = ((Number) spnMaxGap.getValue()).doubleValue();
+			tool.setMaxGap((long) (maxGap * 1000));
+
+			tool.setCatchUp(chkCatchUp.isSelected());
+			tool.setSync(SyncPolicy.parse((String) cmbSync.getSelectedItem()));
+
+			tool.setTimings(new ReplayTimings());
+
 			// start the simulation
 			Thread toolThread = new Thread(tool.replayTimed());
 			toolThread.start();
@@ -214,6 +311,9 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 
 			progressBar.setValue(0);
 
+			tool.setTimings(null);
+			tool.setSync(SyncPolicy.parse((String) cmbSync.getSelectedItem()));
+
 			// start the simulation
 			Thread toolThread = new Thread(tool.replayFast());
 			toolThread.start();
@@ -228,25 +328,60 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 	
 	/* --------  END EVENT HANDLING  -------- */
 
-	@Override
-	public void replayedEvent(LogEvent event) {
+	// shows the progress of the replay (on the event dispatch thread)
+	private void showReplayed(List<LogEvent> events) {
 
-		lblCurrent.setText(event.toString());
+		lblCurrent.setText(events.get(events.size() - 1).toString());
 
 		// update the progress bar
 		int progress = progressBar.getValue();
-		progressBar.setValue(progress + 1);
+		progressBar.setValue(progress + events.size());
 
 	}
 
+	@Override
+	public void replayedEvent(LogEvent event) {
+		replayed.add(event);
+	}
+
 	@Override
 	public void replayFinished() {
 
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run() {
+
+				// show the last of the replayed events first
+				replayed.flush();
+
+				showFinished();
+
+			}
+		});
+
+	}
+
+	// resets the dialog once the replay has finished
+	private void showFinished() {
+
 		btnRunTimed.setSelected(false);
 		btnRun.setSelected(false);
 
 		logger.info("Replay tool finished.");
 
+		// report how faithful the timing was
+		ReplayTimings timings = tool.getTimings();
+		if (timings != null) {
+
+			StringWriter report = new StringWriter();
+			timings.writeText(report);
+
+			logger.info("Replay timing: \n" + report);
+
+		}
+
+		if (tool.getSkipped() > 0)
+			logger.info(String.format("Skipped %d late mouse moves.", tool.getSkipped()));
+
 	}
 	
 	// the spacing between components
@@ -259,6 +394,14 @@ public class ReplayToolDialog extends JDialog implements ReplayToolObserver {
 	private JToggleButton btnRunTimed = new JToggleButton("Run Timed");
 	private JLabel lblCurrent = new JLabel();
 	private JProgressBar progressBar = new JProgressBar();
+	private JComboBox<String> cmbSpeed = new JComboBox<>(
+		new String[] {"0.5x", "1x", "2x", "4x", "8x", "16x"}
+	);
+	private JSpinner spnMaxGap = new JSpinner(new SpinnerNumberModel(0.0, 0.0, 3600.0, 0.5));
+	private JCheckBox chkCatchUp = new JCheckBox("Skip late moves");
+	private JComboBox<String> cmbSync = new JComboBox<>(
+		new String[] {"each", "10", "100", "50ms", "discrete", "discrete+50ms"}
+	);
 
 	/* --------  END FORM ELEMENTS  -------- */
 	
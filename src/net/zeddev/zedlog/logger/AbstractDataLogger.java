@@ -33,7 +33,8 @@ public abstract class AbstractDataLogger implements DataLogger {
 	private final DataLoggerNotificationThread notifyThread;
 
 	// whether or not to record the log entries
-	private boolean recording = true;
+	// NOTE set by the GUI and management threads, read by the input threads
+	private volatile boolean recording = true;
 
 	protected AbstractDataLogger() {
 
@@ -80,6 +81,28 @@ public abstract class AbstractDataLogger implements DataLogger {
 
 	}
 
+	/** Returns whether the logger has any observers. */
+	protected boolean hasObservers() {
+
+		synchronized (observers) {
+			return !observers.isEmpty();
+		}
+
+	}
+
+	/** Returns the number of entries waiting to be delivered to the observers. */
+	public int getQueueLength() {
+		return notifyThread.getQueueLength();
+	}
+
+	/**
+	 * Returns the number of entries dropped (i.e. never delivered to the
+	 * observers) as the notification queue was full.
+	 */
+	public long getDroppedCount() {
+		return notifyThread.getDroppedCount();
+	}
+
 	/**
 	 * Notifies all observers of a log event.
 	 *
@@ -18,8 +18,12 @@ package net.zeddev.zedlog.logger;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.zeddev.litelogger.Logger;
+import net.zeddev.zedlog.management.jfr.DeliveryEvent;
+import net.zeddev.zedlog.management.jfr.DequeueEvent;
+import net.zeddev.zedlog.management.jfr.EnqueueEvent;
 import static net.zeddev.zedlog.util.Assertions.*;
 
 /**
@@ -53,6 +57,9 @@ public final class DataLoggerNotificationThread extends Thread {
 	private final Queue<LogEntry> logSpool = new ArrayBlockingQueue<>(QUEUE_SIZE);
 		// NOT queue size sets threshold for number of events
 
+	// the number of entries dropped when the spool was full
+	private final AtomicLong dropped = new AtomicLong();
+
 	// whether the thread is running or not
 	private boolean running = false;
 
@@ -89,13 +96,38 @@ public final class DataLoggerNotificationThread extends Thread {
 	public void notifyEvent(LogEntry logEntry) {
 
 		requireNotNull(logEntry);
+
+		EnqueueEvent enqueue = new EnqueueEvent();
+		enqueue.begin();
 		
 		synchronized (logSpool) {
-			logSpool.offer(logEntry);
+
+			enqueue.accepted = logSpool.offer(logEntry);
+			enqueue.queueLength = logSpool.size();
+
+		}
+
+		if (!enqueue.accepted)
+			dropped.incrementAndGet();
+
+		if (enqueue.shouldCommit()) {
+			enqueue.loggerType = dataLogger.type();
+			enqueue.commit();
 		}
 
 	}
 
+	/** Returns the number of entries waiting to be delivered. */
+	public int getQueueLength() {
+		// NOTE not synchronized on the spool, which is held during delivery
+		return logSpool.size();
+	}
+
+	/** Returns the number of entries dropped as the queue was full. */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
 	/** Shuts the notification thread down. */
 	public void shutdown() {
 		running = false;
@@ -108,9 +140,21 @@ public final class DataLoggerNotificationThread extends Thread {
 		
 		synchronized (observers) {
 
-			for (DataLoggerObserver observer : observers)
+			for (DataLoggerObserver observer : observers) {
+
+				DeliveryEvent delivery = new DeliveryEvent();
+				delivery.begin();
+
 				observer.notifyLog(dataLogger, logEntry);
 
+				if (delivery.shouldCommit()) {
+					delivery.loggerType = dataLogger.type();
+					delivery.observer = observer.getClass();
+					delivery.commit();
+				}
+
+			}
+
 		}
 
 	}
@@ -125,8 +169,21 @@ public final class DataLoggerNotificationThread extends Thread {
 			synchronized(logSpool) {
 
 				// notify observers of event if available
-				if (!logSpool.isEmpty())
-					notifyObservers(logSpool.remove());
+				if (!logSpool.isEmpty()) {
+
+					LogEntry logEntry = logSpool.remove();
+
+					DequeueEvent dequeue = new DequeueEvent();
+					if (dequeue.shouldCommit()) {
+						dequeue.loggerType = dataLogger.type();
+						dequeue.age = System.currentTimeMillis() - logEntry.getTimestamp();
+						dequeue.queueLength = logSpool.size();
+						dequeue.commit();
+					}
+
+					notifyObservers(logEntry);
+
+				}
 
 			}
 
@@ -38,29 +38,46 @@ public class LogEntry {
 	private DataLogger parent = null;
 	private String message = null;
 	private LogEvent event = null;
-	private long timestamp = System.currentTimeMillis();
+	private long timestamp;
 
 	/**
 	 * Creates a new {@code LogEntry} with the given details.
 	 *
 	 * @param parent the parent logger, which created the {@code LogEntry}.
 	 * @param message The logged message.
+	 * @param event The logged event.
+	 * @param timestamp The time of the event, in milliseconds since the epoch.
 	 */
-	public LogEntry(final DataLogger parent, final String message, final LogEvent event) {
+	public LogEntry(final DataLogger parent, final String message, final LogEvent event,
+			final long timestamp) {
 		
 		requireNotNull(parent);
 		requireNotNull(message);
 		requireNotEquals(message, "");
 		requireNotNull(event);
+		require(timestamp >= 0);
 		
 		this.parent = parent;
 		this.message = message;
 		this.event = event;
+		this.timestamp = timestamp;
 		
 	}
 
+	/**
+	 * Creates a new {@code LogEntry} with the given details, made now.
+	 *
+	 * @param parent the parent logger, which created the {@code LogEntry}.
+	 * @param message The logged message.
+	 * @param event The logged event.
+	 */
+	public LogEntry(final DataLogger parent, final String message, final LogEvent event) {
+		this(parent, message, event, System.currentTimeMillis());
+	}
+
 	/** Creates a new, empty {@code LogEntry}. */
 	public LogEntry() {
+		timestamp = System.currentTimeMillis();
 	}
 
 	public DataLogger getParent() {
@@ -15,6 +15,9 @@ package net.zeddev.zedlog.logger;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Writer;
 import java.util.Scanner;
 
@@ -44,6 +47,24 @@ public abstract class LogEvent {
 	 * @throws Exception
 	 */
 	public abstract void fromXML(Element parent) throws Exception;
+
+	/**
+	 * Writes the {@code LogEvent} fields in a compact binary form.
+	 * The type of the event is not written (it is implied by the type id
+	 * stored alongside the event).
+	 *
+	 * @param output The output to write to (must not be {@code null}).
+	 * @throws IOException
+	 */
+	public abstract void toBinary(DataOutput output) throws IOException;
+
+	/**
+	 * Reads the {@code LogEvent} fields written by {@code toBinary()}.
+	 *
+	 * @param input The input to read from (must not be {@code null}).
+	 * @throws IOException
+	 */
+	public abstract void fromBinary(DataInput input) throws IOException;
 	
 	/**
 	 * Writes the {@code LogEvent} to the given output stream.
@@ -0,0 +1,36 @@
+package net.zeddev.zedlog.logger;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Creates new, empty instances of a single {@code LogEvent} type.
+ * Used by the {@code LogEvents} registry to instantiate events when decoding
+ * a log, without the use of reflection.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface LogEventFactory {
+
+	/**
+	 * Creates a new, empty {@code LogEvent}.
+	 * The returned event is populated afterwards by one of its read methods
+	 * (i.e. {@code fromXML()}).
+	 *
+	 * @return A new {@code LogEvent} instance (never {@code null}).
+	 */
+	public LogEvent newLogEvent();
+
+}
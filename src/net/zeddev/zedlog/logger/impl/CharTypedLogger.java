@@ -15,50 +15,44 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.impl.event.KeyEvent;
-
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.keyboard.NativeKeyEvent;
-import org.jnativehook.keyboard.NativeKeyListener;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.management.jfr.CaptureEvent;
 
 /**
  * A {@code DataLogger} for character typed events.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class CharTypedLogger extends AbstractDataLogger implements NativeKeyListener {
+public final class CharTypedLogger extends InputDataLogger {
 
 	/** Creates a new {@code CharTypedLogger}. */
 	public CharTypedLogger() {
-		super();
-		GlobalScreen.getInstance().addNativeKeyListener(this);
-	}
-
-	@Override
-	public String type() {
-		return "CharTyped";
+		this(NativeInputSource.getInstance());
 	}
 
-	@Override
-	public void shutdown() {
-		super.shutdown();
-		GlobalScreen.getInstance().removeNativeKeyListener(this);
+	/**
+	 * Creates a new {@code CharTypedLogger}, logging the given source of input.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 */
+	public CharTypedLogger(InputSource source) {
+		super(source, InputEvent.Type.KEY_TYPED);
 	}
 
 	@Override
-	public void nativeKeyPressed(NativeKeyEvent event) {
-		// IGNORED
+	public String type() {
+		return "CharTyped";
 	}
 
 	@Override
-	public void nativeKeyReleased(NativeKeyEvent event) {
-		// IGNORED
-	}
+	public void inputReceived(InputEvent event) {
 
-	@Override
-	public void nativeKeyTyped(NativeKeyEvent event) {
+		CaptureEvent capture = new CaptureEvent();
+		capture.begin();
 
 		KeyEvent keyEvent = new KeyEvent(KeyEvent.Type.TYPED, -1, event.getKeyChar());
 		String logMsg;
@@ -73,9 +67,11 @@ public final class CharTypedLogger extends AbstractDataLogger implements NativeK
 			logMsg = Character.toString(ch);
 		}
 
-		LogEntry logEntry = new LogEntry(this, logMsg, keyEvent);
+		LogEntry logEntry = new LogEntry(this, logMsg, keyEvent, event.getWhen());
 		notifyDataLoggerObservers(this, logEntry);
 
+		capture.captured(this, logEntry, event.getWhen());
+
 	}
 
 }
@@ -21,13 +21,18 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.HashSet;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
 import net.zeddev.litelogger.Logger;
@@ -35,6 +40,12 @@ import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.DataLogger;
 import net.zeddev.zedlog.logger.DataLoggerObserver;
 import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.io.ListLogReader;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import net.zeddev.zedlog.logger.io.MergingLogReader;
+import net.zeddev.zedlog.logger.tools.TextExporter;
+import net.zeddev.zedlog.management.jfr.EncodeEvent;
+import net.zeddev.zedlog.management.jfr.FlushEvent;
 import static net.zeddev.zedlog.util.Assertions.*;
 
 import javax.xml.parsers.*;
@@ -53,8 +64,10 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 
 	private final Logger logger = Logger.getLogger(this);
 
-	// each log entry made by the children loggers
-	private final List<LogEntry> logEntries = new ArrayList<>();
+	// the log entries made by each child logger (null for opened log files)
+	// NOTE each child notifies on its own thread, so only the entries of a
+	// single child are in chronological order
+	private final Map<DataLogger, List<LogEntry>> logEntries = new LinkedHashMap<>();
 
 	private final List<DataLogger> loggers = new ArrayList<>();
 
@@ -171,7 +184,11 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 	 * @throws IOException If an error occurs when the log files are closed.
 	 */
 	public void clearAll() throws IOException {
-		logEntries.clear();
+
+		synchronized (logEntries) {
+			logEntries.clear();
+		}
+
 	}
 
 	/**
@@ -184,12 +201,72 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 	}
 	
 	/**
-	 * Returns a list of all entries made by children loggers.
+	 * Returns a list of all entries made by children loggers, in
+	 * chronological order.
 	 *
 	 * @return A list of all entries made by children loggers.
 	 */
 	public List<LogEntry> logEntries() {
-		return new ArrayList<>(logEntries);
+
+		List<LogEntry> merged = new ArrayList<>();
+
+		try (LogEntryReader reader = entryReader()) {
+
+			LogEntry logEntry;
+			while ((logEntry = reader.read()) != null)
+				merged.add(logEntry);
+
+		} catch (IOException ex) {
+			// NOTE list readers never throw
+			throw new IllegalStateException(ex);
+		}
+
+		return merged;
+
+	}
+
+	/**
+	 * Returns the number of entries made by children loggers.
+	 *
+	 * @return The number of entries made by children loggers.
+	 */
+	public int entryCount() {
+
+		int count = 0;
+
+		synchronized (logEntries) {
+			for (List<LogEntry> buffer : logEntries.values())
+				count += buffer.size();
+		}
+
+		return count;
+
+	}
+
+	/**
+	 * Returns a reader of all entries made by children loggers, in
+	 * chronological order.
+	 * The entries of each child are merged as they are read, reading the
+	 * entries made up to this call.
+	 *
+	 * @return A reader of all entries made by children loggers.
+	 */
+	public LogEntryReader entryReader() {
+
+		List<LogEntryReader> sources = new ArrayList<>();
+
+		synchronized (logEntries) {
+			for (List<LogEntry> buffer : logEntries.values())
+				sources.add(new ListLogReader(new ArrayList<>(buffer)));
+		}
+
+		try {
+			return new MergingLogReader(sources);
+		} catch (IOException ex) {
+			// NOTE list readers never throw
+			throw new IllegalStateException(ex);
+		}
+
 	}
 
 	/**
@@ -218,7 +295,7 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 	}
 	
 	// returns the xml document used to log data logger entries
-	private Document getXmlLog() throws ParserConfigurationException {
+	private synchronized Document getXmlLog() throws ParserConfigurationException {
 
 		// create xml document object if does not already exist
 		if (xmlLog == null) {
@@ -331,13 +408,16 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 			
 		}
 		
+		// the types of the loggers currently in the composite logger
+		// NOTE compared by type, as the loggers may not be the cached instances
+		Set<String> loggerTypes = new HashSet<>();
+		for (DataLogger logger : getLoggers())
+			loggerTypes.add(logger.type());
+		
 		// remove loggers not longer in the composite logger
 		for (String loggerType : dataLoggerSet.keySet()) {
 			
-			DataLogger logger = DataLoggers.newDataLogger(loggerType); 
-				// NOTE actually returns cached version 
-			
-			if (!loggers.contains(logger))
+			if (!loggerTypes.contains(loggerType))
 				parent.removeChild(dataLoggerSet.get(loggerType));
 			
 		}
@@ -359,7 +439,7 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 	}
 	
 	// flushes the XML log document to the disk
-	private void flushXmlLog() throws Exception {
+	private synchronized void flushXmlLog() throws Exception {
 	
 		requireNotNull(getLogFile());
 		
@@ -373,6 +453,9 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 		Element loggers = firstXmlElement(root, "loggers");
 		updateLoggersInXmlLog(loggers);
 		
+		FlushEvent flushEvent = new FlushEvent();
+		flushEvent.begin();
+
 		// the transformer which will update the XML source on disk
 		TransformerFactory transformerFactory = TransformerFactory.newInstance();
 		Transformer transformer = transformerFactory.newTransformer();
@@ -383,12 +466,43 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 		
 		// update the XML file
 		transformer.transform(source, result);
+
+		lastFlushTime = System.currentTimeMillis();
+		flushCount.incrementAndGet();
+
+		if (flushEvent.shouldCommit()) {
+			flushEvent.output = getLogFile().getPath();
+			flushEvent.entries = logEntrysSinceFlush;
+			flushEvent.commit();
+		}
 		
 	}
 	
 	// the number of log entries before flushing to disk
 	private static final int LOG_FLUSH_THRESHOLD = 10;
-	private int logEntrysSinceFlush = 0; // the current count of log entries since last flush
+	private volatile int logEntrysSinceFlush = 0; // the current count of log entries since last flush
+
+	// the time of, and count of, flushes to disk
+	private volatile long lastFlushTime = 0;
+	private final AtomicLong flushCount = new AtomicLong();
+
+	/**
+	 * Returns the time the log file was last written, in milliseconds since
+	 * the epoch (0 if never written).
+	 */
+	public long getLastFlushTime() {
+		return lastFlushTime;
+	}
+
+	/** Returns the number of times the log file has been written. */
+	public long getFlushCount() {
+		return flushCount.get();
+	}
+
+	/** Returns the number of log entries not yet written to the log file. */
+	public int getUnflushedCount() {
+		return logEntrysSinceFlush;
+	}
 	
 	// Returns the first XML element with the given name, in the given parent element
 	private static Element firstXmlElement(Element parent, String tagname) {
@@ -409,7 +523,8 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 	}
 	
 	// writes the log entry to XML
-	private void writeXmlLogEntry(final LogEntry logEntry) {
+	// NOTE synchronized (as is the flush), as each child notifies on its own thread
+	private synchronized void writeXmlLogEntry(final LogEntry logEntry) {
 
 		requireNotNull(logEntry);
 		
@@ -428,8 +543,17 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 				checkNotNull(entries);
 				
 				// encode the log entry
+				EncodeEvent encodeEvent = new EncodeEvent();
+				encodeEvent.begin();
+
 				logEntry.toXML(entries);
 				logEntrysSinceFlush++;
+
+				if (encodeEvent.shouldCommit()) {
+					encodeEvent.format = "XML";
+					encodeEvent.entries = 1;
+					encodeEvent.commit();
+				}
 				
 				// flush log to disk
 				if (logEntrysSinceFlush >= LOG_FLUSH_THRESHOLD) {
@@ -452,7 +576,17 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 
 		if (isRecording()) {
 
-			logEntries.add(logEntry); // TODO optimise using fast(er) list implementation
+			synchronized (logEntries) {
+
+				List<LogEntry> buffer = logEntries.get(logger);
+				if (buffer == null) {
+					buffer = new ArrayList<>();
+					logEntries.put(logger, buffer);
+				}
+
+				buffer.add(logEntry);
+
+			}
 
 			writeXmlLogEntry(logEntry);
 
@@ -480,26 +614,13 @@ public final class CompositeDataLogger extends AbstractDataLogger implements Dat
 	@Override
 	public String toString() {
 
-		final StringBuilder log = new StringBuilder();
-		DataLogger lastLogger = null;
-
-		for (LogEntry logEntry : logEntries) {
-
-			// add newline to separate different logger messages
-			if (lastLogger == null) {
-				lastLogger = logEntry.getParent();
-			} else if (logger != lastLogger) {
-
-				// dont append if already a newline
-				if (log.charAt(log.length()-1) != '\n')
-					log.append("\n");
-
-				lastLogger = logEntry.getParent();
-
-			}
-
-			log.append(logEntry);
+		StringWriter log = new StringWriter();
 
+		try (LogEntryReader reader = entryReader()) {
+			new TextExporter().export(reader, log);
+		} catch (IOException ex) {
+			// NOTE list readers and string writers never throw
+			throw new IllegalStateException(ex);
 		}
 
 		return log.toString();
@@ -15,34 +15,166 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.io.BufferedWriter;
 import java.io.Closeable;
+import java.io.Flushable;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import net.zeddev.litelogger.Logger;
 import net.zeddev.zedlog.logger.DataLogger;
 import net.zeddev.zedlog.logger.DataLoggerObserver;
 import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.management.jfr.FlushEvent;
+import net.zeddev.zedlog.util.DaemonThreadFactory;
+import static net.zeddev.zedlog.util.Assertions.*;
 
 /**
- * Writes data logger entries to the given output {@code Writer}.
+ * Writes data logger entries to the given output {@code Writer} or
+ * {@code WritableByteChannel}.
+ * Entries are buffered, and flushed as set by the {@code FlushPolicy}; a
+ * timed policy flushes from a background thread.  Buffered entries are
+ * flushed when the writer is closed, or when the JVM shuts down in an orderly
+ * fashion.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public class DataLoggerWriter implements DataLoggerObserver, Closeable {
+public class DataLoggerWriter implements DataLoggerObserver, Flushable, Closeable {
+
+	/** The default size of the output buffer, in bytes (or chars). */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
 
 	private final Logger logger = Logger.getLogger(this);
 
 	private final Writer output;
+	private final FlushPolicy policy;
+
+	// flushes timed policies (or null if not timed)
+	private final ScheduledExecutorService flusher;
+
+	// flushes the buffer on an orderly shutdown (or null if not buffered)
+	private final Thread shutdownHook;
+
+	// NOTE guarded by this
+	private DataLogger lastToNotify = null;
+	private int unflushed = 0;
+	private boolean closed = false;
 
+	/**
+	 * Creates a new {@code DataLoggerWriter}, flushing after every entry.
+	 *
+	 * @param output The output to write to (must not be {@code null}).
+	 */
 	public DataLoggerWriter(final Writer output) {
+		this(output, FlushPolicy.EACH_ENTRY);
+	}
+
+	/**
+	 * Creates a new {@code DataLoggerWriter}.
+	 *
+	 * @param output The output to write to (must not be {@code null}).
+	 * @param policy When to flush the output (must not be {@code null}).
+	 */
+	public DataLoggerWriter(final Writer output, final FlushPolicy policy) {
+		this(policy, buffered(output));
+	}
+
+	/**
+	 * Creates a new {@code DataLoggerWriter}, writing UTF-8 through a direct
+	 * buffer of the default size.
+	 *
+	 * @param channel The channel to write to (must not be {@code null}).
+	 * @param policy When to flush the output (must not be {@code null}).
+	 */
+	public DataLoggerWriter(final WritableByteChannel channel, final FlushPolicy policy) {
+		this(channel, policy, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new {@code DataLoggerWriter}, writing UTF-8 through a direct
+	 * buffer.
+	 *
+	 * @param channel The channel to write to (must not be {@code null}).
+	 * @param policy When to flush the output (must not be {@code null}).
+	 * @param bufferSize The size of the buffer, in bytes (at least 16).
+	 */
+	public DataLoggerWriter(final WritableByteChannel channel, final FlushPolicy policy,
+			int bufferSize) {
+		this(policy, new ChannelWriter(channel, bufferSize));
+	}
+
+	// the common constructor
+	private DataLoggerWriter(final FlushPolicy policy, final Writer output) {
+
+		requireNotNull(policy);
+
 		this.output = output;
+		this.policy = policy;
+
+		if (policy.getInterval() > 0) {
+
+			flusher = Executors.newSingleThreadScheduledExecutor(
+				new DaemonThreadFactory("Log flusher")
+			);
+
+			flusher.scheduleWithFixedDelay(new Runnable() {
+
+				@Override
+				public void run() {
+					timedFlush();
+				}
+
+			}, policy.getInterval(), policy.getInterval(), TimeUnit.MILLISECONDS);
+
+		} else {
+			flusher = null;
+		}
+
+		if (policy.getEntries() != 1) {
+
+			shutdownHook = new Thread(new Runnable() {
+
+				@Override
+				public void run() {
+					timedFlush();
+				}
+
+			}, "Log flusher shutdown");
+
+			Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+		} else {
+			shutdownHook = null;
+		}
+
 	}
 
-	private DataLogger lastToNotify = null;
+	// buffers the given output
+	private static Writer buffered(final Writer output) {
+		requireNotNull(output);
+		return new BufferedWriter(output, DEFAULT_BUFFER_SIZE);
+	}
+
+	/** Returns the policy deciding when the output is flushed. */
+	public FlushPolicy getPolicy() {
+		return policy;
+	}
 
 	@Override
-	public void notifyLog(DataLogger dataLogger, LogEntry logEntry) {
+	public synchronized void notifyLog(DataLogger dataLogger, LogEntry logEntry) {
+
+		if (closed)
+			return;
 
 		try {
 
@@ -55,7 +187,9 @@ public class DataLoggerWriter implements DataLoggerObserver, Closeable {
 			}
 
 			output.write(logEntry.toString());
-			output.flush();
+
+			if (policy.isDue(++unflushed))
+				flush();
 
 		} catch (IOException ex) {
 			logger.error("Failed to write data logger output to file!", ex);
@@ -64,10 +198,175 @@ public class DataLoggerWriter implements DataLoggerObserver, Closeable {
 
 	}
 
+	// flushes from the timer (or shutdown hook), if needed
+	private synchronized void timedFlush() {
+
+		if (closed || unflushed == 0)
+			return;
+
+		try {
+			flush();
+		} catch (IOException ex) {
+			logger.error("Failed to flush data logger output to file!", ex);
+		}
+
+	}
+
 	@Override
-	public void close() throws IOException {
+	public synchronized void flush() throws IOException {
+
+		if (closed)
+			return;
+
+		FlushEvent flushEvent = new FlushEvent();
+		flushEvent.begin();
+
 		output.flush();
-		output.close();
+
+		if (flushEvent.shouldCommit()) {
+			flushEvent.output = getClass().getSimpleName();
+			flushEvent.entries = unflushed;
+			flushEvent.commit();
+		}
+
+		unflushed = 0;
+
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		if (flusher != null)
+			flusher.shutdownNow();
+
+		if (shutdownHook != null) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			} catch (IllegalStateException ex) {
+				// NOTE already shutting down, the hook flushes the output
+			}
+		}
+
+		synchronized (this) {
+
+			if (closed)
+				return;
+
+			flush();
+
+			closed = true;
+			output.close();
+
+		}
+
+	}
+
+	/**
+	 * A {@code Writer} encoding UTF-8 into a direct buffer, which is written
+	 * to a channel when full or flushed.
+	 */
+	private static final class ChannelWriter extends Writer {
+
+		private final WritableByteChannel channel;
+
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		private final ByteBuffer buffer;
+
+		// the high surrogate left over from the last write (if any)
+		private final CharBuffer carry = CharBuffer.allocate(2);
+
+		public ChannelWriter(final WritableByteChannel channel, int bufferSize) {
+
+			requireNotNull(channel);
+			require(bufferSize >= 16);
+
+			this.channel = channel;
+
+			buffer = ByteBuffer.allocateDirect(bufferSize);
+
+		}
+
+		@Override
+		public void write(char[] chars, int offset, int length) throws IOException {
+			write(CharBuffer.wrap(chars, offset, length));
+		}
+
+		@Override
+		public void write(String text, int offset, int length) throws IOException {
+			write(CharBuffer.wrap(text, offset, offset + length));
+		}
+
+		// encodes the characters, carrying over a split surrogate pair
+		private void write(CharBuffer input) throws IOException {
+
+			// complete the surrogate pair split by the last write
+			if (carry.position() > 0 && input.hasRemaining()) {
+				carry.put(input.get());
+				carry.flip();
+				encode(carry, false);
+				carry.clear();
+			}
+
+			encode(input, false);
+
+			// NOTE only an incomplete surrogate pair is left unencoded
+			if (input.hasRemaining())
+				carry.put(input);
+
+		}
+
+		// encodes the input into the buffer, draining it when full
+		private void encode(CharBuffer input, boolean endOfInput) throws IOException {
+
+			while (true) {
+
+				CoderResult result = encoder.encode(input, buffer, endOfInput);
+
+				if (result.isOverflow())
+					drain();
+				else
+					break;
+
+			}
+
+		}
+
+		// writes the buffered bytes to the channel
+		private void drain() throws IOException {
+
+			buffer.flip();
+
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+
+			buffer.clear();
+
+		}
+
+		@Override
+		public void flush() throws IOException {
+			drain();
+		}
+
+		@Override
+		public void close() throws IOException {
+
+			// encode any unpaired surrogate (replacing it)
+			carry.flip();
+			encode(carry, true);
+			carry.clear();
+
+			while (encoder.flush(buffer).isOverflow())
+				drain();
+
+			drain();
+			channel.close();
+
+		}
+
 	}
 
 }
@@ -16,11 +16,15 @@ package net.zeddev.zedlog.logger.impl;
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import static net.zeddev.zedlog.util.Assertions.*;
 
 /**
  * A simple factory which produces concrete {@code DataLogger}s.
@@ -29,32 +33,24 @@ import net.zeddev.zedlog.logger.DataLogger;
  */
 public final class DataLoggers {
 
-	// the cached logger instances
-	private static final Map<String, DataLogger> LOGGERS = new HashMap<>();
-		// NOTE They can be cached because cannot be modified during execution.
-
 	// the available logger types
-	private static final List<String> TYPES = new ArrayList<>();
-
-	static {
-
-		// the list of available logger instances
-		final DataLogger[] instances = {
-			new CharTypedLogger(),
-			new KeyPressedLogger(),
-			new KeyReleasedLogger(),
-			new MouseClickLogger(),
-			new MousePressedLogger(),
-			new MouseReleasedLogger(),
-			new MouseMovementLogger(),
-			new MouseDraggedLogger(),
-			new MouseWheelLogger()
-		};
-
-		// set all available loggers
-		for (DataLogger loggerInstance : instances) {
-			LOGGERS.put(loggerInstance.type(), loggerInstance);
-			TYPES.add(loggerInstance.type());
+	private static final List<String> TYPES = Arrays.asList(
+		"CharTyped", "KeyPressed", "KeyReleased", "MouseClick", "MousePressed",
+		"MouseRelease", "MouseMovement", "MouseDrag", "MouseWheel"
+	);
+
+	// the cached loggers of the native input
+	// NOTE Held apart, so the native hook is only needed once they are used.
+	private static final class NativeLoggers {
+
+		private static final Map<String, DataLogger> LOGGERS = new HashMap<>();
+			// NOTE They can be cached because cannot be modified during execution.
+
+		static {
+
+			for (String type : TYPES)
+				LOGGERS.put(type, newDataLogger(type, NativeInputSource.getInstance()));
+
 		}
 
 	}
@@ -73,14 +69,55 @@ public final class DataLoggers {
 
 		assert(type != null);
 
-		if (LOGGERS.containsKey(type)) {
-			return LOGGERS.get(type);
+		if (TYPES.contains(type)) {
+			return NativeLoggers.LOGGERS.get(type);
 		} else {
 			return null;
 		}
 
 	}
 
+	/**
+	 * Creates a new {@code DataLogger} of the given type, logging the given
+	 * source of input (i.e. a {@code SyntheticInputSource}).
+	 * Unlike {@code newDataLogger(String)}, the logger is not cached, so
+	 * should be shut down once finished with.
+	 *
+	 * @param type The type of the new {@code DataLogger}.
+	 * @param source The source of input (must not be {@code null}).
+	 * @return The new {@code DataLogger} instance ({@code null} if the type is
+	 * not known).
+	 */
+	public static DataLogger newDataLogger(String type, InputSource source) {
+
+		requireNotNull(type);
+		requireNotNull(source);
+
+		switch (type) {
+			case "CharTyped":
+				return new CharTypedLogger(source);
+			case "KeyPressed":
+				return new KeyPressedLogger(source);
+			case "KeyReleased":
+				return new KeyReleasedLogger(source);
+			case "MouseClick":
+				return new MouseClickLogger(source);
+			case "MousePressed":
+				return new MousePressedLogger(source);
+			case "MouseRelease":
+				return new MouseReleasedLogger(source);
+			case "MouseMovement":
+				return new MouseMovementLogger(source);
+			case "MouseDrag":
+				return new MouseDraggedLogger(source);
+			case "MouseWheel":
+				return new MouseWheelLogger(source);
+			default:
+				return null;
+		}
+
+	}
+
 	/**
 	 * Returns all available {@code DataLogger} types that can be used with
 	 * {@code newDataLogger()}.
@@ -0,0 +1,126 @@
+package net.zeddev.zedlog.logger.impl;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.zeddev.zedlog.util.PolicySpec;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * How often a {@code DataLoggerWriter} flushes its buffered output.
+ * Flushing a file is a system call, so flushing after every entry limits the
+ * rate at which entries can be written.  A policy may flush every given
+ * number of entries and/or every given interval; whichever comes first.
+ * Output is always flushed when the writer is closed.  Policies are
+ * immutable.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class FlushPolicy {
+
+	/** Flushes after every entry (the safest, and slowest, policy). */
+	public static final FlushPolicy EACH_ENTRY = new FlushPolicy(1, 0);
+
+	/** Flushes only when the buffer is full, and on close. */
+	public static final FlushPolicy ON_CLOSE = new FlushPolicy(0, 0);
+
+	private final int entries;
+	private final long interval;
+
+	/**
+	 * Creates a new {@code FlushPolicy}.
+	 *
+	 * @param entries The number of entries between flushes (0 to not count
+	 * entries).
+	 * @param interval The longest time output is left unflushed, in
+	 * milliseconds (0 to not time flushes).
+	 */
+	public FlushPolicy(int entries, long interval) {
+
+		require(entries >= 0);
+		require(interval >= 0);
+
+		this.entries = entries;
+		this.interval = interval;
+
+	}
+
+	/**
+	 * Returns the policy described by the given string.
+	 * The string is either "each", "close", or one or both of {@code <n>}
+	 * (entries) and {@code <n>ms} joined with '+' (i.e. "1000+200ms"), each
+	 * given at most once.
+	 *
+	 * @param policy The description of the policy (must not be {@code null}).
+	 * @return The policy.
+	 * @throws IllegalArgumentException If the description is not valid.
+	 */
+	public static FlushPolicy parse(String policy) {
+
+		requireNotNull(policy);
+
+		if (policy.equals("each"))
+			return EACH_ENTRY;
+		else if (policy.equals("close"))
+			return ON_CLOSE;
+
+		PolicySpec spec = PolicySpec.parse("flush", policy);
+
+		return new FlushPolicy(spec.getCount(), spec.getInterval());
+
+	}
+
+	/** Returns the number of entries between flushes (0 if not counted). */
+	public int getEntries() {
+		return entries;
+	}
+
+	/** Returns the longest time output is left unflushed, in milliseconds (0 if not timed). */
+	public long getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Returns whether to flush after writing an entry.
+	 *
+	 * @param unflushed The number of entries written since the last flush
+	 * (including this entry).
+	 * @return Whether to flush.
+	 */
+	public boolean isDue(int unflushed) {
+		return entries > 0 && unflushed >= entries;
+	}
+
+	@Override
+	public String toString() {
+
+		if (entries == 1 && interval == 0)
+			return "each";
+		else if (entries == 0 && interval == 0)
+			return "close";
+
+		StringBuilder policy = new StringBuilder();
+
+		if (entries > 0)
+			policy.append(entries);
+
+		if (interval > 0)
+			policy.append(policy.length() > 0 ? "+" : "").append(interval).append("ms");
+
+		return policy.toString();
+
+	}
+
+}
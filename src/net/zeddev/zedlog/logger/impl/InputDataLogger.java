@@ -0,0 +1,116 @@
+package net.zeddev.zedlog.logger.impl;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.zeddev.zedlog.logger.AbstractDataLogger;
+import net.zeddev.zedlog.logger.DataLoggerObserver;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputListener;
+import net.zeddev.zedlog.logger.input.InputSource;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * A {@code DataLogger} of a single type of {@code InputEvent}, from an
+ * {@code InputSource}.
+ * Only listens to the source while enabled (recording, with observers, and
+ * not shut down), so the source does not create or deliver events no logger
+ * would record.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public abstract class InputDataLogger extends AbstractDataLogger implements InputListener {
+
+	private final InputSource source;
+	private final InputEvent.Type inputType;
+
+	// whether listening to the source, and whether shut down
+	private boolean listening = false;
+	private boolean shutdown = false;
+
+	/**
+	 * Creates a new {@code InputDataLogger}.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 * @param inputType The type of input logged (must not be {@code null}).
+	 */
+	protected InputDataLogger(InputSource source, InputEvent.Type inputType) {
+
+		super();
+
+		requireNotNull(source);
+		requireNotNull(inputType);
+
+		this.source = source;
+		this.inputType = inputType;
+
+	}
+
+	// starts or stops listening to the source, if enabled or disabled
+	private synchronized void updateListening() {
+
+		boolean enabled = !shutdown && isRecording() && hasObservers();
+
+		if (enabled && !listening) {
+			source.addInputListener(inputType, this);
+		} else if (!enabled && listening) {
+			source.removeInputListener(inputType, this);
+		}
+
+		listening = enabled;
+
+	}
+
+	@Override
+	public synchronized void shutdown() {
+		super.shutdown();
+		shutdown = true;
+		updateListening();
+	}
+
+	@Override
+	public void addObserver(DataLoggerObserver observer) {
+		super.addObserver(observer);
+		updateListening();
+	}
+
+	@Override
+	public void removeObserver(DataLoggerObserver observer) {
+		super.removeObserver(observer);
+		updateListening();
+	}
+
+	@Override
+	public void setRecording(boolean recording) {
+		super.setRecording(recording);
+		updateListening();
+	}
+
+	/** Returns whether listening to the source (i.e. enabled). */
+	public synchronized boolean isListening() {
+		return listening;
+	}
+
+	/** Returns the source of input logged. */
+	public final InputSource getSource() {
+		return source;
+	}
+
+	/** Returns the type of input logged. */
+	public final InputEvent.Type getInputType() {
+		return inputType;
+	}
+
+}
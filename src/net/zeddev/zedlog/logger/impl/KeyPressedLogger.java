@@ -15,25 +15,34 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.management.jfr.CaptureEvent;
 
-import org.jnativehook.GlobalScreen;
 import org.jnativehook.keyboard.NativeKeyEvent;
-import org.jnativehook.keyboard.NativeKeyListener;
 
 /**
  * A {@code DataLogger} for key pressed events.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class KeyPressedLogger extends AbstractDataLogger implements NativeKeyListener {
+public final class KeyPressedLogger extends InputDataLogger {
 
 	/** Creates a new {@code KeyPressedLogger}. */
 	public KeyPressedLogger() {
-		super();
-		GlobalScreen.getInstance().addNativeKeyListener(this);
+		this(NativeInputSource.getInstance());
+	}
+
+	/**
+	 * Creates a new {@code KeyPressedLogger}, logging the given source of input.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 */
+	public KeyPressedLogger(InputSource source) {
+		super(source, InputEvent.Type.KEY_PRESSED);
 	}
 
 	@Override
@@ -42,30 +51,19 @@ public final class KeyPressedLogger extends AbstractDataLogger implements Native
 	}
 
 	@Override
-	public void shutdown() {
-		super.shutdown();
-		GlobalScreen.getInstance().removeNativeKeyListener(this);
-	}
+	public void inputReceived(InputEvent event) {
 
-	@Override
-	public void nativeKeyPressed(NativeKeyEvent event) {
+		CaptureEvent capture = new CaptureEvent();
+		capture.begin();
 
 		KeyEvent keyEvent = new KeyEvent(KeyEvent.Type.PRESSED, event.getKeyCode(), event.getKeyChar());
 		String key = NativeKeyEvent.getKeyText(event.getKeyCode());
 
-		LogEntry logEntry = new LogEntry(this, String.format("%s ", key), keyEvent);
+		LogEntry logEntry = new LogEntry(this, String.format("%s ", key), keyEvent, event.getWhen());
 		notifyDataLoggerObservers(this, logEntry);
 
-	}
+		capture.captured(this, logEntry, event.getWhen());
 
-	@Override
-	public void nativeKeyReleased(NativeKeyEvent event) {
-		// IGNORED
-	}
-
-	@Override
-	public void nativeKeyTyped(NativeKeyEvent event) {
-		// IGNORED
 	}
 
 }
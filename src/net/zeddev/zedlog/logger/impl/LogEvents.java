@@ -16,12 +16,14 @@ package net.zeddev.zedlog.logger.impl;
  */
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import net.zeddev.litelogger.Logger;
 import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.LogEventFactory;
 import net.zeddev.zedlog.logger.impl.event.KeyEvent;
 import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
 import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
@@ -29,46 +31,175 @@ import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
 import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
 import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
 import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEvent;
+import static net.zeddev.zedlog.util.Assertions.*;
 
 /**
  * A simple factory to produce {@code LogEvent}.
+ * Acts as a registry of {@code LogEventFactory}s, keyed by both the type name
+ * (as given by {@code LogEvent.type()}) and a compact integer type id.  New
+ * event types may be registered at runtime using {@code register()}.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
 public class LogEvents {
 
-	private static final Logger logger = Logger.getLogger(LogEvents.class);
+	/** The largest type id which may be registered. */
+	public static final int MAX_TYPE_ID = 255;
+		// NOTE Type ids must fit into a single (unsigned) byte.
 
-	// the available log event types
-	private static final List<String> TYPES = new ArrayList<>();
+	/** Type id returned for unknown types. */
+	public static final int UNKNOWN_TYPE_ID = -1;
 
-	// the classes for the available log events types
-	private static final Map<String, Class> CLASSES = new HashMap<>();
+	/** The type id of {@code KeyEvent}. */
+	public static final int KEY_EVENT = 1;
+
+	/** The type id of {@code MouseClickedEvent}. */
+	public static final int MOUSE_CLICKED = 2;
+
+	/** The type id of {@code MouseDraggedEvent}. */
+	public static final int MOUSE_DRAGGED = 3;
+
+	/** The type id of {@code MouseMovedEvent}. */
+	public static final int MOUSE_MOVED = 4;
+
+	/** The type id of {@code MousePressedEvent}. */
+	public static final int MOUSE_PRESSED = 5;
+
+	/** The type id of {@code MouseReleasedEvent}. */
+	public static final int MOUSE_RELEASED = 6;
+
+	/** The type id of {@code MouseWheelMovedEvent}. */
+	public static final int MOUSE_WHEEL_MOVED = 7;
+
+	// the registered factories and type names, indexed by type id
+	private static volatile LogEventFactory[] factories = new LogEventFactory[MAX_TYPE_ID + 1];
+	private static volatile String[] names = new String[MAX_TYPE_ID + 1];
+		// NOTE Replaced (copy-on-write) when registering, so that the decode
+		//      path can read without locking.
+
+	// the type ids of the registered type names
+	private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+	// the available log event types (in order of registration)
+	private static final List<String> TYPES = new CopyOnWriteArrayList<>();
 
 	static {
 
-		// the list of available log event instances
-		final LogEvent[] instances = {
-			new KeyEvent(),
-			new MouseClickedEvent(),
-			new MouseDraggedEvent(),
-			new MouseMovedEvent(),
-			new MousePressedEvent(),
-			new MouseReleasedEvent(),
-			new MouseWheelMovedEvent()
-		};
-
-		// set all available loggers
-		for (LogEvent eventInstance : instances) {
-			CLASSES.put(eventInstance.type(), eventInstance.getClass());
-			TYPES.add(eventInstance.type());
-		}
+		register(KEY_EVENT, new LogEventFactory() {
+			public LogEvent newLogEvent() {
+				return new KeyEvent();
+			}
+		});
+
+		register(MOUSE_CLICKED, new LogEventFactory() {
+			public LogEvent newLogEvent() {
+				return new MouseClickedEvent();
+			}
+		});
+
+		register(MOUSE_DRAGGED, new LogEventFactory() {
+			public LogEvent newLogEvent() {
+				return new MouseDraggedEvent();
+			}
+		});
+
+		register(MOUSE_MOVED, new LogEventFactory() {
+			public LogEvent newLogEvent() {
+				return new MouseMovedEvent();
+			}
+		});
+
+		register(MOUSE_PRESSED, new LogEventFactory() {
+			public LogEvent newLogEvent() {
+				return new MousePressedEvent();
+			}
+		});
+
+		register(MOUSE_RELEASED, new LogEventFactory() {
+			public LogEvent newLogEvent() {
+				return new MouseReleasedEvent();
+			}
+		});
+
+		register(MOUSE_WHEEL_MOVED, new LogEventFactory() {
+			public LogEvent newLogEvent() {
+				return new MouseWheelMovedEvent();
+			}
+		});
 
 	}
 
 	private LogEvents() {
 	}
 
+	/**
+	 * Registers a new {@code LogEvent} type with the given type id.
+	 * The type name is taken from an instance produced by the factory.
+	 *
+	 * @param typeId The compact type id (between 1 and {@code MAX_TYPE_ID}).
+	 * @param factory The factory producing the events (must not be {@code null}).
+	 * @throws IllegalArgumentException If the type id or type name is already
+	 * registered.
+	 */
+	public static synchronized void register(int typeId, LogEventFactory factory) {
+
+		require(typeId > 0 && typeId <= MAX_TYPE_ID);
+		requireNotNull(factory);
+
+		String type = factory.newLogEvent().type();
+		checkNotNull(type);
+
+		if (factories[typeId] != null) {
+
+			throw new IllegalArgumentException(String.format(
+				"Log event type id %d already registered to %s.", typeId, names[typeId]
+			));
+
+		} else if (IDS.containsKey(type)) {
+
+			throw new IllegalArgumentException(
+				String.format("Log event type %s already registered.", type)
+			);
+
+		}
+
+		LogEventFactory[] newFactories = Arrays.copyOf(factories, factories.length);
+		String[] newNames = Arrays.copyOf(names, names.length);
+
+		newFactories[typeId] = factory;
+		newNames[typeId] = type;
+
+		names = newNames;
+		factories = newFactories;
+
+		IDS.put(type, typeId);
+		TYPES.add(type);
+
+	}
+
+	/**
+	 * Registers a new {@code LogEvent} type, using the next free type id.
+	 *
+	 * @param factory The factory producing the events (must not be {@code null}).
+	 * @return The type id assigned to the event type.
+	 */
+	public static synchronized int register(LogEventFactory factory) {
+
+		requireNotNull(factory);
+
+		for (int typeId = 1; typeId <= MAX_TYPE_ID; typeId++) {
+
+			if (factories[typeId] == null) {
+				register(typeId, factory);
+				return typeId;
+			}
+
+		}
+
+		throw new IllegalStateException("No free log event type ids.");
+
+	}
+
 	/**
 	 * Creates a new {@code LogEvent} of the given type.
 	 * for a full list of types see {@code typeList()}.
@@ -82,21 +213,67 @@ public class LogEvents {
 
 		assert(type != null);
 
-		if (CLASSES.containsKey(type)) {
+		return newLogEvent(typeId(type));
 
-			try {
-				return (LogEvent) CLASSES.get(type).newInstance();
-			} catch (InstantiationException | IllegalAccessException ex) {
-				logger.warning("Failed to instantiate LogEntry instance of type %s.", ex, type);
-				return null;
-			}
+	}
+
+	/**
+	 * Creates a new {@code LogEvent} with the given type id.
+	 *
+	 * @param typeId The type id of the {@code LogEvent}.
+	 * @return The new {@code LogEvent} instance.  Or {@code null} if
+	 * the given type id is not known.
+	 */
+	public static LogEvent newLogEvent(int typeId) {
+
+		if (typeId <= 0 || typeId > MAX_TYPE_ID)
+			return null;
+
+		LogEventFactory factory = factories[typeId];
 
+		if (factory != null) {
+			return factory.newLogEvent();
 		} else {
 			return null;
 		}
 
 	}
 
+	/**
+	 * Returns the type id of the given {@code LogEvent} type.
+	 *
+	 * @param type The type name of the {@code LogEvent}.
+	 * @return The type id, or {@code UNKNOWN_TYPE_ID} if not known.
+	 */
+	public static int typeId(String type) {
+
+		assert(type != null);
+
+		Integer typeId = IDS.get(type);
+
+		if (typeId != null) {
+			return typeId;
+		} else {
+			return UNKNOWN_TYPE_ID;
+		}
+
+	}
+
+	/**
+	 * Returns the type name for the given type id.
+	 *
+	 * @param typeId The type id of the {@code LogEvent}.
+	 * @return The type name, or {@code null} if not known.
+	 */
+	public static String typeName(int typeId) {
+
+		if (typeId <= 0 || typeId > MAX_TYPE_ID)
+			return null;
+
+		return names[typeId];
+
+	}
+
 	/**
 	 * Returns the list of available {@code LogEvent} types producable by
 	 * {@code newLogEvent()}.
@@ -110,6 +287,7 @@ public class LogEvents {
 	 *  <li>"MouseReleased" - {@code MouseReleasedEvent}.</li>
 	 *  <li>"MouseWheelMoved" - {@code MouseWheelMovedEvent}.</li>
 	 * </ul>
+	 * Along with any types registered at runtime.
 	 *
 	 * @return The list of available {@code LogEvent} types.
 	 */
@@ -15,32 +15,32 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
-
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.mouse.NativeMouseEvent;
-import org.jnativehook.mouse.NativeMouseListener;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.management.jfr.CaptureEvent;
 
 /**
  * A {@code DataLogger} for mouse click events.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class MouseClickLogger extends AbstractDataLogger
-		implements NativeMouseListener {
+public final class MouseClickLogger extends InputDataLogger {
 
 	/** Creates a new {@code MouseLogger}. */
 	public MouseClickLogger() {
-		super();
-		GlobalScreen.getInstance().addNativeMouseListener(this);
+		this(NativeInputSource.getInstance());
 	}
 
-	@Override
-	public void shutdown() {
-		super.shutdown();
-		GlobalScreen.getInstance().removeNativeMouseListener(this);
+	/**
+	 * Creates a new {@code MouseClickLogger}, logging the given source of input.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 */
+	public MouseClickLogger(InputSource source) {
+		super(source, InputEvent.Type.MOUSE_CLICKED);
 	}
 
 	@Override
@@ -49,25 +49,19 @@ public final class MouseClickLogger extends AbstractDataLogger
 	}
 
 	@Override
-	public void nativeMouseClicked(final NativeMouseEvent event) {
+	public void inputReceived(InputEvent event) {
+
+		CaptureEvent capture = new CaptureEvent();
+		capture.begin();
 
 		MouseClickedEvent clickEvent =
 			new MouseClickedEvent(event);
 
-		LogEntry logEntry = new LogEntry(this, clickEvent.toString(), clickEvent);
+		LogEntry logEntry = new LogEntry(this, clickEvent.toString(), clickEvent, event.getWhen());
 		notifyDataLoggerObservers(this, logEntry);
 
-	}
+		capture.captured(this, logEntry, event.getWhen());
 
-	@Override
-	public void nativeMousePressed(NativeMouseEvent event) {
-		// IGNORED
-	}
-
-	@Override
-	public void nativeMouseReleased(NativeMouseEvent event) {
-		// IGNORED
 	}
 
 }
-
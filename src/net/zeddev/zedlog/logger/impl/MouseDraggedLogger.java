@@ -15,32 +15,32 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
-
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.mouse.NativeMouseEvent;
-import org.jnativehook.mouse.NativeMouseMotionListener;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.management.jfr.CaptureEvent;
 
 /**
  * A {@code DataLogger} for mouse dragging events.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class MouseDraggedLogger extends AbstractDataLogger
-		implements NativeMouseMotionListener {
+public final class MouseDraggedLogger extends InputDataLogger {
 
 	/** Creates a new {@code MouseDraggedLogger}. */
 	public MouseDraggedLogger() {
-		super();
-		GlobalScreen.getInstance().addNativeMouseMotionListener(this);
+		this(NativeInputSource.getInstance());
 	}
 
-	@Override
-	public void shutdown() {
-		super.shutdown();
-		GlobalScreen.getInstance().removeNativeMouseMotionListener(this);
+	/**
+	 * Creates a new {@code MouseDraggedLogger}, logging the given source of input.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 */
+	public MouseDraggedLogger(InputSource source) {
+		super(source, InputEvent.Type.MOUSE_DRAGGED);
 	}
 
 	@Override
@@ -49,20 +49,19 @@ public final class MouseDraggedLogger extends AbstractDataLogger
 	}
 
 	@Override
-	public void nativeMouseMoved(NativeMouseEvent event) {
-		// IGNORED
-	}
+	public void inputReceived(InputEvent event) {
 
-	@Override
-	public void nativeMouseDragged(NativeMouseEvent event) {
+		CaptureEvent capture = new CaptureEvent();
+		capture.begin();
 
 		MouseDraggedEvent draggedEvent =
 			new MouseDraggedEvent(event);
 
-		LogEntry logEntry = new LogEntry(this, draggedEvent.toString(), draggedEvent);
+		LogEntry logEntry = new LogEntry(this, draggedEvent.toString(), draggedEvent, event.getWhen());
 		notifyDataLoggerObservers(this, logEntry);
 
+		capture.captured(this, logEntry, event.getWhen());
+
 	}
 
 }
-
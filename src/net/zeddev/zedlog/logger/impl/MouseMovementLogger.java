@@ -15,32 +15,32 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
-
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.mouse.NativeMouseEvent;
-import org.jnativehook.mouse.NativeMouseMotionListener;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.management.jfr.CaptureEvent;
 
 /**
  * A {@code DataLogger} for mouse movements events.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class MouseMovementLogger extends AbstractDataLogger
-		implements NativeMouseMotionListener {
+public final class MouseMovementLogger extends InputDataLogger {
 
 	/** Creates a new {@code MouseMovementLogger}. */
 	public MouseMovementLogger() {
-		super();
-		GlobalScreen.getInstance().addNativeMouseMotionListener(this);
+		this(NativeInputSource.getInstance());
 	}
 
-	@Override
-	public void shutdown() {
-		super.shutdown();
-		GlobalScreen.getInstance().removeNativeMouseMotionListener(this);
+	/**
+	 * Creates a new {@code MouseMovementLogger}, logging the given source of input.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 */
+	public MouseMovementLogger(InputSource source) {
+		super(source, InputEvent.Type.MOUSE_MOVED);
 	}
 
 	@Override
@@ -49,19 +49,18 @@ public final class MouseMovementLogger extends AbstractDataLogger
 	}
 
 	@Override
-	public void nativeMouseMoved(NativeMouseEvent event) {
+	public void inputReceived(InputEvent event) {
+
+		CaptureEvent capture = new CaptureEvent();
+		capture.begin();
 
 		MouseMovedEvent moveEvent = new MouseMovedEvent(event);
 
-		LogEntry logEntry = new LogEntry(this, moveEvent.toString(), moveEvent);
+		LogEntry logEntry = new LogEntry(this, moveEvent.toString(), moveEvent, event.getWhen());
 		notifyDataLoggerObservers(this, logEntry);
 
-	}
+		capture.captured(this, logEntry, event.getWhen());
 
-	@Override
-	public void nativeMouseDragged(NativeMouseEvent nme) {
-		// IGNORED
 	}
 
 }
-
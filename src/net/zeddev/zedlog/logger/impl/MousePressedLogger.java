@@ -15,32 +15,32 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
-
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.mouse.NativeMouseEvent;
-import org.jnativehook.mouse.NativeMouseListener;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.management.jfr.CaptureEvent;
 
 /**
  * A {@code DataLogger} for mouse pressed events.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class MousePressedLogger extends AbstractDataLogger
-		implements NativeMouseListener {
+public final class MousePressedLogger extends InputDataLogger {
 
 	/** Creates a new {@code MouseLogger}. */
 	public MousePressedLogger() {
-		super();
-		GlobalScreen.getInstance().addNativeMouseListener(this);
+		this(NativeInputSource.getInstance());
 	}
 
-	@Override
-	public void shutdown() {
-		super.shutdown();
-		GlobalScreen.getInstance().removeNativeMouseListener(this);
+	/**
+	 * Creates a new {@code MousePressedLogger}, logging the given source of input.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 */
+	public MousePressedLogger(InputSource source) {
+		super(source, InputEvent.Type.MOUSE_PRESSED);
 	}
 
 	@Override
@@ -49,24 +49,19 @@ public final class MousePressedLogger extends AbstractDataLogger
 	}
 
 	@Override
-	public void nativeMouseClicked(final NativeMouseEvent event) {
-		// IGNORED
-	}
+	public void inputReceived(InputEvent event) {
 
-	@Override
-	public void nativeMousePressed(NativeMouseEvent event) {
+		CaptureEvent capture = new CaptureEvent();
+		capture.begin();
 
 		MousePressedEvent clickEvent =
 			new MousePressedEvent(event);
 
-		LogEntry logEntry = new LogEntry(this, clickEvent.toString(), clickEvent);
+		LogEntry logEntry = new LogEntry(this, clickEvent.toString(), clickEvent, event.getWhen());
 		notifyDataLoggerObservers(this, logEntry);
 
-	}
+		capture.captured(this, logEntry, event.getWhen());
 
-	@Override
-	public void nativeMouseReleased(NativeMouseEvent event) {
-		// IGNORED
 	}
 
 }
@@ -15,32 +15,32 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
-
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.mouse.NativeMouseEvent;
-import org.jnativehook.mouse.NativeMouseListener;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.management.jfr.CaptureEvent;
 
 /**
  * A {@code DataLogger} for mouse released events.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class MouseReleasedLogger extends AbstractDataLogger
-		implements NativeMouseListener {
+public final class MouseReleasedLogger extends InputDataLogger {
 
 	/** Creates a new {@code MouseLogger}. */
 	public MouseReleasedLogger() {
-		super();
-		GlobalScreen.getInstance().addNativeMouseListener(this);
+		this(NativeInputSource.getInstance());
 	}
 
-	@Override
-	public void shutdown() {
-		super.shutdown();
-		GlobalScreen.getInstance().removeNativeMouseListener(this);
+	/**
+	 * Creates a new {@code MouseReleasedLogger}, logging the given source of input.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 */
+	public MouseReleasedLogger(InputSource source) {
+		super(source, InputEvent.Type.MOUSE_RELEASED);
 	}
 
 	@Override
@@ -49,24 +49,19 @@ public final class MouseReleasedLogger extends AbstractDataLogger
 	}
 
 	@Override
-	public void nativeMouseClicked(final NativeMouseEvent event) {
-		// IGNORED
-	}
-
-	@Override
-	public void nativeMousePressed(NativeMouseEvent event) {
-		// IGNORED
-	}
+	public void inputReceived(InputEvent event) {
 
-	@Override
-	public void nativeMouseReleased(NativeMouseEvent event) {
+		CaptureEvent capture = new CaptureEvent();
+		capture.begin();
 
 		MouseReleasedEvent clickEvent =
 			new MouseReleasedEvent(event);
 
-		LogEntry logEntry = new LogEntry(this, clickEvent.toString(), clickEvent);
+		LogEntry logEntry = new LogEntry(this, clickEvent.toString(), clickEvent, event.getWhen());
 		notifyDataLoggerObservers(this, logEntry);
 
+		capture.captured(this, logEntry, event.getWhen());
+
 	}
 
 }
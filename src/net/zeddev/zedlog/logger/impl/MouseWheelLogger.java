@@ -15,35 +15,35 @@ package net.zeddev.zedlog.logger.impl;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
-import net.zeddev.zedlog.logger.AbstractDataLogger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEvent;
-
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.mouse.NativeMouseWheelEvent;
-import org.jnativehook.mouse.NativeMouseWheelListener;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputSource;
+import net.zeddev.zedlog.logger.input.NativeInputSource;
+import net.zeddev.zedlog.management.jfr.CaptureEvent;
 
 /**
  * A {@code DataLogger} for mouse wheel movement events.
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
-public final class MouseWheelLogger extends AbstractDataLogger
-		implements NativeMouseWheelListener {
+public final class MouseWheelLogger extends InputDataLogger {
 
 	/**
 	 * Creates a new {@code MouseWheelLogger}.
 	 *
 	 */
 	public MouseWheelLogger() {
-		super();
-		GlobalScreen.getInstance().addNativeMouseWheelListener(this);
+		this(NativeInputSource.getInstance());
 	}
 
-	@Override
-	public void shutdown() {
-		super.shutdown();
-		GlobalScreen.getInstance().removeNativeMouseWheelListener(this);
+	/**
+	 * Creates a new {@code MouseWheelLogger}, logging the given source of input.
+	 *
+	 * @param source The source of input (must not be {@code null}).
+	 */
+	public MouseWheelLogger(InputSource source) {
+		super(source, InputEvent.Type.MOUSE_WHEEL);
 	}
 
 	@Override
@@ -52,14 +52,19 @@ public final class MouseWheelLogger extends AbstractDataLogger
 	}
 
 	@Override
-	public void nativeMouseWheelMoved(NativeMouseWheelEvent event) {
+	public void inputReceived(InputEvent event) {
+
+		CaptureEvent capture = new CaptureEvent();
+		capture.begin();
 
 		MouseWheelMovedEvent wheelEvent =
 			new MouseWheelMovedEvent(event);
 
-		LogEntry logEntry = new LogEntry(this, wheelEvent.toString(), wheelEvent);
+		LogEntry logEntry = new LogEntry(this, wheelEvent.toString(), wheelEvent, event.getWhen());
 		notifyDataLoggerObservers(this, logEntry);
 
+		capture.captured(this, logEntry, event.getWhen());
+
 	}
 
 }
@@ -15,6 +15,9 @@ package net.zeddev.zedlog.logger.impl.event;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Writer;
 import java.util.Scanner;
 import net.zeddev.zedlog.logger.LogEvent;
@@ -143,6 +146,35 @@ public class KeyEvent extends LogEvent {
 		
 	}
 	
+	@Override
+	public void toBinary(DataOutput output) throws IOException {
+
+		requireNotNull(output);
+
+		output.writeByte(getEventType().ordinal());
+		output.writeInt(getKeyCode());
+		output.writeChar(getChar());
+
+	}
+
+	@Override
+	public void fromBinary(DataInput input) throws IOException {
+
+		requireNotNull(input);
+
+		int type = input.readUnsignedByte();
+		if (type >= Type.values().length) {
+			throw new IOException(
+				String.format("Unknown key event type %d.", type)
+			);
+		}
+
+		setEventType(Type.values()[type]);
+		setKeyCode(input.readInt());
+		setChar(input.readChar());
+
+	}
+
 	@Override
 	public void write(Writer output) throws Exception {
 
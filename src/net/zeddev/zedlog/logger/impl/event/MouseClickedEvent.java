@@ -15,12 +15,17 @@ package net.zeddev.zedlog.logger.impl.event;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Writer;
 import java.util.Objects;
 import java.util.Scanner;
 
 import org.jnativehook.mouse.NativeMouseEvent;
 
+import net.zeddev.zedlog.logger.input.InputEvent;
+
 import org.w3c.dom.*;
 
 import net.zeddev.zedlog.logger.impl.event.MouseEvent;
@@ -48,6 +53,13 @@ public final class MouseClickedEvent extends MouseEvent {
 		setClickCount(event.getClickCount());
 	}
 
+	public MouseClickedEvent(final InputEvent event) {
+		super(event);
+		setButtonCode(event.getButton());
+		setButton(buttonName(event.getButton()));
+		setClickCount(event.getClickCount());
+	}
+
 	public final int getButtonCode() {
 		return buttonCode;
 	}
@@ -110,6 +122,25 @@ public final class MouseClickedEvent extends MouseEvent {
 		
 	}
 	
+	@Override
+	public void toBinary(DataOutput output) throws IOException {
+		super.toBinary(output);
+
+		output.writeInt(getButtonCode());
+		output.writeInt(getClickCount());
+
+	}
+
+	@Override
+	public void fromBinary(DataInput input) throws IOException {
+		super.fromBinary(input);
+
+		setButtonCode(input.readInt());
+		setButton(buttonName(getButtonCode()));
+		setClickCount(input.readInt());
+
+	}
+
 	@Override
 	public void write(Writer output) throws Exception {
 
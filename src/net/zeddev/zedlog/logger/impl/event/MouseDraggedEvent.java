@@ -15,11 +15,16 @@ package net.zeddev.zedlog.logger.impl.event;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Writer;
 import java.util.Scanner;
 
 import org.jnativehook.mouse.NativeMouseEvent;
 
+import net.zeddev.zedlog.logger.input.InputEvent;
+
 import org.w3c.dom.*;
 import static net.zeddev.zedlog.util.Assertions.*;
 import net.zeddev.zedlog.util.HashUtil;
@@ -41,6 +46,11 @@ public final class MouseDraggedEvent extends MouseEvent {
 		setButtonCode(event.getButton());
 	}
 
+	public MouseDraggedEvent(final InputEvent event) {
+		super(event);
+		setButtonCode(event.getButton());
+	}
+
 	public final int getButtonCode() {
 		return buttonCode;
 	}
@@ -78,6 +88,22 @@ public final class MouseDraggedEvent extends MouseEvent {
 
 	}
 	
+	@Override
+	public void toBinary(DataOutput output) throws IOException {
+		super.toBinary(output);
+
+		output.writeInt(getButtonCode());
+
+	}
+
+	@Override
+	public void fromBinary(DataInput input) throws IOException {
+		super.fromBinary(input);
+
+		setButtonCode(input.readInt());
+
+	}
+
 	@Override
 	public void write(Writer output) throws Exception {
 
@@ -15,10 +15,14 @@ package net.zeddev.zedlog.logger.impl.event;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Writer;
 import java.util.Scanner;
 
 import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.input.InputEvent;
 
 import org.jnativehook.mouse.NativeMouseEvent;
 
@@ -44,6 +48,11 @@ public abstract class MouseEvent extends LogEvent {
 	   setY(event.getY());
    }
 
+   protected MouseEvent(final InputEvent event) {
+	   setX(event.getX());
+	   setY(event.getY());
+   }
+
    public final int getX() {
 	   return x;
    }
@@ -139,6 +148,28 @@ public abstract class MouseEvent extends LogEvent {
 		
 	}
 
+	@Override
+	public void toBinary(DataOutput output) throws IOException {
+
+		requireNotNull(output);
+
+		// NOTE The position must come first, so that it can be read without
+		//      decoding the whole event.
+		output.writeInt(getX());
+		output.writeInt(getY());
+
+	}
+
+	@Override
+	public void fromBinary(DataInput input) throws IOException {
+
+		requireNotNull(input);
+
+		setX(input.readInt());
+		setY(input.readInt());
+
+	}
+
 	@Override
 	public void write(Writer output) throws Exception {
 
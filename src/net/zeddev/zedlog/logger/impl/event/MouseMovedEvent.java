@@ -17,6 +17,8 @@ package net.zeddev.zedlog.logger.impl.event;
 
 import org.jnativehook.mouse.NativeMouseEvent;
 
+import net.zeddev.zedlog.logger.input.InputEvent;
+
 import org.w3c.dom.*;
 import static net.zeddev.zedlog.util.Assertions.*;
 
@@ -35,6 +37,10 @@ public final class MouseMovedEvent extends MouseEvent {
 		super(event);
 	}
 
+	public MouseMovedEvent(final InputEvent event) {
+		super(event);
+	}
+
 	@Override
 	public String type() {
 		return "MouseMoved";
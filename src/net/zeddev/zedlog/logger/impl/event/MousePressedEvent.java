@@ -15,12 +15,17 @@ package net.zeddev.zedlog.logger.impl.event;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Writer;
 import java.util.Objects;
 import java.util.Scanner;
 
 import org.jnativehook.mouse.NativeMouseEvent;
 
+import net.zeddev.zedlog.logger.input.InputEvent;
+
 import org.w3c.dom.*;
 import static net.zeddev.zedlog.util.Assertions.*;
 import net.zeddev.zedlog.util.HashUtil;
@@ -44,6 +49,12 @@ public final class MousePressedEvent extends MouseEvent {
 		setButton(buttonName(event.getButton()));
 	}
 
+	public MousePressedEvent(final InputEvent event) {
+		super(event);
+		setButtonCode(event.getButton());
+		setButton(buttonName(event.getButton()));
+	}
+
 	public final int getButtonCode() {
 		return buttonCode;
 	}
@@ -92,6 +103,23 @@ public final class MousePressedEvent extends MouseEvent {
 		
 	}
 
+	@Override
+	public void toBinary(DataOutput output) throws IOException {
+		super.toBinary(output);
+
+		output.writeInt(getButtonCode());
+
+	}
+
+	@Override
+	public void fromBinary(DataInput input) throws IOException {
+		super.fromBinary(input);
+
+		setButtonCode(input.readInt());
+		setButton(buttonName(getButtonCode()));
+
+	}
+
 	@Override
 	public void write(Writer output) throws Exception {
 
@@ -15,11 +15,16 @@ package net.zeddev.zedlog.logger.impl.event;
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Writer;
 import java.util.Scanner;
 
 import org.jnativehook.mouse.NativeMouseWheelEvent;
 
+import net.zeddev.zedlog.logger.input.InputEvent;
+
 import org.w3c.dom.*;
 import static net.zeddev.zedlog.util.Assertions.*;
 import net.zeddev.zedlog.util.HashUtil;
@@ -41,6 +46,11 @@ public final class MouseWheelMovedEvent extends MouseEvent {
 		setRotation(event.getWheelRotation());
 	}
 
+	public MouseWheelMovedEvent(final InputEvent event) {
+		super(event);
+		setRotation(event.getRotation());
+	}
+
 	public int getRotation() {
 		return rotation;
 	}
@@ -79,6 +89,22 @@ public final class MouseWheelMovedEvent extends MouseEvent {
 		
 	}
 
+	@Override
+	public void toBinary(DataOutput output) throws IOException {
+		super.toBinary(output);
+
+		output.writeInt(getRotation());
+
+	}
+
+	@Override
+	public void fromBinary(DataInput input) throws IOException {
+		super.fromBinary(input);
+
+		setRotation(input.readInt());
+
+	}
+
 	@Override
 	public void write(Writer output) throws Exception {
 
@@ -0,0 +1,81 @@
+package net.zeddev.zedlog.logger.input;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Routes {@code InputEvent}s by type, to only the listeners of that type.
+ * The listeners are copied on write, so events are delivered without
+ * locking (listeners change rarely, compared to events).
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+final class InputDemultiplexer {
+
+	// the listeners for each type of event
+	private final Map<InputEvent.Type, List<InputListener>> listeners =
+		new EnumMap<>(InputEvent.Type.class);
+
+	public InputDemultiplexer() {
+
+		for (InputEvent.Type type : InputEvent.Type.values())
+			listeners.put(type, new CopyOnWriteArrayList<InputListener>());
+
+	}
+
+	/** Adds a listener for the given type of event. */
+	public void add(InputEvent.Type type, InputListener listener) {
+
+		requireNotNull(type);
+		requireNotNull(listener);
+
+		listeners.get(type).add(listener);
+
+	}
+
+	/** Removes a listener for the given type of event. */
+	public void remove(InputEvent.Type type, InputListener listener) {
+
+		requireNotNull(type);
+		requireNotNull(listener);
+
+		listeners.get(type).remove(listener);
+
+	}
+
+	/**
+	 * Returns whether there are any listeners for the given type of event.
+	 * Used to skip creating events no one listens for.
+	 */
+	public boolean hasListeners(InputEvent.Type type) {
+		return !listeners.get(type).isEmpty();
+	}
+
+	/** Delivers the event to the listeners of its type. */
+	public void deliver(InputEvent event) {
+
+		for (InputListener listener : listeners.get(event.getType()))
+			listener.inputReceived(event);
+
+	}
+
+}
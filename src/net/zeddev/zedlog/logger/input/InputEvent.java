@@ -0,0 +1,215 @@
+package net.zeddev.zedlog.logger.input;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * A single keyboard or mouse input event, as delivered by an
+ * {@code InputSource}.
+ * Decouples the loggers from where their input comes from (i.e. the native
+ * hook or a {@code SyntheticInputSource}), and carries only the fields the
+ * loggers use.  Events are immutable.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class InputEvent {
+
+	/** The type of {@code InputEvent}. */
+	public static enum Type {
+
+		KEY_PRESSED("KeyPressed"),
+		KEY_RELEASED("KeyReleased"),
+		KEY_TYPED("KeyTyped"),
+		MOUSE_CLICKED("MouseClicked"),
+		MOUSE_PRESSED("MousePressed"),
+		MOUSE_RELEASED("MouseReleased"),
+		MOUSE_MOVED("MouseMoved"),
+		MOUSE_DRAGGED("MouseDragged"),
+		MOUSE_WHEEL("MouseWheel");
+
+		private final String name;
+
+		private Type(String name) {
+			this.name = name;
+		}
+
+		/** Returns whether the type is a keyboard event. */
+		public boolean isKey() {
+			return this == KEY_PRESSED || this == KEY_RELEASED || this == KEY_TYPED;
+		}
+
+		/** Returns the {@code Type} with the given name (i.e. "MouseMoved"). */
+		public static Type getByName(String typeName) {
+
+			requireNotNull(typeName);
+
+			for (Type type : values()) {
+				if (type.name.equals(typeName))
+					return type;
+			}
+
+			throw new IllegalArgumentException(
+				String.format("Unknown input event type %s.", typeName)
+			);
+
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+
+	}
+
+	private final Type type;
+	private final long when;
+
+	private final int keyCode;
+	private final char keyChar;
+
+	private final int x, y;
+	private final int button;
+	private final int clickCount;
+	private final int rotation;
+
+	private InputEvent(Type type, long when, int keyCode, char keyChar,
+			int x, int y, int button, int clickCount, int rotation) {
+
+		requireNotNull(type);
+
+		this.type = type;
+		this.when = when;
+		this.keyCode = keyCode;
+		this.keyChar = keyChar;
+		this.x = x;
+		this.y = y;
+		this.button = button;
+		this.clickCount = clickCount;
+		this.rotation = rotation;
+
+	}
+
+	/**
+	 * Creates a new keyboard event.
+	 *
+	 * @param type The type of event (must be a key event).
+	 * @param when The time of the event, in milliseconds since the epoch.
+	 * @param keyCode The virtual key code.
+	 * @param keyChar The character typed (for typed events).
+	 * @return The new event.
+	 */
+	public static InputEvent key(Type type, long when, int keyCode, char keyChar) {
+		require(type.isKey());
+		return new InputEvent(type, when, keyCode, keyChar, -1, -1, -1, -1, 0);
+	}
+
+	/**
+	 * Creates a new mouse button or motion event.
+	 *
+	 * @param type The type of event (must be a mouse event, other than the wheel).
+	 * @param when The time of the event, in milliseconds since the epoch.
+	 * @param x The x position of the pointer.
+	 * @param y The y position of the pointer.
+	 * @param button The button code (for button events).
+	 * @param clickCount The number of clicks (for button events).
+	 * @return The new event.
+	 */
+	public static InputEvent mouse(Type type, long when, int x, int y,
+			int button, int clickCount) {
+		require(!type.isKey() && type != Type.MOUSE_WHEEL);
+		return new InputEvent(type, when, -1, (char) -1, x, y, button, clickCount, 0);
+	}
+
+	/**
+	 * Creates a new mouse wheel event.
+	 *
+	 * @param when The time of the event, in milliseconds since the epoch.
+	 * @param x The x position of the pointer.
+	 * @param y The y position of the pointer.
+	 * @param rotation The number of notches the wheel was rotated (negative
+	 * for up).
+	 * @return The new event.
+	 */
+	public static InputEvent wheel(long when, int x, int y, int rotation) {
+		return new InputEvent(Type.MOUSE_WHEEL, when, -1, (char) -1, x, y, -1, -1, rotation);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/** Returns the time of the event, in milliseconds since the epoch. */
+	public long getWhen() {
+		return when;
+	}
+
+	public int getKeyCode() {
+		return keyCode;
+	}
+
+	public char getKeyChar() {
+		return keyChar;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	public int getButton() {
+		return button;
+	}
+
+	public int getClickCount() {
+		return clickCount;
+	}
+
+	public int getRotation() {
+		return rotation;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder str = new StringBuilder();
+
+		str.append(type);
+
+		if (type.isKey()) {
+			str.append(" key ").append(keyCode);
+			str.append(" char ").append((int) keyChar);
+		} else {
+
+			str.append(" at (").append(x).append(", ").append(y).append(")");
+
+			if (type == Type.MOUSE_WHEEL) {
+				str.append(" rotation ").append(rotation);
+			} else if (button >= 0) {
+				str.append(" button ").append(button);
+				str.append(" clicks ").append(clickCount);
+			}
+
+		}
+
+		return str.toString();
+
+	}
+
+}
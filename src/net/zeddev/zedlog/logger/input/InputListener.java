@@ -0,0 +1,33 @@
+package net.zeddev.zedlog.logger.input;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Receives the {@code InputEvent}s of an {@code InputSource}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface InputListener {
+
+	/**
+	 * Called for each input event of the type(s) the listener was added for.
+	 * Called on the thread of the input source, so must return quickly.
+	 *
+	 * @param event The input event.
+	 */
+	public void inputReceived(InputEvent event);
+
+}
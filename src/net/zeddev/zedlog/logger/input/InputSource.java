@@ -0,0 +1,42 @@
+package net.zeddev.zedlog.logger.input;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * A source of keyboard and mouse {@code InputEvent}s (i.e. the native hook),
+ * to which the loggers listen.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface InputSource {
+
+	/**
+	 * Adds a listener for the given type of event.
+	 *
+	 * @param type The type of event (must not be {@code null}).
+	 * @param listener The listener (must not be {@code null}).
+	 */
+	public void addInputListener(InputEvent.Type type, InputListener listener);
+
+	/**
+	 * Removes a listener added for the given type of event.
+	 *
+	 * @param type The type of event (must not be {@code null}).
+	 * @param listener The listener (must not be {@code null}).
+	 */
+	public void removeInputListener(InputEvent.Type type, InputListener listener);
+
+}
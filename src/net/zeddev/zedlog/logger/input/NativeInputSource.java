@@ -0,0 +1,176 @@
+package net.zeddev.zedlog.logger.input;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import org.jnativehook.GlobalScreen;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.jnativehook.keyboard.NativeKeyListener;
+import org.jnativehook.mouse.NativeMouseEvent;
+import org.jnativehook.mouse.NativeMouseListener;
+import org.jnativehook.mouse.NativeMouseMotionListener;
+import org.jnativehook.mouse.NativeMouseWheelEvent;
+import org.jnativehook.mouse.NativeMouseWheelListener;
+
+/**
+ * The {@code InputSource} of the operating system's input, as captured by
+ * JNativeHook.
+ * A single native listener receives every native event, converts it to an
+ * {@code InputEvent} once (stamped with the time received), and routes it to
+ * only the listeners of its type.  Events with no listeners are dropped
+ * before being converted.  The native hook must be registered for events to
+ * be received.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class NativeInputSource implements InputSource {
+
+	private static final NativeInputSource INSTANCE = new NativeInputSource();
+
+	// routes the converted events to their listeners
+	private final InputDemultiplexer listeners = new InputDemultiplexer();
+
+	// whether the native listener has been added to the hook
+	private boolean hooked = false;
+
+	private NativeInputSource() {
+	}
+
+	/** Returns the single {@code NativeInputSource}. */
+	public static NativeInputSource getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public void addInputListener(InputEvent.Type type, InputListener listener) {
+		hook();
+		listeners.add(type, listener);
+	}
+
+	@Override
+	public void removeInputListener(InputEvent.Type type, InputListener listener) {
+		listeners.remove(type, listener);
+	}
+
+	// adds the native listener to the hook, once first needed
+	// NOTE left added, as events without listeners are dropped cheaply
+	private synchronized void hook() {
+
+		if (!hooked) {
+
+			NativeListener listener = new NativeListener();
+			GlobalScreen screen = GlobalScreen.getInstance();
+
+			screen.addNativeKeyListener(listener);
+			screen.addNativeMouseListener(listener);
+			screen.addNativeMouseMotionListener(listener);
+			screen.addNativeMouseWheelListener(listener);
+
+			hooked = true;
+
+		}
+
+	}
+
+	// converts and routes a native key event
+	private void route(InputEvent.Type type, NativeKeyEvent event) {
+
+		if (listeners.hasListeners(type)) {
+
+			listeners.deliver(InputEvent.key(
+				type, System.currentTimeMillis(), event.getKeyCode(), event.getKeyChar()
+			));
+
+		}
+
+	}
+
+	// converts and routes a native mouse event
+	private void route(InputEvent.Type type, NativeMouseEvent event) {
+
+		if (listeners.hasListeners(type)) {
+
+			listeners.deliver(InputEvent.mouse(
+				type, System.currentTimeMillis(), event.getX(), event.getY(),
+				event.getButton(), event.getClickCount()
+			));
+
+		}
+
+	}
+
+	// the single listener of all native events
+	private final class NativeListener implements NativeKeyListener,
+			NativeMouseListener, NativeMouseMotionListener, NativeMouseWheelListener {
+
+		@Override
+		public void nativeKeyPressed(NativeKeyEvent event) {
+			route(InputEvent.Type.KEY_PRESSED, event);
+		}
+
+		@Override
+		public void nativeKeyReleased(NativeKeyEvent event) {
+			route(InputEvent.Type.KEY_RELEASED, event);
+		}
+
+		@Override
+		public void nativeKeyTyped(NativeKeyEvent event) {
+			route(InputEvent.Type.KEY_TYPED, event);
+		}
+
+		@Override
+		public void nativeMouseClicked(NativeMouseEvent event) {
+			route(InputEvent.Type.MOUSE_CLICKED, event);
+		}
+
+		@Override
+		public void nativeMousePressed(NativeMouseEvent event) {
+			route(InputEvent.Type.MOUSE_PRESSED, event);
+		}
+
+		@Override
+		public void nativeMouseReleased(NativeMouseEvent event) {
+			route(InputEvent.Type.MOUSE_RELEASED, event);
+		}
+
+		@Override
+		public void nativeMouseMoved(NativeMouseEvent event) {
+			route(InputEvent.Type.MOUSE_MOVED, event);
+		}
+
+		@Override
+		public void nativeMouseDragged(NativeMouseEvent event) {
+			route(InputEvent.Type.MOUSE_DRAGGED, event);
+		}
+
+		@Override
+		public void nativeMouseWheelMoved(NativeMouseWheelEvent event) {
+
+			InputEvent.Type type = InputEvent.Type.MOUSE_WHEEL;
+
+			if (listeners.hasListeners(type)) {
+
+				listeners.deliver(InputEvent.wheel(
+					System.currentTimeMillis(), event.getX(), event.getY(),
+					event.getWheelRotation()
+				));
+
+			}
+
+		}
+
+	}
+
+}
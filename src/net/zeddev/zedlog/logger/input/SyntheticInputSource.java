@@ -0,0 +1,452 @@
+package net.zeddev.zedlog.logger.input;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.zeddev.zedlog.logger.tools.ReplayScheduler;
+
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.jnativehook.mouse.NativeMouseEvent;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * An {@code InputSource} generating random input, for load testing and
+ * testing without a display (or the native hook).
+ * The mix of event types, the rate, bursts and the pattern of pointer
+ * movement are configurable.  The events generated depend only on the seed
+ * and configuration, so each run with the same settings delivers the same
+ * sequence of events (other than their times).
+ *
+ * <p>Events are generated, and delivered to the listeners, on the thread
+ * calling {@code generate()}, as the native hook delivers events on its own
+ * dispatch thread.</p>
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class SyntheticInputSource implements InputSource {
+
+	/** The pattern of pointer movement. */
+	public static enum Pattern {
+
+		/** Positions uniformly distributed over the screen. */
+		UNIFORM("uniform"),
+
+		/** A random walk in small steps (i.e. like a hand on a mouse). */
+		WALK("walk"),
+
+		/** Rows across the screen, from the top left. */
+		SWEEP("sweep"),
+
+		/** A circle about the centre of the screen. */
+		CIRCLE("circle");
+
+		private final String name;
+
+		private Pattern(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Returns the {@code Pattern} with the given name.
+		 *
+		 * @param name The pattern name (i.e. "walk").
+		 * @return The pattern.
+		 * @throws IllegalArgumentException If the pattern is not known.
+		 */
+		public static Pattern getByName(String name) {
+
+			for (Pattern pattern : values()) {
+				if (pattern.name.equalsIgnoreCase(name))
+					return pattern;
+			}
+
+			throw new IllegalArgumentException(
+				String.format("Unknown movement pattern %s.", name)
+			);
+
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+
+	}
+
+	/** The distance moved by each step of the walk and sweep, in pixels. */
+	public static final int STEP = 8;
+
+	// the steps in a full circle
+	private static final int CIRCLE_STEPS = 360;
+
+	// routes the events to their listeners
+	private final InputDemultiplexer listeners = new InputDemultiplexer();
+
+	// the relative weight of each type of event
+	private final Map<InputEvent.Type, Integer> weights =
+		new EnumMap<>(InputEvent.Type.class);
+
+	private final long seed;
+
+	private double rate = 0.0;
+	private int burstSize = 0;
+	private long burstPause = 0;
+	private Pattern pattern = Pattern.WALK;
+	private int screenWidth = 1920;
+	private int screenHeight = 1080;
+
+	// paces the events
+	private final ReplayScheduler scheduler = new ReplayScheduler();
+
+	private volatile long generated = 0;
+
+	/**
+	 * Creates a new {@code SyntheticInputSource}.
+	 * The default mix is mostly pointer movement, with some keys, buttons and
+	 * wheel movement.
+	 *
+	 * @param seed The seed of the random input.
+	 */
+	public SyntheticInputSource(long seed) {
+
+		this.seed = seed;
+
+		weights.put(InputEvent.Type.KEY_PRESSED, 5);
+		weights.put(InputEvent.Type.KEY_RELEASED, 5);
+		weights.put(InputEvent.Type.KEY_TYPED, 5);
+		weights.put(InputEvent.Type.MOUSE_CLICKED, 3);
+		weights.put(InputEvent.Type.MOUSE_PRESSED, 3);
+		weights.put(InputEvent.Type.MOUSE_RELEASED, 3);
+		weights.put(InputEvent.Type.MOUSE_MOVED, 70);
+		weights.put(InputEvent.Type.MOUSE_DRAGGED, 4);
+		weights.put(InputEvent.Type.MOUSE_WHEEL, 2);
+
+	}
+
+	@Override
+	public void addInputListener(InputEvent.Type type, InputListener listener) {
+		listeners.add(type, listener);
+	}
+
+	@Override
+	public void removeInputListener(InputEvent.Type type, InputListener listener) {
+		listeners.remove(type, listener);
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/** Returns the relative weight of the given type of event. */
+	public int getWeight(InputEvent.Type type) {
+		requireNotNull(type);
+		return weights.get(type);
+	}
+
+	/**
+	 * Sets the relative weight of the given type of event (i.e. types with
+	 * twice the weight are generated twice as often).
+	 *
+	 * @param type The type of event (must not be {@code null}).
+	 * @param weight The weight (0 to not generate the type).
+	 */
+	public void setWeight(InputEvent.Type type, int weight) {
+
+		requireNotNull(type);
+		require(weight >= 0);
+
+		weights.put(type, weight);
+
+	}
+
+	/** Returns the rate of events, in events per second (0 if unlimited). */
+	public double getRate() {
+		return rate;
+	}
+
+	/**
+	 * Sets the rate of events (within bursts).
+	 *
+	 * @param rate The rate, in events per second (0 to generate events as
+	 * fast as they are handled).
+	 */
+	public void setRate(double rate) {
+
+		require(rate >= 0.0 && !Double.isInfinite(rate));
+
+		this.rate = rate;
+
+	}
+
+	/** Returns the number of events in each burst (0 if not bursting). */
+	public int getBurstSize() {
+		return burstSize;
+	}
+
+	/** Returns the pause between bursts, in milliseconds. */
+	public long getBurstPause() {
+		return burstPause;
+	}
+
+	/**
+	 * Generates events in bursts, separated by pauses.
+	 *
+	 * @param size The number of events in each burst (0 to not burst).
+	 * @param pause The pause after each burst, in milliseconds.
+	 */
+	public void setBurst(int size, long pause) {
+
+		require(size >= 0);
+		require(pause >= 0);
+
+		this.burstSize = size;
+		this.burstPause = pause;
+
+	}
+
+	public Pattern getPattern() {
+		return pattern;
+	}
+
+	/** Sets the pattern of pointer movement (must not be {@code null}). */
+	public void setPattern(Pattern pattern) {
+		requireNotNull(pattern);
+		this.pattern = pattern;
+	}
+
+	public int getScreenWidth() {
+		return screenWidth;
+	}
+
+	public int getScreenHeight() {
+		return screenHeight;
+	}
+
+	/** Sets the size of the screen the pointer moves about, in pixels. */
+	public void setScreenSize(int width, int height) {
+
+		require(width > 0 && height > 0);
+
+		this.screenWidth = width;
+		this.screenHeight = height;
+
+	}
+
+	/** Returns the total number of events generated. */
+	public long getGenerated() {
+		return generated;
+	}
+
+	/**
+	 * Stops {@code generate()}, from another thread.
+	 * Thread safe.
+	 */
+	public void stop() {
+		scheduler.cancel();
+	}
+
+	/**
+	 * Generates the given number of events, delivering them to the listeners.
+	 * Returns once the events have been generated, or {@code stop()} is
+	 * called.
+	 *
+	 * @param count The number of events ({@code Long.MAX_VALUE} to generate
+	 * events until stopped).
+	 * @return The number of events generated.
+	 */
+	public long generate(long count) {
+
+		require(count >= 0);
+
+		// NOTE the generator restarts, so each call gives the same events
+		Generator generator = new Generator();
+
+		long interval = rate > 0.0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+		long pause = TimeUnit.MILLISECONDS.toNanos(burstPause);
+
+		scheduler.start();
+		long deadline = System.nanoTime();
+
+		long n = 0;
+		while (n < count) {
+
+			// NOTE pauses from the end of the burst, if it ran late
+			if (burstSize > 0 && n > 0 && n % burstSize == 0)
+				deadline = Math.max(deadline, System.nanoTime()) + pause;
+
+			if (!scheduler.awaitDeadline(deadline))
+				break;
+
+			listeners.deliver(generator.next());
+
+			n++;
+			generated++;
+
+			deadline += interval;
+
+		}
+
+		return n;
+
+	}
+
+	// generates the random events, from the seed
+	private final class Generator {
+
+		private final Random random = new Random(seed);
+
+		// the types of event, and their cumulative weights
+		private final InputEvent.Type[] types = InputEvent.Type.values();
+		private final int[] cumulative = new int[types.length];
+
+		// the pointer position, and steps of movement
+		private int x = screenWidth / 2;
+		private int y = screenHeight / 2;
+		private long steps = 0;
+
+		public Generator() {
+
+			int total = 0;
+
+			for (int i = 0; i < types.length; i++) {
+				total += weights.get(types[i]);
+				cumulative[i] = total;
+			}
+
+			require(total > 0, "No types of event to generate.");
+
+		}
+
+		// returns a random type of event, by weight
+		private InputEvent.Type nextType() {
+
+			int pick = random.nextInt(cumulative[cumulative.length - 1]);
+
+			int i = 0;
+			while (pick >= cumulative[i])
+				i++;
+
+			return types[i];
+
+		}
+
+		// moves the pointer by the pattern
+		private void move() {
+
+			switch (pattern) {
+
+				case UNIFORM:
+					x = random.nextInt(screenWidth);
+					y = random.nextInt(screenHeight);
+				break;
+
+				case WALK:
+					x = clamp(x + (int) Math.round(random.nextGaussian() * STEP), screenWidth);
+					y = clamp(y + (int) Math.round(random.nextGaussian() * STEP), screenHeight);
+				break;
+
+				case SWEEP: {
+
+					long columns = (screenWidth + STEP - 1) / STEP;
+					long rows = (screenHeight + STEP - 1) / STEP;
+
+					x = (int) (steps % columns) * STEP;
+					y = (int) ((steps / columns) % rows) * STEP;
+
+				} break;
+
+				case CIRCLE: {
+
+					double angle = 2.0 * Math.PI * (steps % CIRCLE_STEPS) / CIRCLE_STEPS;
+					int radius = Math.min(screenWidth, screenHeight) / 3;
+
+					x = clamp(screenWidth / 2 + (int) Math.round(radius * Math.cos(angle)), screenWidth);
+					y = clamp(screenHeight / 2 + (int) Math.round(radius * Math.sin(angle)), screenHeight);
+
+				} break;
+
+			}
+
+			steps++;
+
+		}
+
+		// returns a random mouse button
+		private int nextButton() {
+
+			switch (random.nextInt(3)) {
+				case 0:
+					return NativeMouseEvent.BUTTON1;
+				case 1:
+					return NativeMouseEvent.BUTTON2;
+				default:
+					return NativeMouseEvent.BUTTON3;
+			}
+
+		}
+
+		/** Returns the next event. */
+		public InputEvent next() {
+
+			InputEvent.Type type = nextType();
+			long when = System.currentTimeMillis();
+
+			switch (type) {
+
+				case KEY_PRESSED:
+				case KEY_RELEASED:
+					return InputEvent.key(
+						type, when, NativeKeyEvent.VK_A + random.nextInt(26),
+						NativeKeyEvent.CHAR_UNDEFINED
+					);
+
+				case KEY_TYPED:
+					return InputEvent.key(
+						type, when, NativeKeyEvent.VK_UNDEFINED,
+						(char) ('a' + random.nextInt(26))
+					);
+
+				case MOUSE_MOVED:
+				case MOUSE_DRAGGED:
+					move();
+					return InputEvent.mouse(type, when, x, y, NativeMouseEvent.NOBUTTON, 0);
+
+				case MOUSE_WHEEL: {
+
+					int rotation = 1 + random.nextInt(3);
+					return InputEvent.wheel(when, x, y, random.nextBoolean() ? rotation : -rotation);
+
+				}
+
+				default:
+					return InputEvent.mouse(type, when, x, y, nextButton(), 1);
+
+			}
+
+		}
+
+	}
+
+	// clamps the given position to the screen
+	private static int clamp(int pos, int size) {
+		return Math.max(0, Math.min(size - 1, pos));
+	}
+
+}
@@ -0,0 +1,116 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Provides a skeletal implementation of {@code LogEntryReader}.
+ * By default batches are decoded eagerly, on the calling thread.  Subclasses
+ * only return the entries selected by the filter (if any).
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public abstract class AbstractLogEntryReader implements LogEntryReader {
+
+	// the logger types stored in the log
+	private final List<String> loggerTypes = new ArrayList<>();
+
+	// selects the entries to be read (all if null)
+	private LogFilter filter = null;
+
+	// whether the log is marked as being in chronological order
+	private boolean sorted = false;
+
+	@Override
+	public List<String> loggerTypes() {
+		return Collections.unmodifiableList(loggerTypes);
+	}
+
+	/** Adds a logger type read from the log. */
+	protected void addLoggerType(String type) {
+		requireNotNull(type);
+		loggerTypes.add(type);
+	}
+
+	/**
+	 * Returns whether the log is marked as being in chronological order
+	 * (i.e. written by {@code LogSorter}).
+	 * Unmarked logs may still be in order, but it is not known.
+	 */
+	public boolean isSorted() {
+		return sorted;
+	}
+
+	/** Sets whether the log is marked as being in chronological order. */
+	protected void setSorted(boolean sorted) {
+		this.sorted = sorted;
+	}
+
+	/**
+	 * Sets the filter selecting the entries to be read.
+	 * Must be set before reading any entries.
+	 *
+	 * @param filter The filter, or {@code null} to read every entry.
+	 */
+	public void setFilter(LogFilter filter) {
+		this.filter = filter;
+	}
+
+	public LogFilter getFilter() {
+		return filter;
+	}
+
+	/**
+	 * Returns whether the given entry is selected by the filter.
+	 *
+	 * @param logEntry The decoded entry.
+	 * @return Whether the entry should be returned.
+	 */
+	protected boolean accepts(LogEntry logEntry) {
+		return filter == null || filter.matches(logEntry);
+	}
+
+	@Override
+	public Callable<List<LogEntry>> readBatch(int maxEntries) throws IOException {
+
+		require(maxEntries > 0);
+
+		final List<LogEntry> batch = new ArrayList<>(maxEntries);
+
+		LogEntry logEntry;
+		while (batch.size() < maxEntries && (logEntry = read()) != null)
+			batch.add(logEntry);
+
+		if (batch.isEmpty())
+			return null;
+
+		return new Callable<List<LogEntry>>() {
+			public List<LogEntry> call() {
+				return batch;
+			}
+		};
+
+	}
+
+}
@@ -0,0 +1,226 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.management.jfr.EncodeEvent;
+import net.zeddev.zedlog.management.jfr.FlushEvent;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Provides a skeletal implementation of {@code LogEntryWriter}.
+ * Entries are encoded in batches by {@code encode()}, which does not depend
+ * on the state of the writer.  This allows the encoding of a large log to be
+ * spread over several threads (see {@code ParallelLogWriter}), with the
+ * encoded batches written in order using {@code writeEncoded()}.  Any state
+ * carried between batches is captured by {@code prepare()}, which is called
+ * for each batch in order.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public abstract class AbstractLogEntryWriter implements LogEntryWriter {
+
+	/** The default number of entries encoded at once. */
+	public static final int DEFAULT_BATCH_SIZE = 4096;
+
+	// the underlying output stream
+	private final OutputStream output;
+
+	// the entries waiting to be encoded
+	private final List<LogEntry> pending;
+	private final int batchSize;
+
+	private boolean closed = false;
+
+	/**
+	 * Creates a new {@code AbstractLogEntryWriter}.
+	 *
+	 * @param output The output stream to write to (must not be {@code null}).
+	 * @param batchSize The number of entries encoded at once.
+	 */
+	protected AbstractLogEntryWriter(final OutputStream output, int batchSize) {
+
+		requireNotNull(output);
+		require(batchSize > 0);
+
+		this.output = output;
+		this.batchSize = batchSize;
+		this.pending = new ArrayList<>(batchSize);
+
+	}
+
+	/** Returns the underlying output stream. */
+	protected OutputStream getOutput() {
+		return output;
+	}
+
+	/** Returns the number of entries encoded at once. */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Encodes the given entries.
+	 * Must be thread safe, and must not depend on any previously written
+	 * entries.
+	 *
+	 * @param logEntries The entries to encode (must not be {@code null}).
+	 * @return The encoded entries.
+	 * @throws IOException If an entry could not be encoded.
+	 */
+	public abstract byte[] encode(List<LogEntry> logEntries) throws IOException;
+
+	/**
+	 * Prepares a batch of entries for encoding.
+	 * Called on the writing thread for each batch, in the order the batches
+	 * are written, so may capture state carried over from earlier batches.
+	 * The returned task may be run on any thread.
+	 * By default the task just calls {@code encode()}.
+	 *
+	 * @param logEntries The entries of the batch (must not be {@code null},
+	 * and must not be modified until the task has run).
+	 * @return The task encoding the batch.
+	 */
+	public Callable<byte[]> prepare(final List<LogEntry> logEntries) {
+
+		requireNotNull(logEntries);
+
+		return new Callable<byte[]>() {
+			public byte[] call() throws IOException {
+
+				EncodeEvent encodeEvent = new EncodeEvent();
+				encodeEvent.begin();
+
+				byte[] encoded = encode(logEntries);
+				encoded(encodeEvent, logEntries.size(), encoded);
+
+				return encoded;
+
+			}
+		};
+
+	}
+
+	// commits the flight recorder event of an encoded batch (if enabled)
+	void encoded(EncodeEvent encodeEvent, int entries, byte[] encoded) {
+
+		encodeEvent.end();
+
+		if (encodeEvent.shouldCommit()) {
+			encodeEvent.format = getClass().getSimpleName();
+			encodeEvent.entries = entries;
+			encodeEvent.size = encoded.length;
+			encodeEvent.commit();
+		}
+
+	}
+
+	/** Writes the log trailer (if any), called when the writer is closed. */
+	protected abstract void writeFooter() throws IOException;
+
+	/**
+	 * Writes a batch of entries previously encoded using {@code encode()}.
+	 * Any buffered entries are written first.
+	 *
+	 * @param encoded The encoded entries (must not be {@code null}).
+	 * @throws IOException If the entries could not be written.
+	 */
+	public void writeEncoded(byte[] encoded) throws IOException {
+
+		requireNotNull(encoded);
+
+		flushPending();
+		output.write(encoded);
+
+	}
+
+	@Override
+	public void write(LogEntry logEntry) throws IOException {
+
+		requireNotNull(logEntry);
+
+		pending.add(logEntry);
+
+		if (pending.size() >= batchSize)
+			flushPending();
+
+	}
+
+	// encodes and writes the buffered entries
+	private void flushPending() throws IOException {
+
+		if (!pending.isEmpty()) {
+
+			byte[] encoded;
+			try {
+				encoded = prepare(pending).call();
+			} catch (IOException | RuntimeException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				throw new IOException("Failed to encode log.", ex);
+			}
+
+			output.write(encoded);
+			pending.clear();
+
+		}
+
+	}
+
+	@Override
+	public void flush() throws IOException {
+
+		FlushEvent flushEvent = new FlushEvent();
+		flushEvent.begin();
+
+		int entries = pending.size();
+
+		flushPending();
+		output.flush();
+
+		if (flushEvent.shouldCommit()) {
+			flushEvent.output = getClass().getSimpleName();
+			flushEvent.entries = entries;
+			flushEvent.commit();
+		}
+
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		if (closed)
+			return;
+
+		closed = true;
+
+		try {
+			flushPending();
+			writeFooter();
+			output.flush();
+		} finally {
+			output.close();
+		}
+
+	}
+
+}
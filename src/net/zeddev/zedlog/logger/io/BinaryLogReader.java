@@ -0,0 +1,471 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.CRC32;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Reads a log in the compact binary format written by {@code BinaryLogWriter}.
+ * Each block is checked against its checksum and metadata when decoded.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class BinaryLogReader extends AbstractLogEntryReader {
+
+	// the payload of skipped block headers
+	private static final byte[] EMPTY = new byte[0];
+
+	private final DataInputStream input;
+
+	// the format version and flags in the header
+	private final int version;
+	private final int flags;
+
+	// the entries of the current block
+	private Iterator<LogEntry> blockEntries = null;
+
+	// the block found by seek() (if not yet read), and the payload length
+	// of the last block header read
+	private LogBlock seekBlock = null;
+	private int payloadLength = 0;
+
+	// the number of blocks skipped using the filter
+	private volatile long blocksSkipped = 0;
+
+	/**
+	 * Creates a new {@code BinaryLogReader}.
+	 * Reads the log header.
+	 *
+	 * @param input The input stream to read (must not be {@code null}).
+	 * @throws IOException If the header could not be read, or the input is
+	 * not a binary log.
+	 */
+	public BinaryLogReader(final InputStream input) throws IOException {
+
+		requireNotNull(input);
+
+		this.input = new DataInputStream(input);
+
+		if (this.input.readInt() != BinaryLogWriter.MAGIC)
+			throw new IOException("Not a binary ZedLog log.");
+
+		version = this.input.readUnsignedShort();
+		if (version > BinaryLogWriter.VERSION) {
+			throw new IOException(
+				String.format("Unsupported binary log version %d.", version)
+			);
+		}
+
+		flags = this.input.readUnsignedShort();
+		setSorted((flags & BinaryLogWriter.SORTED) != 0);
+
+		int loggerCount = this.input.readInt();
+		for (int i = 0; i < loggerCount; i++)
+			addLoggerType(this.input.readUTF());
+
+	}
+
+	/** Returns the format version of the log. */
+	public int getVersion() {
+		return version;
+	}
+
+	/** Returns the header flags of the log. */
+	public int getFlags() {
+		return flags;
+	}
+
+	/** Returns the number of blocks skipped using their metadata. */
+	public long getBlocksSkipped() {
+		return blocksSkipped;
+	}
+
+	// skips exactly the given number of bytes
+	private void skipFully(long count) throws IOException {
+
+		while (count > 0) {
+
+			long skipped = input.skip(count);
+
+			if (skipped <= 0) {
+
+				// NOTE skip() may not detect the end of the input
+				if (input.read() < 0)
+					throw new EOFException();
+
+				skipped = 1;
+
+			}
+
+			count -= skipped;
+
+		}
+
+	}
+
+	// reads the header of the next block (leaving the payload unread)
+	private LogBlock readHeader() throws IOException {
+
+		// check for the end of the log
+		int first = input.read();
+		if (first < 0)
+			return null;
+
+		try {
+
+			int entryCount = (first << 24) | (input.readUnsignedByte() << 16)
+				| (input.readUnsignedShort());
+			long minTimestamp = input.readLong();
+			long maxTimestamp = input.readLong();
+			long typeMask = input.readLong();
+
+			Keyframe keyframe = null;
+			if (version >= BinaryLogWriter.KEYFRAME_VERSION && input.readBoolean())
+				keyframe = Keyframe.fromBinary(input);
+
+			payloadLength = input.readInt();
+			if (!isValidPayloadLength(payloadLength, entryCount))
+				throw new IOException("Corrupt block header in binary log.");
+
+			return new LogBlock(
+				entryCount, minTimestamp, maxTimestamp, typeMask, keyframe, EMPTY, 0
+			);
+
+		} catch (EOFException ex) {
+			throw new IOException("Binary log is truncated.", ex);
+		}
+
+	}
+
+	// whether a block of the given entries could have a payload of the given length
+	// NOTE checked before the payload is allocated, so a corrupt length fails
+	//	  like any other corrupt block rather than exhausting the heap
+	private static boolean isValidPayloadLength(int payloadLength, int entryCount) {
+
+		if (payloadLength < 0 || entryCount < 0)
+			return false;
+		if (payloadLength > BinaryLogWriter.MAX_PAYLOAD_SIZE)
+			return false;
+
+		return payloadLength >= (long) entryCount * BinaryLogWriter.MIN_RECORD_SIZE
+			&& payloadLength <= (long) entryCount * BinaryLogWriter.MAX_RECORD_SIZE;
+
+	}
+
+	// reads the payload of the block with the given header
+	private LogBlock readPayload(LogBlock header) throws IOException {
+
+		try {
+
+			byte[] payload = new byte[payloadLength];
+			input.readFully(payload);
+
+			int checksum = input.readInt();
+
+			return new LogBlock(
+				header.getEntryCount(), header.getMinTimestamp(), header.getMaxTimestamp(),
+				header.getTypeMask(), header.getKeyframe(), payload, checksum
+			);
+
+		} catch (EOFException ex) {
+			throw new IOException("Binary log is truncated.", ex);
+		}
+
+	}
+
+	// skips the payload of the block with the last header read
+	private void skipPayload() throws IOException {
+
+		try {
+			skipFully(payloadLength + 4L); // NOTE payload and checksum
+		} catch (EOFException ex) {
+			throw new IOException("Binary log is truncated.", ex);
+		}
+
+		blocksSkipped++;
+
+	}
+
+	/**
+	 * Reads the next raw block, without decoding it.
+	 * If a filter is set, blocks which cannot contain selected entries (by
+	 * their metadata) are skipped without being read.
+	 *
+	 * @return The next block, or {@code null} at the end of the log.
+	 * @throws IOException If the block could not be read (i.e. the log is
+	 * truncated).
+	 */
+	public LogBlock readBlock() throws IOException {
+
+		LogFilter filter = getFilter();
+
+		// the block found by seek()
+		if (seekBlock != null) {
+
+			LogBlock block = seekBlock;
+			seekBlock = null;
+
+			if (filter == null || filter.mayMatch(block))
+				return block;
+
+			blocksSkipped++;
+
+		}
+
+		while (true) {
+
+			LogBlock header = readHeader();
+			if (header == null)
+				return null;
+
+			if (filter != null && !filter.mayMatch(header)) {
+				skipPayload();
+				continue;
+			}
+
+			return readPayload(header);
+
+		}
+
+	}
+
+	/**
+	 * Skips the blocks which end before the given time, reading only their
+	 * headers.  The log must be in chronological order.  Must be called
+	 * before reading any entries.
+	 * The entries of the block containing the time are read next (including
+	 * any before the time), and the block keyframe gives the input state
+	 * before them.
+	 *
+	 * @param timestamp The time to seek to.
+	 * @return The keyframe of the block containing the time, {@code null}
+	 * if the block has no keyframe (i.e. the log predates keyframes), or
+	 * {@code Keyframe.EMPTY} if every entry is before the time.
+	 * @throws IOException If the log could not be read.
+	 * @throws IllegalStateException If entries have already been read.
+	 */
+	public Keyframe seek(long timestamp) throws IOException {
+
+		if (blockEntries != null || seekBlock != null)
+			throw new IllegalStateException("Must seek before reading entries.");
+
+		while (true) {
+
+			LogBlock header = readHeader();
+			if (header == null)
+				return Keyframe.EMPTY;
+
+			if (header.getMaxTimestamp() >= timestamp) {
+				seekBlock = readPayload(header);
+				return header.getKeyframe();
+			}
+
+			skipPayload();
+
+		}
+
+	}
+
+	/**
+	 * Decodes the entries in the given block.
+	 * Thread safe.
+	 *
+	 * @param block The block to decode (must not be {@code null}).
+	 * @return The entries in the block.
+	 * @throws IOException If the block is corrupt.
+	 */
+	public static List<LogEntry> decode(LogBlock block) throws IOException {
+		return decode(block, null);
+	}
+
+	/**
+	 * Decodes the entries in the given block, which are selected by the
+	 * filter.  The raw fields of each record are checked against the filter
+	 * first, so unselected records are never decoded.
+	 * Thread safe.
+	 *
+	 * @param block The block to decode (must not be {@code null}).
+	 * @param filter The filter, or {@code null} to decode every entry.
+	 * @return The selected entries in the block.
+	 * @throws IOException If the block is corrupt.
+	 */
+	public static List<LogEntry> decode(LogBlock block, LogFilter filter)
+			throws IOException {
+
+		requireNotNull(block);
+
+		checkBlock(block);
+
+		List<LogEntry> logEntries = new ArrayList<>(
+			filter == null ? block.getEntryCount() : 16
+		);
+
+		byte[] bytes = block.getPayload();
+		ByteBuffer payload = ByteBuffer.wrap(bytes);
+		DataInputStream records = new DataInputStream(new ByteArrayInputStream(bytes));
+
+		long typeMask = 0;
+		int offset = 0;
+
+		try {
+
+			for (int i = 0; i < block.getEntryCount(); i++) {
+
+				int length = payload.getInt(offset);
+				offset += 4;
+
+				if (length < BinaryLogWriter.RECORD_EVENT_OFFSET || offset + length > bytes.length)
+					throw new IOException("Corrupt record in binary log block.");
+
+				// check the raw fields, before decoding
+				int typeId = payload.get(offset) & 0xff;
+				long timestamp = payload.getLong(offset + 1);
+
+				if (timestamp < block.getMinTimestamp() || timestamp > block.getMaxTimestamp())
+					throw new IOException("Entry timestamp outside of block range.");
+
+				typeMask |= LogBlock.typeBit(typeId);
+
+				if (filter == null || filter.matchesRecord(payload, offset)) {
+
+					records.reset();
+					records.skipBytes(offset);
+
+					LogEntry logEntry = decodeRecord(records);
+
+					if (filter == null || filter.matches(logEntry))
+						logEntries.add(logEntry);
+
+				}
+
+				offset += length;
+
+			}
+
+		} catch (IndexOutOfBoundsException ex) {
+			throw new IOException("Corrupt record in binary log block.", ex);
+		}
+
+		if (offset != bytes.length)
+			throw new IOException("Unexpected data at end of block.");
+		if (typeMask != block.getTypeMask())
+			throw new IOException("Block type mask does not match its entries.");
+
+		return logEntries;
+
+	}
+
+	/**
+	 * Checks the checksum of the given block.
+	 *
+	 * @param block The block to check.
+	 * @throws IOException If the checksum does not match.
+	 */
+	public static void checkBlock(LogBlock block) throws IOException {
+
+		CRC32 crc = new CRC32();
+		crc.update(block.getPayload());
+
+		if ((int) crc.getValue() != block.getChecksum())
+			throw new IOException("Block checksum mismatch in binary log.");
+
+	}
+
+	// decodes a single record (after the length field)
+	private static LogEntry decodeRecord(DataInputStream record) throws IOException {
+
+		int typeId = record.readUnsignedByte();
+		long timestamp = record.readLong();
+
+		LogEvent event = LogEvents.newLogEvent(typeId);
+		if (event == null) {
+			throw new IOException(
+				String.format("Unknown log event type id %d.", typeId)
+			);
+		}
+
+		event.fromBinary(record);
+
+		LogEntry logEntry = new LogEntry();
+		logEntry.setTimestamp(timestamp);
+		logEntry.setEvent(event);
+		logEntry.setMessage(record.readUTF());
+
+		return logEntry;
+
+	}
+
+	@Override
+	public LogEntry read() throws IOException {
+
+		while (blockEntries == null || !blockEntries.hasNext()) {
+
+			LogBlock block = readBlock();
+			if (block == null)
+				return null;
+
+			blockEntries = decode(block, getFilter()).iterator();
+
+		}
+
+		return blockEntries.next();
+
+	}
+
+	@Override
+	public Callable<List<LogEntry>> readBatch(int maxEntries) throws IOException {
+
+		// NOTE the batch size is set by the writer (one block per batch)
+
+		// finish off the current block first
+		if (blockEntries != null && blockEntries.hasNext())
+			return super.readBatch(maxEntries);
+
+		final LogBlock block = readBlock();
+		if (block == null)
+			return null;
+
+		final LogFilter filter = getFilter();
+
+		return new Callable<List<LogEntry>>() {
+			public List<LogEntry> call() throws IOException {
+				return decode(block, filter);
+			}
+		};
+
+	}
+
+	@Override
+	public void close() throws IOException {
+		input.close();
+	}
+
+}
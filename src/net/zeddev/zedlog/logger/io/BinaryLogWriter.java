@@ -0,0 +1,295 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.zip.CRC32;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import net.zeddev.zedlog.management.jfr.EncodeEvent;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Writes a log in the compact binary format.
+ * The format is as follows (all values big-endian);
+ * <pre>
+ * header:
+ *   int    magic ("ZLOG")
+ *   short  format version
+ *   short  flags (see SORTED)
+ *   int    logger count
+ *   UTF    logger type (for each logger)
+ * block (repeated until the end of the file):
+ *   int    entry count
+ *   long   smallest timestamp
+ *   long   largest timestamp
+ *   long   event type mask (see LogBlock.typeBit())
+ *   bool   whether a keyframe follows (since version 2)
+ *   ...    keyframe, the input state before the block (see Keyframe.toBinary())
+ *   int    payload length
+ *   byte[] payload (the entry records)
+ *   int    CRC32 checksum of the payload
+ * record:
+ *   int    record length (excluding this field)
+ *   byte   event type id (see LogEvents.typeId())
+ *   long   timestamp
+ *   ...    event fields (see LogEvent.toBinary())
+ *   UTF    message
+ * </pre>
+ * Each block is self-contained, so blocks can be encoded, decoded and
+ * verified independently of each other.  The keyframe of each block allows
+ * a replay to start at the block, without replaying the blocks before it.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class BinaryLogWriter extends AbstractLogEntryWriter {
+
+	/** The magic number at the start of a binary log ("ZLOG"). */
+	public static final int MAGIC = 0x5A4C4F47;
+
+	/** The current version of the binary format. */
+	public static final int VERSION = 2;
+
+	/** The first version of the binary format with block keyframes. */
+	public static final int KEYFRAME_VERSION = 2;
+
+	/** Header flag marking the entries as being in chronological order. */
+	public static final int SORTED = 0x0001;
+
+	// the offset of the event fields in a record (after the length field)
+	static final int RECORD_EVENT_OFFSET = 1 + 8;
+
+	// the smallest encoded record (length, type, timestamp and empty message)
+	static final int MIN_RECORD_SIZE = 4 + RECORD_EVENT_OFFSET + 2;
+
+	// the largest encoded record (with slack for the event fields)
+	// NOTE the message is limited to 65535 bytes by writeUTF()
+	static final int MAX_RECORD_SIZE = 4 + RECORD_EVENT_OFFSET + 64 + 2 + 65535;
+
+	/** The maximum size of the payload of a block (in bytes). */
+	public static final int MAX_PAYLOAD_SIZE = 64 * 1024 * 1024;
+
+	// the input state after the batches prepared so far
+	private final KeyframeTracker state = new KeyframeTracker();
+
+	/**
+	 * Creates a new {@code BinaryLogWriter}.
+	 *
+	 * @param output The output stream to write to (must not be {@code null}).
+	 * @param loggerTypes The types of the loggers which made the log.
+	 * @throws IOException If the header could not be written.
+	 */
+	public BinaryLogWriter(final OutputStream output, final List<String> loggerTypes)
+			throws IOException {
+
+		this(output, loggerTypes, DEFAULT_BATCH_SIZE);
+
+	}
+
+	/**
+	 * Creates a new {@code BinaryLogWriter}.
+	 *
+	 * @param output The output stream to write to (must not be {@code null}).
+	 * @param loggerTypes The types of the loggers which made the log.
+	 * @param blockSize The (maximum) number of entries in each block.
+	 * @throws IOException If the header could not be written.
+	 */
+	public BinaryLogWriter(final OutputStream output, final List<String> loggerTypes,
+			int blockSize) throws IOException {
+
+		this(output, loggerTypes, blockSize, 0);
+
+	}
+
+	/**
+	 * Creates a new {@code BinaryLogWriter}.
+	 *
+	 * @param output The output stream to write to (must not be {@code null}).
+	 * @param loggerTypes The types of the loggers which made the log.
+	 * @param blockSize The (maximum) number of entries in each block.
+	 * @param flags The header flags (i.e. {@code SORTED}).
+	 * @throws IOException If the header could not be written.
+	 */
+	public BinaryLogWriter(final OutputStream output, final List<String> loggerTypes,
+			int blockSize, int flags) throws IOException {
+
+		super(output, blockSize);
+
+		requireNotNull(loggerTypes);
+
+		writeHeader(loggerTypes, flags);
+
+	}
+
+	private void writeHeader(List<String> loggerTypes, int flags) throws IOException {
+
+		DataOutputStream header = new DataOutputStream(getOutput());
+
+		header.writeInt(MAGIC);
+		header.writeShort(VERSION);
+		header.writeShort(flags);
+		header.writeInt(loggerTypes.size());
+
+		for (String type : loggerTypes)
+			header.writeUTF(type);
+
+		header.flush();
+
+	}
+
+	@Override
+	protected void writeFooter() throws IOException {
+		// NOTE no footer, the log ends after the last block
+	}
+
+	// encodes a single record
+	private static void encodeRecord(DataOutputStream output,
+			ByteArrayOutputStream recordBuffer, LogEntry logEntry) throws IOException {
+
+		LogEvent event = logEntry.getEvent();
+
+		int typeId = LogEvents.typeId(event.type());
+		if (typeId == LogEvents.UNKNOWN_TYPE_ID) {
+			throw new IOException(
+				String.format("Unregistered log event type %s.", event.type())
+			);
+		}
+
+		recordBuffer.reset();
+		DataOutputStream record = new DataOutputStream(recordBuffer);
+
+		record.writeByte(typeId);
+		record.writeLong(logEntry.getTimestamp());
+		event.toBinary(record);
+		record.writeUTF(logEntry.getMessage());
+		record.flush();
+
+		output.writeInt(recordBuffer.size());
+		recordBuffer.writeTo(output);
+
+	}
+
+	@Override
+	public Callable<byte[]> prepare(final List<LogEntry> logEntries) {
+
+		requireNotNull(logEntries);
+
+		final Keyframe keyframe = state.toKeyframe();
+
+		// NOTE tracks the input state as replayed, i.e. as a replay would
+		for (LogEntry logEntry : logEntries)
+			state.update(logEntry.getEvent());
+
+		return new Callable<byte[]>() {
+			public byte[] call() throws IOException {
+
+				EncodeEvent encodeEvent = new EncodeEvent();
+				encodeEvent.begin();
+
+				byte[] encoded = encode(logEntries, keyframe);
+				encoded(encodeEvent, logEntries.size(), encoded);
+
+				return encoded;
+
+			}
+		};
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The block has no keyframe, as the input state before the entries is
+	 * not known (see {@code prepare()}).
+	 */
+	@Override
+	public byte[] encode(List<LogEntry> logEntries) throws IOException {
+		return encode(logEntries, null);
+	}
+
+	/**
+	 * Encodes the given entries as a block.
+	 * Thread safe.
+	 *
+	 * @param logEntries The entries to encode (must not be {@code null}).
+	 * @param keyframe The input state before the entries (or {@code null} if
+	 * not known).
+	 * @return The encoded block.
+	 * @throws IOException If an entry could not be encoded.
+	 */
+	public byte[] encode(List<LogEntry> logEntries, Keyframe keyframe) throws IOException {
+
+		requireNotNull(logEntries);
+
+		ByteArrayOutputStream payloadBuffer = new ByteArrayOutputStream(logEntries.size() * 48);
+		DataOutputStream payload = new DataOutputStream(payloadBuffer);
+		ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(64);
+
+		long minTimestamp = Long.MAX_VALUE;
+		long maxTimestamp = Long.MIN_VALUE;
+		long typeMask = 0;
+
+		for (LogEntry logEntry : logEntries) {
+
+			encodeRecord(payload, recordBuffer, logEntry);
+
+			minTimestamp = Math.min(minTimestamp, logEntry.getTimestamp());
+			maxTimestamp = Math.max(maxTimestamp, logEntry.getTimestamp());
+			typeMask |= LogBlock.typeBit(LogEvents.typeId(logEntry.getEvent().type()));
+
+		}
+
+		payload.flush();
+
+		if (payloadBuffer.size() > MAX_PAYLOAD_SIZE) {
+			throw new IOException(String.format(
+				"Block of %d bytes exceeds the maximum of %d bytes (use a smaller batch size).",
+				payloadBuffer.size(), MAX_PAYLOAD_SIZE
+			));
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(payloadBuffer.toByteArray());
+
+		ByteArrayOutputStream blockBuffer =
+			new ByteArrayOutputStream(LogBlock.HEADER_SIZE + payloadBuffer.size() + 4);
+		DataOutputStream block = new DataOutputStream(blockBuffer);
+
+		block.writeInt(logEntries.size());
+		block.writeLong(minTimestamp);
+		block.writeLong(maxTimestamp);
+		block.writeLong(typeMask);
+
+		block.writeBoolean(keyframe != null);
+		if (keyframe != null)
+			keyframe.toBinary(block);
+
+		block.writeInt(payloadBuffer.size());
+		payloadBuffer.writeTo(block);
+		block.writeInt((int) crc.getValue());
+		block.flush();
+
+		return blockBuffer.toByteArray();
+
+	}
+
+}
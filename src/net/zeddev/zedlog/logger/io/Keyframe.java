@@ -0,0 +1,168 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * A snapshot of the input state at a point in a log: the pointer position
+ * and the held mouse buttons and keys.
+ * Binary logs store a keyframe with each block (the state before its first
+ * entry), so a replay can start part way through a log in the right state.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class Keyframe {
+
+	/** The state before any input (pointer not positioned, nothing held). */
+	public static final Keyframe EMPTY = new Keyframe(false, 0, 0, 0, new int[0]);
+
+	// the flag set when the pointer has been positioned
+	private static final int POSITIONED = 1;
+
+	private final boolean positioned;
+	private final int x;
+	private final int y;
+	private final int buttons;
+	private final int[] keys;
+
+	/**
+	 * Creates a new {@code Keyframe}.
+	 *
+	 * @param positioned Whether the pointer has been positioned.
+	 * @param x The pointer x coordinate.
+	 * @param y The pointer y coordinate.
+	 * @param buttons The held mouse buttons (as an AWT button mask).
+	 * @param keys The key codes of the held keys (must not be {@code null}).
+	 */
+	public Keyframe(boolean positioned, int x, int y, int buttons, int[] keys) {
+
+		requireNotNull(keys);
+
+		this.positioned = positioned;
+		this.x = x;
+		this.y = y;
+		this.buttons = buttons;
+		this.keys = keys.clone();
+
+		Arrays.sort(this.keys);
+
+	}
+
+	/** Returns whether the pointer has been positioned. */
+	public boolean isPositioned() {
+		return positioned;
+	}
+
+	/** Returns the pointer x coordinate. */
+	public int getX() {
+		return x;
+	}
+
+	/** Returns the pointer y coordinate. */
+	public int getY() {
+		return y;
+	}
+
+	/** Returns the held mouse buttons (as an AWT button mask). */
+	public int getButtons() {
+		return buttons;
+	}
+
+	/** Returns the key codes of the held keys, in ascending order. */
+	public int[] getKeys() {
+		return keys.clone();
+	}
+
+	/**
+	 * Writes the keyframe in the binary log format.
+	 *
+	 * @param output The output to write to.
+	 * @throws IOException If the keyframe could not be written.
+	 */
+	public void toBinary(DataOutput output) throws IOException {
+
+		output.writeByte(positioned ? POSITIONED : 0);
+		output.writeInt(x);
+		output.writeInt(y);
+		output.writeInt(buttons);
+
+		output.writeShort(keys.length);
+		for (int key : keys)
+			output.writeInt(key);
+
+	}
+
+	/**
+	 * Reads a keyframe in the binary log format.
+	 *
+	 * @param input The input to read from.
+	 * @return The keyframe.
+	 * @throws IOException If the keyframe could not be read.
+	 */
+	public static Keyframe fromBinary(DataInput input) throws IOException {
+
+		int flags = input.readUnsignedByte();
+		int x = input.readInt();
+		int y = input.readInt();
+		int buttons = input.readInt();
+
+		int[] keys = new int[input.readUnsignedShort()];
+		for (int i = 0; i < keys.length; i++)
+			keys[i] = input.readInt();
+
+		return new Keyframe((flags & POSITIONED) != 0, x, y, buttons, keys);
+
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"pointer %s, buttons 0x%x, keys %s",
+			positioned ? String.format("(%d, %d)", x, y) : "unset",
+			buttons, Arrays.toString(keys)
+		);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(new int[] {positioned ? 1 : 0, x, y, buttons})
+			^ Arrays.hashCode(keys);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+
+		if (this == obj)
+			return true;
+		if (!(obj instanceof Keyframe))
+			return false;
+
+		Keyframe other = (Keyframe) obj;
+
+		return positioned == other.positioned
+			&& x == other.x && y == other.y
+			&& buttons == other.buttons
+			&& Arrays.equals(keys, other.keys);
+
+	}
+
+}
@@ -0,0 +1,303 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.event.InputEvent;
+import java.util.BitSet;
+
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Tracks the input state (pointer position and held buttons and keys) as
+ * logged events are replayed, without simulating any input.
+ * Used to make the {@code Keyframe}s of a binary log, and by replays to know
+ * the input they leave behind.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class KeyframeTracker {
+
+	// whether the pointer has been positioned yet
+	private boolean positioned = false;
+	private int x = 0;
+	private int y = 0;
+
+	// the held mouse buttons (AWT button mask)
+	private int buttons = 0;
+
+	// the held key codes
+	private final BitSet keys = new BitSet();
+
+	/**
+	 * Converts a logged (JNativeHook) mouse button code to an AWT button mask.
+	 *
+	 * @param buttonCode The logged button code.
+	 * @return The AWT button mask (button 1 for unknown buttons).
+	 */
+	public static int buttonMask(int buttonCode) {
+
+		if (buttonCode == 2) {
+			return InputEvent.BUTTON2_MASK;
+		} else if (buttonCode == 3) {
+			return InputEvent.BUTTON3_MASK;
+		} else {
+			// XXX default to button 1 as to avoid causing exceptions
+			return InputEvent.BUTTON1_MASK;
+		}
+
+	}
+
+	/**
+	 * Updates the state with the effect of replaying a built-in event.
+	 * Events of other types (or {@code null}) are ignored.
+	 *
+	 * @param event The event (may be {@code null}).
+	 */
+	public void update(LogEvent event) {
+
+		if (event == null)
+			return;
+
+		// NOTE the net effect of each of the built-in replayers (see ReplayDispatcher)
+		switch (LogEvents.typeId(event.type())) {
+
+			case LogEvents.KEY_EVENT:
+				updateKey((KeyEvent) event);
+				break;
+
+			case LogEvents.MOUSE_MOVED:
+			case LogEvents.MOUSE_WHEEL_MOVED:
+				moveTo((MouseEvent) event);
+				break;
+
+			case LogEvents.MOUSE_PRESSED:
+				moveTo((MouseEvent) event);
+				mousePress(buttonMask(((MousePressedEvent) event).getButtonCode()));
+				break;
+
+			case LogEvents.MOUSE_RELEASED:
+				moveTo((MouseEvent) event);
+				mouseRelease(buttonMask(((MouseReleasedEvent) event).getButtonCode()));
+				break;
+
+			// NOTE drags and clicks are replayed as a press and release
+			case LogEvents.MOUSE_DRAGGED:
+				moveTo((MouseEvent) event);
+				mouseRelease(buttonMask(((MouseDraggedEvent) event).getButtonCode()));
+				break;
+
+			case LogEvents.MOUSE_CLICKED:
+				moveTo((MouseEvent) event);
+				mouseRelease(buttonMask(((MouseClickedEvent) event).getButtonCode()));
+				break;
+
+			default:
+				// IGNORE - not a built-in event
+
+		}
+
+	}
+
+	// updates the state with a key event
+	private void updateKey(KeyEvent event) {
+
+		int keyCode = event.getKeyCode();
+
+		if (keyCode <= 0)
+			return;
+
+		if (event.getEventType() == KeyEvent.Type.PRESSED) {
+			keyPress(keyCode);
+		} else {
+			// NOTE a typed key is pressed and released
+			keyRelease(keyCode);
+		}
+
+	}
+
+	// moves the pointer to the position of a mouse event
+	private void moveTo(MouseEvent event) {
+		mouseMove(event.getX(), event.getY());
+	}
+
+	/**
+	 * Moves the pointer.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 */
+	public void mouseMove(int x, int y) {
+		this.positioned = true;
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Holds mouse buttons.
+	 *
+	 * @param buttons The buttons (as an AWT button mask).
+	 */
+	public void mousePress(int buttons) {
+		this.buttons |= buttons;
+	}
+
+	/**
+	 * Releases mouse buttons.
+	 *
+	 * @param buttons The buttons (as an AWT button mask).
+	 */
+	public void mouseRelease(int buttons) {
+		this.buttons &= ~buttons;
+	}
+
+	/**
+	 * Holds a key.
+	 *
+	 * @param keyCode The key code.
+	 */
+	public void keyPress(int keyCode) {
+		keys.set(keyCode);
+	}
+
+	/**
+	 * Releases a key.
+	 *
+	 * @param keyCode The key code.
+	 */
+	public void keyRelease(int keyCode) {
+		keys.clear(keyCode);
+	}
+
+	/** Returns whether the pointer has been positioned. */
+	public boolean isPositioned() {
+		return positioned;
+	}
+
+	/** Returns the pointer x coordinate. */
+	public int getX() {
+		return x;
+	}
+
+	/** Returns the pointer y coordinate. */
+	public int getY() {
+		return y;
+	}
+
+	/** Returns the held mouse buttons (as an AWT button mask). */
+	public int getButtons() {
+		return buttons;
+	}
+
+	/**
+	 * Returns whether the given key is held.
+	 *
+	 * @param keyCode The key code.
+	 * @return Whether the key is held.
+	 */
+	public boolean isKeyHeld(int keyCode) {
+		return keyCode >= 0 && keys.get(keyCode);
+	}
+
+	/**
+	 * Returns whether the pointer is within {@code tolerance} pixels (on each
+	 * axis) of the given point.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param tolerance The tolerance, in pixels.
+	 * @return Whether the pointer is positioned near the point.
+	 */
+	public boolean isNear(int x, int y, int tolerance) {
+		return positioned
+			&& Math.abs(this.x - x) <= tolerance
+			&& Math.abs(this.y - y) <= tolerance;
+	}
+
+	/**
+	 * Returns whether the given state has the same held buttons and keys as
+	 * this state, and a pointer position within {@code tolerance} pixels.
+	 *
+	 * @param other The state to compare to (must not be {@code null}).
+	 * @param tolerance The position tolerance, in pixels.
+	 * @return Whether the states match.
+	 */
+	public boolean matches(KeyframeTracker other, int tolerance) {
+
+		requireNotNull(other);
+
+		if (positioned != other.positioned)
+			return false;
+		if (positioned && !isNear(other.x, other.y, tolerance))
+			return false;
+
+		return buttons == other.buttons && keys.equals(other.keys);
+
+	}
+
+	/** Returns a snapshot of the state. */
+	public Keyframe toKeyframe() {
+
+		int[] held = new int[keys.cardinality()];
+
+		int i = 0;
+		for (int key = keys.nextSetBit(0); key >= 0; key = keys.nextSetBit(key + 1))
+			held[i++] = key;
+
+		return new Keyframe(positioned, x, y, buttons, held);
+
+	}
+
+	/**
+	 * Sets the state to the given snapshot.
+	 *
+	 * @param keyframe The snapshot (must not be {@code null}).
+	 */
+	public void restore(Keyframe keyframe) {
+
+		requireNotNull(keyframe);
+
+		positioned = keyframe.isPositioned();
+		x = keyframe.getX();
+		y = keyframe.getY();
+		buttons = keyframe.getButtons();
+
+		keys.clear();
+		for (int key : keyframe.getKeys()) {
+			if (key >= 0)
+				keys.set(key);
+		}
+
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"pointer %s, buttons 0x%x, keys %s",
+			positioned ? String.format("(%d, %d)", x, y) : "unset",
+			buttons, keys
+		);
+	}
+
+}
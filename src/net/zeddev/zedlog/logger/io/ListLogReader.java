@@ -0,0 +1,67 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.List;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Reads the entries of a list (i.e. an in-memory log).
+ * The list must not be modified while being read.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class ListLogReader extends AbstractLogEntryReader {
+
+	private final List<LogEntry> logEntries;
+	private int next = 0;
+
+	/**
+	 * Creates a new {@code ListLogReader}.
+	 *
+	 * @param logEntries The entries to be read (must not be {@code null}).
+	 */
+	public ListLogReader(final List<LogEntry> logEntries) {
+
+		requireNotNull(logEntries);
+
+		this.logEntries = logEntries;
+
+	}
+
+	@Override
+	public LogEntry read() {
+
+		while (next < logEntries.size()) {
+
+			LogEntry logEntry = logEntries.get(next++);
+
+			if (accepts(logEntry))
+				return logEntry;
+
+		}
+
+		return null;
+
+	}
+
+	@Override
+	public void close() {
+	}
+
+}
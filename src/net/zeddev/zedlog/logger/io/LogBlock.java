@@ -0,0 +1,133 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * A block of encoded entries in a binary log, along with its metadata.
+ * The metadata allows whole blocks to be skipped without decoding them.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogBlock {
+
+	/** The size of the block header (in bytes), excluding the keyframe. */
+	public static final int HEADER_SIZE = 4 + 8 + 8 + 8 + 1 + 4;
+
+	private final int entryCount;
+	private final long minTimestamp;
+	private final long maxTimestamp;
+	private final long typeMask;
+	private final Keyframe keyframe;
+	private final byte[] payload;
+	private final int checksum;
+
+	/**
+	 * Creates a new {@code LogBlock}.
+	 *
+	 * @param entryCount The number of entries in the block.
+	 * @param minTimestamp The smallest timestamp in the block.
+	 * @param maxTimestamp The largest timestamp in the block.
+	 * @param typeMask The event types in the block (see {@code typeBit()}).
+	 * @param payload The encoded entries (must not be {@code null}).
+	 * @param checksum The CRC32 checksum of the payload.
+	 */
+	public LogBlock(int entryCount, long minTimestamp, long maxTimestamp,
+			long typeMask, byte[] payload, int checksum) {
+
+		this(entryCount, minTimestamp, maxTimestamp, typeMask, null, payload, checksum);
+
+	}
+
+	/**
+	 * Creates a new {@code LogBlock}, with a keyframe.
+	 *
+	 * @param entryCount The number of entries in the block.
+	 * @param minTimestamp The smallest timestamp in the block.
+	 * @param maxTimestamp The largest timestamp in the block.
+	 * @param typeMask The event types in the block (see {@code typeBit()}).
+	 * @param keyframe The input state before the block (or {@code null}).
+	 * @param payload The encoded entries (must not be {@code null}).
+	 * @param checksum The CRC32 checksum of the payload.
+	 */
+	public LogBlock(int entryCount, long minTimestamp, long maxTimestamp,
+			long typeMask, Keyframe keyframe, byte[] payload, int checksum) {
+
+		requireNotNull(payload);
+
+		this.entryCount = entryCount;
+		this.minTimestamp = minTimestamp;
+		this.maxTimestamp = maxTimestamp;
+		this.typeMask = typeMask;
+		this.keyframe = keyframe;
+		this.payload = payload;
+		this.checksum = checksum;
+
+	}
+
+	/**
+	 * Returns the bit used for the given event type id in a type mask.
+	 * NOTE Type ids may share bits, so the mask can only be used to rule out
+	 * the presence of an event type.
+	 *
+	 * @param typeId The event type id.
+	 * @return The bit for the event type.
+	 */
+	public static long typeBit(int typeId) {
+		return 1L << (typeId & 63);
+	}
+
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	public long getMinTimestamp() {
+		return minTimestamp;
+	}
+
+	public long getMaxTimestamp() {
+		return maxTimestamp;
+	}
+
+	public long getTypeMask() {
+		return typeMask;
+	}
+
+	/** Returns the input state before the block (or {@code null} if not known). */
+	public Keyframe getKeyframe() {
+		return keyframe;
+	}
+
+	/** Whether the block may contain events with the given type id. */
+	public boolean mayContainType(int typeId) {
+		return (typeMask & typeBit(typeId)) != 0;
+	}
+
+	/** Whether the block may contain entries in the given time range (inclusive). */
+	public boolean overlaps(long fromTimestamp, long toTimestamp) {
+		return minTimestamp <= toTimestamp && maxTimestamp >= fromTimestamp;
+	}
+
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	public int getChecksum() {
+		return checksum;
+	}
+
+}
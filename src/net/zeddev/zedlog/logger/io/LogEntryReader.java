@@ -0,0 +1,65 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import net.zeddev.zedlog.logger.LogEntry;
+
+/**
+ * Reads a stream of {@code LogEntry}s from a stored log.
+ * Readers never hold more than a bounded number of entries in memory, so
+ * they may be used on logs much larger than the heap.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface LogEntryReader extends Closeable {
+
+	/**
+	 * Returns the type names of the {@code DataLogger}s which made the log.
+	 *
+	 * @return The logger types (never {@code null}, but may be empty if the
+	 * log format does not store them).
+	 */
+	public List<String> loggerTypes();
+
+	/**
+	 * Reads the next {@code LogEntry}.
+	 *
+	 * @return The next entry, or {@code null} at the end of the log.
+	 * @throws IOException If the log could not be read or is malformed.
+	 */
+	public LogEntry read() throws IOException;
+
+	/**
+	 * Reads the raw data for the next batch of entries, without necessarily
+	 * decoding it.
+	 * The returned task decodes the batch and may be run on any thread, which
+	 * allows the decoding of large logs to be spread over several cores.  The
+	 * tasks must be consumed in the order in which they are returned.
+	 *
+	 * @param maxEntries The (approximate) maximum number of entries in the
+	 * batch.
+	 * @return The task decoding the batch, or {@code null} at the end of the
+	 * log.
+	 * @throws IOException If the log could not be read.
+	 */
+	public Callable<List<LogEntry>> readBatch(int maxEntries) throws IOException;
+
+}
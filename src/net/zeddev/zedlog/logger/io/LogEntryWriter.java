@@ -0,0 +1,40 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+import net.zeddev.zedlog.logger.LogEntry;
+
+/**
+ * Writes a stream of {@code LogEntry}s to a stored log.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface LogEntryWriter extends Closeable, Flushable {
+
+	/**
+	 * Writes the given {@code LogEntry}.
+	 * The entry may be buffered until the writer is flushed or closed.
+	 *
+	 * @param logEntry The entry to write (must not be {@code null}).
+	 * @throws IOException If the entry could not be written.
+	 */
+	public void write(LogEntry logEntry) throws IOException;
+
+}
@@ -0,0 +1,292 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.Rectangle;
+import java.nio.ByteBuffer;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Selects log entries by event type, time range, screen region and mouse
+ * button.  Readers apply the filter as early as the format allows (see
+ * {@code AbstractLogEntryReader.setFilter()}); binary logs skip whole blocks
+ * using their metadata and test the raw fields of each record before it is
+ * decoded.
+ * <p>
+ * Should not be modified once given to a reader.  Event types registered
+ * after the filter is created are assumed to have no position or button.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogFilter {
+
+	private long from = Long.MIN_VALUE;
+	private long to = Long.MAX_VALUE;
+
+	// the accepted event type ids (all if null), and their type mask bits
+	private boolean[] types = null;
+	private long typeMask = -1L;
+
+	private Rectangle region = null;
+	private int buttonCode = -1;
+
+	// the event type ids with a position and with a button code
+	private final boolean[] positioned = new boolean[LogEvents.MAX_TYPE_ID + 1];
+	private final boolean[] buttoned = new boolean[LogEvents.MAX_TYPE_ID + 1];
+
+	public LogFilter() {
+
+		for (int typeId = 0; typeId <= LogEvents.MAX_TYPE_ID; typeId++) {
+
+			LogEvent prototype = LogEvents.newLogEvent(typeId);
+
+			positioned[typeId] = prototype instanceof MouseEvent;
+			buttoned[typeId] = hasButton(prototype);
+
+		}
+
+	}
+
+	// whether the event has a mouse button code
+	private static boolean hasButton(LogEvent event) {
+		return event instanceof MousePressedEvent
+			|| event instanceof MouseReleasedEvent
+			|| event instanceof MouseClickedEvent
+			|| event instanceof MouseDraggedEvent;
+	}
+
+	/**
+	 * Returns the mouse button code of the given event.
+	 *
+	 * @param event The event.
+	 * @return The button code, or -1 if the event has no button code.
+	 */
+	public static int buttonCode(LogEvent event) {
+
+		if (event instanceof MousePressedEvent) {
+			return ((MousePressedEvent) event).getButtonCode();
+		} else if (event instanceof MouseReleasedEvent) {
+			return ((MouseReleasedEvent) event).getButtonCode();
+		} else if (event instanceof MouseClickedEvent) {
+			return ((MouseClickedEvent) event).getButtonCode();
+		} else if (event instanceof MouseDraggedEvent) {
+			return ((MouseDraggedEvent) event).getButtonCode();
+		} else {
+			return -1;
+		}
+
+	}
+
+	/**
+	 * Selects the entries within the given time range (inclusive).
+	 *
+	 * @param from The earliest timestamp.
+	 * @param to The latest timestamp.
+	 */
+	public void setTimeRange(long from, long to) {
+		require(from <= to);
+		this.from = from;
+		this.to = to;
+	}
+
+	public long getFrom() {
+		return from;
+	}
+
+	public long getTo() {
+		return to;
+	}
+
+	/**
+	 * Adds an event type to select.  All event types are selected until one
+	 * is added.
+	 *
+	 * @param type The event type name (i.e. {@code MouseClicked}).
+	 * @throws IllegalArgumentException If the event type is not known.
+	 */
+	public void addType(String type) {
+
+		requireNotNull(type);
+
+		int typeId = LogEvents.typeId(type);
+		if (typeId == LogEvents.UNKNOWN_TYPE_ID) {
+			throw new IllegalArgumentException(
+				String.format("Unknown event type %s.", type)
+			);
+		}
+
+		if (types == null) {
+			types = new boolean[LogEvents.MAX_TYPE_ID + 1];
+			typeMask = 0;
+		}
+
+		types[typeId] = true;
+		typeMask |= LogBlock.typeBit(typeId);
+
+	}
+
+	/**
+	 * Selects only mouse events within the given screen region.
+	 *
+	 * @param region The screen region, or {@code null} for any position.
+	 */
+	public void setRegion(Rectangle region) {
+		this.region = region == null ? null : new Rectangle(region);
+	}
+
+	public Rectangle getRegion() {
+		return region == null ? null : new Rectangle(region);
+	}
+
+	/**
+	 * Selects only mouse events with the given button code.
+	 *
+	 * @param buttonCode The mouse button code, or -1 for any (or no) button.
+	 */
+	public void setButtonCode(int buttonCode) {
+		require(buttonCode >= -1);
+		this.buttonCode = buttonCode;
+	}
+
+	public int getButtonCode() {
+		return buttonCode;
+	}
+
+	// whether the given type id is selected
+	private boolean acceptsType(int typeId) {
+		return types == null || (typeId >= 0 && typeId < types.length && types[typeId]);
+	}
+
+	/**
+	 * Returns whether a block with the given metadata may contain selected
+	 * entries.
+	 *
+	 * @param block The block (may be a header only).
+	 * @return Whether the block must be decoded.
+	 */
+	public boolean mayMatch(LogBlock block) {
+		return block.getMaxTimestamp() >= from
+			&& block.getMinTimestamp() <= to
+			&& (block.getTypeMask() & typeMask) != 0;
+	}
+
+	/**
+	 * Returns whether an entry with the given type and timestamp may be
+	 * selected, before it is decoded.
+	 *
+	 * @param typeId The event type id.
+	 * @param timestamp The entry timestamp.
+	 * @return Whether the entry may be selected.
+	 */
+	public boolean mayMatch(int typeId, long timestamp) {
+
+		if (!acceptsType(typeId) || timestamp < from || timestamp > to)
+			return false;
+
+		// only mouse events can match a region or button
+		if ((region != null || buttonCode >= 0) && (typeId < 0 || !positioned[typeId]))
+			return false;
+		if (buttonCode >= 0 && !buttoned[typeId])
+			return false;
+
+		return true;
+
+	}
+
+	/**
+	 * Returns whether a raw binary record is selected, without decoding it.
+	 *
+	 * @param payload The block payload.
+	 * @param offset The offset of the record in the payload (after its
+	 * length field).
+	 * @return Whether the record is selected.
+	 */
+	public boolean matchesRecord(ByteBuffer payload, int offset) {
+
+		int typeId = payload.get(offset + RecordCursor.TYPE_OFFSET) & 0xff;
+		long timestamp = payload.getLong(offset + RecordCursor.TIMESTAMP_OFFSET);
+
+		if (!mayMatch(typeId, timestamp))
+			return false;
+
+		if (region != null && !region.contains(
+				payload.getInt(offset + RecordCursor.X_OFFSET),
+				payload.getInt(offset + RecordCursor.Y_OFFSET)))
+			return false;
+
+		if (buttonCode >= 0 && payload.getInt(offset + RecordCursor.BUTTON_OFFSET) != buttonCode)
+			return false;
+
+		return true;
+
+	}
+
+	/**
+	 * Returns whether the current record of the cursor is selected, without
+	 * decoding it.
+	 *
+	 * @param cursor The record cursor.
+	 * @return Whether the record is selected.
+	 */
+	public boolean matches(RecordCursor cursor) {
+		return matchesRecord(cursor.getPayload(), cursor.getOffset());
+	}
+
+	/**
+	 * Returns whether the given (decoded) entry is selected.
+	 *
+	 * @param logEntry The entry.
+	 * @return Whether the entry is selected.
+	 */
+	public boolean matches(LogEntry logEntry) {
+
+		LogEvent event = logEntry.getEvent();
+		if (event == null)
+			return false;
+
+		if (!acceptsType(LogEvents.typeId(event.type())))
+			return false;
+		if (logEntry.getTimestamp() < from || logEntry.getTimestamp() > to)
+			return false;
+
+		if (region != null || buttonCode >= 0) {
+
+			if (!(event instanceof MouseEvent))
+				return false;
+
+			MouseEvent mouseEvent = (MouseEvent) event;
+
+			if (region != null && !region.contains(mouseEvent.getX(), mouseEvent.getY()))
+				return false;
+			if (buttonCode >= 0 && buttonCode(event) != buttonCode)
+				return false;
+
+		}
+
+		return true;
+
+	}
+
+}
@@ -0,0 +1,239 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * The formats in which a log may be stored.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public enum LogFormat {
+
+	/** The XML format used by {@code CompositeDataLogger}. */
+	XML("xml", "xml"),
+
+	/** The legacy vertical bar separated format. */
+	PIPE("pipe", "log"),
+
+	/** The compact binary format. */
+	BINARY("binary", "zlog");
+
+	// the size of the file I/O buffers
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final String name;
+	private final String extension;
+
+	private LogFormat(String name, String extension) {
+		this.name = name;
+		this.extension = extension;
+	}
+
+	/** Returns the usual file name extension for the format. */
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Returns the {@code LogFormat} with the given name.
+	 *
+	 * @param name The format name ("xml", "pipe" or "binary").
+	 * @return The format.
+	 * @throws IllegalArgumentException If the format is not known.
+	 */
+	public static LogFormat getByName(String name) {
+
+		requireNotNull(name);
+
+		for (LogFormat format : values()) {
+			if (format.name.equalsIgnoreCase(name))
+				return format;
+		}
+
+		throw new IllegalArgumentException(
+			String.format("Unknown log format %s.", name)
+		);
+
+	}
+
+	/**
+	 * Returns the {@code LogFormat} for the given file, based on its name.
+	 * Files with an unknown extension are assumed to be XML.
+	 *
+	 * @param file The log file (must not be {@code null}).
+	 * @return The format of the file.
+	 */
+	public static LogFormat forFileName(File file) {
+
+		requireNotNull(file);
+
+		String name = file.getName().toLowerCase();
+
+		for (LogFormat format : values()) {
+			if (name.endsWith("." + format.extension))
+				return format;
+		}
+
+		if (name.endsWith(".txt"))
+			return PIPE;
+
+		return XML;
+
+	}
+
+	/**
+	 * Detects the {@code LogFormat} of the given file, based on its contents.
+	 *
+	 * @param file The log file (must exist).
+	 * @return The format of the file.
+	 * @throws IOException If the file could not be read.
+	 */
+	public static LogFormat detect(File file) throws IOException {
+
+		requireNotNull(file);
+
+		try (InputStream input = new FileInputStream(file)) {
+
+			byte[] magic = new byte[4];
+			int length = input.read(magic);
+
+			if (length == 4 && ((magic[0] & 0xff) << 24 | (magic[1] & 0xff) << 16
+					| (magic[2] & 0xff) << 8 | (magic[3] & 0xff)) == BinaryLogWriter.MAGIC) {
+				return BINARY;
+			} else if (length > 0 && magic[0] == '<') {
+				return XML;
+			} else {
+				return PIPE;
+			}
+
+		}
+
+	}
+
+	/**
+	 * Opens the given log file for reading, detecting its format.
+	 *
+	 * @param file The log file (must exist).
+	 * @return The reader for the file.
+	 * @throws IOException If the file could not be opened.
+	 */
+	public static AbstractLogEntryReader open(File file) throws IOException {
+		return detect(file).newReader(file);
+	}
+
+	/**
+	 * Creates a reader for a log file in this format.
+	 *
+	 * @param file The log file (must exist).
+	 * @return The reader for the file.
+	 * @throws IOException If the file could not be opened.
+	 */
+	public AbstractLogEntryReader newReader(File file) throws IOException {
+
+		requireNotNull(file);
+
+		InputStream input = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+
+		try {
+
+			switch (this) {
+				case XML:
+					return new XmlLogReader(input);
+				case PIPE:
+					return new PipeLogReader(input);
+				default:
+					return new BinaryLogReader(input);
+			}
+
+		} catch (IOException ex) {
+			input.close();
+			throw ex;
+		}
+
+	}
+
+	/**
+	 * Creates a writer for a log file in this format.
+	 * Any existing file is overwritten.
+	 *
+	 * @param file The log file (must not be {@code null}).
+	 * @param loggerTypes The types of the loggers which made the log.
+	 * @return The writer for the file.
+	 * @throws IOException If the file could not be created.
+	 */
+	public AbstractLogEntryWriter newWriter(File file, List<String> loggerTypes)
+			throws IOException {
+
+		return newWriter(file, loggerTypes, false);
+
+	}
+
+	/**
+	 * Creates a writer for a log file in this format.
+	 * Any existing file is overwritten.
+	 * The pipe format has no header, so cannot be marked as sorted.
+	 *
+	 * @param file The log file (must not be {@code null}).
+	 * @param loggerTypes The types of the loggers which made the log.
+	 * @param sorted Whether to mark the log as being in chronological order.
+	 * @return The writer for the file.
+	 * @throws IOException If the file could not be created.
+	 */
+	public AbstractLogEntryWriter newWriter(File file, List<String> loggerTypes,
+			boolean sorted) throws IOException {
+
+		requireNotNull(file);
+		requireNotNull(loggerTypes);
+
+		OutputStream output = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+
+		try {
+
+			switch (this) {
+				case XML:
+					return new XmlLogWriter(output, loggerTypes, sorted);
+				case PIPE:
+					return new PipeLogWriter(output);
+				default:
+					return new BinaryLogWriter(output, loggerTypes,
+						BinaryLogWriter.DEFAULT_BATCH_SIZE, sorted ? BinaryLogWriter.SORTED : 0);
+			}
+
+		} catch (IOException ex) {
+			output.close();
+			throw ex;
+		}
+
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+
+}
@@ -0,0 +1,185 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Merges several logs into a single, chronological stream of entries.
+ * Each of the source logs is assumed to be in chronological order.  Entries
+ * with equal timestamps are returned in the order of their sources.
+ * <p>
+ * Only the next entry of each source is held, in a binary heap of source
+ * indices, so any number of logs (i.e. files, per-logger buffers or sorted
+ * runs) may be merged without reading them into memory.  Each entry read
+ * costs a single sift of the heap, and no allocation.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class MergingLogReader extends AbstractLogEntryReader {
+
+	private final List<LogEntryReader> sources;
+
+	// the next entry, and its timestamp, of each source
+	private final LogEntry[] heads;
+	private final long[] timestamps;
+
+	// the sources with a next entry, ordered as a min-heap
+	private final int[] heap;
+	private int size = 0;
+
+	/**
+	 * Creates a new {@code MergingLogReader}.
+	 *
+	 * @param sources The logs to merge (must not be {@code null}).
+	 * @throws IOException If the first entry of a log could not be read.
+	 */
+	public MergingLogReader(final List<LogEntryReader> sources) throws IOException {
+
+		requireNotNull(sources);
+
+		this.sources = new ArrayList<>(sources);
+		this.heads = new LogEntry[sources.size()];
+		this.timestamps = new long[sources.size()];
+		this.heap = new int[sources.size()];
+
+		for (int i = 0; i < this.sources.size(); i++) {
+
+			LogEntryReader source = this.sources.get(i);
+
+			// take the union of the logger types
+			for (String type : source.loggerTypes()) {
+				if (!loggerTypes().contains(type))
+					addLoggerType(type);
+			}
+
+			LogEntry first = source.read();
+			if (first != null) {
+				heads[i] = first;
+				timestamps[i] = first.getTimestamp();
+				heap[size++] = i;
+			}
+
+		}
+
+		// NOTE merging sorted logs gives a sorted log
+		boolean sorted = true;
+		for (LogEntryReader source : this.sources)
+			sorted &= source instanceof AbstractLogEntryReader
+				&& ((AbstractLogEntryReader) source).isSorted();
+
+		setSorted(sorted);
+
+		// NOTE heapify bottom-up
+		for (int i = size / 2 - 1; i >= 0; i--)
+			siftDown(i);
+
+	}
+
+	// whether source a is ordered before source b
+	private boolean before(int a, int b) {
+
+		if (timestamps[a] != timestamps[b])
+			return timestamps[a] < timestamps[b];
+
+		return a < b;
+
+	}
+
+	// moves the source at the given heap position down to its place
+	private void siftDown(int pos) {
+
+		int source = heap[pos];
+
+		while (true) {
+
+			int child = 2 * pos + 1;
+			if (child >= size)
+				break;
+
+			// the earlier of the children
+			if (child + 1 < size && before(heap[child + 1], heap[child]))
+				child++;
+
+			if (!before(heap[child], source))
+				break;
+
+			heap[pos] = heap[child];
+			pos = child;
+
+		}
+
+		heap[pos] = source;
+
+	}
+
+	@Override
+	public LogEntry read() throws IOException {
+
+		if (size == 0)
+			return null;
+
+		int source = heap[0];
+		LogEntry logEntry = heads[source];
+
+		// replace with the next entry from the same source
+		LogEntry next = sources.get(source).read();
+
+		if (next != null) {
+			heads[source] = next;
+			timestamps[source] = next.getTimestamp();
+		} else {
+
+			// source exhausted, so replace with the last in the heap
+			heads[source] = null;
+			heap[0] = heap[--size];
+
+		}
+
+		if (size > 0)
+			siftDown(0);
+
+		return logEntry;
+
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		IOException error = null;
+
+		for (LogEntryReader source : sources) {
+
+			try {
+				source.close();
+			} catch (IOException ex) {
+				if (error == null)
+					error = ex;
+			}
+
+		}
+
+		if (error != null)
+			throw error;
+
+	}
+
+}
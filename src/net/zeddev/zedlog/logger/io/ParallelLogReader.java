@@ -0,0 +1,300 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Reads ahead of the consumer, decoding batches of entries in parallel.
+ * A reader thread reads raw batches from the source (see
+ * {@code LogEntryReader.readBatch()}), which are decoded by the given
+ * executor.  The number of batches read ahead is bounded, so memory use does
+ * not depend on the size of the log.  Entries are returned in their original
+ * order.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class ParallelLogReader implements LogEntryReader {
+
+	/** The default number of entries in each batch. */
+	public static final int DEFAULT_BATCH_SIZE = 4096;
+
+	// marks the end of the log in the queue
+	private static final Future<List<LogEntry>> END = completed(null);
+
+	private final LogEntryReader source;
+	private final ExecutorService executor;
+	private final int batchSize;
+
+	// the batches being decoded, in order
+	private final BlockingQueue<Future<List<LogEntry>>> decoded;
+
+	// the thread reading raw batches from the source
+	private final Thread readerThread;
+
+	// the entries of the current batch
+	private Iterator<LogEntry> batch = null;
+	private boolean finished = false;
+
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new {@code ParallelLogReader}.
+	 *
+	 * @param source The reader to read ahead of (must not be {@code null}).
+	 * @param executor The executor used to decode batches (must not be
+	 * {@code null}).
+	 * @param batchSize The (approximate) number of entries in each batch.
+	 * @param readAhead The maximum number of batches read ahead.
+	 */
+	public ParallelLogReader(final LogEntryReader source, final ExecutorService executor,
+			int batchSize, int readAhead) {
+
+		requireNotNull(source);
+		requireNotNull(executor);
+		require(batchSize > 0);
+		require(readAhead > 0);
+
+		this.source = source;
+		this.executor = executor;
+		this.batchSize = batchSize;
+		this.decoded = new ArrayBlockingQueue<>(readAhead);
+
+		readerThread = new Thread(new Runnable() {
+			public void run() {
+				readAhead();
+			}
+		});
+
+		readerThread.setName("Log read-ahead thread");
+		readerThread.setDaemon(true);
+		readerThread.start();
+
+	}
+
+	/**
+	 * Creates a new {@code ParallelLogReader}, reading ahead two batches for
+	 * each available processor.
+	 *
+	 * @param source The reader to read ahead of (must not be {@code null}).
+	 * @param executor The executor used to decode batches (must not be
+	 * {@code null}).
+	 */
+	public ParallelLogReader(final LogEntryReader source, final ExecutorService executor) {
+		this(source, executor, DEFAULT_BATCH_SIZE,
+			2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	// returns a completed future with the given result
+	private static Future<List<LogEntry>> completed(final List<LogEntry> result) {
+
+		FutureTask<List<LogEntry>> future = new FutureTask<>(
+			new Callable<List<LogEntry>>() {
+				public List<LogEntry> call() {
+					return result;
+				}
+			}
+		);
+
+		future.run();
+
+		return future;
+
+	}
+
+	// returns a failed future with the given exception
+	private static Future<List<LogEntry>> failed(final IOException ex) {
+
+		FutureTask<List<LogEntry>> future = new FutureTask<>(
+			new Callable<List<LogEntry>>() {
+				public List<LogEntry> call() throws IOException {
+					throw ex;
+				}
+			}
+		);
+
+		future.run();
+
+		return future;
+
+	}
+
+	// reads raw batches from the source, until the end of the log
+	private void readAhead() {
+
+		try {
+
+			try {
+
+				Callable<List<LogEntry>> task;
+				while (!closed && (task = source.readBatch(batchSize)) != null)
+					decoded.put(executor.submit(task));
+
+			} catch (IOException ex) {
+				if (!closed)
+					decoded.put(failed(ex));
+			} catch (InterruptedException ex) {
+				throw ex;
+			} catch (Throwable ex) {
+				// NOTE any other failure must still reach the consumer, or it waits forever
+				if (!closed)
+					decoded.put(failed(new IOException("Failed to read log.", ex)));
+			} finally {
+				if (!closed)
+					decoded.put(END);
+			}
+
+		} catch (InterruptedException ex) {
+			// NOTE only interrupted when closed
+		}
+
+	}
+
+	// waits for the given batch to be decoded
+	private static List<LogEntry> await(Future<List<LogEntry>> future) throws IOException {
+
+		try {
+			return future.get();
+		} catch (InterruptedException ex) {
+			throw new InterruptedIOException("Interrupted while decoding log.");
+		} catch (ExecutionException ex) {
+
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			} else {
+				throw new IOException("Failed to decode log.", ex.getCause());
+			}
+
+		}
+
+	}
+
+	// takes the next decoded batch, or null at the end of the log
+	private List<LogEntry> nextBatch() throws IOException {
+
+		if (finished)
+			return null;
+
+		Future<List<LogEntry>> future;
+		try {
+			future = decoded.take();
+		} catch (InterruptedException ex) {
+			throw new InterruptedIOException("Interrupted while reading log.");
+		}
+
+		if (future == END) {
+			finished = true;
+			return null;
+		}
+
+		return await(future);
+
+	}
+
+	@Override
+	public List<String> loggerTypes() {
+		return source.loggerTypes();
+	}
+
+	/**
+	 * Returns whether the source is marked as being in chronological order
+	 * (see {@code AbstractLogEntryReader.isSorted()}).
+	 */
+	public boolean isSorted() {
+		return source instanceof AbstractLogEntryReader
+			&& ((AbstractLogEntryReader) source).isSorted();
+	}
+
+	@Override
+	public LogEntry read() throws IOException {
+
+		while (batch == null || !batch.hasNext()) {
+
+			List<LogEntry> next = nextBatch();
+			if (next == null)
+				return null;
+
+			batch = next.iterator();
+
+		}
+
+		return batch.next();
+
+	}
+
+	@Override
+	public Callable<List<LogEntry>> readBatch(int maxEntries) throws IOException {
+
+		final List<LogEntry> next;
+
+		// finish off the current batch first
+		if (batch != null && batch.hasNext()) {
+
+			next = new ArrayList<>();
+			while (batch.hasNext())
+				next.add(batch.next());
+
+		} else {
+
+			next = nextBatch();
+			if (next == null)
+				return null;
+
+		}
+
+		return new Callable<List<LogEntry>>() {
+			public List<LogEntry> call() {
+				return next;
+			}
+		};
+
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		closed = true;
+		readerThread.interrupt();
+
+		try {
+			source.close();
+		} finally {
+
+			try {
+				readerThread.join();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+
+		}
+
+	}
+
+}
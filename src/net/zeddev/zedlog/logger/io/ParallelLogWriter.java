@@ -0,0 +1,161 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Encodes batches of entries in parallel, writing them in order.
+ * The number of batches being encoded at once is bounded, so memory use does
+ * not depend on the size of the log.  Not thread safe (the entries must be
+ * written by a single thread).
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class ParallelLogWriter implements LogEntryWriter {
+
+	private final AbstractLogEntryWriter target;
+	private final ExecutorService executor;
+
+	// the maximum number of batches being encoded at once
+	private final int maxPending;
+
+	// the batches being encoded, in order
+	private final Deque<Future<byte[]>> encoding = new ArrayDeque<>();
+
+	// the entries of the next batch
+	private List<LogEntry> batch;
+
+	/**
+	 * Creates a new {@code ParallelLogWriter}.
+	 *
+	 * @param target The writer used to encode and write the entries (must
+	 * not be {@code null}).
+	 * @param executor The executor used to encode batches (must not be
+	 * {@code null}).
+	 * @param maxPending The maximum number of batches being encoded at once.
+	 */
+	public ParallelLogWriter(final AbstractLogEntryWriter target,
+			final ExecutorService executor, int maxPending) {
+
+		requireNotNull(target);
+		requireNotNull(executor);
+		require(maxPending > 0);
+
+		this.target = target;
+		this.executor = executor;
+		this.maxPending = maxPending;
+		this.batch = new ArrayList<>(target.getBatchSize());
+
+	}
+
+	/**
+	 * Creates a new {@code ParallelLogWriter}, encoding up to two batches
+	 * for each available processor at once.
+	 *
+	 * @param target The writer used to encode and write the entries (must
+	 * not be {@code null}).
+	 * @param executor The executor used to encode batches (must not be
+	 * {@code null}).
+	 */
+	public ParallelLogWriter(final AbstractLogEntryWriter target, final ExecutorService executor) {
+		this(target, executor, 2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	// starts encoding the current batch
+	private void submitBatch() throws IOException {
+
+		if (batch.isEmpty())
+			return;
+
+		List<LogEntry> logEntries = batch;
+		batch = new ArrayList<>(target.getBatchSize());
+
+		encoding.add(executor.submit(target.prepare(logEntries)));
+
+		while (encoding.size() > maxPending)
+			writeNext();
+
+	}
+
+	// waits for the oldest batch to be encoded and writes it
+	private void writeNext() throws IOException {
+
+		Future<byte[]> next = encoding.poll();
+
+		try {
+			target.writeEncoded(next.get());
+		} catch (InterruptedException ex) {
+			throw new InterruptedIOException("Interrupted while encoding log.");
+		} catch (ExecutionException ex) {
+
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			} else {
+				throw new IOException("Failed to encode log.", ex.getCause());
+			}
+
+		}
+
+	}
+
+	@Override
+	public void write(LogEntry logEntry) throws IOException {
+
+		requireNotNull(logEntry);
+
+		batch.add(logEntry);
+
+		if (batch.size() >= target.getBatchSize())
+			submitBatch();
+
+	}
+
+	@Override
+	public void flush() throws IOException {
+
+		submitBatch();
+
+		while (!encoding.isEmpty())
+			writeNext();
+
+		target.flush();
+
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		try {
+			flush();
+		} finally {
+			target.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,186 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Reads a log in the legacy vertical bar ({@code |}) separated format.
+ * Batches are read as raw lines, which are only parsed when the batch is
+ * decoded.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@SuppressWarnings("deprecation")
+public class PipeLogReader extends AbstractLogEntryReader {
+
+	// the field delimiter
+	private static final Pattern DELIMITER = Pattern.compile("\\|");
+
+	private final BufferedReader input;
+
+	// the number of lines read (for error messages)
+	private long lineNumber = 0;
+
+	/**
+	 * Creates a new {@code PipeLogReader}.
+	 *
+	 * @param input The input stream to read (must not be {@code null}).
+	 */
+	public PipeLogReader(final InputStream input) {
+
+		requireNotNull(input);
+
+		this.input = new BufferedReader(
+			new InputStreamReader(input, StandardCharsets.UTF_8)
+		);
+
+	}
+
+	// whether the line may be selected by the filter, checked before parsing
+	private static boolean mayMatch(LogFilter filter, String line) {
+
+		// NOTE the line starts with: message|timestamp|type|
+		int timestampStart = line.indexOf('|') + 1;
+		int typeStart = line.indexOf('|', timestampStart) + 1;
+		int typeEnd = line.indexOf('|', typeStart);
+
+		if (timestampStart == 0 || typeStart == 0 || typeEnd < 0)
+			return true; // NOTE malformed, reported when parsed
+
+		try {
+
+			long timestamp = Long.parseLong(line.substring(timestampStart, typeStart - 1));
+			int typeId = LogEvents.typeId(line.substring(typeStart, typeEnd));
+
+			return filter.mayMatch(typeId, timestamp);
+
+		} catch (NumberFormatException ex) {
+			return true; // NOTE malformed, reported when parsed
+		}
+
+	}
+
+	// parses a single line of the log, returns null if not selected
+	private LogEntry parse(String line, long lineNumber) throws IOException {
+
+		LogFilter filter = getFilter();
+		if (filter != null && !mayMatch(filter, line))
+			return null;
+
+		Scanner scanner = new Scanner(line);
+		scanner.useDelimiter(DELIMITER);
+
+		try {
+
+			LogEntry logEntry = new LogEntry();
+			logEntry.read(scanner);
+
+			return accepts(logEntry) ? logEntry : null;
+
+		} catch (Exception ex) {
+			throw new IOException(
+				String.format("Malformed log entry on line %d.", lineNumber), ex
+			);
+		}
+
+	}
+
+	// reads the next non-empty line
+	private String readLine() throws IOException {
+
+		String line;
+
+		do {
+			line = input.readLine();
+			lineNumber++;
+		} while (line != null && line.isEmpty());
+
+		return line;
+
+	}
+
+	@Override
+	public LogEntry read() throws IOException {
+
+		String line;
+		while ((line = readLine()) != null) {
+
+			LogEntry logEntry = parse(line, lineNumber);
+			if (logEntry != null)
+				return logEntry;
+
+		}
+
+		return null;
+
+	}
+
+	@Override
+	public Callable<List<LogEntry>> readBatch(int maxEntries) throws IOException {
+
+		require(maxEntries > 0);
+
+		final List<String> lines = new ArrayList<>(maxEntries);
+		final long firstLine = lineNumber + 1;
+
+		String line;
+		while (lines.size() < maxEntries && (line = readLine()) != null)
+			lines.add(line);
+
+		if (lines.isEmpty())
+			return null;
+
+		return new Callable<List<LogEntry>>() {
+			public List<LogEntry> call() throws IOException {
+
+				List<LogEntry> batch = new ArrayList<>(lines.size());
+
+				long lineNumber = firstLine;
+				for (String line : lines) {
+
+					LogEntry logEntry = parse(line, lineNumber++);
+					if (logEntry != null)
+						batch.add(logEntry);
+
+				}
+
+				return batch;
+
+			}
+		};
+
+	}
+
+	@Override
+	public void close() throws IOException {
+		input.close();
+	}
+
+}
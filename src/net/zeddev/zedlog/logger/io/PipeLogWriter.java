@@ -0,0 +1,80 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Writes a log in the legacy vertical bar ({@code |}) separated format.
+ * Each entry is written on a single line using {@code LogEntry.write()}.
+ * The logger types are not stored in this format.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@SuppressWarnings("deprecation")
+public class PipeLogWriter extends AbstractLogEntryWriter {
+
+	/**
+	 * Creates a new {@code PipeLogWriter}.
+	 *
+	 * @param output The output stream to write to (must not be {@code null}).
+	 */
+	public PipeLogWriter(final OutputStream output) {
+		super(output, DEFAULT_BATCH_SIZE);
+	}
+
+	@Override
+	protected void writeFooter() throws IOException {
+		// NOTE no footer in the pipe format
+	}
+
+	@Override
+	public byte[] encode(List<LogEntry> logEntries) throws IOException {
+
+		requireNotNull(logEntries);
+
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream(logEntries.size() * 64);
+		Writer output = new OutputStreamWriter(encoded, StandardCharsets.UTF_8);
+
+		try {
+
+			for (LogEntry logEntry : logEntries) {
+				logEntry.write(output);
+				output.write("\n");
+			}
+
+		} catch (IOException ex) {
+			throw ex;
+		} catch (Exception ex) {
+			throw new IOException("Failed to encode log entry.", ex);
+		}
+
+		output.flush();
+
+		return encoded.toByteArray();
+
+	}
+
+}
@@ -0,0 +1,135 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Iterates over the raw records of a binary log block, without decoding
+ * them.  Allows the fields common to most records to be read in place, for
+ * scans where building a {@code LogEntry} for every record is too costly.
+ * Not thread safe.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class RecordCursor {
+
+	// the offsets of the fields in a record (after its length field)
+	// NOTE see MouseEvent.toBinary(), and its subclasses with a button
+	static final int TYPE_OFFSET = 0;
+	static final int TIMESTAMP_OFFSET = 1;
+	static final int X_OFFSET = BinaryLogWriter.RECORD_EVENT_OFFSET;
+	static final int Y_OFFSET = X_OFFSET + 4;
+	static final int BUTTON_OFFSET = Y_OFFSET + 4;
+
+	private final ByteBuffer payload;
+	private final int entryCount;
+
+	// the number of records visited, and the offset of the current record
+	private int index = 0;
+	private int offset = -1;
+	private int nextOffset = 0;
+
+	/**
+	 * Creates a new {@code RecordCursor}, before the first record of the
+	 * given block.  The block checksum is checked.
+	 *
+	 * @param block The block (must not be {@code null}).
+	 * @throws IOException If the block checksum does not match.
+	 */
+	public RecordCursor(final LogBlock block) throws IOException {
+
+		requireNotNull(block);
+
+		BinaryLogReader.checkBlock(block);
+
+		this.payload = ByteBuffer.wrap(block.getPayload());
+		this.entryCount = block.getEntryCount();
+
+	}
+
+	/**
+	 * Moves to the next record.
+	 *
+	 * @return Whether there is a next record.
+	 * @throws IOException If the record is corrupt.
+	 */
+	public boolean next() throws IOException {
+
+		if (index >= entryCount) {
+
+			if (nextOffset != payload.capacity())
+				throw new IOException("Unexpected data at end of block.");
+
+			return false;
+
+		}
+
+		if (nextOffset + 4 > payload.capacity())
+			throw new IOException("Corrupt record in binary log block.");
+
+		int length = payload.getInt(nextOffset);
+		offset = nextOffset + 4;
+
+		if (length < X_OFFSET || length > payload.capacity() - offset)
+			throw new IOException("Corrupt record in binary log block.");
+
+		nextOffset = offset + length;
+		index++;
+
+		return true;
+
+	}
+
+	/** Returns the payload holding the records. */
+	ByteBuffer getPayload() {
+		return payload;
+	}
+
+	/** Returns the offset of the current record (after its length field). */
+	int getOffset() {
+		return offset;
+	}
+
+	/** Returns the event type id of the current record. */
+	public int getTypeId() {
+		return payload.get(offset + TYPE_OFFSET) & 0xff;
+	}
+
+	/** Returns the timestamp of the current record. */
+	public long getTimestamp() {
+		return payload.getLong(offset + TIMESTAMP_OFFSET);
+	}
+
+	/** Returns the x coordinate of the current (mouse event) record. */
+	public int getX() {
+		return payload.getInt(offset + X_OFFSET);
+	}
+
+	/** Returns the y coordinate of the current (mouse event) record. */
+	public int getY() {
+		return payload.getInt(offset + Y_OFFSET);
+	}
+
+	/** Returns the button code of the current (mouse button event) record. */
+	public int getButtonCode() {
+		return payload.getInt(offset + BUTTON_OFFSET);
+	}
+
+}
@@ -0,0 +1,343 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Reads a log in the XML format used by {@code CompositeDataLogger}.
+ * The document is streamed (using StAX), so only a single entry is held in
+ * memory at a time.
+ * Batches are scanned into the raw attributes of their entries, which are
+ * decoded when the batch is called (i.e. in parallel, by a
+ * {@code ParallelLogReader}).
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class XmlLogReader extends AbstractLogEntryReader {
+
+	private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+	private final InputStream input;
+	private final XMLStreamReader xml;
+
+	// scratch document used to decode entries read one at a time
+	private final Document doc;
+
+	// the next <entry> start tag has already been read
+	private boolean atEntry = false;
+
+	// the attributes of a scanned <entry> and its (first) nested <event>
+	// NOTE as alternating names and values
+	private static final class Fragment {
+
+		private final String[] entry;
+		private String[] event = null;
+
+		private Fragment(String[] entry) {
+			this.entry = entry;
+		}
+
+	}
+
+	/**
+	 * Creates a new {@code XmlLogReader}.
+	 * Reads the list of loggers at the start of the document.
+	 *
+	 * @param input The input stream to read (must not be {@code null}).
+	 * @throws IOException If the log could not be read.
+	 */
+	public XmlLogReader(final InputStream input) throws IOException {
+
+		requireNotNull(input);
+
+		this.input = input;
+
+		try {
+			xml = INPUT_FACTORY.createXMLStreamReader(input);
+		} catch (XMLStreamException ex) {
+			throw new IOException("Failed to create XML decoder.", ex);
+		}
+
+		doc = newDocument();
+
+		readHeader();
+
+	}
+
+	// creates a scratch document to decode entries with LogEntry.fromXML()
+	// NOTE DOM documents are not thread safe, so each batch decodes with its own
+	private static Document newDocument() throws IOException {
+
+		try {
+			return DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		} catch (ParserConfigurationException ex) {
+			throw new IOException("Failed to create XML decoder.", ex);
+		}
+
+	}
+
+	// reads the loggers, up to the first <entry>
+	private void readHeader() throws IOException {
+
+		try {
+
+			while (xml.hasNext()) {
+
+				if (xml.next() == XMLStreamConstants.START_ELEMENT) {
+
+					String tag = xml.getLocalName();
+
+					if (tag.equals("zedlog")) {
+						setSorted("true".equals(xml.getAttributeValue(null, "sorted")));
+					} else if (tag.equals("logger")) {
+						addLoggerType(xml.getAttributeValue(null, "type"));
+					} else if (tag.equals("entry")) {
+						atEntry = true;
+						break;
+					}
+
+				}
+
+			}
+
+		} catch (XMLStreamException ex) {
+			throw new IOException("Malformed XML log.", ex);
+		}
+
+	}
+
+	// returns the attributes of the current start tag
+	private String[] scanAttributes() {
+
+		String[] attributes = new String[xml.getAttributeCount() * 2];
+
+		for (int i = 0; i < xml.getAttributeCount(); i++) {
+			attributes[i * 2] = xml.getAttributeLocalName(i);
+			attributes[i * 2 + 1] = xml.getAttributeValue(i);
+		}
+
+		return attributes;
+
+	}
+
+	// sets the given attributes on an element
+	private static Element toElement(Document doc, String tag, String[] attributes) {
+
+		Element element = doc.createElement(tag);
+
+		for (int i = 0; i < attributes.length; i += 2)
+			element.setAttribute(attributes[i], attributes[i + 1]);
+
+		return element;
+
+	}
+
+	// moves to the next <entry> start tag, returns false at end of document
+	private boolean nextEntry() throws XMLStreamException {
+
+		if (atEntry) {
+			atEntry = false;
+			return true;
+		}
+
+		while (xml.hasNext()) {
+			if (xml.next() == XMLStreamConstants.START_ELEMENT
+					&& xml.getLocalName().equals("entry"))
+				return true;
+		}
+
+		return false;
+
+	}
+
+	// whether the current entry may be selected by the filter
+	private boolean mayMatch(LogFilter filter) {
+
+		String timestamp = xml.getAttributeValue(null, "timestamp");
+		String type = xml.getAttributeValue(null, "type");
+
+		if (timestamp == null || type == null)
+			return true; // NOTE malformed, reported when decoded
+
+		try {
+			return filter.mayMatch(LogEvents.typeId(type), Long.parseLong(timestamp));
+		} catch (NumberFormatException ex) {
+			return true; // NOTE malformed, reported when decoded
+		}
+
+	}
+
+	// skips the rest of the current entry
+	private void skipEntry() throws XMLStreamException {
+
+		while (xml.hasNext()) {
+			if (xml.next() == XMLStreamConstants.END_ELEMENT
+					&& xml.getLocalName().equals("entry"))
+				break;
+		}
+
+	}
+
+	@Override
+	public LogEntry read() throws IOException {
+
+		LogEntry logEntry;
+
+		do {
+
+			Fragment fragment = scanEntry();
+			if (fragment == null)
+				return null;
+
+			logEntry = decode(doc, fragment);
+
+		} while (!accepts(logEntry));
+
+		return logEntry;
+
+	}
+
+	@Override
+	public Callable<List<LogEntry>> readBatch(int maxEntries) throws IOException {
+
+		require(maxEntries > 0);
+
+		final List<Fragment> fragments = new ArrayList<>(maxEntries);
+
+		Fragment fragment;
+		while (fragments.size() < maxEntries && (fragment = scanEntry()) != null)
+			fragments.add(fragment);
+
+		if (fragments.isEmpty())
+			return null;
+
+		return new Callable<List<LogEntry>>() {
+			public List<LogEntry> call() throws IOException {
+
+				Document doc = newDocument();
+				List<LogEntry> batch = new ArrayList<>(fragments.size());
+
+				for (Fragment fragment : fragments) {
+
+					LogEntry logEntry = decode(doc, fragment);
+					if (accepts(logEntry))
+						batch.add(logEntry);
+
+				}
+
+				return batch;
+
+			}
+		};
+
+	}
+
+	// scans the next entry which may be selected (without decoding it)
+	private Fragment scanEntry() throws IOException {
+
+		try {
+
+			LogFilter filter = getFilter();
+
+			boolean found;
+			while ((found = nextEntry()) && filter != null && !mayMatch(filter))
+				skipEntry();
+
+			if (!found)
+				return null;
+
+			Fragment fragment = new Fragment(scanAttributes());
+
+			// read the nested event, up to the </entry> tag
+			while (xml.hasNext()) {
+
+				int type = xml.next();
+
+				if (type == XMLStreamConstants.START_ELEMENT
+						&& xml.getLocalName().equals("event")) {
+
+					// NOTE only the first event is decoded (see LogEntry.fromXML())
+					if (fragment.event == null)
+						fragment.event = scanAttributes();
+
+				} else if (type == XMLStreamConstants.END_ELEMENT
+						&& xml.getLocalName().equals("entry")) {
+					break;
+				}
+
+			}
+
+			return fragment;
+
+		} catch (XMLStreamException ex) {
+			throw new IOException("Malformed XML log.", ex);
+		}
+
+	}
+
+	// decodes a scanned entry, using the given scratch document
+	private static LogEntry decode(Document doc, Fragment fragment) throws IOException {
+
+		try {
+
+			Element entry = toElement(doc, "entry", fragment.entry);
+			if (fragment.event != null)
+				entry.appendChild(toElement(doc, "event", fragment.event));
+
+			LogEntry logEntry = new LogEntry();
+			logEntry.fromXML(entry);
+
+			return logEntry;
+
+		} catch (Exception ex) {
+			throw new IOException("Malformed log entry in XML log.", ex);
+		}
+
+	}
+
+	@Override
+	public void close() throws IOException {
+
+		try {
+			xml.close();
+		} catch (XMLStreamException ex) {
+			throw new IOException("Failed to close XML log.", ex);
+		} finally {
+			input.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,180 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+import org.w3c.dom.*;
+
+/**
+ * Writes a log in the XML format used by {@code CompositeDataLogger}.
+ * Unlike {@code CompositeDataLogger} the document is streamed, rather than
+ * being built in memory.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class XmlLogWriter extends AbstractLogEntryWriter {
+
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+	/**
+	 * Creates a new {@code XmlLogWriter}.
+	 *
+	 * @param output The output stream to write to (must not be {@code null}).
+	 * @param loggerTypes The types of the loggers which made the log.
+	 * @throws IOException If the XML header could not be written.
+	 */
+	public XmlLogWriter(final OutputStream output, final List<String> loggerTypes)
+			throws IOException {
+
+		this(output, loggerTypes, false);
+
+	}
+
+	/**
+	 * Creates a new {@code XmlLogWriter}.
+	 *
+	 * @param output The output stream to write to (must not be {@code null}).
+	 * @param loggerTypes The types of the loggers which made the log.
+	 * @param sorted Whether to mark the log as being in chronological order
+	 * (with a {@code sorted="true"} attribute on the root element).
+	 * @throws IOException If the XML header could not be written.
+	 */
+	public XmlLogWriter(final OutputStream output, final List<String> loggerTypes,
+			boolean sorted) throws IOException {
+
+		super(output, DEFAULT_BATCH_SIZE);
+
+		requireNotNull(loggerTypes);
+
+		writeHeader(loggerTypes, sorted);
+
+	}
+
+	// escapes an XML attribute value
+	private static String escape(String value) {
+		return value.replace("&", "&amp;").replace("\"", "&quot;")
+			.replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+	// writes the document header, up to (and including) the <entries> tag
+	private void writeHeader(List<String> loggerTypes, boolean sorted) throws IOException {
+
+		StringBuilder header = new StringBuilder();
+
+		header.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>");
+		header.append(sorted ? "<zedlog sorted=\"true\">" : "<zedlog>");
+
+		header.append("<loggers>");
+		for (String type : loggerTypes) {
+			header.append("<logger type=\"");
+			header.append(escape(type));
+			header.append("\"/>");
+		}
+		header.append("</loggers>");
+
+		header.append("<entries>");
+
+		getOutput().write(header.toString().getBytes(StandardCharsets.UTF_8));
+
+	}
+
+	@Override
+	protected void writeFooter() throws IOException {
+		getOutput().write("</entries></zedlog>".getBytes(StandardCharsets.UTF_8));
+	}
+
+	// writes the attributes of the given DOM element
+	private static void writeAttributes(XMLStreamWriter xml, Element element)
+			throws XMLStreamException {
+
+		NamedNodeMap attrs = element.getAttributes();
+
+		for (int i = 0; i < attrs.getLength(); i++) {
+			Node attr = attrs.item(i);
+			xml.writeAttribute(attr.getNodeName(), attr.getNodeValue());
+		}
+
+	}
+
+	@Override
+	public byte[] encode(List<LogEntry> logEntries) throws IOException {
+
+		requireNotNull(logEntries);
+
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream(logEntries.size() * 128);
+
+		try {
+
+			// scratch document used to encode entries with LogEntry.toXML()
+			Document doc = DocumentBuilderFactory.newInstance()
+				.newDocumentBuilder().newDocument();
+			Element entries = doc.createElement("entries");
+
+			XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(encoded, "UTF-8");
+
+			for (LogEntry logEntry : logEntries) {
+
+				logEntry.toXML(entries);
+
+				Element entry = (Element) entries.getLastChild();
+				checkNotNull(entry);
+
+				xml.writeStartElement("entry");
+				writeAttributes(xml, entry);
+
+				// write the nested event (if any)
+				NodeList events = entry.getElementsByTagName("event");
+				if (events.getLength() >= 1) {
+					xml.writeEmptyElement("event");
+					writeAttributes(xml, (Element) events.item(0));
+				}
+
+				xml.writeEndElement();
+
+				entries.removeChild(entry);
+
+			}
+
+			xml.flush();
+			xml.close();
+
+		} catch (IOException ex) {
+			throw ex;
+		} catch (ParserConfigurationException | XMLStreamException ex) {
+			throw new IOException("Failed to create XML encoder.", ex);
+		} catch (Exception ex) {
+			throw new IOException("Failed to encode log entry to XML.", ex);
+		}
+
+		return encoded.toByteArray();
+
+	}
+
+}
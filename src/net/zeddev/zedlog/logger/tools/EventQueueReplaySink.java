@@ -0,0 +1,75 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.EventQueue;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Discards replayed input, but syncs with a round trip through the AWT event
+ * queue (as {@code Robot.waitForIdle()} does).
+ * Used to measure the cost of syncing, i.e. of a {@code SyncPolicy}, without
+ * a display.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class EventQueueReplaySink implements ReplaySink {
+
+	// posted to the event queue, to wait for the events before it
+	private static final Runnable NOTHING = new Runnable() {
+		@Override
+		public void run() {
+		}
+	};
+
+	@Override
+	public void mouseMove(int x, int y) {
+	}
+
+	@Override
+	public void mousePress(int buttons) {
+	}
+
+	@Override
+	public void mouseRelease(int buttons) {
+	}
+
+	@Override
+	public void mouseWheel(int rotation) {
+	}
+
+	@Override
+	public void keyPress(int keyCode) {
+	}
+
+	@Override
+	public void keyRelease(int keyCode) {
+	}
+
+	@Override
+	public void sync() {
+
+		try {
+			EventQueue.invokeAndWait(NOTHING);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} catch (InvocationTargetException ex) {
+			// IGNORE - does nothing
+		}
+
+	}
+
+}
@@ -0,0 +1,36 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.zeddev.zedlog.logger.LogEvent;
+
+/**
+ * Replays a single {@code LogEvent} type, as calls on a {@code ReplaySink}.
+ * Registered with a {@code ReplayDispatcher} by the type id of the event.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface EventReplayer {
+
+	/**
+	 * Replays an event.
+	 *
+	 * @param sink The sink receiving the simulated input.
+	 * @param event The event (of the type the replayer was registered for).
+	 */
+	public void replay(ReplaySink sink, LogEvent event);
+
+}
@@ -0,0 +1,305 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import javax.imageio.ImageIO;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * The density of mouse clicks and movement over the screen.
+ * The screen is divided into square cells, counting the events in each.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class Heatmap {
+
+	/** The layers of the heatmap. */
+	public static enum Layer {
+
+		/** Mouse clicks (counted as presses, by default). */
+		CLICKS("clicks"),
+
+		/** Mouse movement and drags. */
+		MOVEMENT("movement");
+
+		private final String name;
+
+		private Layer(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Returns the {@code Layer} with the given name.
+		 *
+		 * @param name The layer name ("clicks" or "movement").
+		 * @return The layer.
+		 * @throws IllegalArgumentException If the layer is not known.
+		 */
+		public static Layer getByName(String name) {
+
+			for (Layer layer : values()) {
+				if (layer.name.equalsIgnoreCase(name))
+					return layer;
+			}
+
+			throw new IllegalArgumentException(
+				String.format("Unknown heatmap layer %s.", name)
+			);
+
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+
+	}
+
+	// the colour ramp, from no events to the most events
+	private static final Color[] RAMP = {
+		Color.BLACK, Color.BLUE, Color.RED, Color.YELLOW, Color.WHITE
+	};
+
+	private final int width;
+	private final int height;
+	private final int cellSize;
+
+	// the counts of each layer, by cell (row major)
+	private final long[][] counts;
+
+	// the number of events outside the screen
+	private long outside = 0;
+
+	/**
+	 * Creates a new, empty {@code Heatmap}.
+	 *
+	 * @param width The width of the map, in cells.
+	 * @param height The height of the map, in cells.
+	 * @param cellSize The width/height of each cell, in pixels.
+	 */
+	Heatmap(int width, int height, int cellSize) {
+
+		require(width > 0 && height > 0 && cellSize > 0);
+
+		this.width = width;
+		this.height = height;
+		this.cellSize = cellSize;
+		this.counts = new long[Layer.values().length][width * height];
+
+	}
+
+	// adds the counts of a (per thread) grid
+	void add(int[][] grid, long gridOutside) {
+
+		for (int layer = 0; layer < counts.length; layer++) {
+
+			long[] layerCounts = counts[layer];
+			int[] gridCounts = grid[layer];
+
+			for (int cell = 0; cell < layerCounts.length; cell++)
+				layerCounts[cell] += gridCounts[cell];
+
+		}
+
+		outside += gridOutside;
+
+	}
+
+	/** Returns the width of the map, in cells. */
+	public int getWidth() {
+		return width;
+	}
+
+	/** Returns the height of the map, in cells. */
+	public int getHeight() {
+		return height;
+	}
+
+	/** Returns the width/height of each cell, in pixels. */
+	public int getCellSize() {
+		return cellSize;
+	}
+
+	/** Returns the number of events outside the screen (not counted). */
+	public long getOutside() {
+		return outside;
+	}
+
+	/**
+	 * Returns the number of events in a cell.
+	 *
+	 * @param layer The layer.
+	 * @param x The cell column.
+	 * @param y The cell row.
+	 * @return The number of events in the cell.
+	 */
+	public long getCount(Layer layer, int x, int y) {
+
+		require(x >= 0 && x < width && y >= 0 && y < height);
+
+		return counts[layer.ordinal()][y * width + x];
+
+	}
+
+	/** Returns the total number of events in the given layer. */
+	public long getTotal(Layer layer) {
+
+		long total = 0;
+		for (long count : counts[layer.ordinal()])
+			total += count;
+
+		return total;
+
+	}
+
+	/** Returns the largest number of events in any cell of the given layer. */
+	public long getMax(Layer layer) {
+
+		long max = 0;
+		for (long count : counts[layer.ordinal()])
+			max = Math.max(max, count);
+
+		return max;
+
+	}
+
+	// interpolates the colour ramp (0 <= level <= 1)
+	private static int rampColour(double level) {
+
+		double position = level * (RAMP.length - 1);
+		int index = Math.min((int) position, RAMP.length - 2);
+		double fraction = position - index;
+
+		Color from = RAMP[index];
+		Color to = RAMP[index + 1];
+
+		int red = (int) (from.getRed() + fraction * (to.getRed() - from.getRed()));
+		int green = (int) (from.getGreen() + fraction * (to.getGreen() - from.getGreen()));
+		int blue = (int) (from.getBlue() + fraction * (to.getBlue() - from.getBlue()));
+
+		return (red << 16) | (green << 8) | blue;
+
+	}
+
+	/**
+	 * Renders a layer as an image, with one pixel per cell.
+	 * Counts are scaled logarithmically, so sparse areas remain visible.
+	 *
+	 * @param layer The layer to render.
+	 * @return The image.
+	 */
+	public BufferedImage toImage(Layer layer) {
+
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+		long[] layerCounts = counts[layer.ordinal()];
+		double scale = Math.log1p(getMax(layer));
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+
+				long count = layerCounts[y * width + x];
+				double level = scale > 0 ? Math.log1p(count) / scale : 0;
+
+				image.setRGB(x, y, rampColour(level));
+
+			}
+		}
+
+		return image;
+
+	}
+
+	/**
+	 * Writes a layer as an image file.
+	 *
+	 * @param file The image file (the format is given by its extension,
+	 * i.e. {@code png}).
+	 * @param layer The layer to render.
+	 * @throws IOException If the image could not be written.
+	 */
+	public void writeImage(File file, Layer layer) throws IOException {
+
+		requireNotNull(file);
+
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		String format = dot >= 0 ? name.substring(dot + 1).toLowerCase() : "png";
+
+		if (!ImageIO.write(toImage(layer), format, file)) {
+			throw new IOException(
+				String.format("Unsupported image format %s.", format)
+			);
+		}
+
+	}
+
+	/**
+	 * Writes the non-empty cells as CSV ({@code x,y,clicks,movement}), with
+	 * the cell positions in pixels.
+	 *
+	 * @param output The output to write to.
+	 * @throws IOException If the output could not be written.
+	 */
+	public void writeCsv(Writer output) throws IOException {
+
+		requireNotNull(output);
+
+		PrintWriter csv = new PrintWriter(output);
+
+		csv.print("x,y");
+		for (Layer layer : Layer.values())
+			csv.print("," + layer);
+		csv.print("\n");
+
+		for (int cell = 0; cell < width * height; cell++) {
+
+			boolean empty = true;
+			for (long[] layerCounts : counts)
+				empty &= layerCounts[cell] == 0;
+
+			if (empty)
+				continue;
+
+			csv.print((cell % width) * cellSize);
+			csv.print(',');
+			csv.print((cell / width) * cellSize);
+
+			for (long[] layerCounts : counts) {
+				csv.print(',');
+				csv.print(layerCounts[cell]);
+			}
+
+			csv.print("\n");
+
+		}
+
+		csv.flush();
+
+		if (csv.checkError())
+			throw new IOException("Failed to write heatmap CSV.");
+
+	}
+
+}
@@ -0,0 +1,420 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.io.AbstractLogEntryReader;
+import net.zeddev.zedlog.logger.io.BinaryLogReader;
+import net.zeddev.zedlog.logger.io.LogBlock;
+import net.zeddev.zedlog.logger.io.LogFilter;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import net.zeddev.zedlog.logger.io.RecordCursor;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Builds a {@code Heatmap} from stored logs, in parallel.
+ * Each log is read in segments (blocks of a binary log, or batches of other
+ * formats), which are counted by a fork/join reduction.  Every worker thread
+ * counts into its own grid of {@code int}s, so no synchronisation is needed
+ * until the grids are merged by {@code build()}.  Binary records are counted
+ * in place, without being decoded.
+ * <p>
+ * Only a few segments are held in memory at once, so memory use depends on
+ * the map size and the number of threads, not on the size of the logs.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class HeatmapBuilder {
+
+	// the number of entries in each batch of a non-binary log
+	private static final int BATCH_SIZE = 4096;
+
+	// no layer, for event types not counted
+	private static final int NO_LAYER = -1;
+
+	private final ForkJoinPool pool;
+
+	private final int screenWidth;
+	private final int screenHeight;
+	private final int cellSize;
+	private final int width;
+	private final int height;
+
+	// the layer of each event type id
+	private final int[] layers = new int[LogEvents.MAX_TYPE_ID + 1];
+
+	// selects the entries counted (all if null)
+	private LogFilter filter = null;
+
+	// the grids of the worker threads
+	private final Queue<Grid> grids = new ConcurrentLinkedQueue<>();
+	private final ThreadLocal<Grid> threadGrid = new ThreadLocal<Grid>() {
+		@Override
+		protected Grid initialValue() {
+
+			Grid grid = new Grid();
+			grids.add(grid);
+
+			return grid;
+
+		}
+	};
+
+	/**
+	 * Creates a new {@code HeatmapBuilder}.
+	 *
+	 * @param pool The pool used to count in parallel (must not be
+	 * {@code null}).
+	 * @param screenWidth The width of the screen, in pixels.
+	 * @param screenHeight The height of the screen, in pixels.
+	 * @param cellSize The width/height of each heatmap cell, in pixels.
+	 */
+	public HeatmapBuilder(final ForkJoinPool pool, int screenWidth, int screenHeight,
+			int cellSize) {
+
+		requireNotNull(pool);
+		require(screenWidth > 0 && screenHeight > 0);
+		require(cellSize > 0);
+
+		this.pool = pool;
+		this.screenWidth = screenWidth;
+		this.screenHeight = screenHeight;
+		this.cellSize = cellSize;
+		this.width = (screenWidth + cellSize - 1) / cellSize;
+		this.height = (screenHeight + cellSize - 1) / cellSize;
+
+		for (int typeId = 0; typeId < layers.length; typeId++)
+			layers[typeId] = NO_LAYER;
+
+		// NOTE a click is logged as a press, release and click, so only the
+		//	  presses are counted (counting clicks as well counts each twice)
+		setLayer(LogEvents.MOUSE_PRESSED, Heatmap.Layer.CLICKS);
+		setLayer(LogEvents.MOUSE_MOVED, Heatmap.Layer.MOVEMENT);
+		setLayer(LogEvents.MOUSE_DRAGGED, Heatmap.Layer.MOVEMENT);
+
+	}
+
+	/**
+	 * Sets the layer counting the events of a type, replacing any existing
+	 * layer.  By default, mouse presses are counted as clicks and mouse moves
+	 * and drags as movement.
+	 * Must be set before any logs are added.
+	 *
+	 * @param typeId The type id of the events (see {@code LogEvents}), which
+	 * must be a built-in mouse event type.
+	 * @param layer The layer, or {@code null} to not count the events.
+	 */
+	public void setLayer(int typeId, Heatmap.Layer layer) {
+
+		// NOTE the built-in mouse event types have consecutive ids
+		require(typeId >= LogEvents.MOUSE_CLICKED && typeId <= LogEvents.MOUSE_WHEEL_MOVED);
+
+		layers[typeId] = layer == null ? NO_LAYER : layer.ordinal();
+
+	}
+
+	/**
+	 * Returns the layer counting the events of a type.
+	 *
+	 * @param typeId The type id of the events.
+	 * @return The layer, or {@code null} if the events are not counted.
+	 */
+	public Heatmap.Layer getLayer(int typeId) {
+
+		if (typeId <= 0 || typeId > LogEvents.MAX_TYPE_ID || layers[typeId] == NO_LAYER)
+			return null;
+
+		return Heatmap.Layer.values()[layers[typeId]];
+
+	}
+
+	/**
+	 * Sets the filter selecting the entries to count.
+	 *
+	 * @param filter The filter, or {@code null} to count every entry.
+	 */
+	public void setFilter(LogFilter filter) {
+		this.filter = filter;
+	}
+
+	// the counts of a single worker thread
+	private final class Grid {
+
+		private final int[][] counts = new int[Heatmap.Layer.values().length][width * height];
+		private long outside = 0;
+
+		private void add(int layer, int x, int y) {
+
+			if (x < 0 || x >= screenWidth || y < 0 || y >= screenHeight) {
+				outside++;
+			} else {
+				counts[layer][(y / cellSize) * width + x / cellSize]++;
+			}
+
+		}
+
+	}
+
+	// a part of a log, counted by a single task
+	private interface Segment {
+
+		public void count(Grid grid) throws IOException;
+
+	}
+
+	// a block of a binary log, counted without decoding
+	private final class BlockSegment implements Segment {
+
+		private final LogBlock block;
+		private final LogFilter filter;
+
+		private BlockSegment(LogBlock block, LogFilter filter) {
+			this.block = block;
+			this.filter = filter;
+		}
+
+		@Override
+		public void count(Grid grid) throws IOException {
+
+			RecordCursor cursor = new RecordCursor(block);
+
+			while (cursor.next()) {
+
+				int layer = layers[cursor.getTypeId()];
+
+				if (layer != NO_LAYER && (filter == null || filter.matches(cursor)))
+					grid.add(layer, cursor.getX(), cursor.getY());
+
+			}
+
+		}
+
+	}
+
+	// a batch of a non-binary log, decoded when counted
+	private final class BatchSegment implements Segment {
+
+		private final Callable<List<LogEntry>> batch;
+
+		private BatchSegment(Callable<List<LogEntry>> batch) {
+			this.batch = batch;
+		}
+
+		@Override
+		public void count(Grid grid) throws IOException {
+
+			List<LogEntry> logEntries;
+
+			try {
+				logEntries = batch.call();
+			} catch (IOException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				throw new IOException("Failed to decode log.", ex);
+			}
+
+			for (LogEntry logEntry : logEntries) {
+
+				LogEvent event = logEntry.getEvent();
+				int typeId = LogEvents.typeId(event.type());
+
+				if (typeId >= 0 && layers[typeId] != NO_LAYER) {
+					MouseEvent mouseEvent = (MouseEvent) event;
+					grid.add(layers[typeId], mouseEvent.getX(), mouseEvent.getY());
+				}
+
+			}
+
+		}
+
+	}
+
+	// wraps I/O errors thrown by segment tasks
+	private static final class SegmentException extends RuntimeException {
+
+		private SegmentException(IOException cause) {
+			super(cause);
+		}
+
+	}
+
+	// counts a range of segments, splitting it in half until a single segment
+	private final class CountTask extends RecursiveAction {
+
+		private final List<Segment> segments;
+		private final int from;
+		private final int to;
+
+		private CountTask(List<Segment> segments, int from, int to) {
+			this.segments = segments;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (to - from == 1) {
+
+				try {
+					segments.get(from).count(threadGrid.get());
+				} catch (IOException ex) {
+					throw new SegmentException(ex);
+				}
+
+			} else {
+
+				int middle = (from + to) >>> 1;
+
+				invokeAll(
+					new CountTask(segments, from, middle),
+					new CountTask(segments, middle, to)
+				);
+
+			}
+
+		}
+
+	}
+
+	// reads the next few segments of a log (empty at the end of the log)
+	private List<Segment> readSegments(AbstractLogEntryReader reader, int count)
+			throws IOException {
+
+		List<Segment> segments = new ArrayList<>(count);
+
+		while (segments.size() < count) {
+
+			if (reader instanceof BinaryLogReader) {
+
+				LogBlock block = ((BinaryLogReader) reader).readBlock();
+				if (block == null)
+					break;
+
+				segments.add(new BlockSegment(block, filter));
+
+			} else {
+
+				Callable<List<LogEntry>> batch = reader.readBatch(BATCH_SIZE);
+				if (batch == null)
+					break;
+
+				segments.add(new BatchSegment(batch));
+
+			}
+
+		}
+
+		return segments;
+
+	}
+
+	// waits for a counting task to finish
+	private static void await(ForkJoinTask<?> task) throws IOException {
+
+		try {
+			task.get();
+		} catch (InterruptedException ex) {
+			throw new IOException("Interrupted while counting heatmap.", ex);
+		} catch (ExecutionException ex) {
+
+			Throwable cause = ex.getCause();
+
+			if (cause instanceof SegmentException) {
+				throw (IOException) cause.getCause();
+			} else {
+				throw new IOException("Failed to count heatmap.", cause);
+			}
+
+		}
+
+	}
+
+	/**
+	 * Counts the events of a stored log.
+	 * The next segments of the log are read while the current segments are
+	 * being counted.
+	 *
+	 * @param file The log file (must not be {@code null}).
+	 * @throws IOException If the log could not be read.
+	 */
+	public void add(final File file) throws IOException {
+
+		requireNotNull(file);
+
+		int chunkSize = 4 * pool.getParallelism();
+
+		try (AbstractLogEntryReader reader = LogFormat.open(file)) {
+
+			reader.setFilter(filter);
+
+			ForkJoinTask<?> counting = null;
+
+			List<Segment> segments;
+			while (!(segments = readSegments(reader, chunkSize)).isEmpty()) {
+
+				ForkJoinTask<?> previous = counting;
+
+				counting = pool.submit(
+					new CountTask(segments, 0, segments.size())
+				);
+
+				if (previous != null)
+					await(previous);
+
+			}
+
+			if (counting != null)
+				await(counting);
+
+		}
+
+	}
+
+	/**
+	 * Merges the counts of all threads into a {@code Heatmap}.
+	 * Must not be called while a log is being added (or after adding a log
+	 * failed).
+	 *
+	 * @return The heatmap of the logs added so far.
+	 */
+	public Heatmap build() {
+
+		Heatmap heatmap = new Heatmap(width, height, cellSize);
+
+		for (Grid grid : grids)
+			heatmap.add(grid.counts, grid.outside);
+
+		return heatmap;
+
+	}
+
+}
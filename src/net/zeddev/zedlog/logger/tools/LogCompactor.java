@@ -0,0 +1,240 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEvent;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import net.zeddev.zedlog.logger.io.LogEntryWriter;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Drops redundant mouse movement from a log, while preserving its replay.
+ * A {@code MouseMoved} entry is dropped when either:
+ * <ul>
+ * <li>the pointer is already within the tolerance of its position,</li>
+ * <li>it follows a move within the tolerance of its position, or</li>
+ * <li>the next entry is a click, press, release or wheel event within the
+ * tolerance of its position (which replay moves the pointer to anyway).</li>
+ * </ul>
+ * All other entries are kept, unchanged.  Replaying the compacted log (see
+ * {@code ReplayTool.replayEvent()}) reaches the same held buttons and keys,
+ * and a pointer position within the tolerance, at every other entry.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogCompactor {
+
+	private final int tolerance;
+
+	// the statistics of the last compaction
+	private long entriesRead = 0;
+	private long entriesWritten = 0;
+
+	/**
+	 * Creates a new {@code LogCompactor}.
+	 *
+	 * @param tolerance The maximum pointer position error allowed, in
+	 * pixels on each axis (0 for exact replay).
+	 */
+	public LogCompactor(int tolerance) {
+
+		require(tolerance >= 0);
+
+		this.tolerance = tolerance;
+
+	}
+
+	/** Returns the pointer position tolerance, in pixels. */
+	public int getTolerance() {
+		return tolerance;
+	}
+
+	/** Returns the number of entries read by the last compaction. */
+	public long getEntriesRead() {
+		return entriesRead;
+	}
+
+	/** Returns the number of entries written by the last compaction. */
+	public long getEntriesWritten() {
+		return entriesWritten;
+	}
+
+	/** Returns the number of entries dropped by the last compaction. */
+	public long getEntriesDropped() {
+		return entriesRead - entriesWritten;
+	}
+
+	// whether the event positions the pointer, before pressing or scrolling
+	private static boolean positionsPointer(LogEvent event) {
+		return event instanceof MouseClickedEvent
+			|| event instanceof MousePressedEvent
+			|| event instanceof MouseReleasedEvent
+			|| event instanceof MouseWheelMovedEvent;
+	}
+
+	// whether the two mouse events are within the tolerance of each other
+	private boolean isNear(MouseEvent event, MouseEvent other) {
+		return Math.abs(event.getX() - other.getX()) <= tolerance
+			&& Math.abs(event.getY() - other.getY()) <= tolerance;
+	}
+
+	// writes an entry, tracking the replay state of the output
+	private void emit(LogEntryWriter output, ReplayState state, LogEntry logEntry)
+			throws IOException {
+
+		output.write(logEntry);
+		ReplayTool.replayEvent(state, logEntry.getEvent());
+
+		entriesWritten++;
+
+	}
+
+	/**
+	 * Compacts the given log.
+	 *
+	 * @param input The log to compact (must not be {@code null}).
+	 * @param output The compacted log (must not be {@code null}).
+	 * @throws IOException If the log could not be read or written.
+	 */
+	public void compact(LogEntryReader input, LogEntryWriter output) throws IOException {
+
+		requireNotNull(input);
+		requireNotNull(output);
+
+		entriesRead = 0;
+		entriesWritten = 0;
+
+		ReplayState state = new ReplayState();
+
+		// a move waiting on the next entry
+		LogEntry pending = null;
+
+		LogEntry logEntry;
+		while ((logEntry = input.read()) != null) {
+
+			entriesRead++;
+
+			LogEvent event = logEntry.getEvent();
+
+			if (pending != null) {
+
+				MouseMovedEvent pendingMove = (MouseMovedEvent) pending.getEvent();
+
+				// drop moves to where the pending move goes (keeping the first)
+				if (event instanceof MouseMovedEvent
+						&& isNear((MouseEvent) event, pendingMove))
+					continue;
+
+				// drop the pending move if the next event moves there anyway
+				if (!(positionsPointer(event) && isNear((MouseEvent) event, pendingMove)))
+					emit(output, state, pending);
+
+				pending = null;
+
+			}
+
+			if (event instanceof MouseMovedEvent) {
+
+				MouseMovedEvent move = (MouseMovedEvent) event;
+
+				// drop moves to where the pointer already is
+				if (!state.isNear(move.getX(), move.getY(), tolerance))
+					pending = logEntry;
+
+			} else {
+				emit(output, state, logEntry);
+			}
+
+		}
+
+		if (pending != null)
+			emit(output, state, pending);
+
+	}
+
+	// replays up to and including the next discrete (non-move) entry
+	private static LogEntry nextDiscrete(LogEntryReader log, ReplayState state)
+			throws IOException {
+
+		LogEntry logEntry;
+		while ((logEntry = log.read()) != null) {
+
+			ReplayTool.replayEvent(state, logEntry.getEvent());
+
+			if (!(logEntry.getEvent() instanceof MouseMovedEvent))
+				return logEntry;
+
+		}
+
+		return null;
+
+	}
+
+	/**
+	 * Checks that replaying the compacted log is equivalent to replaying the
+	 * original.  Both logs are replayed side by side, comparing the replay
+	 * state at every entry other than a {@code MouseMoved}, and at the end.
+	 *
+	 * @param original The original log (must not be {@code null}).
+	 * @param compacted The compacted log (must not be {@code null}).
+	 * @param tolerance The pointer position tolerance, in pixels.
+	 * @return The (0 based) number of the first discrete entry at which the
+	 * replays differ, or -1 if they are equivalent.
+	 * @throws IOException If a log could not be read.
+	 */
+	public static long verify(LogEntryReader original, LogEntryReader compacted,
+			int tolerance) throws IOException {
+
+		requireNotNull(original);
+		requireNotNull(compacted);
+
+		ReplayState originalState = new ReplayState();
+		ReplayState compactedState = new ReplayState();
+
+		for (long discrete = 0; ; discrete++) {
+
+			LogEntry originalEntry = nextDiscrete(original, originalState);
+			LogEntry compactedEntry = nextDiscrete(compacted, compactedState);
+
+			if (originalEntry == null || compactedEntry == null) {
+
+				if (originalEntry != compactedEntry
+						|| !originalState.matches(compactedState, tolerance))
+					return discrete;
+
+				return -1;
+
+			}
+
+			if (originalEntry.getTimestamp() != compactedEntry.getTimestamp()
+					|| !originalEntry.getEvent().equals(compactedEntry.getEvent())
+					|| !originalState.matches(compactedState, tolerance))
+				return discrete;
+
+		}
+
+	}
+
+}
@@ -0,0 +1,241 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * A fixed-memory histogram of non-negative {@code long} values.
+ * Values are counted in log-linear buckets (in the style of HdrHistogram), so
+ * each power of two is divided into the same number of linear sub-buckets.
+ * Values below the sub-bucket count are exact, larger values are recorded
+ * with a relative error of at most {@code 2 / subBuckets}.  The memory used
+ * depends only on the precision, not the number or range of the values.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogHistogram {
+
+	/** The default precision, giving a relative error under 2%. */
+	public static final int DEFAULT_PRECISION = 7;
+
+	private final int precision;
+	private final int subBuckets;
+	private final int halfSubBuckets;
+	private final long[] counts;
+
+	private long count = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = Long.MIN_VALUE;
+
+	/**
+	 * Creates an empty histogram.
+	 *
+	 * @param precision The number of bits of each value kept exactly
+	 * (between 1 and 16).
+	 */
+	public LogHistogram(final int precision) {
+
+		require(precision >= 1 && precision <= 16);
+
+		this.precision = precision;
+		subBuckets = 1 << precision;
+		halfSubBuckets = subBuckets >> 1;
+
+		// values below subBuckets are exact, then each further power of two
+		// up to 2^62 takes halfSubBuckets buckets
+		counts = new long[bucketIndex(Long.MAX_VALUE) + 1];
+
+	}
+
+	/** Creates an empty histogram with the default precision. */
+	public LogHistogram() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/** Returns the number of bits of each value kept exactly. */
+	public int getPrecision() {
+		return precision;
+	}
+
+	// returns the bucket holding the given value
+	private int bucketIndex(final long value) {
+
+		if (value < subBuckets)
+			return (int) value;
+
+		int shift = 64 - Long.numberOfLeadingZeros(value) - precision;
+
+		// NOTE the top bits of value are in [halfSubBuckets, subBuckets)
+		return shift * halfSubBuckets + (int) (value >>> shift);
+
+	}
+
+	// returns the smallest value counted in the given bucket
+	private long lowestValue(final int index) {
+
+		if (index < subBuckets)
+			return index;
+
+		int shift = index / halfSubBuckets - 1;
+		long top = index - shift * halfSubBuckets;
+
+		return top << shift;
+
+	}
+
+	// returns the largest value counted in the given bucket
+	private long highestValue(final int index) {
+
+		if (index < subBuckets)
+			return index;
+
+		int shift = index / halfSubBuckets - 1;
+
+		return lowestValue(index) + (1L << shift) - 1;
+
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value The value (must not be negative).
+	 */
+	public void record(final long value) {
+		record(value, 1);
+	}
+
+	/**
+	 * Records a value a number of times.
+	 *
+	 * @param value The value (must not be negative).
+	 * @param times The number of times the value occurred.
+	 */
+	public void record(final long value, final long times) {
+
+		require(value >= 0);
+		require(times >= 0);
+
+		if (times == 0)
+			return;
+
+		counts[bucketIndex(value)] += times;
+
+		count += times;
+		sum += value * times;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+
+	}
+
+	/**
+	 * Adds the values of another histogram to this one.
+	 *
+	 * @param other The histogram to add (of the same precision).
+	 */
+	public void add(final LogHistogram other) {
+
+		requireNotNull(other);
+		require(other.precision == precision);
+
+		if (other.count == 0)
+			return;
+
+		for (int i = 0; i < counts.length; i++)
+			counts[i] += other.counts[i];
+
+		count += other.count;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+
+	}
+
+	/** Removes all recorded values. */
+	public void reset() {
+
+		for (int i = 0; i < counts.length; i++)
+			counts[i] = 0;
+
+		count = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = Long.MIN_VALUE;
+
+	}
+
+	/** Returns the number of values recorded. */
+	public long getCount() {
+		return count;
+	}
+
+	/** Returns the smallest value recorded (exactly), or 0 if empty. */
+	public long getMin() {
+		return count > 0 ? min : 0;
+	}
+
+	/** Returns the largest value recorded (exactly), or 0 if empty. */
+	public long getMax() {
+		return count > 0 ? max : 0;
+	}
+
+	/** Returns the mean of the values recorded (exactly), or 0 if empty. */
+	public double getMean() {
+		return count > 0 ? (double) sum / count : 0.0;
+	}
+
+	/**
+	 * Returns the value at the given percentile.
+	 * The result is the largest value equivalent to the recorded value (i.e.
+	 * the top of its bucket), so is never less than the exact percentile.
+	 *
+	 * @param percentile The percentile (between 0 and 100).
+	 * @return The value at the percentile, or 0 if empty.
+	 */
+	public long getPercentile(final double percentile) {
+
+		require(percentile >= 0.0 && percentile <= 100.0);
+
+		if (count == 0)
+			return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+
+			seen += counts[i];
+
+			if (seen >= rank)
+				return Math.min(highestValue(i), max);
+
+		}
+
+		return max;
+
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"count=%d min=%d p50=%d p90=%d p99=%d max=%d",
+			getCount(), getMin(), getPercentile(50), getPercentile(90),
+			getPercentile(99), getMax()
+		);
+	}
+
+}
@@ -0,0 +1,133 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import net.zeddev.zedlog.logger.io.AbstractLogEntryReader;
+import net.zeddev.zedlog.logger.io.BinaryLogReader;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import net.zeddev.zedlog.logger.io.LogFilter;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import net.zeddev.zedlog.logger.io.MergingLogReader;
+import net.zeddev.zedlog.logger.io.ParallelLogReader;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Queries stored logs for the entries selected by a {@code LogFilter}.
+ * The filter is pushed down into each log's decoder, so unselected entries
+ * are skipped before they are decoded (and whole blocks of binary logs are
+ * skipped using their metadata).  Logs are decoded in parallel, and several
+ * logs are merged into a single chronological result.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogQuery {
+
+	private final LogFilter filter;
+	private final ExecutorService executor;
+
+	// the binary logs opened (for statistics)
+	private final List<BinaryLogReader> binaryReaders = new ArrayList<>();
+
+	/**
+	 * Creates a new {@code LogQuery}.
+	 *
+	 * @param filter The filter selecting the entries (must not be
+	 * {@code null}).
+	 * @param executor The executor used to decode logs in parallel (must
+	 * not be {@code null}).
+	 */
+	public LogQuery(final LogFilter filter, final ExecutorService executor) {
+
+		requireNotNull(filter);
+		requireNotNull(executor);
+
+		this.filter = filter;
+		this.executor = executor;
+
+	}
+
+	public LogFilter getFilter() {
+		return filter;
+	}
+
+	// opens a single log, with the filter pushed down
+	private LogEntryReader openLog(File file) throws IOException {
+
+		AbstractLogEntryReader reader = LogFormat.open(file);
+		reader.setFilter(filter);
+
+		if (reader instanceof BinaryLogReader)
+			binaryReaders.add((BinaryLogReader) reader);
+
+		return new ParallelLogReader(reader, executor);
+
+	}
+
+	/**
+	 * Opens the selected entries of the given logs.
+	 *
+	 * @param files The logs to query (must not be empty).
+	 * @return A reader of the selected entries, in chronological order if
+	 * each log is.
+	 * @throws IOException If a log could not be opened.
+	 */
+	public LogEntryReader open(List<File> files) throws IOException {
+
+		requireNotNull(files);
+		require(!files.isEmpty());
+
+		if (files.size() == 1)
+			return openLog(files.get(0));
+
+		List<LogEntryReader> sources = new ArrayList<>();
+
+		try {
+
+			for (File file : files)
+				sources.add(openLog(file));
+
+			return new MergingLogReader(sources);
+
+		} catch (IOException | RuntimeException ex) {
+
+			for (LogEntryReader source : sources)
+				source.close();
+
+			throw ex;
+
+		}
+
+	}
+
+	/** Returns the number of binary log blocks skipped using their metadata. */
+	public long getBlocksSkipped() {
+
+		long blocksSkipped = 0;
+
+		for (BinaryLogReader reader : binaryReaders)
+			blocksSkipped += reader.getBlocksSkipped();
+
+		return blocksSkipped;
+
+	}
+
+}
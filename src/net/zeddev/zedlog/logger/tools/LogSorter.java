@@ -0,0 +1,465 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import net.zeddev.zedlog.logger.io.LogEntryWriter;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import net.zeddev.zedlog.logger.io.MergingLogReader;
+import net.zeddev.zedlog.logger.io.ParallelLogReader;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Sorts a log into chronological order, using a bounded amount of memory.
+ * The log is read in runs of a fixed number of entries, each of which is
+ * sorted and spilled to a temporary binary log (while the next run is read).
+ * The runs are then merged, with up to {@code fanIn} runs merged at once;
+ * when there are more runs, groups of runs are first merged in parallel into
+ * longer runs.
+ * <p>
+ * The sort is stable, so entries with equal timestamps keep their order in
+ * the original log.  At most two runs are held in memory at once.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogSorter {
+
+	/** The default number of entries in each run. */
+	public static final int DEFAULT_RUN_SIZE = 256 * 1024;
+
+	/** The default maximum number of runs merged at once. */
+	public static final int DEFAULT_FAN_IN = 64;
+
+	// the batch size and read ahead used to read each run while merging
+	// NOTE small, as every run being merged is read at once
+	private static final int MERGE_BATCH_SIZE = 1024;
+	private static final int MERGE_READ_AHEAD = 2;
+
+	// orders entries by timestamp
+	private static final Comparator<LogEntry> BY_TIMESTAMP = new Comparator<LogEntry>() {
+		@Override
+		public int compare(LogEntry a, LogEntry b) {
+			return Long.compare(a.getTimestamp(), b.getTimestamp());
+		}
+	};
+
+	private final ExecutorService executor;
+	private final int runSize;
+	private final int fanIn;
+
+	// the directory of the temporary run files (null for the default)
+	private File tempDir = null;
+
+	// the statistics of the last sort
+	private long entriesRead = 0;
+	private long outOfOrder = 0;
+	private int runCount = 0;
+	private int mergePasses = 0;
+
+	/**
+	 * Creates a new {@code LogSorter}.
+	 *
+	 * @param executor The executor used to sort, spill and merge runs (must
+	 * not be {@code null}).
+	 * @param runSize The number of entries in each run.
+	 * @param fanIn The maximum number of runs merged at once (at least 2).
+	 */
+	public LogSorter(final ExecutorService executor, int runSize, int fanIn) {
+
+		requireNotNull(executor);
+		require(runSize > 0);
+		require(fanIn >= 2);
+
+		this.executor = executor;
+		this.runSize = runSize;
+		this.fanIn = fanIn;
+
+	}
+
+	/**
+	 * Creates a new {@code LogSorter}, with the default run size and fan-in.
+	 *
+	 * @param executor The executor used to sort, spill and merge runs (must
+	 * not be {@code null}).
+	 */
+	public LogSorter(final ExecutorService executor) {
+		this(executor, DEFAULT_RUN_SIZE, DEFAULT_FAN_IN);
+	}
+
+	/** Returns the number of entries in each run. */
+	public int getRunSize() {
+		return runSize;
+	}
+
+	/** Returns the maximum number of runs merged at once. */
+	public int getFanIn() {
+		return fanIn;
+	}
+
+	/** Returns the directory of the temporary run files ({@code null} for the default). */
+	public File getTempDir() {
+		return tempDir;
+	}
+
+	/**
+	 * Sets the directory of the temporary run files.
+	 *
+	 * @param tempDir The directory, or {@code null} for the default
+	 * temporary directory.
+	 */
+	public void setTempDir(File tempDir) {
+		this.tempDir = tempDir;
+	}
+
+	/** Returns the number of entries read by the last sort. */
+	public long getEntriesRead() {
+		return entriesRead;
+	}
+
+	/** Returns the number of entries earlier than the entry before them. */
+	public long getOutOfOrder() {
+		return outOfOrder;
+	}
+
+	/** Returns the number of runs spilled by the last sort (0 if sorted in memory). */
+	public int getRunCount() {
+		return runCount;
+	}
+
+	/** Returns the number of merge passes (before the final merge) of the last sort. */
+	public int getMergePasses() {
+		return mergePasses;
+	}
+
+	// waits for a task, passing on its exception
+	private static <T> T await(Future<T> task) throws IOException {
+
+		try {
+			return task.get();
+		} catch (InterruptedException ex) {
+			throw new InterruptedIOException("Interrupted while sorting log.");
+		} catch (ExecutionException ex) {
+
+			if (ex.getCause() instanceof IOException) {
+				throw (IOException) ex.getCause();
+			} else {
+				throw new IOException("Failed to sort log.", ex.getCause());
+			}
+
+		}
+
+	}
+
+	// creates a temporary run file
+	private File newRunFile() throws IOException {
+		return File.createTempFile("zedlog-run", "." + LogFormat.BINARY.getExtension(), tempDir);
+	}
+
+	// writes the entries to the writer
+	private static void writeAll(List<LogEntry> logEntries, LogEntryWriter output)
+			throws IOException {
+
+		for (LogEntry logEntry : logEntries)
+			output.write(logEntry);
+
+	}
+
+	// copies the entries from reader to writer
+	private static void copy(LogEntryReader input, LogEntryWriter output) throws IOException {
+
+		LogEntry logEntry;
+		while ((logEntry = input.read()) != null)
+			output.write(logEntry);
+
+	}
+
+	// returns a task sorting a run and spilling it to the given file
+	private static Callable<File> spill(final List<LogEntry> run, final File file,
+			final List<String> loggerTypes) {
+
+		return new Callable<File>() {
+			public File call() throws IOException {
+
+				Collections.sort(run, BY_TIMESTAMP);
+
+				try (LogEntryWriter output = LogFormat.BINARY.newWriter(file, loggerTypes, true)) {
+					writeAll(run, output);
+				}
+
+				return file;
+
+			}
+		};
+
+	}
+
+	// opens the given runs for merging, on the calling thread
+	private static List<LogEntryReader> openRuns(List<File> runs) throws IOException {
+
+		List<LogEntryReader> sources = new ArrayList<>();
+
+		try {
+
+			for (File run : runs)
+				sources.add(LogFormat.BINARY.newReader(run));
+
+		} catch (IOException ex) {
+			closeAll(sources);
+			throw ex;
+		}
+
+		return sources;
+
+	}
+
+	// closes the readers, ignoring errors
+	private static void closeAll(List<LogEntryReader> sources) {
+
+		for (LogEntryReader source : sources) {
+
+			try {
+				source.close();
+			} catch (IOException ex) {
+				// NOTE only temporary runs
+			}
+
+		}
+
+	}
+
+	// returns a task merging the runs into the given file
+	private static Callable<File> mergeRuns(final List<File> runs, final File file,
+			final List<String> loggerTypes) {
+
+		return new Callable<File>() {
+			public File call() throws IOException {
+
+				try (LogEntryReader input = new MergingLogReader(openRuns(runs));
+					 LogEntryWriter output = LogFormat.BINARY.newWriter(file, loggerTypes, true)) {
+					copy(input, output);
+				}
+
+				for (File run : runs)
+					run.delete();
+
+				return file;
+
+			}
+		};
+
+	}
+
+	// reads the input, spilling sorted runs (added to runs once created)
+	// returns the unsorted entries if they fit in a single run (nothing spilled)
+	private List<LogEntry> spillRuns(LogEntryReader input, List<File> runs)
+			throws IOException {
+
+		List<String> loggerTypes = input.loggerTypes();
+
+		// the run being spilled (while the next is read)
+		Future<File> spilling = null;
+
+		List<LogEntry> run = new ArrayList<>();
+		long lastTimestamp = Long.MIN_VALUE;
+
+		try {
+
+			LogEntry logEntry;
+			while ((logEntry = input.read()) != null) {
+
+				entriesRead++;
+
+				if (logEntry.getTimestamp() < lastTimestamp)
+					outOfOrder++;
+				lastTimestamp = logEntry.getTimestamp();
+
+				run.add(logEntry);
+
+				if (run.size() == runSize) {
+
+					if (spilling != null)
+						await(spilling);
+
+					File file = newRunFile();
+					runs.add(file);
+
+					spilling = executor.submit(spill(run, file, loggerTypes));
+					run = new ArrayList<>(runSize);
+
+				}
+
+			}
+
+			// NOTE a single run is sorted in memory, without spilling
+			if (runs.isEmpty())
+				return run;
+
+			if (spilling != null)
+				await(spilling);
+
+			if (!run.isEmpty()) {
+
+				File file = newRunFile();
+				runs.add(file);
+
+				spilling = executor.submit(spill(run, file, loggerTypes));
+				await(spilling);
+
+			}
+
+			spilling = null;
+
+			return null;
+
+		} finally {
+
+			// NOTE the run file is deleted with the others
+			if (spilling != null)
+				spilling.cancel(true);
+
+		}
+
+	}
+
+	// merges groups of runs in parallel, until there are at most fanIn runs
+	private List<File> reduceRuns(List<File> runs, List<String> loggerTypes) throws IOException {
+
+		while (runs.size() > fanIn) {
+
+			mergePasses++;
+
+			List<Future<File>> merging = new ArrayList<>();
+			List<File> merged = new ArrayList<>();
+
+			try {
+
+				for (int i = 0; i < runs.size(); i += fanIn) {
+
+					List<File> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+
+					if (group.size() == 1) {
+						merging.add(null);
+						merged.add(group.get(0));
+					} else {
+						File file = newRunFile();
+						merged.add(file);
+						merging.add(executor.submit(mergeRuns(new ArrayList<>(group), file, loggerTypes)));
+					}
+
+				}
+
+				for (Future<File> task : merging) {
+					if (task != null)
+						await(task);
+				}
+
+			} catch (IOException ex) {
+
+				for (Future<File> task : merging) {
+					if (task != null)
+						task.cancel(true);
+				}
+
+				// NOTE the runs of earlier passes are not known to the caller
+				deleteAll(runs);
+				deleteAll(merged);
+
+				throw ex;
+
+			}
+
+			runs = merged;
+
+		}
+
+		return runs;
+
+	}
+
+	// deletes the given files
+	private static void deleteAll(List<File> files) {
+		for (File file : files)
+			file.delete();
+	}
+
+	/**
+	 * Sorts the given log.
+	 * The input is read once, and may be unsorted in any way.  The output
+	 * should be marked as sorted (see {@code LogFormat.newWriter()}).
+	 *
+	 * @param input The log to sort (must not be {@code null}).
+	 * @param output The sorted log (must not be {@code null}).
+	 * @throws IOException If the log could not be read or written, or a run
+	 * could not be spilled.
+	 */
+	public void sort(LogEntryReader input, LogEntryWriter output) throws IOException {
+
+		requireNotNull(input);
+		requireNotNull(output);
+
+		entriesRead = 0;
+		outOfOrder = 0;
+		runCount = 0;
+		mergePasses = 0;
+
+		List<File> runs = new ArrayList<>();
+
+		try {
+
+			// small enough to be sorted in memory
+			List<LogEntry> run = spillRuns(input, runs);
+			if (run != null) {
+
+				Collections.sort(run, BY_TIMESTAMP);
+				writeAll(run, output);
+
+				return;
+
+			}
+
+			runCount = runs.size();
+
+			runs = reduceRuns(runs, input.loggerTypes());
+
+			// the final merge, decoding each run in parallel
+			List<LogEntryReader> sources = new ArrayList<>();
+			for (LogEntryReader source : openRuns(runs))
+				sources.add(new ParallelLogReader(source, executor, MERGE_BATCH_SIZE, MERGE_READ_AHEAD));
+
+			try (LogEntryReader merged = new MergingLogReader(sources)) {
+				copy(merged, output);
+			}
+
+		} finally {
+			deleteAll(runs);
+		}
+
+	}
+
+}
@@ -0,0 +1,245 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import net.zeddev.zedlog.logger.io.ParallelLogReader;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Checks the integrity of saved logs.
+ * Every entry of the log is decoded (checking block checksums for binary
+ * logs), and the entries are checked to be complete and in chronological
+ * order.  A log marked as sorted (see {@code LogSorter}) with entries out of
+ * order is reported as corrupt, as readers trust the marker.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogVerifier {
+
+	/** The result of verifying a single log. */
+	public static final class Report {
+
+		private final File file;
+		private LogFormat format = null;
+		private boolean sorted = false;
+
+		private long entryCount = 0;
+		private long outOfOrderCount = 0;
+		private long firstOutOfOrder = -1;
+		private long firstTimestamp = 0;
+		private long lastTimestamp = 0;
+
+		private String error = null;
+
+		private Report(File file) {
+			this.file = file;
+		}
+
+		/** Returns the log file which was verified. */
+		public File getFile() {
+			return file;
+		}
+
+		/** Returns the detected format of the log, or {@code null} if unknown. */
+		public LogFormat getFormat() {
+			return format;
+		}
+
+		/** Returns whether the log is marked as being in chronological order. */
+		public boolean isSorted() {
+			return sorted;
+		}
+
+		/** Returns whether the log is marked as sorted, but has entries out of order. */
+		public boolean isFalselySorted() {
+			return sorted && outOfOrderCount > 0;
+		}
+
+		/** Returns the number of entries successfully read. */
+		public long getEntryCount() {
+			return entryCount;
+		}
+
+		/** Returns the number of entries earlier than the entry before them. */
+		public long getOutOfOrderCount() {
+			return outOfOrderCount;
+		}
+
+		/** Returns the index of the first out of order entry, or -1 if none. */
+		public long getFirstOutOfOrder() {
+			return firstOutOfOrder;
+		}
+
+		/** Returns the earliest entry timestamp (not necessarily the first entry's). */
+		public long getFirstTimestamp() {
+			return firstTimestamp;
+		}
+
+		/** Returns the latest entry timestamp (not necessarily the last entry's). */
+		public long getLastTimestamp() {
+			return lastTimestamp;
+		}
+
+		/** Returns the error which stopped the verification, or {@code null}. */
+		public String getError() {
+			return error;
+		}
+
+		/** Returns whether the log could be read in full. */
+		public boolean isReadable() {
+			return error == null;
+		}
+
+		/** Returns whether the log is readable and in chronological order. */
+		public boolean isValid() {
+			return isReadable() && outOfOrderCount == 0;
+		}
+
+		@Override
+		public String toString() {
+
+			StringBuilder msg = new StringBuilder();
+
+			msg.append(String.format(
+				"%s: %s%s, %d entries", file, format, sorted ? " (sorted)" : "", entryCount
+			));
+
+			if (entryCount > 0) {
+				msg.append(String.format(
+					", %d to %d (%d ms)",
+					firstTimestamp, lastTimestamp, lastTimestamp - firstTimestamp
+				));
+			}
+
+			if (isFalselySorted()) {
+				msg.append(String.format(
+					"\n    ERROR marked as sorted, but %d entries out of order (first at entry #%d)",
+					outOfOrderCount, firstOutOfOrder
+				));
+			} else if (outOfOrderCount > 0) {
+				msg.append(String.format(
+					"\n    %d entries out of order (first at entry #%d)",
+					outOfOrderCount, firstOutOfOrder
+				));
+			}
+
+			if (error != null) {
+				msg.append(String.format(
+					"\n    ERROR after entry #%d: %s", entryCount, error
+				));
+			}
+
+			return msg.toString();
+
+		}
+
+	}
+
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a new {@code LogVerifier}.
+	 *
+	 * @param executor The executor used to decode logs in parallel (must not
+	 * be {@code null}).
+	 */
+	public LogVerifier(final ExecutorService executor) {
+
+		requireNotNull(executor);
+
+		this.executor = executor;
+
+	}
+
+	// checks a single entry
+	private void checkEntry(Report report, LogEntry logEntry, long lastTimestamp) {
+
+		if (logEntry.getEvent() == null)
+			throw new IllegalStateException("Entry has no event.");
+		if (logEntry.getMessage() == null)
+			throw new IllegalStateException("Entry has no message.");
+
+		if (report.entryCount > 0 && logEntry.getTimestamp() < lastTimestamp) {
+
+			if (report.outOfOrderCount == 0)
+				report.firstOutOfOrder = report.entryCount;
+
+			report.outOfOrderCount++;
+
+		}
+
+	}
+
+	/**
+	 * Verifies the given log file.
+	 *
+	 * @param file The log file (must not be {@code null}).
+	 * @return The report of the verification (never {@code null}).
+	 */
+	public Report verify(final File file) {
+
+		requireNotNull(file);
+
+		Report report = new Report(file);
+
+		try {
+
+			report.format = LogFormat.detect(file);
+
+			try (ParallelLogReader reader = new ParallelLogReader(
+					report.format.newReader(file), executor)) {
+
+				report.sorted = reader.isSorted();
+
+				long lastTimestamp = 0;
+
+				LogEntry logEntry;
+				while ((logEntry = reader.read()) != null) {
+
+					checkEntry(report, logEntry, lastTimestamp);
+
+					lastTimestamp = logEntry.getTimestamp();
+
+					// NOTE the span of an unordered log is from its earliest to latest entry
+					if (report.entryCount == 0) {
+						report.firstTimestamp = lastTimestamp;
+						report.lastTimestamp = lastTimestamp;
+					} else {
+						report.firstTimestamp = Math.min(report.firstTimestamp, lastTimestamp);
+						report.lastTimestamp = Math.max(report.lastTimestamp, lastTimestamp);
+					}
+
+					report.entryCount++;
+
+				}
+
+			}
+
+		} catch (IOException | RuntimeException ex) {
+			report.error = ex.getMessage() != null ? ex.getMessage() : ex.toString();
+		}
+
+		return report;
+
+	}
+
+}
@@ -0,0 +1,145 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records replayed input, without simulating it.
+ * Used to check what a replay would do, i.e. in tests.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class RecordingReplaySink implements ReplaySink {
+
+	/** The kinds of recorded input. */
+	public static enum Kind {
+		MOUSE_MOVE, MOUSE_PRESS, MOUSE_RELEASE, MOUSE_WHEEL, KEY_PRESS, KEY_RELEASE
+	}
+
+	/** A single recorded call on the sink. */
+	public static final class Action {
+
+		private final Kind kind;
+		private final int first;
+		private final int second;
+
+		private Action(Kind kind, int first, int second) {
+			this.kind = kind;
+			this.first = first;
+			this.second = second;
+		}
+
+		/** Returns the kind of input. */
+		public Kind getKind() {
+			return kind;
+		}
+
+		/**
+		 * Returns the first argument (the x coordinate, button mask, wheel
+		 * rotation or key code).
+		 */
+		public int getFirst() {
+			return first;
+		}
+
+		/** Returns the second argument (the y coordinate, or 0). */
+		public int getSecond() {
+			return second;
+		}
+
+		@Override
+		public String toString() {
+
+			if (kind == Kind.MOUSE_MOVE)
+				return String.format("%s %d %d", kind, first, second);
+			else
+				return String.format("%s %d", kind, first);
+
+		}
+
+	}
+
+	private final List<Action> actions = new ArrayList<>();
+
+	// the number of calls to sync()
+	private int syncCount = 0;
+
+	/** Returns the recorded input, in order. */
+	public synchronized List<Action> getActions() {
+		return Collections.unmodifiableList(new ArrayList<>(actions));
+	}
+
+	/** Returns the number of recorded calls. */
+	public synchronized int size() {
+		return actions.size();
+	}
+
+	/** Returns the number of times the input was synchronised. */
+	public synchronized int getSyncCount() {
+		return syncCount;
+	}
+
+	/** Discards the recorded input. */
+	public synchronized void clear() {
+		actions.clear();
+		syncCount = 0;
+	}
+
+	// records a call
+	private synchronized void record(Kind kind, int first, int second) {
+		actions.add(new Action(kind, first, second));
+	}
+
+	@Override
+	public void mouseMove(int x, int y) {
+		record(Kind.MOUSE_MOVE, x, y);
+	}
+
+	@Override
+	public void mousePress(int buttons) {
+		record(Kind.MOUSE_PRESS, buttons, 0);
+	}
+
+	@Override
+	public void mouseRelease(int buttons) {
+		record(Kind.MOUSE_RELEASE, buttons, 0);
+	}
+
+	@Override
+	public void mouseWheel(int rotation) {
+		record(Kind.MOUSE_WHEEL, rotation, 0);
+	}
+
+	@Override
+	public void keyPress(int keyCode) {
+		record(Kind.KEY_PRESS, keyCode, 0);
+	}
+
+	@Override
+	public void keyRelease(int keyCode) {
+		record(Kind.KEY_RELEASE, keyCode, 0);
+	}
+
+	@Override
+	public synchronized void sync() {
+		// NOTE counted, not recorded, so the actions are the same for any policy
+		syncCount++;
+	}
+
+}
@@ -0,0 +1,194 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEvent;
+import net.zeddev.zedlog.logger.io.KeyframeTracker;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Maps replayed {@code LogEvent}s to calls on a {@code ReplaySink}.
+ * Events are dispatched through a table of {@code EventReplayer}s indexed by
+ * the type id of the event (see {@code LogEvents}), which holds replayers for
+ * each of the built-in event types.  Replayers for other event types may be
+ * registered, and events with no replayer are ignored.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class ReplayDispatcher {
+
+	// the replayers, indexed by type id
+	private final EventReplayer[] replayers = new EventReplayer[LogEvents.MAX_TYPE_ID + 1];
+
+	/** Creates a new {@code ReplayDispatcher} for the built-in event types. */
+	public ReplayDispatcher() {
+
+		register(LogEvents.KEY_EVENT, new EventReplayer() {
+			public void replay(ReplaySink sink, LogEvent event) {
+				simKeyEvent(sink, (KeyEvent) event);
+			}
+		});
+
+		register(LogEvents.MOUSE_MOVED, new EventReplayer() {
+			public void replay(ReplaySink sink, LogEvent event) {
+				MouseEvent move = (MouseEvent) event;
+				sink.mouseMove(move.getX(), move.getY());
+			}
+		});
+
+		register(LogEvents.MOUSE_DRAGGED, new EventReplayer() {
+			public void replay(ReplaySink sink, LogEvent event) {
+
+				MouseDraggedEvent drag = (MouseDraggedEvent) event;
+				int button = KeyframeTracker.buttonMask(drag.getButtonCode());
+
+				sink.mousePress(button);
+				sink.mouseMove(drag.getX(), drag.getY());
+				sink.mouseRelease(button);
+
+			}
+		});
+
+		register(LogEvents.MOUSE_CLICKED, new EventReplayer() {
+			public void replay(ReplaySink sink, LogEvent event) {
+
+				MouseClickedEvent click = (MouseClickedEvent) event;
+				int button = KeyframeTracker.buttonMask(click.getButtonCode());
+
+				// simulate a click
+				sink.mouseMove(click.getX(), click.getY());
+				sink.mousePress(button);
+				sink.mouseRelease(button);
+
+			}
+		});
+
+		register(LogEvents.MOUSE_PRESSED, new EventReplayer() {
+			public void replay(ReplaySink sink, LogEvent event) {
+
+				MousePressedEvent press = (MousePressedEvent) event;
+
+				sink.mouseMove(press.getX(), press.getY());
+				sink.mousePress(KeyframeTracker.buttonMask(press.getButtonCode()));
+
+			}
+		});
+
+		register(LogEvents.MOUSE_RELEASED, new EventReplayer() {
+			public void replay(ReplaySink sink, LogEvent event) {
+
+				MouseReleasedEvent release = (MouseReleasedEvent) event;
+
+				sink.mouseMove(release.getX(), release.getY());
+				sink.mouseRelease(KeyframeTracker.buttonMask(release.getButtonCode()));
+
+			}
+		});
+
+		register(LogEvents.MOUSE_WHEEL_MOVED, new EventReplayer() {
+			public void replay(ReplaySink sink, LogEvent event) {
+
+				MouseWheelMovedEvent wheel = (MouseWheelMovedEvent) event;
+
+				sink.mouseMove(wheel.getX(), wheel.getY());
+				sink.mouseWheel(wheel.getRotation());
+
+			}
+		});
+
+	}
+
+	/**
+	 * Registers the replayer of an event type, replacing any existing one.
+	 *
+	 * @param typeId The type id of the event (see {@code LogEvents}).
+	 * @param replayer The replayer, or {@code null} to ignore the type.
+	 */
+	public void register(int typeId, EventReplayer replayer) {
+
+		require(typeId > 0 && typeId <= LogEvents.MAX_TYPE_ID);
+
+		replayers[typeId] = replayer;
+
+	}
+
+	/**
+	 * Returns the replayer of an event type.
+	 *
+	 * @param typeId The type id of the event.
+	 * @return The replayer, or {@code null} if the type is ignored.
+	 */
+	public EventReplayer getReplayer(int typeId) {
+
+		if (typeId <= 0 || typeId > LogEvents.MAX_TYPE_ID)
+			return null;
+
+		return replayers[typeId];
+
+	}
+
+	/**
+	 * Replays an event.
+	 * Events of unknown types (or {@code null}) are ignored.
+	 *
+	 * @param sink The sink receiving the simulated input.
+	 * @param event The event to replay (may be {@code null}).
+	 * @return Whether the event was replayed.
+	 */
+	public boolean replay(ReplaySink sink, LogEvent event) {
+
+		if (event == null)
+			return false;
+
+		EventReplayer replayer = getReplayer(LogEvents.typeId(event.type()));
+
+		if (replayer == null)
+			return false;
+
+		replayer.replay(sink, event);
+
+		return true;
+
+	}
+
+	// simulates a KeyEvent
+	private static void simKeyEvent(ReplaySink sink, KeyEvent event) {
+
+		int keyCode = event.getKeyCode();
+
+		if (keyCode > 0) {
+			if (event.getEventType() == KeyEvent.Type.PRESSED) {
+				sink.keyPress(keyCode);
+			} else if (event.getEventType() == KeyEvent.Type.RELEASED) {
+				sink.keyRelease(keyCode);
+			} else if (event.getEventType() == KeyEvent.Type.TYPED) {
+				sink.keyPress(keyCode);
+				sink.keyRelease(keyCode);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,256 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Times replayed events against the timeline of the original log.
+ * Each event is due at an absolute deadline, relative to the start of the
+ * replay, rather than a delay after the previous event.  So time spent
+ * replaying events (and waiting for them to finish) does not accumulate as
+ * drift; a late event only delays itself.
+ *
+ * <p>Waits park the thread until shortly before the deadline, then spin for
+ * the remainder, giving sub-millisecond accuracy without spinning for whole
+ * gaps.</p>
+ *
+ * <p>The timeline may be sped up (or slowed down) by a constant factor, and
+ * gaps longer than a maximum (i.e. idle periods) shortened to the maximum,
+ * leaving the rhythm of shorter bursts of events unchanged.</p>
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class ReplayScheduler {
+
+	/** The default time spun (rather than parked) before a deadline, in ns. */
+	public static final long DEFAULT_SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(500);
+
+	// the longest single park, so cancellation is noticed
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private final long spinNanos;
+
+	// the time-scale factor, and the longest gap between events (in log ms)
+	private volatile double speed = 1.0;
+	private volatile long maxGap = 0;
+
+	// the replay start (rebased on changes of speed), and the last log time
+	private long origin;
+	private long lastTimestamp;
+	private boolean started = false;
+
+	// the (capped) log time of the last deadline after origin, in milliseconds
+	private long offset;
+
+	// the speed the offset is scaled by
+	private double scaledSpeed;
+
+	private volatile boolean cancelled = false;
+	private volatile Thread waiter = null;
+
+	/**
+	 * Creates a new {@code ReplayScheduler}.
+	 *
+	 * @param spinNanos The time before each deadline spent spinning, rather
+	 * than parked, in nanoseconds.
+	 */
+	public ReplayScheduler(final long spinNanos) {
+
+		require(spinNanos >= 0);
+
+		this.spinNanos = spinNanos;
+
+	}
+
+	/** Creates a new {@code ReplayScheduler} with the default spin time. */
+	public ReplayScheduler() {
+		this(DEFAULT_SPIN_NANOS);
+	}
+
+	/** Returns the time-scale factor (i.e. 4.0 replays four times faster). */
+	public double getSpeed() {
+		return speed;
+	}
+
+	/**
+	 * Sets the time-scale factor.
+	 * Takes effect from the next event, if changed during a replay.
+	 *
+	 * @param speed The factor (i.e. 4.0 replays four times faster, 0.5 at half
+	 * speed).
+	 */
+	public void setSpeed(final double speed) {
+
+		require(speed > 0.0 && !Double.isInfinite(speed));
+
+		this.speed = speed;
+
+	}
+
+	/** Returns the longest gap between events, in ms (0 if unlimited). */
+	public long getMaxGap() {
+		return maxGap;
+	}
+
+	/**
+	 * Sets the longest gap between events.
+	 * Longer gaps (in the original log) are shortened to this, before being
+	 * scaled by the speed.
+	 *
+	 * @param maxGap The longest gap, in milliseconds (0 if unlimited).
+	 */
+	public void setMaxGap(final long maxGap) {
+
+		require(maxGap >= 0);
+
+		this.maxGap = maxGap;
+
+	}
+
+	/**
+	 * Starts a new replay.
+	 * The first event awaited is due immediately, and the following events
+	 * relative to it.
+	 */
+	public void start() {
+		started = false;
+		cancelled = false;
+	}
+
+	/**
+	 * Cancels the replay, waking the thread waiting in {@code await()}.
+	 * Thread safe.
+	 */
+	public void cancel() {
+
+		cancelled = true;
+
+		Thread thread = waiter;
+		if (thread != null)
+			LockSupport.unpark(thread);
+
+	}
+
+	/** Returns whether the replay has been cancelled. */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Returns the deadline of the next event, as {@code System.nanoTime()}.
+	 *
+	 * @param timestamp The log time of the event, in milliseconds.
+	 * @return The deadline of the event.
+	 */
+	public long deadline(final long timestamp) {
+
+		if (!started) {
+
+			origin = System.nanoTime();
+			lastTimestamp = timestamp;
+			offset = 0;
+			scaledSpeed = speed;
+			started = true;
+
+		} else if (timestamp > lastTimestamp) {
+
+			// NOTE events out of order are due immediately after the last
+			long gap = timestamp - lastTimestamp;
+			lastTimestamp = timestamp;
+
+			long limit = maxGap;
+			if (limit > 0 && gap > limit)
+				gap = limit;
+
+			double factor = speed;
+			if (factor != scaledSpeed) {
+
+				// the speed changed, so rebase the timeline at the last event
+				origin += scaledNanos(offset, scaledSpeed);
+				offset = 0;
+				scaledSpeed = factor;
+
+			}
+
+			offset += gap;
+
+		}
+
+		return origin + scaledNanos(offset, scaledSpeed);
+
+	}
+
+	// returns the real time taken by the given log time, at the given speed
+	private static long scaledNanos(final long millis, final double speed) {
+		return (long) (TimeUnit.MILLISECONDS.toNanos(millis) / speed);
+	}
+
+	/**
+	 * Waits until the given event is due.
+	 *
+	 * @param timestamp The log time of the event, in milliseconds.
+	 * @return Whether the event should be replayed ({@code false} if the
+	 * replay has been cancelled).
+	 */
+	public boolean await(final long timestamp) {
+		return awaitDeadline(deadline(timestamp));
+	}
+
+	/**
+	 * Waits until the given deadline.
+	 *
+	 * @param deadline The deadline, as {@code System.nanoTime()}.
+	 * @return Whether the deadline was reached ({@code false} if the
+	 * replay has been cancelled).
+	 */
+	public boolean awaitDeadline(final long deadline) {
+
+		waiter = Thread.currentThread();
+
+		try {
+
+			long remaining;
+			while ((remaining = deadline - System.nanoTime()) > spinNanos) {
+
+				if (cancelled)
+					return false;
+
+				LockSupport.parkNanos(Math.min(remaining - spinNanos, MAX_PARK_NANOS));
+
+			}
+
+			while (deadline - System.nanoTime() > 0) {
+
+				if (cancelled)
+					return false;
+
+				Thread.yield();
+
+			}
+
+			return !cancelled;
+
+		} finally {
+			waiter = null;
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * The target of replayed input (i.e. {@code java.awt.Robot}).
+ * {@code ReplayTool} maps each replayed {@code LogEvent} to calls on a sink.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface ReplaySink {
+
+	/**
+	 * Moves the mouse pointer.
+	 *
+	 * @param x The x coordinate on the screen.
+	 * @param y The y coordinate on the screen.
+	 */
+	public void mouseMove(int x, int y);
+
+	/**
+	 * Presses mouse buttons.
+	 *
+	 * @param buttons The AWT button mask (i.e. {@code InputEvent.BUTTON1_MASK}).
+	 */
+	public void mousePress(int buttons);
+
+	/**
+	 * Releases mouse buttons.
+	 *
+	 * @param buttons The AWT button mask (i.e. {@code InputEvent.BUTTON1_MASK}).
+	 */
+	public void mouseRelease(int buttons);
+
+	/**
+	 * Rotates the mouse wheel.
+	 *
+	 * @param rotation The number of wheel notches.
+	 */
+	public void mouseWheel(int rotation);
+
+	/**
+	 * Presses a key.
+	 *
+	 * @param keyCode The key code of the key.
+	 */
+	public void keyPress(int keyCode);
+
+	/**
+	 * Releases a key.
+	 *
+	 * @param keyCode The key code of the key.
+	 */
+	public void keyRelease(int keyCode);
+
+	/**
+	 * Waits until the input sent so far has been handled (i.e.
+	 * {@code Robot.waitForIdle()}).
+	 * Called by {@code ReplayTool} as often as its {@code SyncPolicy} says.
+	 */
+	public void sync();
+
+}
@@ -0,0 +1,143 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.zeddev.zedlog.logger.io.Keyframe;
+import net.zeddev.zedlog.logger.io.KeyframeTracker;
+
+/**
+ * Tracks the input state a replay leaves behind (pointer position and held
+ * buttons and keys), without simulating any input.
+ * A {@code ReplaySink} over a {@code KeyframeTracker}, so the state of input
+ * replayed through any {@code ReplayDispatcher} can be tracked.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class ReplayState implements ReplaySink {
+
+	// the tracked state
+	private final KeyframeTracker tracker = new KeyframeTracker();
+
+	/** Returns whether the pointer has been positioned by the replay. */
+	public boolean isPositioned() {
+		return tracker.isPositioned();
+	}
+
+	/** Returns the pointer x coordinate. */
+	public int getX() {
+		return tracker.getX();
+	}
+
+	/** Returns the pointer y coordinate. */
+	public int getY() {
+		return tracker.getY();
+	}
+
+	/** Returns the held mouse buttons (as an AWT button mask). */
+	public int getButtons() {
+		return tracker.getButtons();
+	}
+
+	/**
+	 * Returns whether the given key is held.
+	 *
+	 * @param keyCode The key code.
+	 * @return Whether the key is held.
+	 */
+	public boolean isKeyHeld(int keyCode) {
+		return tracker.isKeyHeld(keyCode);
+	}
+
+	/**
+	 * Returns whether the pointer is within {@code tolerance} pixels (on each
+	 * axis) of the given point.
+	 *
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param tolerance The tolerance, in pixels.
+	 * @return Whether the pointer is positioned near the point.
+	 */
+	public boolean isNear(int x, int y, int tolerance) {
+		return tracker.isNear(x, y, tolerance);
+	}
+
+	/**
+	 * Returns whether the given state has the same held buttons and keys as
+	 * this state, and a pointer position within {@code tolerance} pixels.
+	 *
+	 * @param other The state to compare to.
+	 * @param tolerance The position tolerance, in pixels.
+	 * @return Whether the states match.
+	 */
+	public boolean matches(ReplayState other, int tolerance) {
+		return tracker.matches(other.tracker, tolerance);
+	}
+
+	/** Returns a snapshot of the state. */
+	public Keyframe toKeyframe() {
+		return tracker.toKeyframe();
+	}
+
+	/**
+	 * Sets the state to the given snapshot.
+	 *
+	 * @param keyframe The snapshot (must not be {@code null}).
+	 */
+	public void restore(Keyframe keyframe) {
+		tracker.restore(keyframe);
+	}
+
+	@Override
+	public void mouseMove(int x, int y) {
+		tracker.mouseMove(x, y);
+	}
+
+	@Override
+	public void mousePress(int buttons) {
+		tracker.mousePress(buttons);
+	}
+
+	@Override
+	public void mouseRelease(int buttons) {
+		tracker.mouseRelease(buttons);
+	}
+
+	@Override
+	public void mouseWheel(int rotation) {
+		// IGNORE - does not change the state
+	}
+
+	@Override
+	public void keyPress(int keyCode) {
+		tracker.keyPress(keyCode);
+	}
+
+	@Override
+	public void keyRelease(int keyCode) {
+		tracker.keyRelease(keyCode);
+	}
+
+	@Override
+	public void sync() {
+		// IGNORE - does not change the state
+	}
+
+	@Override
+	public String toString() {
+		return tracker.toString();
+	}
+
+}
@@ -0,0 +1,308 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Records how faithfully a replay reproduced the timing of the original log.
+ * For each replayed event the scheduled and actual injection times (relative
+ * to the first event) and the time spent in the sink are recorded.  The
+ * lateness and sink times are summarised in {@code LogHistogram}s, along with
+ * the worst stalls, so memory use does not depend on the length of the replay.
+ * The raw timings may also be streamed out as CSV.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class ReplayTimings {
+
+	/** The default number of worst stalls kept. */
+	public static final int DEFAULT_WORST = 10;
+
+	/** The timing of a single replayed event. */
+	public static final class Timing {
+
+		private final long index;
+		private final long timestamp;
+		private final long scheduled;
+		private final long actual;
+		private final long sinkTime;
+
+		private Timing(long index, long timestamp, long scheduled, long actual, long sinkTime) {
+			this.index = index;
+			this.timestamp = timestamp;
+			this.scheduled = scheduled;
+			this.actual = actual;
+			this.sinkTime = sinkTime;
+		}
+
+		/** Returns the index of the event in the replay. */
+		public long getIndex() {
+			return index;
+		}
+
+		/** Returns the log time of the event, in milliseconds. */
+		public long getTimestamp() {
+			return timestamp;
+		}
+
+		/** Returns when the event was due, in ns after the first event. */
+		public long getScheduled() {
+			return scheduled;
+		}
+
+		/** Returns when the event was injected, in ns after the first event. */
+		public long getActual() {
+			return actual;
+		}
+
+		/** Returns how late the event was injected, in ns. */
+		public long getLateness() {
+			return Math.max(0, actual - scheduled);
+		}
+
+		/** Returns the time spent injecting the event, in ns. */
+		public long getSinkTime() {
+			return sinkTime;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(
+				"#%d at %d: %.3fms late, %.3fms in sink",
+				index, timestamp, getLateness() / 1e6, sinkTime / 1e6
+			);
+		}
+
+	}
+
+	// orders timings by lateness
+	private static final Comparator<Timing> BY_LATENESS = new Comparator<Timing>() {
+		@Override
+		public int compare(Timing first, Timing second) {
+
+			int order = Long.compare(first.getLateness(), second.getLateness());
+
+			// NOTE the earlier event is worse, so is kept on ties
+			return order != 0 ? order : Long.compare(second.index, first.index);
+
+		}
+	};
+
+	private final int worstCount;
+
+	// the time of the first event
+	private boolean started = false;
+	private long origin;
+
+	private long count = 0;
+
+	// the distributions of lateness and sink time, in microseconds
+	private final LogHistogram lateness = new LogHistogram();
+	private final LogHistogram sinkTimes = new LogHistogram();
+
+	// the worst stalls, least late first
+	private final PriorityQueue<Timing> worst;
+
+	// the raw timings output (none if null)
+	private PrintWriter rawOutput = null;
+
+	/**
+	 * Creates empty replay timings.
+	 *
+	 * @param worstCount The number of worst stalls kept.
+	 */
+	public ReplayTimings(final int worstCount) {
+
+		require(worstCount >= 0);
+
+		this.worstCount = worstCount;
+		this.worst = new PriorityQueue<>(Math.max(1, worstCount), BY_LATENESS);
+
+	}
+
+	/** Creates empty replay timings, keeping the default number of stalls. */
+	public ReplayTimings() {
+		this(DEFAULT_WORST);
+	}
+
+	/**
+	 * Streams the raw timings of each event, as CSV, to the given output.
+	 * Times are in microseconds.  Must be set before the replay starts.
+	 *
+	 * @param output The output, or {@code null} for none.
+	 */
+	public synchronized void setRawOutput(final Writer output) {
+
+		if (output == null) {
+			rawOutput = null;
+			return;
+		}
+
+		rawOutput = new PrintWriter(output);
+		rawOutput.println("index,timestamp,scheduled_us,actual_us,lateness_us,sink_us");
+
+	}
+
+	/**
+	 * Records the timing of a replayed event.
+	 *
+	 * @param timestamp The log time of the event, in milliseconds.
+	 * @param scheduled When the event was due, as {@code System.nanoTime()}.
+	 * @param actual When the event was injected, as {@code System.nanoTime()}.
+	 * @param finished When the sink finished, as {@code System.nanoTime()}.
+	 */
+	public synchronized void record(long timestamp, long scheduled, long actual, long finished) {
+
+		if (!started) {
+			origin = scheduled;
+			started = true;
+		}
+
+		Timing timing = new Timing(
+			count++, timestamp, scheduled - origin, actual - origin, finished - actual
+		);
+
+		lateness.record(TimeUnit.NANOSECONDS.toMicros(timing.getLateness()));
+		sinkTimes.record(TimeUnit.NANOSECONDS.toMicros(Math.max(0, timing.sinkTime)));
+
+		if (worstCount > 0) {
+
+			if (worst.size() < worstCount) {
+				worst.add(timing);
+			} else if (BY_LATENESS.compare(timing, worst.peek()) > 0) {
+				worst.poll();
+				worst.add(timing);
+			}
+
+		}
+
+		if (rawOutput != null) {
+			rawOutput.printf(
+				"%d,%d,%d,%d,%d,%d\n",
+				timing.index, timing.timestamp,
+				TimeUnit.NANOSECONDS.toMicros(timing.scheduled),
+				TimeUnit.NANOSECONDS.toMicros(timing.actual),
+				TimeUnit.NANOSECONDS.toMicros(timing.getLateness()),
+				TimeUnit.NANOSECONDS.toMicros(timing.sinkTime)
+			);
+		}
+
+	}
+
+	/**
+	 * Flushes the raw timings output (if any).
+	 *
+	 * @throws IOException If the output failed.
+	 */
+	public synchronized void flush() throws IOException {
+
+		if (rawOutput != null) {
+
+			rawOutput.flush();
+
+			if (rawOutput.checkError())
+				throw new IOException("Failed to write the replay timings.");
+
+		}
+
+	}
+
+	/** Returns the number of events recorded. */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/** Returns a copy of the distribution of lateness, in microseconds. */
+	public synchronized LogHistogram getLateness() {
+
+		LogHistogram copy = new LogHistogram();
+		copy.add(lateness);
+
+		return copy;
+
+	}
+
+	/** Returns a copy of the distribution of sink times, in microseconds. */
+	public synchronized LogHistogram getSinkTimes() {
+
+		LogHistogram copy = new LogHistogram();
+		copy.add(sinkTimes);
+
+		return copy;
+
+	}
+
+	/** Returns the worst stalls (the latest events), worst first. */
+	public synchronized List<Timing> getWorst() {
+
+		List<Timing> stalls = new ArrayList<>(worst);
+		Collections.sort(stalls, Collections.reverseOrder(BY_LATENESS));
+
+		return stalls;
+
+	}
+
+	/**
+	 * Writes a summary of the timings.
+	 *
+	 * @param output The output to write to.
+	 */
+	public synchronized void writeText(final Writer output) {
+
+		requireNotNull(output);
+
+		PrintWriter printer = new PrintWriter(output);
+
+		printer.printf("%d events replayed.\n", count);
+		printer.printf(
+			"Lateness (ms): mean %.3f, p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, max %.3f\n",
+			lateness.getMean() / 1000.0,
+			lateness.getPercentile(50) / 1000.0, lateness.getPercentile(90) / 1000.0,
+			lateness.getPercentile(99) / 1000.0, lateness.getPercentile(99.9) / 1000.0,
+			lateness.getMax() / 1000.0
+		);
+		printer.printf(
+			"Sink time (ms): mean %.3f, p50 %.3f, p99 %.3f, max %.3f\n",
+			sinkTimes.getMean() / 1000.0, sinkTimes.getPercentile(50) / 1000.0,
+			sinkTimes.getPercentile(99) / 1000.0, sinkTimes.getMax() / 1000.0
+		);
+
+		List<Timing> stalls = getWorst();
+		if (!stalls.isEmpty()) {
+
+			printer.println("Worst stalls:");
+
+			for (Timing timing : stalls)
+				printer.printf("    %s\n", timing);
+
+		}
+
+		printer.flush();
+
+	}
+
+}
@@ -17,32 +17,46 @@ package net.zeddev.zedlog.logger.tools;
 
 import java.awt.AWTException;
 import java.awt.Robot;
-import java.awt.event.InputEvent;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Level;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import net.zeddev.litelogger.Logger;
 import net.zeddev.zedlog.logger.LogEntry;
 import net.zeddev.zedlog.logger.LogEvent;
 import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
-import net.zeddev.zedlog.logger.impl.event.KeyEvent;
-import net.zeddev.zedlog.logger.impl.MouseClickLogger;
-import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
 import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
-import net.zeddev.zedlog.logger.impl.MouseDraggedLogger;
 import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
-import net.zeddev.zedlog.logger.impl.MouseMovementLogger;
-import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
-import net.zeddev.zedlog.logger.impl.MousePressedLogger;
-import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
-import net.zeddev.zedlog.logger.impl.MouseReleasedLogger;
-import net.zeddev.zedlog.logger.impl.MouseWheelLogger;
-import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEvent;
+import net.zeddev.zedlog.logger.io.AbstractLogEntryReader;
+import net.zeddev.zedlog.logger.io.BinaryLogReader;
+import net.zeddev.zedlog.logger.io.Keyframe;
+import net.zeddev.zedlog.logger.io.ListLogReader;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import net.zeddev.zedlog.logger.io.ParallelLogReader;
+import net.zeddev.zedlog.management.jfr.ReplayEvent;
+import net.zeddev.zedlog.util.DaemonThreadFactory;
+
+import static net.zeddev.zedlog.util.Assertions.*;
 
 /**
  * Replays/simulates logged {@code LogEvent}s.
  * Uses {@code java.awt.Robot} to simulate mouse moves, clicks and key
- * presses.
+ * presses, unless given another {@code ReplaySink}.  Events are replayed
+ * either from a list, or streamed from a saved log (decoded ahead of the
+ * replay on another thread).
+ *
+ * <p>A replay may be limited to a time range.  The input state (pointer
+ * position, and held buttons and keys) at the start of the range is restored
+ * before replaying, found from the nearest keyframe of a binary log (or by
+ * tracking the entries before the range otherwise).</p>
+ *
+ * <p>A timed replay which falls behind (i.e. when the sink or machine
+ * stalls) may catch up by skipping late mouse motion, which is superseded
+ * by later motion already due.  Presses, releases, keys and the wheel are
+ * always replayed, and the replay keeps to its original timeline.</p>
  *
  * @author Zachary Scott <zscott.dev@gmail.com>
  */
@@ -50,22 +64,68 @@ public final class ReplayTool {
 
 	private final Logger logger = Logger.getLogger(this);
 
-	// the log entries to be replayed
+	// the dispatcher used by replayEvent()
+	private static final ReplayDispatcher DEFAULT_DISPATCHER = new ReplayDispatcher();
+
+	// the number of entries decoded at a time, and read ahead, from a log file
+	private static final int READ_BATCH_SIZE = 256;
+	private static final int READ_AHEAD = 16;
+
+	// the log entries to be replayed (or the log file they are read from)
 	private final List<LogEntry> logEntries;
+	private final File logFile;
 
 	// the tools observers
 	private final List<ReplayToolObserver> observers = new ArrayList<>();
 
-	private boolean running = false;
+	// times the events of a timed replay
+	private final ReplayScheduler scheduler = new ReplayScheduler();
+
+	// maps events to calls on the sink
+	private final ReplayDispatcher dispatcher = new ReplayDispatcher();
+
+	// the sink receiving the input (a robot if null)
+	private volatile ReplaySink sink = null;
+
+	// records the timing of each event (if not null)
+	private volatile ReplayTimings timings = null;
+
+	// the range of log times replayed
+	private volatile long from = Long.MIN_VALUE;
+	private volatile long to = Long.MAX_VALUE;
+
+	// how often to wait for the replayed input to be handled
+	private volatile SyncPolicy sync = SyncPolicy.EACH_EVENT;
+
+	// whether timed replays skip superseded, late motion
+	private volatile boolean catchUp = false;
+
+	// the number of motion events skipped by the last replay
+	private volatile long skipped = 0;
+
+	private volatile boolean running = false;
 
 	/**
 	 * Creates a new {@code ReplayTool} for the given {@code LogEntry} set.
+	 * The entries are replayed in the order of the list, so must be in
+	 * chronological order (i.e. merged with a {@code MergingLogReader}).
 	 *
 	 * @param logEntries The {@code LogEntry} list in which to replay.
 	 */
 	public ReplayTool(final List<LogEntry> logEntries) {
 		this.logEntries = logEntries;
-			// TODO sort chronologically
+		this.logFile = null;
+	}
+
+	/**
+	 * Creates a new {@code ReplayTool} for a saved log.
+	 * The log is streamed while replaying, so is never held in memory.
+	 *
+	 * @param logFile The log file (in any {@code LogFormat}).
+	 */
+	public ReplayTool(final File logFile) {
+		this.logEntries = null;
+		this.logFile = logFile;
 	}
 
 	/**
@@ -97,225 +157,432 @@ public final class ReplayTool {
 		observers.remove(observer);
 	}
 
-	// simulates a KeyEvent
-	private void simKeyEvent(Robot robot, KeyEvent event) {
+	/**
+	 * Maps the given event to calls on the sink, as done when replaying.
+	 * Unknown event types are ignored.
+	 *
+	 * @param sink The sink receiving the simulated input.
+	 * @param event The event to simulate (may be {@code null}).
+	 */
+	public static void replayEvent(ReplaySink sink, LogEvent event) {
+		DEFAULT_DISPATCHER.replay(sink, event);
+	}
 
-		int keyCode = event.getKeyCode();
+	/**
+	 * Returns the dispatcher mapping events to calls on the sink.
+	 * Replayers for additional event types may be registered with it.
+	 */
+	public ReplayDispatcher getDispatcher() {
+		return dispatcher;
+	}
 
-		if (keyCode > 0) {
-			if (event.getEventType() == KeyEvent.Type.PRESSED) {
-				robot.keyPress(keyCode);
-			} else if (event.getEventType() == KeyEvent.Type.RELEASED) {
-				robot.keyRelease(keyCode);
-			} else if (event.getEventType() == KeyEvent.Type.TYPED) {
-				robot.keyPress(keyCode);
-				robot.keyRelease(keyCode);
-			}
-		}
+	/** Returns the sink receiving replayed input ({@code null} for a robot). */
+	public ReplaySink getSink() {
+		return sink;
+	}
 
+	/**
+	 * Sets the sink receiving replayed input.
+	 * Takes effect from the next replay.
+	 *
+	 * @param sink The sink, or {@code null} to simulate input with a new
+	 * {@code java.awt.Robot}.
+	 */
+	public void setSink(final ReplaySink sink) {
+		this.sink = sink;
 	}
 
-	// simulates a mouse movement
-	private void simMouseMoveEvent(Robot robot, MouseMovedEvent event) {
+	// simulates a LogEvent
+	private void simEvent(ReplaySink sink, LogEvent event) {
+
+		dispatcher.replay(sink, event);
 
-		robot.mouseMove(event.getX(), event.getY());
+		// notify observers of simulated event
+		for (ReplayToolObserver observer : observers)
+			observer.replayedEvent(event);
 
 	}
 
-	// converts between JNativeHook mouse button codes and AWT's
-	private int convertMouseButtonCode(int orig) {
+	// notifies observers when the replay tool has finished
+	private void notifyFinished() {
 
-		if (orig == 1) {
-			return InputEvent.BUTTON1_MASK;
-		} else if (orig == 2) {
-			return InputEvent.BUTTON2_MASK;
-		} else if (orig == 3) {
-			return InputEvent.BUTTON3_MASK;
-		} else {
-			// XXX default to button 1 as to avoid causing exceptions
-			return InputEvent.BUTTON1_MASK;
-		}
+		// notify of finish
+		for (ReplayToolObserver observer : observers)
+			observer.replayFinished();
 
 	}
 
-	// simulates a mouse drag
-	private void simMouseDragEvent(Robot robot, MouseDraggedEvent event) {
-
-		int button = convertMouseButtonCode(event.getButtonCode());
-
-		robot.mousePress(button);
-		robot.mouseMove(event.getX(), event.getY());
-		robot.mouseRelease(button);
+	/** Returns the recorder of replay timings (or {@code null}). */
+	public ReplayTimings getTimings() {
+		return timings;
+	}
 
+	/**
+	 * Sets the recorder of the timing of each replayed event.
+	 * Takes effect from the next replay.
+	 *
+	 * @param timings The recorder, or {@code null} to not record timings.
+	 */
+	public void setTimings(final ReplayTimings timings) {
+		this.timings = timings;
 	}
 
-	// simulate a mouse click
-	private void simMouseClickEvent(Robot robot, MouseClickedEvent event) {
+	/**
+	 * Limits replays to the given range of log times.
+	 * Takes effect from the next replay.
+	 *
+	 * @param from The time of the first replayed entry ({@code Long.MIN_VALUE}
+	 * for the start of the log).
+	 * @param to The time of the last replayed entry ({@code Long.MAX_VALUE}
+	 * for the end of the log).
+	 */
+	public void setRange(final long from, final long to) {
 
-		int button = convertMouseButtonCode(event.getButtonCode());
+		require(from <= to);
 
-		// simulate a click
-		robot.mouseMove(event.getX(), event.getY());
-		robot.mousePress(button);
-		robot.mouseRelease(button);
+		this.from = from;
+		this.to = to;
 
 	}
 
-	private void simMousePressedEvent(Robot robot, MousePressedEvent event) {
-
-		robot.mouseMove(event.getX(), event.getY());
-		robot.mousePress(convertMouseButtonCode(event.getButtonCode()));
-
+	/** Returns the time of the first replayed entry. */
+	public long getFrom() {
+		return from;
 	}
 
-	private void simMouseReleasedEvent(Robot robot, MouseReleasedEvent event) {
-
-		robot.mouseMove(event.getX(), event.getY());
-		robot.mouseRelease(convertMouseButtonCode(event.getButtonCode()));
-
+	/** Returns the time of the last replayed entry. */
+	public long getTo() {
+		return to;
 	}
 
-	// simulates a mouse wheel movement
-	private void simMouseWheelEvent(Robot robot, MouseWheelMovedEvent event) {
+	/** Returns how often replays wait for their input to be handled. */
+	public SyncPolicy getSync() {
+		return sync;
+	}
 
-		robot.mouseMove(event.getX(), event.getY());
-		robot.mouseWheel(event.getRotation());
+	/**
+	 * Sets how often replays wait for their input to be handled (see
+	 * {@code ReplaySink.sync()}).
+	 * Takes effect from the next replay.
+	 *
+	 * @param sync The policy (must not be {@code null}); by default
+	 * {@code SyncPolicy.EACH_EVENT}.
+	 */
+	public void setSync(final SyncPolicy sync) {
+		requireNotNull(sync);
+		this.sync = sync;
+	}
 
+	/** Returns whether timed replays skip superseded, late motion. */
+	public boolean isCatchUp() {
+		return catchUp;
 	}
 
-	// simulates a LogEvent
-	private void simEvent(Robot robot, LogEvent event) {
-
-		// simulate the event
-		if (event != null) {
-			if (event instanceof KeyEvent) {
-				simKeyEvent(robot, (KeyEvent) event);
-			} else if (event instanceof MouseMovedEvent) {
-				simMouseMoveEvent(robot, (MouseMovedEvent) event);
-			} else if (event instanceof MouseDraggedEvent) {
-				simMouseDragEvent(robot, (MouseDraggedEvent) event);
-			} else if (event instanceof MouseClickedEvent) {
-				simMouseClickEvent(robot, (MouseClickedEvent) event);
-			} else if (event instanceof MousePressedEvent) {
-				simMousePressedEvent(robot, (MousePressedEvent) event);
-			} else if (event instanceof MouseReleasedEvent) {
-				simMouseReleasedEvent(robot, (MouseReleasedEvent) event);
-			} else if (event instanceof MouseWheelMovedEvent) {
-				simMouseWheelEvent(robot, (MouseWheelMovedEvent) event);
-			} else {
-				// IGNORE - unknown event type
-			}
-		}
+	/**
+	 * Sets whether timed replays catch up when late, by skipping mouse
+	 * motion superseded by later motion which is already due.
+	 * May be changed during a replay.
+	 *
+	 * @param catchUp Whether to skip late motion ({@code false} replays
+	 * every event, however late).
+	 */
+	public void setCatchUp(final boolean catchUp) {
+		this.catchUp = catchUp;
+	}
 
-		// notify observers of simulated event
-		for (ReplayToolObserver observer : observers)
-			observer.replayedEvent(event);
+	/** Returns the number of motion events skipped by the last (or current) replay. */
+	public long getSkipped() {
+		return skipped;
+	}
 
+	/** Returns the time-scale factor of timed replays. */
+	public double getSpeed() {
+		return scheduler.getSpeed();
 	}
 
-	// notifies observers when the replay tool has finished
-	private void notifyFinished() {
+	/**
+	 * Sets the time-scale factor of timed replays.
+	 * May be changed during a replay.
+	 *
+	 * @param speed The factor (i.e. 4.0 replays four times faster).
+	 */
+	public void setSpeed(final double speed) {
+		scheduler.setSpeed(speed);
+	}
 
-		// notify of finish
-		for (ReplayToolObserver observer : observers)
-			observer.replayFinished();
+	/** Returns the longest gap between timed events, in ms (0 if unlimited). */
+	public long getMaxGap() {
+		return scheduler.getMaxGap();
+	}
 
+	/**
+	 * Sets the longest gap between timed events.
+	 * Longer (idle) gaps are shortened, so only short bursts of events keep
+	 * their original rhythm.
+	 *
+	 * @param maxGap The longest gap, in log milliseconds (0 if unlimited).
+	 */
+	public void setMaxGap(final long maxGap) {
+		scheduler.setMaxGap(maxGap);
 	}
 
 	/** Returns a {@code Runnable}, which replays the events, timed the same
-	 * as the original events.
+	 * as the original events (scaled by the speed, and with long gaps capped).
 	 */
 	public Runnable replayTimed() {
-		return new ReplayTimed();
+		return new Replay(true);
 	}
 
 	/** Returns a {@code Runnable} which replays the events, as fast as
 	 * possible.
 	 */
 	public Runnable replayFast() {
-		return new ReplayFast();
+		return new Replay(false);
 	}
 
-	// Replays the events, timed the same as the original events
-	private class ReplayTimed implements Runnable {
+	// opens the entries to be replayed, starting with the block containing
+	// from if possible (setting state to its keyframe)
+	private LogEntryReader openEntries(ExecutorService decoder, long from,
+			ReplayState state) throws IOException {
 
-		@Override
-		public void run() {
+		if (logFile == null)
+			return new ListLogReader(logEntries);
 
-			// the robot used to simulate keyboard and mouse events
-			Robot robot;
-			try {
-				robot = new Robot();
-			} catch (AWTException ex) {
-				logger.error("Failed to initialise input control!", ex);
-				return;
-			}
+		AbstractLogEntryReader source = LogFormat.open(logFile);
 
-			running = true;
+		if (from != Long.MIN_VALUE && source instanceof BinaryLogReader) {
 
-			// simulate each logged event
-			for (int i = 0; running && i < logEntries.size(); i++) {
-				// NOTE it is assumed that the log entries are in chronological order
+			Keyframe keyframe = ((BinaryLogReader) source).seek(from);
 
-				long startTime = System.currentTimeMillis();
+			if (keyframe != null) {
+				state.restore(keyframe);
+			} else {
 
-				simEvent(robot, logEntries.get(i).getEvent());
+				// NOTE no keyframes, so the entries before from are tracked
+				source.close();
+				source = LogFormat.open(logFile);
 
-				long timeTaken = System.currentTimeMillis() - startTime;
+			}
 
-				// time the next event correctly
-				if ((i + 1) < logEntries.size()) {
+		}
 
-					long delayTime = logEntries.get(i + 1).getTimestamp() - logEntries.get(i).getTimestamp();
-					delayTime -= timeTaken; // compensate for time taken simulating event
+		// NOTE small batches, so the replay starts as soon as the first is decoded
+		return new ParallelLogReader(source, decoder, READ_BATCH_SIZE, READ_AHEAD);
 
-					if (delayTime > 0) {
+	}
 
-						try {
-							Thread.sleep((int) delayTime);
-						} catch (InterruptedException ex) { }
+	// whether the event only moves the pointer (so is superseded by later motion)
+	private static boolean isMotion(LogEvent event) {
+		return event instanceof MouseMovedEvent || event instanceof MouseDraggedEvent;
+	}
 
-					}
+	// simulates the input needed to reach the given state (from nothing held)
+	private static void restoreState(ReplaySink sink, ReplayState state) {
 
-				}
+		if (state.isPositioned())
+			sink.mouseMove(state.getX(), state.getY());
 
-				// wait for the event to finish
-				robot.waitForIdle();
+		if (state.getButtons() != 0)
+			sink.mousePress(state.getButtons());
 
-			}
+		for (int key : state.toKeyframe().getKeys())
+			sink.keyPress(key);
 
-			notifyFinished();
+	}
 
-		}
+	// releases the held buttons and keys of the given state
+	private static void releaseState(ReplaySink sink, ReplayState state) {
+
+		if (state.getButtons() != 0)
+			sink.mouseRelease(state.getButtons());
+
+		for (int key : state.toKeyframe().getKeys())
+			sink.keyRelease(key);
 
 	}
 
-	// Replays the events, aas fast as possible
-	private class ReplayFast implements Runnable {
+	// Replays the events, either timed the same as the original events or as
+	// fast as possible
+	private class Replay implements Runnable {
+
+		private final boolean timed;
+
+		public Replay(boolean timed) {
+			this.timed = timed;
+		}
 
 		@Override
 		public void run() {
 
-			// the robot used to simulate keyboard and mouse events
-			Robot robot;
-			try {
-				robot = new Robot();
-			} catch (AWTException ex) {
-				logger.error("Failed to initialise input control!", ex);
-				return;
+			ReplaySink sink = ReplayTool.this.sink;
+			ReplayTimings timings = ReplayTool.this.timings;
+
+			SyncPolicy sync = ReplayTool.this.sync;
+
+			// simulate keyboard and mouse events with a robot by default
+			if (sink == null) {
+
+				try {
+					sink = new RobotReplaySink(new Robot());
+				} catch (AWTException ex) {
+					logger.error("Failed to initialise input control!", ex);
+					return;
+				}
+
 			}
 
+			ExecutorService decoder = Executors.newSingleThreadExecutor(
+				new DaemonThreadFactory("Replay decoder")
+			);
+
 			running = true;
+			skipped = 0;
+			scheduler.start();
+
+			// the input state, as replayed
+			ReplayState state = new ReplayState();
+			long from = ReplayTool.this.from;
+			long to = ReplayTool.this.to;
+
+			try (LogEntryReader reader = openEntries(decoder, from, state)) {
+
+				boolean restored = from == Long.MIN_VALUE;
+				long lastTimestamp = Long.MIN_VALUE;
+
+				// whether to check the order of the entries
+				// NOTE a log marked as sorted (by LogSorter) is trusted
+				boolean checkOrder = !(reader instanceof ParallelLogReader
+					&& ((ParallelLogReader) reader).isSorted());
+
+				// the input sent since the last sync
+				int unsynced = 0;
+				long lastSync = System.nanoTime();
+
+				try {
+
+					// simulate each logged event
+					// NOTE it is assumed that the log entries are in chronological order
+					// NOTE the next entry is read ahead, to know if a move is superseded
+					LogEntry next = reader.read();
+					while (running && next != null) {
+
+						LogEntry logEntry = next;
+						next = reader.read();
+
+						// NOTE earlier entries are replayed immediately, so warn (once)
+						if (checkOrder && logEntry.getTimestamp() < lastTimestamp) {
+							logger.warning(
+								"Replayed log is not in chronological order, so earlier "
+								+ "entries are replayed late; sort it first (LogTool sort)."
+							);
+							checkOrder = false;
+						}
+						lastTimestamp = logEntry.getTimestamp();
+
+						// track the state up to the start of the range, without replaying
+						if (logEntry.getTimestamp() < from) {
+							dispatcher.replay(state, logEntry.getEvent());
+							continue;
+						}
+
+						// the end of the range
+						if (logEntry.getTimestamp() > to)
+							break;
+
+						if (!restored) {
+							restoreState(sink, state);
+							restored = true;
+							unsynced++;
+						}
+
+						boolean discrete = !isMotion(logEntry.getEvent());
+
+						// the time the event is due (relative to the replay start)
+						long deadline = 0;
+						if (timed) {
+
+							deadline = scheduler.deadline(logEntry.getTimestamp());
+
+							// skip late motion, when the next motion is already due
+							if (catchUp && isMotion(logEntry.getEvent()) && next != null
+									&& isMotion(next.getEvent()) && next.getTimestamp() <= to
+									&& scheduler.deadline(next.getTimestamp()) <= System.nanoTime()) {
 
-			// simulate each logged event
-			for (int i = 0; running && i < logEntries.size(); i++) {
-				// NOTE it is assumed that the log entries are in chronological order
+								dispatcher.replay(state, logEntry.getEvent());
+								skipped++;
 
-				simEvent(robot, logEntries.get(i).getEvent());
+								continue;
 
-				// wait for the event to finish before continuing
-				robot.waitForIdle();
+							}
+
+						}
+
+						// wait for the earlier input to finish (i.e. the moves before a press)
+						// NOTE before waiting for the deadline, so the sync overlaps the wait
+						if (sync.isDueBefore(unsynced, discrete)) {
+							sink.sync();
+							unsynced = 0;
+							lastSync = System.nanoTime();
+						}
+
+						if (timed && !scheduler.awaitDeadline(deadline))
+							break;
+
+						ReplayEvent replayEvent = new ReplayEvent();
+						replayEvent.begin();
+
+						long injected = System.nanoTime();
+
+						simEvent(sink, logEntry.getEvent());
+						dispatcher.replay(state, logEntry.getEvent());
+						unsynced++;
+
+						// wait for the event to finish
+						// NOTE when timed, the time taken is made up before the next deadline
+						boolean synced = sync.isDueAfter(unsynced, System.nanoTime() - lastSync, discrete);
+						if (synced) {
+							sink.sync();
+							unsynced = 0;
+							lastSync = System.nanoTime();
+						}
+
+						if (replayEvent.shouldCommit()) {
+							replayEvent.eventType = logEntry.getEvent().type();
+							replayEvent.lateness = timed ? Math.max(injected - deadline, 0) : 0;
+							replayEvent.synced = synced;
+							replayEvent.commit();
+						}
+
+						if (timings != null) {
+
+							// NOTE untimed events are due when injected
+							timings.record(
+								logEntry.getTimestamp(), timed ? deadline : injected,
+								injected, System.nanoTime()
+							);
+
+						}
+
+					}
+
+				} finally {
+
+					// leave nothing held, however the replay ends (i.e. when stopped)
+					if (restored) {
+						releaseState(sink, state);
+						unsynced++;
+					}
+
+					// finish with all of the input handled
+					if (unsynced > 0)
+						sink.sync();
+
+				}
 
+			} catch (IOException ex) {
+				logger.error("Failed to read the replayed log!", ex);
+			} finally {
+				decoder.shutdownNow();
 			}
 
 			notifyFinished();
@@ -329,6 +596,7 @@ public final class ReplayTool {
 	 */
 	public void stop() {
 		running = false;
+		scheduler.cancel();
 	}
 
 }
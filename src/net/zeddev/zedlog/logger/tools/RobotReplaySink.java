@@ -0,0 +1,84 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.Robot;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Replays input to the screen using {@code java.awt.Robot}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class RobotReplaySink implements ReplaySink {
+
+	private final Robot robot;
+
+	/**
+	 * Creates a new {@code RobotReplaySink}.
+	 *
+	 * @param robot The robot used to simulate input (must not be {@code null}).
+	 */
+	public RobotReplaySink(final Robot robot) {
+
+		requireNotNull(robot);
+
+		this.robot = robot;
+
+	}
+
+	/** Returns the robot used to simulate input. */
+	public Robot getRobot() {
+		return robot;
+	}
+
+	@Override
+	public void mouseMove(int x, int y) {
+		robot.mouseMove(x, y);
+	}
+
+	@Override
+	public void mousePress(int buttons) {
+		robot.mousePress(buttons);
+	}
+
+	@Override
+	public void mouseRelease(int buttons) {
+		robot.mouseRelease(buttons);
+	}
+
+	@Override
+	public void mouseWheel(int rotation) {
+		robot.mouseWheel(rotation);
+	}
+
+	@Override
+	public void keyPress(int keyCode) {
+		robot.keyPress(keyCode);
+	}
+
+	@Override
+	public void keyRelease(int keyCode) {
+		robot.keyRelease(keyCode);
+	}
+
+	@Override
+	public void sync() {
+		robot.waitForIdle();
+	}
+
+}
@@ -0,0 +1,468 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.DataLoggerObserver;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEvent;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Streaming statistics of a logging session.
+ * For each {@code DataLogger} type (and all types together) the event count,
+ * mean and peak rate, the distribution of the number of events per window and
+ * the distribution of the gaps between events are kept.  Memory use is fixed,
+ * whatever the length of the session, as the distributions are kept in
+ * {@code LogHistogram}s.
+ *
+ * <p>Entries may be added live, by observing a {@code CompositeDataLogger},
+ * or offline from a saved log using {@code add()}.</p>
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class SessionStats implements DataLoggerObserver {
+
+	/** The name the totals over all types are reported under. */
+	public static final String ALL = "All";
+
+	/** The default rate window, in milliseconds. */
+	public static final long DEFAULT_WINDOW = 1000;
+
+	// the percentiles reported
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	private final long window;
+
+	private final Map<String, TypeStats> types = new TreeMap<>();
+	private final TypeStats all = new TypeStats(ALL);
+
+	/**
+	 * Creates empty session statistics.
+	 *
+	 * @param window The window the peak rates are measured over, in
+	 * milliseconds.
+	 */
+	public SessionStats(final long window) {
+
+		require(window > 0);
+
+		this.window = window;
+
+	}
+
+	/** Creates empty session statistics, measuring peak rates per second. */
+	public SessionStats() {
+		this(DEFAULT_WINDOW);
+	}
+
+	/** Returns the window the peak rates are measured over, in milliseconds. */
+	public long getWindow() {
+		return window;
+	}
+
+	/**
+	 * Returns the {@code DataLogger} type which would have logged an entry.
+	 * Saved logs do not record the logger, so the type is found from the event.
+	 *
+	 * @param logEntry The log entry.
+	 * @return The logger type (i.e. {@code "MouseClick"}).
+	 */
+	public static String loggerType(final LogEntry logEntry) {
+
+		requireNotNull(logEntry);
+
+		DataLogger parent = logEntry.getParent();
+		if (parent != null && !(parent instanceof CompositeDataLogger))
+			return parent.type();
+
+		LogEvent event = logEntry.getEvent();
+
+		if (event instanceof KeyEvent) {
+
+			switch (((KeyEvent) event).getEventType()) {
+				case PRESSED:
+					return "KeyPressed";
+				case RELEASED:
+					return "KeyReleased";
+				default:
+					return "CharTyped";
+			}
+
+		} else if (event instanceof MouseMovedEvent) {
+			return "MouseMovement";
+		} else if (event instanceof MouseDraggedEvent) {
+			return "MouseDrag";
+		} else if (event instanceof MouseClickedEvent) {
+			return "MouseClick";
+		} else if (event instanceof MousePressedEvent) {
+			return "MousePressed";
+		} else if (event instanceof MouseReleasedEvent) {
+			return "MouseRelease";
+		} else if (event instanceof MouseWheelMovedEvent) {
+			return "MouseWheel";
+		} else {
+			return event != null ? event.type() : "Unknown";
+		}
+
+	}
+
+	/**
+	 * Adds a log entry to the statistics.
+	 *
+	 * @param logEntry The log entry.
+	 */
+	public void add(final LogEntry logEntry) {
+		add(loggerType(logEntry), logEntry.getTimestamp());
+	}
+
+	/**
+	 * Adds an event to the statistics.
+	 *
+	 * @param type The logger type of the event.
+	 * @param timestamp The time of the event, in milliseconds.
+	 */
+	public synchronized void add(final String type, final long timestamp) {
+
+		requireNotNull(type);
+
+		TypeStats stats = types.get(type);
+		if (stats == null) {
+			stats = new TypeStats(type);
+			types.put(type, stats);
+		}
+
+		stats.add(timestamp);
+		all.add(timestamp);
+
+	}
+
+	/** Removes all entries from the statistics. */
+	public synchronized void clear() {
+		types.clear();
+		all.reset();
+	}
+
+	@Override
+	public void notifyLog(final DataLogger logger, final LogEntry logEntry) {
+		add(logEntry);
+	}
+
+	/** Returns the types seen so far (not including {@code ALL}). */
+	public synchronized List<String> getTypes() {
+		return new ArrayList<>(types.keySet());
+	}
+
+	/** Returns whether there are events of the given type (or any, for {@code ALL}). */
+	public synchronized boolean contains(final String type) {
+		return ALL.equals(type) ? all.count > 0 : types.containsKey(type);
+	}
+
+	// returns the stats of the given type
+	private TypeStats stats(final String type) {
+
+		if (ALL.equals(type))
+			return all;
+
+		TypeStats stats = types.get(type);
+		if (stats == null)
+			throw new IllegalArgumentException(String.format("No %s events.", type));
+
+		return stats;
+
+	}
+
+	/** Returns the number of events of the given type. */
+	public synchronized long getCount(final String type) {
+		return stats(type).count;
+	}
+
+	/** Returns the time of the earliest event, in milliseconds. */
+	public synchronized long getFirst(final String type) {
+		return stats(type).first;
+	}
+
+	/** Returns the time of the latest event, in milliseconds. */
+	public synchronized long getLast(final String type) {
+		return stats(type).last;
+	}
+
+	/** Returns the number of events out of chronological order. */
+	public synchronized long getOutOfOrder(final String type) {
+		return stats(type).outOfOrder;
+	}
+
+	/** Returns the time from the earliest to the latest event, in milliseconds. */
+	public synchronized long getDuration(final String type) {
+		return stats(type).duration();
+	}
+
+	/** Returns the mean rate of events, in events per second. */
+	public synchronized double getMeanRate(final String type) {
+		return stats(type).meanRate();
+	}
+
+	/** Returns the most events in any one window. */
+	public synchronized long getPeakCount(final String type) {
+		return stats(type).peakCount();
+	}
+
+	/** Returns a copy of the distribution of the gaps between events, in ms. */
+	public synchronized LogHistogram getGaps(final String type) {
+
+		LogHistogram copy = new LogHistogram();
+		copy.add(stats(type).gaps);
+
+		return copy;
+
+	}
+
+	/** Returns a copy of the distribution of events per (completed) window. */
+	public synchronized LogHistogram getWindowCounts(final String type) {
+
+		LogHistogram copy = new LogHistogram();
+		copy.add(stats(type).windowCounts);
+
+		return copy;
+
+	}
+
+	// returns the stats in report order, with the totals last
+	private List<TypeStats> reportStats() {
+
+		List<TypeStats> report = new ArrayList<>(types.values());
+		report.add(all);
+
+		return report;
+
+	}
+
+	/**
+	 * Writes a human readable report of the statistics.
+	 *
+	 * @param output The output to write to.
+	 */
+	public synchronized void writeText(final Writer output) {
+
+		requireNotNull(output);
+
+		PrintWriter printer = new PrintWriter(output);
+
+		printer.printf(
+			"%-14s %10s %10s %10s %12s   %s\n",
+			"Type", "Events", "Mean/s", "Peak/s", "Duration s",
+			"Gap ms (p50 p90 p99 p99.9 max)"
+		);
+
+		for (TypeStats stats : reportStats()) {
+
+			printer.printf(
+				"%-14s %10d %10.2f %10.2f %12.3f  ",
+				stats.type, stats.count, stats.meanRate(),
+				stats.peakCount() * 1000.0 / window, stats.duration() / 1000.0
+			);
+
+			for (double percentile : PERCENTILES)
+				printer.printf(" %d", stats.gaps.getPercentile(percentile));
+
+			printer.printf(" %d\n", stats.gaps.getMax());
+
+		}
+
+		if (all.outOfOrder > 0)
+			printer.printf("%d events were out of order.\n", all.outOfOrder);
+
+		printer.flush();
+
+	}
+
+	/**
+	 * Writes the statistics as CSV, with one row per logger type and a final
+	 * row for all types.
+	 *
+	 * @param output The output to write to.
+	 */
+	public synchronized void writeCsv(final Writer output) {
+
+		requireNotNull(output);
+
+		PrintWriter printer = new PrintWriter(output);
+
+		printer.print("type,events,first,last,out_of_order,mean_rate,window_ms,");
+		printer.print("peak_count,peak_start,window_p50,window_p99,");
+		printer.println("gap_mean,gap_p50,gap_p90,gap_p99,gap_p999,gap_max");
+
+		for (TypeStats stats : reportStats()) {
+
+			printer.printf(
+				"%s,%d,%d,%d,%d,%.3f,%d,%d,%d,%d,%d,%.3f",
+				stats.type, stats.count, stats.first, stats.last,
+				stats.outOfOrder, stats.meanRate(), window,
+				stats.peakCount(), stats.peakStart(),
+				stats.windowCounts.getPercentile(50),
+				stats.windowCounts.getPercentile(99),
+				stats.gaps.getMean()
+			);
+
+			for (double percentile : PERCENTILES)
+				printer.printf(",%d", stats.gaps.getPercentile(percentile));
+
+			printer.printf(",%d\n", stats.gaps.getMax());
+
+		}
+
+		printer.flush();
+
+	}
+
+	// the statistics of a single type of event
+	private final class TypeStats {
+
+		private final String type;
+
+		private long count;
+		private long outOfOrder;
+
+		// the earliest and latest events
+		// NOTE the latest is also the time gaps are measured from, as
+		//	  events out of order are not counted as gaps
+		private long first;
+		private long last;
+
+		// the current window, and the most events in a window
+		private long windowIndex;
+		private long windowCount;
+		private long peakCount;
+		private long peakIndex;
+
+		private final LogHistogram gaps = new LogHistogram();
+		private final LogHistogram windowCounts = new LogHistogram();
+
+		public TypeStats(final String type) {
+			this.type = type;
+			reset();
+		}
+
+		public void reset() {
+
+			count = 0;
+			first = 0;
+			last = 0;
+			outOfOrder = 0;
+			windowIndex = 0;
+			windowCount = 0;
+			peakCount = 0;
+			peakIndex = 0;
+
+			gaps.reset();
+			windowCounts.reset();
+
+		}
+
+		public void add(final long timestamp) {
+
+			if (count == 0) {
+
+				first = timestamp;
+				last = timestamp;
+				windowIndex = timestamp / window;
+
+			} else if (timestamp < last) {
+
+				// NOTE counted in its window, but not as a gap, so the gaps
+				// are never negative
+				outOfOrder++;
+				first = Math.min(first, timestamp);
+
+			} else {
+
+				gaps.record(timestamp - last);
+				last = timestamp;
+
+				long index = timestamp / window;
+				if (index > windowIndex) {
+
+					closeWindow();
+
+					// the windows in between had no events
+					windowCounts.record(0, index - windowIndex - 1);
+
+					windowIndex = index;
+					windowCount = 0;
+
+				}
+
+			}
+
+			windowCount++;
+			count++;
+
+		}
+
+		// records the current window
+		private void closeWindow() {
+
+			windowCounts.record(windowCount);
+
+			if (windowCount > peakCount) {
+				peakCount = windowCount;
+				peakIndex = windowIndex;
+			}
+
+		}
+
+		public long duration() {
+			return last - first;
+		}
+
+		public double meanRate() {
+
+			double mean = count * 1000.0 / Math.max(duration(), 1);
+
+			// NOTE the span of a short session understates its duration (i.e.
+			//	  a single event has none), so the mean never exceeds the peak
+			return Math.min(mean, peakCount() * 1000.0 / window);
+
+		}
+
+		// the peak includes the current, unfinished, window
+		public long peakCount() {
+			return Math.max(peakCount, windowCount);
+		}
+
+		public long peakStart() {
+			return (windowCount > peakCount ? windowIndex : peakIndex) * window;
+		}
+
+	}
+
+}
@@ -0,0 +1,157 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import net.zeddev.zedlog.util.PolicySpec;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * How often a replay waits for its input to be handled (see
+ * {@code ReplaySink.sync()}).
+ * Synchronising with a robot is a round trip through the AWT event queue, so
+ * syncing after every event limits the replay rate.  A policy may sync every
+ * given number of events, every given interval, and/or around discrete events
+ * (presses, releases, keys and the wheel); whichever comes first.  Policies
+ * are immutable.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class SyncPolicy {
+
+	/** Syncs after every event (the most faithful, and slowest, policy). */
+	public static final SyncPolicy EACH_EVENT = new SyncPolicy(1, 0, false);
+
+	/** Syncs before and after each discrete event only. */
+	public static final SyncPolicy DISCRETE = new SyncPolicy(0, 0, true);
+
+	/** Never syncs (except once the replay has finished). */
+	public static final SyncPolicy NONE = new SyncPolicy(0, 0, false);
+
+	private final int events;
+	private final long interval;
+	private final boolean discrete;
+
+	/**
+	 * Creates a new {@code SyncPolicy}.
+	 *
+	 * @param events The number of events between syncs (0 to not count events).
+	 * @param interval The longest time between syncs, in milliseconds (0 to not
+	 * time syncs).
+	 * @param discrete Whether to sync before and after each discrete event.
+	 */
+	public SyncPolicy(int events, long interval, boolean discrete) {
+
+		require(events >= 0);
+		require(interval >= 0);
+
+		this.events = events;
+		this.interval = interval;
+		this.discrete = discrete;
+
+	}
+
+	/**
+	 * Returns the policy described by the given string.
+	 * The string is either "each", "none", or one or more of "discrete",
+	 * {@code <n>} (events) and {@code <n>ms} joined with '+' (i.e.
+	 * "discrete+50ms"), each given at most once.
+	 *
+	 * @param policy The description of the policy (must not be {@code null}).
+	 * @return The policy.
+	 * @throws IllegalArgumentException If the description is not valid.
+	 */
+	public static SyncPolicy parse(String policy) {
+
+		requireNotNull(policy);
+
+		if (policy.equals("each"))
+			return EACH_EVENT;
+		else if (policy.equals("none"))
+			return NONE;
+
+		PolicySpec spec = PolicySpec.parse("sync", policy, "discrete");
+
+		return new SyncPolicy(spec.getCount(), spec.getInterval(), spec.hasKeyword("discrete"));
+
+	}
+
+	/** Returns the number of events between syncs (0 if not counted). */
+	public int getEvents() {
+		return events;
+	}
+
+	/** Returns the longest time between syncs, in milliseconds (0 if not timed). */
+	public long getInterval() {
+		return interval;
+	}
+
+	/** Returns whether to sync before and after each discrete event. */
+	public boolean isDiscrete() {
+		return discrete;
+	}
+
+	/**
+	 * Returns whether to sync before replaying an event.
+	 *
+	 * @param unsynced The number of events replayed since the last sync.
+	 * @param discrete Whether the event is discrete.
+	 * @return Whether to sync first.
+	 */
+	public boolean isDueBefore(int unsynced, boolean discrete) {
+		return this.discrete && discrete && unsynced > 0;
+	}
+
+	/**
+	 * Returns whether to sync after replaying an event.
+	 *
+	 * @param unsynced The number of events replayed since the last sync
+	 * (including this event).
+	 * @param elapsed The time since the last sync, in nanoseconds.
+	 * @param discrete Whether the event is discrete.
+	 * @return Whether to sync.
+	 */
+	public boolean isDueAfter(int unsynced, long elapsed, boolean discrete) {
+		return (events > 0 && unsynced >= events)
+			|| (interval > 0 && elapsed >= TimeUnit.MILLISECONDS.toNanos(interval))
+			|| (this.discrete && discrete);
+	}
+
+	@Override
+	public String toString() {
+
+		if (events == 1 && interval == 0 && !discrete)
+			return "each";
+		else if (events == 0 && interval == 0 && !discrete)
+			return "none";
+
+		StringBuilder policy = new StringBuilder();
+
+		if (discrete)
+			policy.append("discrete");
+
+		if (events > 0)
+			policy.append(policy.length() > 0 ? "+" : "").append(events);
+
+		if (interval > 0)
+			policy.append(policy.length() > 0 ? "+" : "").append(interval).append("ms");
+
+		return policy.toString();
+
+	}
+
+}
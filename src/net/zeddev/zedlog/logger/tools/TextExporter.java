@@ -0,0 +1,166 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Exports the messages of a log as plain text.
+ * Entries are streamed from the reader and written in chunks, so memory use
+ * does not depend on the size of the log.  The messages of consecutive
+ * entries from the same logger are joined, while a change of logger starts a
+ * new line.
+ * <p>
+ * An export may be cancelled from any thread, taking effect at the end of
+ * the current chunk.  Subclasses may override {@code progress()} to report
+ * the progress of an export.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class TextExporter {
+
+	/** The default number of entries written in each chunk. */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+	private final int chunkSize;
+
+	private volatile boolean cancelled = false;
+	private volatile long entriesWritten = 0;
+
+	/**
+	 * Creates a new {@code TextExporter}.
+	 *
+	 * @param chunkSize The number of entries written in each chunk (must be
+	 * positive).
+	 */
+	public TextExporter(int chunkSize) {
+
+		require(chunkSize > 0);
+
+		this.chunkSize = chunkSize;
+
+	}
+
+	/** Creates a new {@code TextExporter}, with the default chunk size. */
+	public TextExporter() {
+		this(DEFAULT_CHUNK_SIZE);
+	}
+
+	/** Returns the number of entries written in each chunk. */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/** Returns the number of entries written by the current (or last) export. */
+	public long getEntriesWritten() {
+		return entriesWritten;
+	}
+
+	/** Cancels the current (and any later) export, at the end of its chunk. */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/** Returns whether the export has been cancelled. */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Called after each chunk has been written.
+	 * Does nothing by default.
+	 *
+	 * @param entriesWritten The number of entries written so far.
+	 */
+	protected void progress(long entriesWritten) {
+	}
+
+	/**
+	 * Writes the messages of the read entries to the given output.
+	 * Neither the reader nor the output is closed.
+	 *
+	 * @param reader The entries to export.
+	 * @param output The output to write the text to.
+	 * @return Whether every entry was written (i.e. the export was not
+	 * cancelled).
+	 * @throws IOException If reading or writing fails.
+	 */
+	public boolean export(LogEntryReader reader, Writer output) throws IOException {
+
+		requireNotNull(reader);
+		requireNotNull(output);
+
+		entriesWritten = 0;
+
+		StringBuilder chunk = new StringBuilder();
+		DataLogger lastLogger = null;
+		boolean atLineStart = true;
+		int chunkEntries = 0;
+
+		LogEntry logEntry;
+		while (!cancelled && (logEntry = reader.read()) != null) {
+
+			String message = logEntry.getMessage();
+
+			// separate the messages of different loggers
+			if (logEntry.getParent() != lastLogger) {
+
+				if (lastLogger != null && !atLineStart)
+					chunk.append('\n');
+
+				lastLogger = logEntry.getParent();
+
+			}
+
+			chunk.append(message);
+			atLineStart = message.endsWith("\n");
+
+			if (++chunkEntries == chunkSize) {
+				writeChunk(chunk, chunkEntries, output);
+				chunkEntries = 0;
+			}
+
+		}
+
+		writeChunk(chunk, chunkEntries, output);
+		output.flush();
+
+		return !cancelled;
+
+	}
+
+	// writes the chunk of text to the output, reporting the progress
+	private void writeChunk(StringBuilder chunk, int chunkEntries, Writer output)
+			throws IOException {
+
+		if (chunkEntries == 0)
+			return;
+
+		output.append(chunk);
+		chunk.setLength(0);
+
+		entriesWritten += chunkEntries;
+		progress(entriesWritten);
+
+	}
+
+}
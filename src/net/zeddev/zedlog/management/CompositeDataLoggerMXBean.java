@@ -0,0 +1,34 @@
+package net.zeddev.zedlog.management;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.List;
+
+/**
+ * The management interface of a {@code CompositeDataLogger}.
+ * Pausing or resuming the composite pauses or resumes every child.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface CompositeDataLoggerMXBean extends DataLoggerMXBean {
+
+	/** Returns the types of the child loggers, in the order added. */
+	public List<String> getLoggerTypes();
+
+	/** Returns the number of entries held in memory. */
+	public int getHeldEntryCount();
+
+}
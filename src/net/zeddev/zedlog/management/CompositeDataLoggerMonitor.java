@@ -0,0 +1,66 @@
+package net.zeddev.zedlog.management;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.tools.SessionStats;
+
+/**
+ * Exposes a {@code CompositeDataLogger}, and the statistics of all its
+ * entries, for management.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class CompositeDataLoggerMonitor extends DataLoggerMonitor
+		implements CompositeDataLoggerMXBean {
+
+	private final CompositeDataLogger loggers;
+
+	/**
+	 * Creates a new {@code CompositeDataLoggerMonitor}.
+	 *
+	 * @param loggers The composite logger monitored (must not be {@code null}).
+	 * @param stats The statistics of the session (must not be {@code null}).
+	 */
+	public CompositeDataLoggerMonitor(final CompositeDataLogger loggers, final SessionStats stats) {
+
+		super(loggers, stats, SessionStats.ALL);
+
+		this.loggers = loggers;
+
+	}
+
+	@Override
+	public List<String> getLoggerTypes() {
+
+		List<String> types = new ArrayList<>();
+		for (DataLogger dataLogger : loggers.getLoggers())
+			types.add(dataLogger.type());
+
+		return types;
+
+	}
+
+	@Override
+	public int getHeldEntryCount() {
+		return loggers.entryCount();
+	}
+
+}
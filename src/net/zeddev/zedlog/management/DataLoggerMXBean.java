@@ -0,0 +1,64 @@
+package net.zeddev.zedlog.management;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * The management interface of a {@code DataLogger}.
+ * The statistics are those of the session (see {@code SessionStats}), so
+ * loggers of the same type share them.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface DataLoggerMXBean {
+
+	/** Returns the type name of the logger. */
+	public String getType();
+
+	/** Returns whether the logger is recording. */
+	public boolean isRecording();
+
+	/**
+	 * Sets whether the logger is recording.
+	 *
+	 * @param recording Whether to record.
+	 */
+	public void setRecording(boolean recording);
+
+	/** Pauses recording. */
+	public void pause();
+
+	/** Resumes recording. */
+	public void resume();
+
+	/** Returns the number of entries made this session. */
+	public long getEntryCount();
+
+	/** Returns the mean rate of entries this session, in entries per second. */
+	public double getMeanRate();
+
+	/** Returns the peak rate of entries (in any one window), in entries per second. */
+	public double getPeakRate();
+
+	/** Returns the time of the latest entry, in milliseconds since the epoch (0 if none). */
+	public long getLastEntryTime();
+
+	/** Returns the number of entries waiting to be delivered to the observers. */
+	public int getQueueLength();
+
+	/** Returns the number of entries dropped as the notification queue was full. */
+	public long getDroppedCount();
+
+}
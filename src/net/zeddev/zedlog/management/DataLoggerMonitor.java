@@ -0,0 +1,155 @@
+package net.zeddev.zedlog.management;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.zeddev.zedlog.logger.AbstractDataLogger;
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.tools.SessionStats;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Exposes a {@code DataLogger}, and its session statistics, for management.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class DataLoggerMonitor implements DataLoggerMXBean {
+
+	private final DataLogger dataLogger;
+	private final SessionStats stats;
+
+	// the type of the logger's statistics
+	private final String statsType;
+
+	/**
+	 * Creates a new {@code DataLoggerMonitor}.
+	 *
+	 * @param dataLogger The logger monitored (must not be {@code null}).
+	 * @param stats The statistics of the session (must not be {@code null}).
+	 */
+	public DataLoggerMonitor(final DataLogger dataLogger, final SessionStats stats) {
+		this(dataLogger, stats, dataLogger.type());
+	}
+
+	/**
+	 * Creates a new {@code DataLoggerMonitor}.
+	 *
+	 * @param dataLogger The logger monitored (must not be {@code null}).
+	 * @param stats The statistics of the session (must not be {@code null}).
+	 * @param statsType The type of the logger's statistics (must not be
+	 * {@code null}).
+	 */
+	protected DataLoggerMonitor(final DataLogger dataLogger, final SessionStats stats,
+			final String statsType) {
+
+		requireNotNull(dataLogger);
+		requireNotNull(stats);
+		requireNotNull(statsType);
+
+		this.dataLogger = dataLogger;
+		this.stats = stats;
+		this.statsType = statsType;
+
+	}
+
+	@Override
+	public String getType() {
+		return dataLogger.type();
+	}
+
+	@Override
+	public boolean isRecording() {
+		return dataLogger.isRecording();
+	}
+
+	@Override
+	public void setRecording(boolean recording) {
+		dataLogger.setRecording(recording);
+	}
+
+	@Override
+	public void pause() {
+		setRecording(false);
+	}
+
+	@Override
+	public void resume() {
+		setRecording(true);
+	}
+
+	@Override
+	public long getEntryCount() {
+
+		synchronized (stats) {
+			return stats.contains(statsType) ? stats.getCount(statsType) : 0;
+		}
+
+	}
+
+	@Override
+	public double getMeanRate() {
+
+		synchronized (stats) {
+			return stats.contains(statsType) ? stats.getMeanRate(statsType) : 0.0;
+		}
+
+	}
+
+	@Override
+	public double getPeakRate() {
+
+		synchronized (stats) {
+
+			if (!stats.contains(statsType))
+				return 0.0;
+
+			return stats.getPeakCount(statsType) * 1000.0 / stats.getWindow();
+
+		}
+
+	}
+
+	@Override
+	public long getLastEntryTime() {
+
+		synchronized (stats) {
+			return stats.contains(statsType) ? stats.getLast(statsType) : 0;
+		}
+
+	}
+
+	// NOTE only an AbstractDataLogger queues its notifications
+
+	@Override
+	public int getQueueLength() {
+
+		if (dataLogger instanceof AbstractDataLogger)
+			return ((AbstractDataLogger) dataLogger).getQueueLength();
+
+		return 0;
+
+	}
+
+	@Override
+	public long getDroppedCount() {
+
+		if (dataLogger instanceof AbstractDataLogger)
+			return ((AbstractDataLogger) dataLogger).getDroppedCount();
+
+		return 0;
+
+	}
+
+}
@@ -0,0 +1,43 @@
+package net.zeddev.zedlog.management;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * The management interface of the log file of a {@code CompositeDataLogger}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public interface LogFileMXBean {
+
+	/** Returns the path of the log file (or {@code null} if not set). */
+	public String getPath();
+
+	/** Returns the size of the log file, in bytes (0 if not set). */
+	public long getSize();
+
+	/** Returns the time the log file was last written, in milliseconds since the epoch (0 if never). */
+	public long getLastFlushTime();
+
+	/** Returns the time since the log file was last written, in milliseconds (-1 if never). */
+	public long getMillisSinceFlush();
+
+	/** Returns the number of times the log file has been written. */
+	public long getFlushCount();
+
+	/** Returns the number of entries not yet written to the log file. */
+	public int getUnflushedCount();
+
+}
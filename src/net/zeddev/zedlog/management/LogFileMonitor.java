@@ -0,0 +1,88 @@
+package net.zeddev.zedlog.management;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Exposes the log file of a {@code CompositeDataLogger} for management.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogFileMonitor implements LogFileMXBean {
+
+	private final CompositeDataLogger loggers;
+
+	/**
+	 * Creates a new {@code LogFileMonitor}.
+	 *
+	 * @param loggers The composite logger writing the log file (must not be
+	 * {@code null}).
+	 */
+	public LogFileMonitor(final CompositeDataLogger loggers) {
+
+		requireNotNull(loggers);
+
+		this.loggers = loggers;
+
+	}
+
+	@Override
+	public String getPath() {
+
+		File logFile = loggers.getLogFile();
+
+		return logFile != null ? logFile.getPath() : null;
+
+	}
+
+	@Override
+	public long getSize() {
+
+		File logFile = loggers.getLogFile();
+
+		return logFile != null ? logFile.length() : 0;
+
+	}
+
+	@Override
+	public long getLastFlushTime() {
+		return loggers.getLastFlushTime();
+	}
+
+	@Override
+	public long getMillisSinceFlush() {
+
+		long lastFlushTime = loggers.getLastFlushTime();
+
+		return lastFlushTime > 0 ? System.currentTimeMillis() - lastFlushTime : -1;
+
+	}
+
+	@Override
+	public long getFlushCount() {
+		return loggers.getFlushCount();
+	}
+
+	@Override
+	public int getUnflushedCount() {
+		return loggers.getUnflushedCount();
+	}
+
+}
@@ -0,0 +1,223 @@
+package net.zeddev.zedlog.management;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import net.zeddev.litelogger.Logger;
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.tools.SessionStats;
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * Registers the management beans of a {@code CompositeDataLogger}, its log
+ * file and its children with an {@code MBeanServer}.
+ * The beans are named in the {@code DOMAIN} domain, i.e.
+ * {@code net.zeddev.zedlog:type=DataLogger,name="CharTyped",id=1}, so that the
+ * recorder can be monitored (and paused) with standard JVM tooling.
+ * Registration failures are logged, and otherwise ignored.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class ManagementRegistry {
+
+	/** The domain of the bean names. */
+	public static final String DOMAIN = "net.zeddev.zedlog";
+
+	/** The name of the composite logger's bean. */
+	public static final ObjectName COMPOSITE_NAME = name("type=CompositeDataLogger");
+
+	/** The name of the log file's bean. */
+	public static final ObjectName LOG_FILE_NAME = name("type=LogFile");
+
+	private final Logger logger = Logger.getLogger(this);
+
+	private final MBeanServer server;
+	private final CompositeDataLogger loggers;
+	private final SessionStats stats;
+
+	// the names of the registered beans, by logger, and of the log file's bean
+	private final Map<DataLogger, ObjectName> names = new IdentityHashMap<>();
+	private ObjectName logFileName = null;
+
+	// the id of the next child logger bean
+	private int nextId = 1;
+
+	/**
+	 * Creates a new {@code ManagementRegistry}, registering with the platform
+	 * {@code MBeanServer}.
+	 *
+	 * @param loggers The composite logger (must not be {@code null}).
+	 * @param stats The statistics of the session (must not be {@code null}).
+	 */
+	public ManagementRegistry(final CompositeDataLogger loggers, final SessionStats stats) {
+		this(ManagementFactory.getPlatformMBeanServer(), loggers, stats);
+	}
+
+	/**
+	 * Creates a new {@code ManagementRegistry}.
+	 *
+	 * @param server The server to register with (must not be {@code null}).
+	 * @param loggers The composite logger (must not be {@code null}).
+	 * @param stats The statistics of the session (must not be {@code null}).
+	 */
+	public ManagementRegistry(final MBeanServer server, final CompositeDataLogger loggers,
+			final SessionStats stats) {
+
+		requireNotNull(server);
+		requireNotNull(loggers);
+		requireNotNull(stats);
+
+		this.server = server;
+		this.loggers = loggers;
+		this.stats = stats;
+
+	}
+
+	/**
+	 * Registers the beans of the composite logger, its log file and its
+	 * current children.
+	 */
+	public synchronized void registerAll() {
+
+		if (!names.containsKey(loggers)) {
+
+			ObjectName name = register(
+				new CompositeDataLoggerMonitor(loggers, stats), COMPOSITE_NAME
+			);
+
+			if (name != null)
+				names.put(loggers, name);
+
+		}
+
+		if (logFileName == null)
+			logFileName = register(new LogFileMonitor(loggers), LOG_FILE_NAME);
+
+		for (DataLogger dataLogger : loggers.getLoggers())
+			register(dataLogger);
+
+	}
+
+	/**
+	 * Registers the bean of a child logger (if not already registered).
+	 *
+	 * @param dataLogger The child logger (must not be {@code null}).
+	 * @return The name of the bean (or {@code null} if it failed to register).
+	 */
+	public synchronized ObjectName register(final DataLogger dataLogger) {
+
+		requireNotNull(dataLogger);
+
+		ObjectName name = names.get(dataLogger);
+		if (name != null)
+			return name;
+
+		name = register(
+			new DataLoggerMonitor(dataLogger, stats),
+			name(String.format(
+				"type=DataLogger,name=%s,id=%d",
+				ObjectName.quote(dataLogger.type()), nextId++
+			))
+		);
+
+		if (name != null)
+			names.put(dataLogger, name);
+
+		return name;
+
+	}
+
+	/**
+	 * Unregisters the bean of a child logger (if registered).
+	 *
+	 * @param dataLogger The child logger (must not be {@code null}).
+	 */
+	public synchronized void unregister(final DataLogger dataLogger) {
+
+		requireNotNull(dataLogger);
+
+		ObjectName name = names.remove(dataLogger);
+		if (name != null)
+			unregister(name);
+
+	}
+
+	/** Unregisters every bean registered. */
+	public synchronized void unregisterAll() {
+
+		List<ObjectName> registered = new ArrayList<>(names.values());
+		if (logFileName != null)
+			registered.add(logFileName);
+
+		names.clear();
+		logFileName = null;
+
+		for (ObjectName name : registered)
+			unregister(name);
+
+	}
+
+	// registers the bean, returning its name (or null if it failed)
+	private ObjectName register(final Object bean, final ObjectName name) {
+
+		try {
+
+			server.registerMBean(bean, name);
+
+			return name;
+
+		} catch (JMException ex) {
+			logger.warning(String.format("Failed to register management bean %s.", name));
+			return null;
+		}
+
+	}
+
+	// unregisters the bean with the given name
+	private void unregister(final ObjectName name) {
+
+		try {
+			server.unregisterMBean(name);
+		} catch (JMException ex) {
+			logger.warning(String.format("Failed to unregister management bean %s.", name));
+		}
+
+	}
+
+	// returns the bean name with the given properties, in the domain
+	private static ObjectName name(final String properties) {
+
+		try {
+			return new ObjectName(DOMAIN + ":" + properties);
+		} catch (MalformedObjectNameException ex) {
+			// NOTE the types of logger are quoted
+			throw new IllegalArgumentException(ex);
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+package net.zeddev.zedlog.management.jfr;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.LogEntry;
+
+/**
+ * A flight recorder event covering an input callback, from its entry to the
+ * {@code LogEntry} being queued for notification.
+ * Begun on entry to the callback, and committed with {@code captured()}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@Name("net.zeddev.zedlog.Capture")
+@Label("Input Capture")
+@Category({"ZedLog", "Capture"})
+@Description("An input callback, up to its log entry being queued.")
+@StackTrace(false)
+public final class CaptureEvent extends jdk.jfr.Event {
+
+	@Label("Logger")
+	private String loggerType;
+
+	@Label("Event Type")
+	private String eventType;
+
+	@Label("Input Time")
+	@Description("The time the input was received, in milliseconds since the epoch.")
+	@Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+	private long inputTime;
+
+	/**
+	 * Commits the event (if enabled), for the given captured entry.
+	 *
+	 * @param dataLogger The logger capturing the event.
+	 * @param logEntry The entry created.
+	 * @param inputTime The time the input was received.
+	 */
+	public void captured(DataLogger dataLogger, LogEntry logEntry, long inputTime) {
+
+		end();
+
+		if (shouldCommit()) {
+
+			loggerType = dataLogger.type();
+			eventType = logEntry.getEvent().type();
+			this.inputTime = inputTime;
+
+			commit();
+
+		}
+
+	}
+
+}
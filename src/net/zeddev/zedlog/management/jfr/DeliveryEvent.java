@@ -0,0 +1,43 @@
+package net.zeddev.zedlog.management.jfr;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event covering the delivery of a log entry to a single
+ * {@code DataLoggerObserver}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@Name("net.zeddev.zedlog.Delivery")
+@Label("Observer Delivery")
+@Category({"ZedLog", "Dispatch"})
+@Description("A log entry delivered to one observer of its logger.")
+@StackTrace(false)
+public final class DeliveryEvent extends jdk.jfr.Event {
+
+	@Label("Logger")
+	public String loggerType;
+
+	@Label("Observer")
+	public Class<?> observer;
+
+}
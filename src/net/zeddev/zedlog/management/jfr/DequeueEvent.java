@@ -0,0 +1,50 @@
+package net.zeddev.zedlog.management.jfr;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A flight recorder event marking a log entry taken from the notification
+ * queue, with the time it spent queued.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@Name("net.zeddev.zedlog.Dequeue")
+@Label("Notification Dequeue")
+@Category({"ZedLog", "Dispatch"})
+@Description("A log entry taken from the notification queue.")
+@StackTrace(false)
+public final class DequeueEvent extends jdk.jfr.Event {
+
+	@Label("Logger")
+	public String loggerType;
+
+	@Label("Age")
+	@Description("The time since the entry was made.")
+	@Timespan(Timespan.MILLISECONDS)
+	public long age;
+
+	@Label("Queue Length")
+	@Description("The number of entries still queued.")
+	public int queueLength;
+
+}
@@ -0,0 +1,49 @@
+package net.zeddev.zedlog.management.jfr;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event covering the encoding of log entries, to XML or
+ * the binary format.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@Name("net.zeddev.zedlog.Encode")
+@Label("Log Encode")
+@Category({"ZedLog", "Persistence"})
+@Description("Log entries encoded for writing.")
+@StackTrace(false)
+public final class EncodeEvent extends jdk.jfr.Event {
+
+	@Label("Format")
+	public String format;
+
+	@Label("Entries")
+	public int entries;
+
+	@Label("Size")
+	@Description("The size of the encoded entries (0 if encoded in memory).")
+	@DataAmount
+	public long size;
+
+}
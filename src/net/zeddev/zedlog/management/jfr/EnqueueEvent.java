@@ -0,0 +1,49 @@
+package net.zeddev.zedlog.management.jfr;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event covering a log entry being queued for notification
+ * (see {@code DataLoggerNotificationThread}), including any wait for the
+ * queue.  Entries are dropped when the queue is full.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@Name("net.zeddev.zedlog.Enqueue")
+@Label("Notification Enqueue")
+@Category({"ZedLog", "Dispatch"})
+@Description("A log entry queued for notification of the logger's observers.")
+@StackTrace(false)
+public final class EnqueueEvent extends jdk.jfr.Event {
+
+	@Label("Logger")
+	public String loggerType;
+
+	@Label("Accepted")
+	@Description("Whether the entry was queued (or dropped, as the queue was full).")
+	public boolean accepted;
+
+	@Label("Queue Length")
+	@Description("The number of entries queued, after this entry.")
+	public int queueLength;
+
+}
@@ -0,0 +1,45 @@
+package net.zeddev.zedlog.management.jfr;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event covering the flush of logged entries to their
+ * output.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@Name("net.zeddev.zedlog.Flush")
+@Label("Log Flush")
+@Category({"ZedLog", "Persistence"})
+@Description("Logged entries flushed to their output.")
+@StackTrace(false)
+public final class FlushEvent extends jdk.jfr.Event {
+
+	@Label("Output")
+	@Description("The output flushed (i.e. the log file).")
+	public String output;
+
+	@Label("Entries")
+	@Description("The number of entries written since the last flush (-1 if not known).")
+	public int entries;
+
+}
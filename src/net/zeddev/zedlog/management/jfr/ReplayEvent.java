@@ -0,0 +1,50 @@
+package net.zeddev.zedlog.management.jfr;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A flight recorder event covering the replay of a logged event, from its
+ * injection to any sync that follows.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+@Name("net.zeddev.zedlog.Replay")
+@Label("Event Replay")
+@Category({"ZedLog", "Replay"})
+@Description("A logged event replayed, including any sync following it.")
+@StackTrace(false)
+public final class ReplayEvent extends jdk.jfr.Event {
+
+	@Label("Event Type")
+	public String eventType;
+
+	@Label("Lateness")
+	@Description("The time from the event being due to its injection (0 if untimed).")
+	@Timespan(Timespan.NANOSECONDS)
+	public long lateness;
+
+	@Label("Synced")
+	@Description("Whether the replay waited for the input to be handled.")
+	public boolean synced;
+
+}
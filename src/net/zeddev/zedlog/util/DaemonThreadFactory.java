@@ -0,0 +1,56 @@
+package net.zeddev.zedlog.util;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * A {@code ThreadFactory} producing named daemon threads.
+ * Used for worker pools, so that they never keep the program alive.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+
+	private final String name;
+	private final AtomicInteger count = new AtomicInteger();
+
+	/**
+	 * Creates a new {@code DaemonThreadFactory}.
+	 *
+	 * @param name The base name of the threads (must not be {@code null}).
+	 */
+	public DaemonThreadFactory(String name) {
+		requireNotNull(name);
+		this.name = name;
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+
+		Thread thread = new Thread(runnable);
+
+		thread.setName(String.format("%s #%d", name, count.incrementAndGet()));
+		thread.setDaemon(true);
+
+		return thread;
+
+	}
+
+}
@@ -0,0 +1,133 @@
+package net.zeddev.zedlog.util;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static net.zeddev.zedlog.util.Assertions.*;
+
+/**
+ * A parsed description of a "how often" policy (i.e. of flushing or syncing).
+ * A description is one or more parts joined with '+', each being a count
+ * ({@code <n>}), an interval ({@code <n>ms}) or one of the policy's keywords
+ * (i.e. "discrete+50ms").  Each part may be given at most once, and at least
+ * one must be non-zero.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class PolicySpec {
+
+	private int count = 0;
+	private long interval = 0;
+	private final Set<String> keywords = new HashSet<>();
+
+	private PolicySpec() {
+		// NOTE created by parse()
+	}
+
+	/**
+	 * Parses the description of a policy.
+	 *
+	 * @param kind The kind of policy, for error messages (i.e. "sync").
+	 * @param policy The description (must not be {@code null}).
+	 * @param keywords The keywords the policy accepts.
+	 * @return The parsed description.
+	 * @throws IllegalArgumentException If the description is not valid.
+	 */
+	public static PolicySpec parse(String kind, String policy, String... keywords) {
+
+		requireNotNull(kind);
+		requireNotNull(policy);
+
+		List<String> accepted = Arrays.asList(keywords);
+		PolicySpec spec = new PolicySpec();
+
+		boolean counted = false;
+		boolean timed = false;
+
+		for (String part : policy.split("\\+", -1)) {
+
+			try {
+
+				if (accepted.contains(part)) {
+
+					if (!spec.keywords.add(part))
+						throw invalid(kind, policy);
+
+				} else if (part.endsWith("ms")) {
+
+					if (timed)
+						throw invalid(kind, policy);
+
+					spec.interval = Long.parseLong(part.substring(0, part.length() - 2));
+					timed = true;
+
+				} else {
+
+					if (counted)
+						throw invalid(kind, policy);
+
+					spec.count = Integer.parseInt(part);
+					counted = true;
+
+				}
+
+			} catch (NumberFormatException ex) {
+				throw invalid(kind, policy);
+			}
+
+		}
+
+		// NOTE checked once every part is known (i.e. "0+discrete" is valid)
+		if (spec.count < 0 || spec.interval < 0
+				|| (spec.count == 0 && spec.interval == 0 && spec.keywords.isEmpty()))
+			throw invalid(kind, policy);
+
+		return spec;
+
+	}
+
+	// the exception thrown for an invalid description
+	private static IllegalArgumentException invalid(String kind, String policy) {
+		return new IllegalArgumentException(
+			String.format("Invalid %s policy %s.", kind, policy)
+		);
+	}
+
+	/** Returns the count (0 if not given). */
+	public int getCount() {
+		return count;
+	}
+
+	/** Returns the interval, in milliseconds (0 if not given). */
+	public long getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Returns whether the given keyword was given.
+	 *
+	 * @param keyword The keyword.
+	 * @return Whether the keyword is part of the description.
+	 */
+	public boolean hasKeyword(String keyword) {
+		return keywords.contains(keyword);
+	}
+
+}
@@ -16,9 +16,15 @@ package net.zeddev.zedlog;
  */
 
 import net.zeddev.litelogger.Logger;
+import net.zeddev.zedlog.gui.LogEntryListModelTest;
+import net.zeddev.zedlog.gui.LoggerPanelTest;
+import net.zeddev.zedlog.gui.UpdateCoalescerTest;
 import net.zeddev.zedlog.logger.LogEntryTest;
 import net.zeddev.zedlog.logger.impl.CompositeDataLoggerTest;
+import net.zeddev.zedlog.logger.impl.DataLoggerWriterTest;
+import net.zeddev.zedlog.logger.impl.InputDataLoggerTest;
 import net.zeddev.zedlog.logger.impl.KeyDataLoggers;
+import net.zeddev.zedlog.logger.impl.LogEventRegistryTest;
 import net.zeddev.zedlog.logger.impl.MouseDataLoggers;
 import net.zeddev.zedlog.logger.impl.event.KeyEventTest;
 import net.zeddev.zedlog.logger.impl.event.MouseClickedEventTest;
@@ -27,6 +33,20 @@ import net.zeddev.zedlog.logger.impl.event.MouseMovedEventTest;
 import net.zeddev.zedlog.logger.impl.event.MousePressedEventTest;
 import net.zeddev.zedlog.logger.impl.event.MouseReleasedEventTest;
 import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEventTest;
+import net.zeddev.zedlog.logger.input.SyntheticInputSourceTest;
+import net.zeddev.zedlog.logger.io.LogFilterTest;
+import net.zeddev.zedlog.logger.io.LogFormatTest;
+import net.zeddev.zedlog.logger.tools.HeatmapBuilderTest;
+import net.zeddev.zedlog.logger.tools.LogCompactorTest;
+import net.zeddev.zedlog.logger.tools.LogHistogramTest;
+import net.zeddev.zedlog.logger.tools.LogSorterTest;
+import net.zeddev.zedlog.logger.tools.ReplaySchedulerTest;
+import net.zeddev.zedlog.logger.tools.ReplayTimingsTest;
+import net.zeddev.zedlog.logger.tools.ReplayToolTest;
+import net.zeddev.zedlog.logger.tools.SessionStatsTest;
+import net.zeddev.zedlog.logger.tools.TextExporterTest;
+import net.zeddev.zedlog.management.ManagementRegistryTest;
+import net.zeddev.zedlog.management.jfr.FlightEventsTest;
 import net.zeddev.zedlog.util.AssertionsTest;
 import net.zeddev.zedlog.util.IOUtilTest;
 
@@ -53,17 +73,37 @@ public final class TestSuite {
 	public static final Class[] TEST_CLASSES = {
 		AssertionsTest.class,
 		IOUtilTest.class,
+		LogEntryListModelTest.class,
+		LoggerPanelTest.class,
+		UpdateCoalescerTest.class,
 		LogEntryTest.class,
 		KeyDataLoggers.class,
 		MouseDataLoggers.class,
 		CompositeDataLoggerTest.class,
+		DataLoggerWriterTest.class,
+		InputDataLoggerTest.class,
+		LogEventRegistryTest.class,
 		KeyEventTest.class,
 		MouseClickedEventTest.class,
 		MouseDraggedEventTest.class,
 		MouseMovedEventTest.class,
 		MousePressedEventTest.class,
 		MouseReleasedEventTest.class,
-		MouseWheelMovedEventTest.class
+		MouseWheelMovedEventTest.class,
+		SyntheticInputSourceTest.class,
+		LogFilterTest.class,
+		LogFormatTest.class,
+		HeatmapBuilderTest.class,
+		LogCompactorTest.class,
+		LogHistogramTest.class,
+		LogSorterTest.class,
+		ReplaySchedulerTest.class,
+		ReplayTimingsTest.class,
+		ReplayToolTest.class,
+		SessionStatsTest.class,
+		TextExporterTest.class,
+		ManagementRegistryTest.class,
+		FlightEventsTest.class
 	};
 	
 	// the test state
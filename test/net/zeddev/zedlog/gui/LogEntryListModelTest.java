@@ -0,0 +1,125 @@
+package net.zeddev.zedlog.gui;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.gui.LogEntryListModel}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class LogEntryListModelTest {
+
+	// creates entries at the times from first (inclusive) to last (exclusive)
+	private static List<LogEntry> entries(int first, int last) {
+
+		List<LogEntry> logEntries = new ArrayList<>();
+
+		for (int i = first; i < last; i++) {
+
+			LogEntry logEntry = new LogEntry();
+			logEntry.setTimestamp(i);
+			logEntry.setMessage("test");
+
+			logEntries.add(logEntry);
+
+		}
+
+		return logEntries;
+
+	}
+
+	// checks the model holds the entries at the times from first to last
+	private static void checkEntries(LogEntryListModel model, int first, int last) {
+
+		assertEquals(last - first, model.getSize());
+
+		for (int i = 0; i < model.getSize(); i++)
+			assertEquals(first + i, model.getElementAt(i).getTimestamp());
+
+	}
+
+	@Test
+	public void testUnbounded() {
+
+		LogEntryListModel model = new LogEntryListModel(0);
+
+		for (LogEntry logEntry : entries(0, 5000))
+			model.add(logEntry);
+
+		checkEntries(model, 0, 5000);
+		assertEquals(0, model.getDropped());
+
+		model.clear();
+		checkEntries(model, 0, 0);
+
+	}
+
+	@Test
+	public void testCapacity() {
+
+		final List<String> events = new ArrayList<>();
+
+		LogEntryListModel model = new LogEntryListModel(3);
+		model.addListDataListener(new ListDataListener() {
+
+			@Override
+			public void intervalAdded(ListDataEvent event) {
+				events.add("added " + event.getIndex0() + "-" + event.getIndex1());
+			}
+
+			@Override
+			public void intervalRemoved(ListDataEvent event) {
+				events.add("removed " + event.getIndex0() + "-" + event.getIndex1());
+			}
+
+			@Override
+			public void contentsChanged(ListDataEvent event) {
+				events.add("changed");
+			}
+
+		});
+
+		model.addAll(entries(0, 2));
+		model.addAll(entries(2, 4));
+
+		checkEntries(model, 1, 4);
+		assertEquals(1, model.getDropped());
+
+		// only the last of a batch larger than the model are held
+		model.addAll(entries(4, 14));
+
+		checkEntries(model, 11, 14);
+		assertEquals(11, model.getDropped());
+
+		assertEquals(
+			"[added 0-1, removed 0-0, added 1-2, removed 0-2, added 0-2]",
+			events.toString()
+		);
+
+	}
+
+}
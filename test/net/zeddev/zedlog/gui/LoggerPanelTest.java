@@ -0,0 +1,69 @@
+package net.zeddev.zedlog.gui;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.impl.DataLoggers;
+import net.zeddev.zedlog.logger.impl.InputDataLogger;
+import net.zeddev.zedlog.logger.input.SyntheticInputSource;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.gui.LoggerPanel}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class LoggerPanelTest {
+
+	@Test
+	public void testShutdownStopsListening() throws Exception {
+
+		// NOTE the GUI's cached loggers need the native hook, so a logger of
+		//	  synthetic input stands in for them
+		InputDataLogger typed = (InputDataLogger) DataLoggers.newDataLogger(
+			"KeyPressed", new SyntheticInputSource(1)
+		);
+		CompositeDataLogger loggers = new CompositeDataLogger();
+
+		try {
+
+			loggers.addLogger(typed);
+			LoggerPanel panel = new LoggerPanel(typed);
+			assertTrue(typed.isListening());
+
+			// a removed logger still listens while its panel observes it
+			loggers.removeLogger(typed);
+			assertTrue(typed.isListening());
+
+			panel.shutdown();
+			assertFalse(typed.isListening());
+
+			// the same logger may be shown again
+			panel = new LoggerPanel(typed);
+			assertTrue(typed.isListening());
+			panel.shutdown();
+			assertFalse(typed.isListening());
+
+		} finally {
+			loggers.shutdown();
+			typed.shutdown();
+		}
+
+	}
+
+}
@@ -0,0 +1,113 @@
+package net.zeddev.zedlog.gui;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.gui.UpdateCoalescer}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class UpdateCoalescerTest {
+
+	private static final int THREADS = 4;
+	private static final int UPDATES = 100000;
+
+	@Test
+	public void testBatching() throws Exception {
+
+		// the updates handed over, and the number of batches
+		final List<Integer> updates = new ArrayList<>();
+		final int[] batches = {0};
+		final AtomicBoolean offEdt = new AtomicBoolean(false);
+
+		final UpdateCoalescer<Integer> coalescer = new UpdateCoalescer<>(
+			new UpdateCoalescer.Target<Integer>() {
+				@Override
+				public void update(List<Integer> batch) {
+
+					if (!EventQueue.isDispatchThread())
+						offEdt.set(true);
+
+					updates.addAll(batch);
+					batches[0]++;
+
+				}
+			}, 30
+		);
+
+		long start = System.nanoTime();
+
+		// each thread adds increasing updates
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+
+			final int thread = t;
+
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < UPDATES; i++)
+						coalescer.add(thread * UPDATES + i);
+				}
+			});
+
+		}
+
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+
+		// wait for the last batch
+		Thread.sleep(200);
+		EventQueue.invokeAndWait(new Runnable() {
+			public void run() {
+				coalescer.flush();
+			}
+		});
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		assertEquals(false, offEdt.get());
+		assertEquals(THREADS * UPDATES, updates.size());
+
+		// at most one batch a frame (with a frame of slack)
+		assertTrue(batches[0] <= 30 * seconds + 2);
+
+		// the updates of each thread are in order
+		int[] last = new int[THREADS];
+		for (int t = 0; t < THREADS; t++)
+			last[t] = -1;
+
+		for (int update : updates) {
+			int thread = update / UPDATES;
+			assertTrue(update > last[thread]);
+			last[thread] = update;
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+package net.zeddev.zedlog.logger;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * A {@code DataLogger} of a given type for tests, which makes entries on
+ * demand rather than capturing input.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class TestDataLogger extends AbstractDataLogger {
+
+	private final String type;
+
+	/**
+	 * Creates a new {@code TestDataLogger}.
+	 *
+	 * @param type The type name of the logger.
+	 */
+	public TestDataLogger(final String type) {
+		this.type = type;
+	}
+
+	/**
+	 * Notifies the observers of an entry, as if it were logged.
+	 *
+	 * @param logEntry The entry.
+	 */
+	public void log(LogEntry logEntry) {
+		notifyDataLoggerObservers(this, logEntry);
+	}
+
+	@Override
+	public String type() {
+		return type;
+	}
+
+}
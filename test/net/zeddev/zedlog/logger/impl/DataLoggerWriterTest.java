@@ -0,0 +1,177 @@
+package net.zeddev.zedlog.logger.impl;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.TestDataLogger;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.impl.DataLoggerWriter} and
+ * {@link net.zeddev.zedlog.logger.impl.FlushPolicy}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class DataLoggerWriterTest {
+
+	// a writer counting its flushes
+	private static final class CountingWriter extends StringWriter {
+
+		private volatile int flushes = 0;
+
+		@Override
+		public void flush() {
+			super.flush();
+			flushes++;
+		}
+
+	}
+
+	private final DataLogger typed = new TestDataLogger("typed");
+	private final DataLogger clicks = new TestDataLogger("clicks");
+
+	// the event of every entry
+	private static final KeyEvent TYPED_A = new KeyEvent(KeyEvent.Type.TYPED, 65, 'A');
+
+	@Test
+	public void testFlushPolicy() {
+
+		assertEquals(FlushPolicy.EACH_ENTRY, FlushPolicy.parse("each"));
+		assertEquals(FlushPolicy.ON_CLOSE, FlushPolicy.parse("close"));
+
+		FlushPolicy policy = FlushPolicy.parse("1000+200ms");
+		assertEquals(1000, policy.getEntries());
+		assertEquals(200, policy.getInterval());
+		assertEquals("1000+200ms", policy.toString());
+		assertEquals("50ms", FlushPolicy.parse("50ms").toString());
+		assertEquals("50ms", FlushPolicy.parse("0+50ms").toString());
+
+		for (String invalid : new String[] {"", "0", "-1", "10+", "ms", "fast",
+				"10+20", "5ms+10ms", "0+0ms", "discrete"}) {
+			try {
+				FlushPolicy.parse(invalid);
+				fail(invalid);
+			} catch (IllegalArgumentException ex) {
+				// expected
+			}
+		}
+
+	}
+
+	@Test
+	public void testEntryPolicy() throws IOException {
+
+		CountingWriter output = new CountingWriter();
+		DataLoggerWriter writer = new DataLoggerWriter(output, new FlushPolicy(10, 0));
+
+		for (int i = 0; i < 25; i++)
+			writer.notifyLog(typed, new LogEntry(typed, "a", TYPED_A));
+
+		// NOTE the last 5 entries are still buffered
+		assertEquals(2, output.flushes);
+		assertEquals(20, output.toString().length());
+
+		writer.notifyLog(clicks, new LogEntry(clicks, "click", TYPED_A));
+		writer.close();
+
+		assertEquals(repeat("a", 25) + "\nclick", output.toString());
+
+	}
+
+	@Test
+	public void testEachEntry() throws IOException {
+
+		CountingWriter output = new CountingWriter();
+		DataLoggerWriter writer = new DataLoggerWriter(output);
+
+		for (int i = 0; i < 5; i++)
+			writer.notifyLog(typed, new LogEntry(typed, "a", TYPED_A));
+
+		assertEquals(5, output.flushes);
+		assertEquals("aaaaa", output.toString());
+
+		writer.close();
+
+	}
+
+	@Test
+	public void testTimedPolicy() throws Exception {
+
+		CountingWriter output = new CountingWriter();
+		DataLoggerWriter writer = new DataLoggerWriter(output, FlushPolicy.parse("20ms"));
+
+		writer.notifyLog(typed, new LogEntry(typed, "a", TYPED_A));
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (output.flushes == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(5);
+
+		assertEquals("a", output.toString());
+
+		writer.close();
+
+	}
+
+	@Test
+	public void testChannel() throws IOException {
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataLoggerWriter writer = new DataLoggerWriter(
+			Channels.newChannel(bytes), FlushPolicy.ON_CLOSE, 16
+		);
+
+		// NOTE multi-byte characters span the small buffer
+		String message = "h\u00e9llo \u20ac \ud83d\ude00 ";
+		StringBuilder expected = new StringBuilder();
+
+		for (int i = 0; i < 100; i++) {
+			writer.notifyLog(typed, new LogEntry(typed, message, TYPED_A));
+			expected.append(message);
+		}
+
+		// NOTE a surrogate pair split between entries
+		writer.notifyLog(typed, new LogEntry(typed, "\ud83d", TYPED_A));
+		writer.notifyLog(typed, new LogEntry(typed, "\ude00", TYPED_A));
+		expected.append("\ud83d\ude00");
+
+		writer.close();
+
+		assertEquals(expected.toString(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+
+	}
+
+	// repeats the text the given number of times
+	private static String repeat(String text, int count) {
+
+		StringBuilder repeated = new StringBuilder();
+		for (int i = 0; i < count; i++)
+			repeated.append(text);
+
+		return repeated.toString();
+
+	}
+
+}
@@ -0,0 +1,157 @@
+package net.zeddev.zedlog.logger.impl;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.DataLoggerObserver;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.input.InputEvent;
+import net.zeddev.zedlog.logger.input.InputListener;
+import net.zeddev.zedlog.logger.input.InputSource;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.impl.InputDataLogger}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class InputDataLoggerTest {
+
+	// a source recording its listeners
+	private static final class TestSource implements InputSource {
+
+		public final List<InputListener> listeners = new ArrayList<>();
+		public InputEvent.Type type = null;
+
+		@Override
+		public void addInputListener(InputEvent.Type type, InputListener listener) {
+			this.type = type;
+			listeners.add(listener);
+		}
+
+		@Override
+		public void removeInputListener(InputEvent.Type type, InputListener listener) {
+			assertEquals(this.type, type);
+			listeners.remove(listener);
+		}
+
+		public void send(InputEvent event) {
+			for (InputListener listener : new ArrayList<>(listeners))
+				listener.inputReceived(event);
+		}
+
+	}
+
+	// an observer ignoring all entries
+	private static final DataLoggerObserver IGNORE = new DataLoggerObserver() {
+
+		@Override
+		public void notifyLog(DataLogger logger, LogEntry logEntry) {
+		}
+
+	};
+
+	@Test
+	public void testListensOnlyWhenEnabled() {
+
+		TestSource source = new TestSource();
+		InputDataLogger logger = new KeyPressedLogger(source);
+
+		try {
+
+			// no observers yet
+			assertFalse(logger.isListening());
+			assertTrue(source.listeners.isEmpty());
+
+			logger.addObserver(IGNORE);
+			assertTrue(logger.isListening());
+			assertEquals(InputEvent.Type.KEY_PRESSED, source.type);
+			assertEquals(1, source.listeners.size());
+
+			logger.setRecording(false);
+			assertFalse(logger.isListening());
+			assertTrue(source.listeners.isEmpty());
+
+			logger.setRecording(true);
+			assertTrue(logger.isListening());
+			assertEquals(1, source.listeners.size());
+
+			logger.removeObserver(IGNORE);
+			assertFalse(logger.isListening());
+			assertTrue(source.listeners.isEmpty());
+
+			logger.addObserver(IGNORE);
+			assertEquals(1, source.listeners.size());
+
+		} finally {
+			logger.shutdown();
+		}
+
+		// never listens again once shut down
+		assertFalse(logger.isListening());
+		assertTrue(source.listeners.isEmpty());
+
+		logger.setRecording(true);
+		logger.addObserver(IGNORE);
+		assertTrue(source.listeners.isEmpty());
+
+	}
+
+	@Test
+	public void testEntryTimestamp() throws Exception {
+
+		TestSource source = new TestSource();
+		DataLogger logger = new CharTypedLogger(source);
+
+		final CountDownLatch delivered = new CountDownLatch(1);
+		final LogEntry[] received = new LogEntry[1];
+
+		logger.addObserver(new DataLoggerObserver() {
+
+			@Override
+			public void notifyLog(DataLogger logger, LogEntry logEntry) {
+				received[0] = logEntry;
+				delivered.countDown();
+			}
+
+		});
+
+		try {
+
+			source.send(InputEvent.key(InputEvent.Type.KEY_TYPED, 1234L, 0, 'z'));
+			assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+		} finally {
+			logger.shutdown();
+		}
+
+		// NOTE stamped once, by the source
+		assertEquals(1234L, received[0].getTimestamp());
+		assertEquals("z", received[0].getMessage());
+		assertEquals('z', ((KeyEvent) received[0].getEvent()).getChar());
+
+	}
+
+}
@@ -0,0 +1,118 @@
+package net.zeddev.zedlog.logger.impl;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+*
+* This program is free software: you can redistribute it and/or modify
+* it under the terms of the GNU General Public License as published by
+* the Free Software Foundation, either version 3 of the License, or
+* (at your option) any later version.
+*
+* This program is distributed in the hope that it will be useful,
+* but WITHOUT ANY WARRANTY; without even the implied warranty of
+* MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+* GNU General Public License for more details.
+*
+* You should have received a copy of the GNU General Public License
+* along with this program.  If not, see <http://www.gnu.org/licenses/>.
+*/
+
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.LogEventFactory;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEvent;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit test for the {@link net.zeddev.zedlog.logger.impl.LogEvents} registry.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public final class LogEventRegistryTest {
+
+	// a log event type which is only known to the test
+	private static final class TestEvent extends KeyEvent {
+
+		@Override
+		public String type() {
+			return "LogEventRegistryTest";
+		}
+
+	}
+
+	/** Tests creation of the builtin event types by name. */
+	@Test
+	public void testNewLogEventByName() throws Throwable {
+
+		assertTrue(LogEvents.newLogEvent("KeyEvent") instanceof KeyEvent);
+		assertTrue(LogEvents.newLogEvent("MouseMoved") instanceof MouseMovedEvent);
+		assertTrue(LogEvents.newLogEvent("MouseWheelMoved") instanceof MouseWheelMovedEvent);
+
+		assertNull(LogEvents.newLogEvent("NoSuchEvent"));
+
+	}
+
+	/** Tests creation of the builtin event types by type id. */
+	@Test
+	public void testNewLogEventById() throws Throwable {
+
+		for (String type : LogEvents.typeList()) {
+
+			int typeId = LogEvents.typeId(type);
+
+			assertTrue(typeId > 0);
+			assertEquals(type, LogEvents.typeName(typeId));
+			assertEquals(type, LogEvents.newLogEvent(typeId).type());
+
+		}
+
+		assertEquals(LogEvents.KEY_EVENT, LogEvents.typeId("KeyEvent"));
+		assertEquals(LogEvents.UNKNOWN_TYPE_ID, LogEvents.typeId("NoSuchEvent"));
+		assertNull(LogEvents.newLogEvent(LogEvents.MAX_TYPE_ID));
+		assertNull(LogEvents.newLogEvent(0));
+
+	}
+
+	/** Tests that each call creates a new instance. */
+	@Test
+	public void testNewInstances() throws Throwable {
+
+		LogEvent first = LogEvents.newLogEvent(LogEvents.MOUSE_MOVED);
+		LogEvent second = LogEvents.newLogEvent(LogEvents.MOUSE_MOVED);
+
+		assertNotSame(first, second);
+
+	}
+
+	/** Tests registering a new event type at runtime. */
+	@Test
+	public void testRegister() throws Throwable {
+
+		int typeId = LogEvents.register(new LogEventFactory() {
+			public LogEvent newLogEvent() {
+				return new TestEvent();
+			}
+		});
+
+		assertEquals(typeId, LogEvents.typeId("LogEventRegistryTest"));
+		assertTrue(LogEvents.newLogEvent("LogEventRegistryTest") instanceof TestEvent);
+		assertTrue(LogEvents.typeList().contains("LogEventRegistryTest"));
+
+		// cannot register the same type twice
+		try {
+
+			LogEvents.register(new LogEventFactory() {
+				public LogEvent newLogEvent() {
+					return new TestEvent();
+				}
+			});
+
+			fail("Registered duplicate log event type.");
+
+		} catch (IllegalArgumentException ex) {
+		}
+
+	}
+
+}
@@ -0,0 +1,257 @@
+package net.zeddev.zedlog.logger.input;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.DataLoggerObserver;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.DataLoggers;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.input.SyntheticInputSource}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class SyntheticInputSourceTest {
+
+	// records the events of the given types
+	private static final class Recorder implements InputListener {
+
+		public final List<InputEvent> events = new ArrayList<>();
+
+		public Recorder(InputSource source, InputEvent.Type... types) {
+			for (InputEvent.Type type : types)
+				source.addInputListener(type, this);
+		}
+
+		@Override
+		public void inputReceived(InputEvent event) {
+			events.add(event);
+		}
+
+	}
+
+	// generates the given number of events, returning their descriptions
+	private static List<String> generate(SyntheticInputSource source, int count) {
+
+		Recorder recorder = new Recorder(source, InputEvent.Type.values());
+		assertEquals(count, source.generate(count));
+
+		List<String> events = new ArrayList<>();
+		for (InputEvent event : recorder.events)
+			events.add(event.toString());
+
+		return events;
+
+	}
+
+	@Test
+	public void testReproducible() {
+
+		List<String> first = generate(new SyntheticInputSource(42), 500);
+		List<String> second = generate(new SyntheticInputSource(42), 500);
+		List<String> other = generate(new SyntheticInputSource(43), 500);
+
+		assertEquals(500, first.size());
+		assertEquals(first, second);
+		assertFalse(first.equals(other));
+
+	}
+
+	@Test
+	public void testMix() {
+
+		SyntheticInputSource source = new SyntheticInputSource(1);
+
+		for (InputEvent.Type type : InputEvent.Type.values())
+			source.setWeight(type, 0);
+
+		source.setWeight(InputEvent.Type.KEY_TYPED, 1);
+		source.setWeight(InputEvent.Type.MOUSE_WHEEL, 3);
+
+		Recorder typed = new Recorder(source, InputEvent.Type.KEY_TYPED);
+		Recorder wheel = new Recorder(source, InputEvent.Type.MOUSE_WHEEL);
+		Recorder others = new Recorder(source,
+			InputEvent.Type.KEY_PRESSED, InputEvent.Type.MOUSE_MOVED,
+			InputEvent.Type.MOUSE_CLICKED
+		);
+
+		source.generate(4000);
+
+		assertEquals(4000, typed.events.size() + wheel.events.size());
+		assertEquals(0, others.events.size());
+
+		// NOTE about three times as many, allowing for chance
+		assertTrue(wheel.events.size() > 2 * typed.events.size());
+		assertTrue(wheel.events.size() < 4 * typed.events.size());
+
+		for (InputEvent event : typed.events)
+			assertTrue(Character.isLowerCase(event.getKeyChar()));
+
+		for (InputEvent event : wheel.events)
+			assertTrue(event.getRotation() != 0 && Math.abs(event.getRotation()) <= 3);
+
+	}
+
+	@Test
+	public void testPatternsOnScreen() {
+
+		for (SyntheticInputSource.Pattern pattern : SyntheticInputSource.Pattern.values()) {
+
+			SyntheticInputSource source = new SyntheticInputSource(7);
+			source.setPattern(pattern);
+			source.setScreenSize(200, 100);
+
+			Recorder recorder = new Recorder(source, InputEvent.Type.values());
+			source.generate(2000);
+
+			for (InputEvent event : recorder.events) {
+				if (!event.getType().isKey()) {
+					assertTrue(pattern + " " + event, event.getX() >= 0 && event.getX() < 200);
+					assertTrue(pattern + " " + event, event.getY() >= 0 && event.getY() < 100);
+				}
+			}
+
+		}
+
+	}
+
+	@Test
+	public void testRateAndBursts() {
+
+		SyntheticInputSource source = new SyntheticInputSource(0);
+		source.setRate(500);
+		source.setBurst(10, 50);
+
+		long start = System.nanoTime();
+		assertEquals(30, source.generate(30));
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// NOTE 29 intervals of 2ms, and two pauses
+		assertTrue("Took " + elapsed + "ms", elapsed >= 150);
+		assertEquals(30, source.getGenerated());
+
+	}
+
+	@Test
+	public void testStop() throws Exception {
+
+		final SyntheticInputSource source = new SyntheticInputSource(0);
+		source.setRate(1000);
+
+		Thread stopper = new Thread() {
+
+			@Override
+			public void run() {
+
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException ex) {
+				}
+
+				source.stop();
+
+			}
+
+		};
+
+		stopper.start();
+
+		long generated = source.generate(Long.MAX_VALUE);
+		stopper.join();
+
+		assertTrue(generated > 0 && generated < Long.MAX_VALUE);
+
+	}
+
+	@Test
+	public void testDrivesLoggers() throws Exception {
+
+		SyntheticInputSource source = new SyntheticInputSource(3);
+		source.setRate(50);
+
+		for (InputEvent.Type type : InputEvent.Type.values())
+			source.setWeight(type, 0);
+
+		source.setWeight(InputEvent.Type.MOUSE_MOVED, 1);
+
+		DataLogger moves = DataLoggers.newDataLogger("MouseMovement", source);
+		DataLogger typed = DataLoggers.newDataLogger("CharTyped", source);
+
+		final CountDownLatch delivered = new CountDownLatch(10);
+		final List<LogEntry> logEntries = new ArrayList<>();
+
+		DataLoggerObserver observer = new DataLoggerObserver() {
+
+			@Override
+			public void notifyLog(DataLogger logger, LogEntry logEntry) {
+
+				synchronized (logEntries) {
+					logEntries.add(logEntry);
+				}
+
+				delivered.countDown();
+
+			}
+
+		};
+
+		moves.addObserver(observer);
+		typed.addObserver(observer);
+
+		try {
+
+			source.generate(10);
+
+			assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+			synchronized (logEntries) {
+
+				assertEquals(10, logEntries.size());
+
+				for (LogEntry logEntry : logEntries) {
+					assertEquals(moves, logEntry.getParent());
+					assertTrue(logEntry.getEvent() instanceof MouseMovedEvent);
+				}
+
+			}
+
+		} finally {
+			moves.shutdown();
+			typed.shutdown();
+		}
+
+		// no longer listening once shut down
+		Recorder recorder = new Recorder(source, InputEvent.Type.MOUSE_MOVED);
+		source.setRate(0);
+		source.generate(5);
+
+		assertEquals(5, recorder.events.size());
+		assertEquals(10, logEntries.size());
+
+	}
+
+}
@@ -0,0 +1,214 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.io.LogFilter}, pushed down
+ * into the log readers.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class LogFilterTest {
+
+	// enough entries for several binary blocks
+	private static final int ENTRY_COUNT = 20000;
+
+	private final List<LogEntry> logEntries = new ArrayList<>();
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+
+		Random random = new Random(42);
+
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+
+			LogEntry logEntry = new LogEntry();
+			logEntry.setTimestamp(1000000L + i * 10);
+
+			if (i % 7 == 0) {
+
+				logEntry.setEvent(new KeyEvent(KeyEvent.Type.PRESSED, 65, 'a'));
+
+			} else {
+
+				MouseEvent event;
+
+				if (i % 5 == 0) {
+					MousePressedEvent pressed = new MousePressedEvent();
+					pressed.setButtonCode(1 + random.nextInt(3));
+					event = pressed;
+				} else {
+					event = new MouseMovedEvent();
+				}
+
+				event.setX(random.nextInt(800));
+				event.setY(random.nextInt(600));
+
+				logEntry.setEvent(event);
+
+			}
+
+			logEntry.setMessage(logEntry.getEvent().type());
+
+			logEntries.add(logEntry);
+
+		}
+
+		file = File.createTempFile("zedlog-test", ".zlog");
+
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	// returns the entries selected by the filter, the slow way
+	private List<LogEntry> expected(LogFilter filter) {
+
+		List<LogEntry> selected = new ArrayList<>();
+
+		for (LogEntry logEntry : logEntries) {
+			if (filter.matches(logEntry))
+				selected.add(logEntry);
+		}
+
+		return selected;
+
+	}
+
+	// writes the log and reads it back through the filter
+	private List<LogEntry> read(LogFormat format, LogFilter filter) throws Exception {
+
+		try (LogEntryWriter writer = format.newWriter(file, Arrays.asList("Test"))) {
+			for (LogEntry logEntry : logEntries)
+				writer.write(logEntry);
+		}
+
+		List<LogEntry> selected = new ArrayList<>();
+
+		try (AbstractLogEntryReader reader = format.newReader(file)) {
+
+			reader.setFilter(filter);
+
+			LogEntry logEntry;
+			while ((logEntry = reader.read()) != null)
+				selected.add(logEntry);
+
+		}
+
+		return selected;
+
+	}
+
+	// returns the timestamps of the entries (which are unique)
+	private static List<Long> timestamps(List<LogEntry> logEntries) {
+
+		List<Long> timestamps = new ArrayList<>();
+		for (LogEntry logEntry : logEntries)
+			timestamps.add(logEntry.getTimestamp());
+
+		return timestamps;
+
+	}
+
+	// checks each format selects the same entries as the filter
+	private void testFilter(LogFilter filter) throws Exception {
+
+		List<Long> expected = timestamps(expected(filter));
+
+		assertEquals(expected, timestamps(read(LogFormat.BINARY, filter)));
+		assertEquals(expected, timestamps(read(LogFormat.XML, filter)));
+		assertEquals(expected, timestamps(read(LogFormat.PIPE, filter)));
+
+	}
+
+	/** Tests selecting by event type. */
+	@Test
+	public void testType() throws Exception {
+
+		LogFilter filter = new LogFilter();
+		filter.addType("MousePressed");
+		filter.addType("KeyEvent");
+
+		testFilter(filter);
+
+	}
+
+	/** Tests selecting by region and button. */
+	@Test
+	public void testRegionButton() throws Exception {
+
+		LogFilter filter = new LogFilter();
+		filter.setRegion(new Rectangle(100, 100, 200, 150));
+		filter.setButtonCode(2);
+
+		assertTrue(!expected(filter).isEmpty());
+
+		testFilter(filter);
+
+	}
+
+	/** Tests that binary blocks outside the time range are skipped. */
+	@Test
+	public void testTimeRange() throws Exception {
+
+		LogFilter filter = new LogFilter();
+		filter.setTimeRange(1100000L, 1100500L);
+
+		assertEquals(51, expected(filter).size());
+
+		testFilter(filter);
+
+		read(LogFormat.BINARY, filter); // NOTE rewrites the binary log
+
+		try (BinaryLogReader reader = (BinaryLogReader) LogFormat.BINARY.newReader(file)) {
+
+			reader.setFilter(filter);
+			while (reader.read() != null);
+
+			assertTrue(reader.getBlocksSkipped() > 0);
+
+		}
+
+	}
+
+	/** Tests that unknown event types are rejected. */
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownType() {
+		new LogFilter().addType("NoSuchEvent");
+	}
+
+}
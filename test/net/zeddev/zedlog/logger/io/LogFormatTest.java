@@ -0,0 +1,360 @@
+package net.zeddev.zedlog.logger.io;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.event.InputEvent;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for the {@link net.zeddev.zedlog.logger.io.LogFormat} readers
+ * and writers.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class LogFormatTest {
+
+	// enough entries for several batches/blocks
+	private static final int ENTRY_COUNT = 10000;
+
+	private ExecutorService executor;
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = Executors.newFixedThreadPool(4);
+		file = File.createTempFile("zedlog-test", ".log");
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+		file.delete();
+	}
+
+	// creates some log entries, in chronological order
+	private static List<LogEntry> logEntries() {
+
+		List<LogEntry> logEntries = new ArrayList<>();
+
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+
+			LogEntry logEntry = new LogEntry();
+			logEntry.setTimestamp(1000000L + i * 10);
+			logEntry.setEvent(new KeyEvent(KeyEvent.Type.PRESSED, 65 + i % 26, (char) ('a' + i % 26)));
+			logEntry.setMessage("Key pressed " + i);
+
+			logEntries.add(logEntry);
+
+		}
+
+		return logEntries;
+
+	}
+
+	// writes and reads back the entries in the given format
+	private void testRoundTrip(LogFormat format) throws Exception {
+
+		List<LogEntry> logEntries = logEntries();
+		List<String> loggerTypes = Arrays.asList("Key Pressed");
+
+		try (LogEntryWriter writer = new ParallelLogWriter(
+				format.newWriter(file, loggerTypes), executor)) {
+
+			for (LogEntry logEntry : logEntries)
+				writer.write(logEntry);
+
+		}
+
+		assertEquals(format, LogFormat.detect(file));
+
+		List<LogEntry> read = new ArrayList<>();
+
+		try (LogEntryReader reader = new ParallelLogReader(
+				LogFormat.open(file), executor, 1000, 4)) {
+
+			LogEntry logEntry;
+			while ((logEntry = reader.read()) != null)
+				read.add(logEntry);
+
+			assertNull(reader.read());
+
+		}
+
+		assertEquals(logEntries.size(), read.size());
+
+		for (int i = 0; i < logEntries.size(); i++) {
+
+			LogEntry expected = logEntries.get(i);
+			LogEntry actual = read.get(i);
+
+			// NOTE the legacy formats do not store message newlines exactly
+			assertEquals(expected.getMessage(), actual.getMessage().replace("\n", ""));
+			assertEquals(expected.getTimestamp(), actual.getTimestamp());
+			assertEquals(expected.getEvent(), actual.getEvent());
+
+		}
+
+	}
+
+	/** Tests the XML format. */
+	@Test
+	public void testXml() throws Exception {
+		testRoundTrip(LogFormat.XML);
+	}
+
+	/** Tests the legacy pipe format. */
+	@Test
+	public void testPipe() throws Exception {
+		testRoundTrip(LogFormat.PIPE);
+	}
+
+	/** Tests the binary format. */
+	@Test
+	public void testBinary() throws Exception {
+		testRoundTrip(LogFormat.BINARY);
+	}
+
+	/** Tests merging logs into chronological order. */
+	@Test
+	public void testMerge() throws Exception {
+
+		List<LogEntry> logEntries = logEntries();
+
+		List<LogEntryReader> sources = new ArrayList<>();
+		for (int i = 0; i < 3; i++)
+			sources.add(new ListLogReader(logEntries.subList(i, logEntries.size())));
+
+		long lastTimestamp = 0;
+		int count = 0;
+
+		try (LogEntryReader reader = new MergingLogReader(sources)) {
+
+			LogEntry logEntry;
+			while ((logEntry = reader.read()) != null) {
+
+				assertEquals(true, logEntry.getTimestamp() >= lastTimestamp);
+
+				lastTimestamp = logEntry.getTimestamp();
+				count++;
+
+			}
+
+		}
+
+		assertEquals(3 * ENTRY_COUNT - 3, count);
+
+	}
+
+	// reads entries from a list
+	private static final class ListLogReader extends AbstractLogEntryReader {
+
+		private final List<LogEntry> logEntries;
+		private int next = 0;
+
+		private ListLogReader(List<LogEntry> logEntries) {
+			this.logEntries = logEntries;
+		}
+
+		@Override
+		public LogEntry read() {
+			return next < logEntries.size() ? logEntries.get(next++) : null;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+	@Test
+	public void testMergeInterleaved() throws Exception {
+
+		// many sources, with shared timestamps and some empty
+		List<List<LogEntry>> buffers = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			buffers.add(new ArrayList<LogEntry>());
+
+		Map<LogEntry, Integer> sourceOf = new IdentityHashMap<>();
+
+		List<LogEntry> logEntries = logEntries();
+		for (int i = 0; i < logEntries.size(); i++) {
+
+			LogEntry logEntry = logEntries.get(i);
+			logEntry.setTimestamp(logEntry.getTimestamp() / 1000);
+
+			int source = (i * 7) % 40;
+			buffers.get(source).add(logEntry);
+			sourceOf.put(logEntry, source);
+
+		}
+
+		List<LogEntryReader> sources = new ArrayList<>();
+		for (List<LogEntry> buffer : buffers)
+			sources.add(new ListLogReader(buffer));
+
+		LogEntry last = null;
+		int count = 0;
+
+		try (LogEntryReader reader = new MergingLogReader(sources)) {
+
+			LogEntry logEntry;
+			while ((logEntry = reader.read()) != null) {
+
+				if (last != null) {
+
+					assertEquals(true, logEntry.getTimestamp() >= last.getTimestamp());
+
+					// equal timestamps in the order of their sources
+					if (logEntry.getTimestamp() == last.getTimestamp())
+						assertEquals(true, sourceOf.get(logEntry) >= sourceOf.get(last));
+
+				}
+
+				last = logEntry;
+				count++;
+
+			}
+
+		}
+
+		assertEquals(ENTRY_COUNT, count);
+
+	}
+
+	// creates a mouse event at the given point
+	private static LogEntry mouseEntry(long timestamp, MouseEvent event, int x, int y) {
+
+		event.setX(x);
+		event.setY(y);
+
+		LogEntry logEntry = new LogEntry();
+		logEntry.setTimestamp(timestamp);
+		logEntry.setEvent(event);
+		logEntry.setMessage("test");
+
+		return logEntry;
+
+	}
+
+	@Test
+	public void testKeyframeSeek() throws Exception {
+
+		// moves every 10ms, with the left button held from 1500 to 4500
+		try (BinaryLogWriter writer = new BinaryLogWriter(
+				new FileOutputStream(file), new ArrayList<String>(), 100)) {
+
+			for (int i = 0; i < 1000; i++) {
+
+				MouseEvent event = new MouseMovedEvent();
+				if (i == 150) {
+					MousePressedEvent press = new MousePressedEvent();
+					press.setButtonCode(1);
+					event = press;
+				} else if (i == 450) {
+					MouseReleasedEvent release = new MouseReleasedEvent();
+					release.setButtonCode(1);
+					event = release;
+				}
+
+				writer.write(mouseEntry(i * 10, event, i, i));
+
+			}
+
+		}
+
+		// the keyframe of the block of entries 200 to 299
+		try (BinaryLogReader reader = new BinaryLogReader(
+				new BufferedInputStream(new FileInputStream(file)))) {
+
+			Keyframe keyframe = reader.seek(2500);
+
+			assertEquals(new Keyframe(true, 199, 199, InputEvent.BUTTON1_MASK, new int[0]), keyframe);
+			assertEquals(2, reader.getBlocksSkipped());
+			assertEquals(2000, reader.read().getTimestamp());
+
+		}
+
+		// nothing held before the first entry
+		try (BinaryLogReader reader = new BinaryLogReader(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			assertEquals(Keyframe.EMPTY, reader.seek(0));
+			assertEquals(0, reader.read().getTimestamp());
+		}
+
+		// past the end of the log
+		try (BinaryLogReader reader = new BinaryLogReader(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			assertEquals(Keyframe.EMPTY, reader.seek(20000));
+			assertNull(reader.read());
+		}
+
+	}
+
+	@Test
+	public void testCorruptPayloadLength() throws Exception {
+
+		// the header of an empty log, followed by a single block
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		new BinaryLogWriter(log, new ArrayList<String>(), 100).close();
+
+		BinaryLogWriter encoder = new BinaryLogWriter(
+			new ByteArrayOutputStream(), new ArrayList<String>(), 100);
+		byte[] block = encoder.encode(logEntries().subList(0, 10), null);
+
+		// NOTE the payload length is the last field of a header without keyframe
+		int offset = LogBlock.HEADER_SIZE - 4;
+		block[offset] = (byte) 0x7F;
+		block[offset + 1] = (byte) 0xFF;
+
+		log.write(block);
+
+		try (BinaryLogReader reader = new BinaryLogReader(
+				new ByteArrayInputStream(log.toByteArray()))) {
+			reader.read();
+			fail("Corrupt payload length was not detected.");
+		} catch (IOException ex) {
+			assertEquals("Corrupt block header in binary log.", ex.getMessage());
+		}
+
+	}
+
+}
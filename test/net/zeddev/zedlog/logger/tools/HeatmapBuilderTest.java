@@ -0,0 +1,214 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.io.LogEntryWriter;
+import net.zeddev.zedlog.logger.io.LogFilter;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import static org.junit.Assert.assertEquals;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.HeatmapBuilder}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class HeatmapBuilderTest {
+
+	// enough entries for several binary blocks
+	private static final int ENTRY_COUNT = 30000;
+
+	private ForkJoinPool pool;
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		pool = new ForkJoinPool(4);
+		file = File.createTempFile("zedlog-test", ".log");
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutdownNow();
+		file.delete();
+	}
+
+	// writes a log with moves at (i % 100, 10) and presses (then clicks) at (50, 50)
+	private void writeLog(LogFormat format) throws Exception {
+
+		try (LogEntryWriter writer = format.newWriter(file, Arrays.asList("Test"))) {
+
+			for (int i = 0; i < ENTRY_COUNT; i++) {
+
+				LogEntry logEntry = new LogEntry();
+				logEntry.setTimestamp(i);
+
+				if (i % 3 == 0) {
+
+					logEntry.setEvent(new KeyEvent(KeyEvent.Type.PRESSED, 65, 'a'));
+
+				} else {
+
+					MouseEvent event;
+
+					if (i % 3 == 1) {
+						event = new MouseMovedEvent();
+						event.setX(i % 100);
+						event.setY(10);
+					} else {
+						MousePressedEvent pressed = new MousePressedEvent();
+						pressed.setButtonCode(1);
+						event = pressed;
+						event.setX(50);
+						event.setY(i < 300 ? 50 : 5000); // NOTE most off screen
+					}
+
+					logEntry.setEvent(event);
+
+				}
+
+				logEntry.setMessage(logEntry.getEvent().type());
+
+				writer.write(logEntry);
+
+				// the click logged after each press (not counted by default)
+				if (logEntry.getEvent() instanceof MousePressedEvent) {
+
+					MouseClickedEvent clicked = new MouseClickedEvent();
+					clicked.setButtonCode(1);
+					clicked.setX(50);
+					clicked.setY(i < 300 ? 50 : 5000);
+
+					LogEntry clickEntry = new LogEntry();
+					clickEntry.setTimestamp(i);
+					clickEntry.setEvent(clicked);
+					clickEntry.setMessage(clicked.type());
+
+					writer.write(clickEntry);
+
+				}
+
+			}
+
+		}
+
+	}
+
+	// checks the heatmap built from the given format
+	private void testFormat(LogFormat format) throws Exception {
+
+		writeLog(format);
+
+		HeatmapBuilder builder = new HeatmapBuilder(pool, 200, 100, 10);
+		builder.add(file);
+
+		Heatmap heatmap = builder.build();
+
+		assertEquals(20, heatmap.getWidth());
+		assertEquals(10, heatmap.getHeight());
+
+		assertEquals(ENTRY_COUNT / 3, heatmap.getTotal(Heatmap.Layer.MOVEMENT));
+		assertEquals(1000, heatmap.getCount(Heatmap.Layer.MOVEMENT, 0, 1));
+		assertEquals(0, heatmap.getCount(Heatmap.Layer.MOVEMENT, 0, 0));
+
+		assertEquals(100, heatmap.getTotal(Heatmap.Layer.CLICKS));
+		assertEquals(100, heatmap.getCount(Heatmap.Layer.CLICKS, 5, 5));
+		assertEquals(ENTRY_COUNT / 3 - 100, heatmap.getOutside());
+
+	}
+
+	/** Tests building from a binary log (counted without decoding). */
+	@Test
+	public void testBinary() throws Exception {
+		testFormat(LogFormat.BINARY);
+	}
+
+	/** Tests building from an XML log. */
+	@Test
+	public void testXml() throws Exception {
+		testFormat(LogFormat.XML);
+	}
+
+	/** Tests building with a filter and adding several logs. */
+	@Test
+	public void testFilter() throws Exception {
+
+		writeLog(LogFormat.BINARY);
+
+		LogFilter filter = new LogFilter();
+		filter.setTimeRange(0, 299);
+
+		HeatmapBuilder builder = new HeatmapBuilder(pool, 200, 100, 10);
+		builder.setFilter(filter);
+		builder.add(file);
+		builder.add(file);
+
+		Heatmap heatmap = builder.build();
+
+		assertEquals(200, heatmap.getTotal(Heatmap.Layer.CLICKS));
+		assertEquals(0, heatmap.getOutside());
+
+		StringWriter csv = new StringWriter();
+		heatmap.writeCsv(csv);
+
+		assertEquals(true, csv.toString().startsWith("x,y,clicks,movement\n"));
+		assertEquals(true, csv.toString().contains("\n50,50,200,0\n"));
+
+	}
+
+	/** Tests selecting the events counted by each layer. */
+	@Test
+	public void testLayers() throws Exception {
+
+		writeLog(LogFormat.BINARY);
+
+		LogFilter filter = new LogFilter();
+		filter.setTimeRange(0, 299);
+
+		// count the clicks, rather than the presses, and ignore drags
+		HeatmapBuilder builder = new HeatmapBuilder(pool, 200, 100, 10);
+		builder.setLayer(LogEvents.MOUSE_PRESSED, null);
+		builder.setLayer(LogEvents.MOUSE_CLICKED, Heatmap.Layer.CLICKS);
+		builder.setLayer(LogEvents.MOUSE_DRAGGED, null);
+		builder.setFilter(filter);
+		builder.add(file);
+
+		assertEquals(Heatmap.Layer.CLICKS, builder.getLayer(LogEvents.MOUSE_CLICKED));
+		assertEquals(null, builder.getLayer(LogEvents.MOUSE_PRESSED));
+		assertEquals(null, builder.getLayer(LogEvents.KEY_EVENT));
+
+		Heatmap heatmap = builder.build();
+
+		assertEquals(100, heatmap.getTotal(Heatmap.Layer.CLICKS));
+		assertEquals(100, heatmap.getCount(Heatmap.Layer.CLICKS, 5, 5));
+
+	}
+
+}
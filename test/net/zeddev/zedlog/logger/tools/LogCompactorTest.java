@@ -0,0 +1,240 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
+import net.zeddev.zedlog.logger.io.AbstractLogEntryReader;
+import net.zeddev.zedlog.logger.io.LogEntryWriter;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.LogCompactor}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class LogCompactorTest {
+
+	private long timestamp = 1000;
+
+	private LogEntry entry(LogEvent event) {
+
+		LogEntry logEntry = new LogEntry();
+		logEntry.setTimestamp(timestamp += 10);
+		logEntry.setEvent(event);
+		logEntry.setMessage(event.type());
+
+		return logEntry;
+
+	}
+
+	private LogEntry move(int x, int y) {
+
+		MouseMovedEvent event = new MouseMovedEvent();
+		event.setX(x);
+		event.setY(y);
+
+		return entry(event);
+
+	}
+
+	private LogEntry press(int x, int y) {
+
+		MousePressedEvent event = new MousePressedEvent();
+		event.setX(x);
+		event.setY(y);
+		event.setButtonCode(1);
+
+		return entry(event);
+
+	}
+
+	private LogEntry release(int x, int y) {
+
+		MouseReleasedEvent event = new MouseReleasedEvent();
+		event.setX(x);
+		event.setY(y);
+		event.setButtonCode(1);
+
+		return entry(event);
+
+	}
+
+	private LogEntry drag(int x, int y) {
+
+		MouseDraggedEvent event = new MouseDraggedEvent();
+		event.setX(x);
+		event.setY(y);
+		event.setButtonCode(1);
+
+		return entry(event);
+
+	}
+
+	private LogEntry key(int keyCode) {
+		return entry(new KeyEvent(KeyEvent.Type.PRESSED, keyCode, 'a'));
+	}
+
+	// compacts the given entries
+	private static List<LogEntry> compact(LogCompactor compactor, List<LogEntry> logEntries)
+			throws Exception {
+
+		ListLogWriter output = new ListLogWriter();
+
+		compactor.compact(new ListLogReader(logEntries), output);
+
+		return output.logEntries;
+
+	}
+
+	/** Tests that only redundant moves are dropped. */
+	@Test
+	public void testCompact() throws Exception {
+
+		LogEntry kept1 = move(10, 10);
+		LogEntry dup = move(10, 10);
+		LogEntry beforePress = move(20, 20);
+		LogEntry pressed = press(20, 20);
+		LogEntry beforeKey = move(30, 30);
+		LogEntry keyPressed = key(65);
+		LogEntry beforeDrag = move(40, 40);
+		LogEntry dragged = drag(50, 50);
+		LogEntry released = release(50, 50);
+		LogEntry last = move(60, 60);
+
+		List<LogEntry> original = Arrays.asList(
+			kept1, dup, beforePress, pressed, beforeKey, keyPressed,
+			beforeDrag, dragged, released, last
+		);
+
+		LogCompactor compactor = new LogCompactor(0);
+		List<LogEntry> compacted = compact(compactor, original);
+
+		assertEquals(Arrays.asList(
+			kept1, pressed, beforeKey, keyPressed, beforeDrag, dragged, released, last
+		), compacted);
+
+		assertEquals(10, compactor.getEntriesRead());
+		assertEquals(8, compactor.getEntriesWritten());
+		assertEquals(2, compactor.getEntriesDropped());
+
+		assertEquals(-1, LogCompactor.verify(
+			new ListLogReader(original), new ListLogReader(compacted), 0
+		));
+
+	}
+
+	/** Tests compaction with a position tolerance. */
+	@Test
+	public void testCompactTolerance() throws Exception {
+
+		List<LogEntry> original = new ArrayList<>();
+
+		for (int i = 0; i < 100; i++) {
+			original.add(move(100 + i % 3, 100 - i % 2));
+			original.add(key(65 + i % 5));
+		}
+
+		LogCompactor compactor = new LogCompactor(2);
+		List<LogEntry> compacted = compact(compactor, original);
+
+		assertEquals(101, compacted.size());
+
+		assertEquals(-1, LogCompactor.verify(
+			new ListLogReader(original), new ListLogReader(compacted), 2
+		));
+
+		// but the difference is larger than an exact replay allows
+		assertEquals(true, LogCompactor.verify(
+			new ListLogReader(original), new ListLogReader(compacted), 0
+		) >= 0);
+
+	}
+
+	/** Tests that verification detects a changed replay. */
+	@Test
+	public void testVerifyMismatch() throws Exception {
+
+		List<LogEntry> original = Arrays.asList(
+			move(10, 10), key(65), press(10, 10), release(10, 10)
+		);
+
+		// the pointer is not where the key is pressed
+		List<LogEntry> missingMove = original.subList(1, original.size());
+		assertEquals(0, LogCompactor.verify(
+			new ListLogReader(original), new ListLogReader(missingMove), 0
+		));
+
+		// the release is missing
+		List<LogEntry> missingRelease = original.subList(0, original.size() - 1);
+		assertEquals(2, LogCompactor.verify(
+			new ListLogReader(original), new ListLogReader(missingRelease), 0
+		));
+
+	}
+
+	// reads entries from a list
+	private static final class ListLogReader extends AbstractLogEntryReader {
+
+		private final List<LogEntry> logEntries;
+		private int next = 0;
+
+		private ListLogReader(List<LogEntry> logEntries) {
+			this.logEntries = logEntries;
+		}
+
+		@Override
+		public LogEntry read() {
+			return next < logEntries.size() ? logEntries.get(next++) : null;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+	// writes entries to a list
+	private static final class ListLogWriter implements LogEntryWriter {
+
+		private final List<LogEntry> logEntries = new ArrayList<>();
+
+		@Override
+		public void write(LogEntry logEntry) {
+			logEntries.add(logEntry);
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
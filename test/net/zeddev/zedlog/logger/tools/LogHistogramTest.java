@@ -0,0 +1,104 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.LogHistogram}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class LogHistogramTest {
+
+	@Test
+	public void testSmallValuesExact() {
+
+		LogHistogram histogram = new LogHistogram();
+
+		for (int value = 1; value <= 100; value++)
+			histogram.record(value);
+
+		assertEquals(100, histogram.getCount());
+		assertEquals(1, histogram.getMin());
+		assertEquals(100, histogram.getMax());
+		assertEquals(50.5, histogram.getMean(), 1e-9);
+		assertEquals(50, histogram.getPercentile(50));
+		assertEquals(99, histogram.getPercentile(99));
+		assertEquals(100, histogram.getPercentile(100));
+
+	}
+
+	@Test
+	public void testRelativeError() {
+
+		LogHistogram histogram = new LogHistogram();
+		Random random = new Random(42);
+
+		long[] values = new long[100000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) Math.exp(random.nextDouble() * 30);
+			histogram.record(values[i]);
+		}
+
+		Arrays.sort(values);
+
+		double maxError = 2.0 / (1 << histogram.getPrecision());
+
+		for (double percentile : new double[] {1, 25, 50, 90, 99, 99.9}) {
+
+			long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+			long estimate = histogram.getPercentile(percentile);
+
+			assertTrue(estimate >= exact);
+			assertTrue(estimate - exact <= exact * maxError);
+
+		}
+
+		assertEquals(values[values.length - 1], histogram.getMax());
+
+	}
+
+	@Test
+	public void testAddAndReset() {
+
+		LogHistogram first = new LogHistogram();
+		LogHistogram second = new LogHistogram();
+
+		first.record(5, 3);
+		second.record(1000000);
+
+		first.add(second);
+
+		assertEquals(4, first.getCount());
+		assertEquals(5, first.getMin());
+		assertEquals(1000000, first.getMax());
+		assertEquals(5, first.getPercentile(75));
+
+		first.reset();
+
+		assertEquals(0, first.getCount());
+		assertEquals(0, first.getMax());
+		assertEquals(0, first.getPercentile(50));
+
+	}
+
+}
@@ -0,0 +1,235 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.io.AbstractLogEntryReader;
+import net.zeddev.zedlog.logger.io.ListLogReader;
+import net.zeddev.zedlog.logger.io.LogEntryReader;
+import net.zeddev.zedlog.logger.io.LogEntryWriter;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import net.zeddev.zedlog.logger.io.MergingLogReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.LogSorter}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class LogSorterTest {
+
+	private static final int ENTRY_COUNT = 5000;
+
+	private ExecutorService executor;
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		executor = Executors.newFixedThreadPool(4);
+		file = File.createTempFile("zedlog-test", ".zlog");
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+		file.delete();
+	}
+
+	// creates entries at random times (with many equal), numbered in order
+	private static List<LogEntry> unsortedEntries() {
+
+		Random random = new Random(42);
+		List<LogEntry> logEntries = new ArrayList<>();
+
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+
+			LogEntry logEntry = new LogEntry();
+			logEntry.setTimestamp(random.nextInt(ENTRY_COUNT / 4));
+			logEntry.setEvent(new KeyEvent(KeyEvent.Type.TYPED, 65, 'A'));
+			logEntry.setMessage(Integer.toString(i));
+
+			logEntries.add(logEntry);
+
+		}
+
+		return logEntries;
+
+	}
+
+	// sorts the entries into the file, returning the sorter
+	private LogSorter sort(List<LogEntry> logEntries, int runSize, int fanIn)
+			throws Exception {
+
+		LogSorter sorter = new LogSorter(executor, runSize, fanIn);
+
+		try (LogEntryWriter writer = LogFormat.BINARY.newWriter(file, new ArrayList<String>(), true)) {
+			sorter.sort(new ListLogReader(logEntries), writer);
+		}
+
+		return sorter;
+
+	}
+
+	// checks the file is sorted (stably) and complete
+	private void checkSorted() throws Exception {
+
+		int count = 0;
+		LogEntry last = null;
+
+		try (AbstractLogEntryReader reader = LogFormat.BINARY.newReader(file)) {
+
+			assertTrue(reader.isSorted());
+
+			LogEntry logEntry;
+			while ((logEntry = reader.read()) != null) {
+
+				if (last != null) {
+
+					assertTrue(logEntry.getTimestamp() >= last.getTimestamp());
+
+					// equal timestamps keep their original order
+					if (logEntry.getTimestamp() == last.getTimestamp()) {
+						assertTrue(Integer.parseInt(logEntry.getMessage())
+							> Integer.parseInt(last.getMessage()));
+					}
+
+				}
+
+				last = logEntry;
+				count++;
+
+			}
+
+		}
+
+		assertEquals(ENTRY_COUNT, count);
+
+	}
+
+	@Test
+	public void testInMemory() throws Exception {
+
+		LogSorter sorter = sort(unsortedEntries(), 2 * ENTRY_COUNT, LogSorter.DEFAULT_FAN_IN);
+
+		assertEquals(0, sorter.getRunCount());
+		assertEquals(ENTRY_COUNT, sorter.getEntriesRead());
+		assertTrue(sorter.getOutOfOrder() > 0);
+
+		checkSorted();
+
+	}
+
+	@Test
+	public void testExternal() throws Exception {
+
+		// 50 runs, merged 4 at a time (13, then 4, runs before the final merge)
+		LogSorter sorter = sort(unsortedEntries(), 100, 4);
+
+		assertEquals(50, sorter.getRunCount());
+		assertEquals(2, sorter.getMergePasses());
+
+		checkSorted();
+
+	}
+
+	@Test
+	public void testSortedMarker() throws Exception {
+
+		File xml = File.createTempFile("zedlog-test", ".xml");
+
+		try {
+
+			for (boolean sorted : new boolean[] {false, true}) {
+
+				for (File out : new File[] {file, xml}) {
+
+					LogEntryWriter writer = LogFormat.forFileName(out)
+						.newWriter(out, new ArrayList<String>(), sorted);
+					writer.close();
+
+					try (AbstractLogEntryReader reader = LogFormat.open(out)) {
+						assertEquals(sorted, reader.isSorted());
+					}
+
+				}
+
+			}
+
+			// entries of a merged log are sorted only if every log is
+			List<LogEntryReader> sources = new ArrayList<>();
+			sources.add(LogFormat.open(file));
+			sources.add(new ListLogReader(new ArrayList<LogEntry>()));
+
+			try (AbstractLogEntryReader reader = new MergingLogReader(sources)) {
+				assertFalse(reader.isSorted());
+			}
+
+		} finally {
+			xml.delete();
+		}
+
+	}
+
+	@Test
+	public void testFalseSortedMarker() throws Exception {
+
+		// an unsorted log wrongly marked as sorted is reported as corrupt
+		try (LogEntryWriter writer = LogFormat.BINARY.newWriter(file, new ArrayList<String>(), true)) {
+			for (LogEntry logEntry : unsortedEntries())
+				writer.write(logEntry);
+		}
+
+		LogVerifier.Report report = new LogVerifier(executor).verify(file);
+
+		assertTrue(report.isSorted());
+		assertTrue(report.isFalselySorted());
+		assertFalse(report.isValid());
+		assertTrue(report.toString().contains("ERROR marked as sorted"));
+
+		// the span covers the earliest to the latest entry
+		long earliest = Long.MAX_VALUE, latest = Long.MIN_VALUE;
+		for (LogEntry logEntry : unsortedEntries()) {
+			earliest = Math.min(earliest, logEntry.getTimestamp());
+			latest = Math.max(latest, logEntry.getTimestamp());
+		}
+
+		assertEquals(earliest, report.getFirstTimestamp());
+		assertEquals(latest, report.getLastTimestamp());
+
+		// once sorted the marker is trusted
+		sort(unsortedEntries(), ENTRY_COUNT, 2);
+		report = new LogVerifier(executor).verify(file);
+
+		assertTrue(report.isSorted());
+		assertFalse(report.isFalselySorted());
+		assertTrue(report.isValid());
+
+	}
+
+}
@@ -0,0 +1,132 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.ReplayScheduler}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class ReplaySchedulerTest {
+
+	@Test
+	public void testNoDrift() throws Exception {
+
+		ReplayScheduler scheduler = new ReplayScheduler();
+		scheduler.start();
+
+		long timestamp = 1000000;
+		long start = System.nanoTime();
+
+		for (int i = 0; i < 200; i++) {
+
+			assertTrue(scheduler.await(timestamp));
+
+			// simulate slow events, which must not delay later events
+			if (i % 10 == 0)
+				Thread.sleep(1);
+
+			timestamp += 3;
+
+		}
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		// 199 gaps of 3ms
+		assertTrue(elapsed >= 597);
+		assertTrue("drifted " + (elapsed - 597) + "ms", elapsed < 597 + 20);
+
+	}
+
+	@Test
+	public void testDeadlinesAbsolute() {
+
+		ReplayScheduler scheduler = new ReplayScheduler();
+		scheduler.start();
+
+		long first = scheduler.deadline(5000);
+
+		assertTrue(scheduler.deadline(5010) - first == TimeUnit.MILLISECONDS.toNanos(10));
+
+		// out of order events are due with the last
+		assertTrue(scheduler.deadline(5005) - first == TimeUnit.MILLISECONDS.toNanos(10));
+		assertTrue(scheduler.deadline(5020) - first == TimeUnit.MILLISECONDS.toNanos(20));
+
+	}
+
+	@Test
+	public void testSpeedAndMaxGap() {
+
+		ReplayScheduler scheduler = new ReplayScheduler();
+		scheduler.setSpeed(4.0);
+		scheduler.setMaxGap(1000);
+		scheduler.start();
+
+		long first = scheduler.deadline(0);
+
+		// a short gap is scaled
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(25), scheduler.deadline(100) - first);
+
+		// an idle gap is capped, then scaled
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(275), scheduler.deadline(60100) - first);
+
+		// a change of speed applies from the last event
+		scheduler.setSpeed(0.5);
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(475), scheduler.deadline(60200) - first);
+
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+
+		final ReplayScheduler scheduler = new ReplayScheduler();
+		scheduler.start();
+
+		assertTrue(scheduler.await(0));
+
+		Thread canceller = new Thread(new Runnable() {
+			@Override
+			public void run() {
+
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException ex) {
+				}
+
+				scheduler.cancel();
+
+			}
+		});
+		canceller.start();
+
+		long start = System.nanoTime();
+
+		// an hour away
+		assertFalse(scheduler.await(3600000));
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+		canceller.join();
+
+	}
+
+}
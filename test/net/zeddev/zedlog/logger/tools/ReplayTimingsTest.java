@@ -0,0 +1,78 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.ReplayTimings}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class ReplayTimingsTest {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	public void testSummary() throws Exception {
+
+		ReplayTimings timings = new ReplayTimings(2);
+
+		StringWriter raw = new StringWriter();
+		timings.setRawOutput(raw);
+
+		long origin = 5000 * MS;
+
+		// events 10ms apart, the 4th 7ms late and the 8th 3ms late
+		for (int i = 0; i < 10; i++) {
+
+			long scheduled = origin + i * 10 * MS;
+			long late = i == 3 ? 7 * MS : i == 7 ? 3 * MS : 0;
+
+			timings.record(1000 + i * 10, scheduled, scheduled + late, scheduled + late + MS);
+
+		}
+
+		timings.flush();
+
+		assertEquals(10, timings.getCount());
+		assertEquals(7000, timings.getLateness().getMax());
+		assertEquals(0, timings.getLateness().getPercentile(50));
+		assertEquals(1000, timings.getSinkTimes().getPercentile(50));
+
+		List<ReplayTimings.Timing> worst = timings.getWorst();
+		assertEquals(2, worst.size());
+		assertEquals(3, worst.get(0).getIndex());
+		assertEquals(7, worst.get(1).getIndex());
+		assertEquals(30 * MS, worst.get(0).getScheduled());
+
+		String[] lines = raw.toString().split("\n");
+		assertEquals(11, lines.length);
+		assertEquals("3,1030,30000,37000,7000,1000", lines[4]);
+
+		StringWriter text = new StringWriter();
+		timings.writeText(text);
+		assertTrue(text.toString().contains("#3 at 1030: 7.000ms late"));
+
+	}
+
+}
@@ -0,0 +1,451 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.awt.event.InputEvent;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.LogEvent;
+import net.zeddev.zedlog.logger.impl.LogEvents;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseClickedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseDraggedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import net.zeddev.zedlog.logger.impl.event.MousePressedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseReleasedEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseWheelMovedEvent;
+import net.zeddev.zedlog.logger.io.BinaryLogWriter;
+import net.zeddev.zedlog.logger.io.KeyframeTracker;
+import net.zeddev.zedlog.logger.io.LogEntryWriter;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.ReplayTool}, replaying
+ * to sinks which need no display.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class ReplayToolTest {
+
+	// creates a log entry at the given time
+	private static LogEntry entry(long timestamp, LogEvent event) {
+
+		LogEntry logEntry = new LogEntry();
+		logEntry.setTimestamp(timestamp);
+		logEntry.setMessage("test");
+		logEntry.setEvent(event);
+
+		return logEntry;
+
+	}
+
+	// creates a mouse event at the given point
+	private static <T extends MouseEvent> T at(T event, int x, int y) {
+		event.setX(x);
+		event.setY(y);
+		return event;
+	}
+
+	private static List<LogEntry> sampleLog() {
+
+		MousePressedEvent press = at(new MousePressedEvent(), 30, 40);
+		press.setButtonCode(1);
+
+		return Arrays.asList(
+			entry(1000, at(new MouseMovedEvent(), 10, 20)),
+			entry(1010, press),
+			entry(1020, new KeyEvent(KeyEvent.Type.TYPED, 65, 'A'))
+		);
+
+	}
+
+	@Test
+	public void testRecordingSink() {
+
+		RecordingReplaySink sink = new RecordingReplaySink();
+
+		ReplayTool tool = new ReplayTool(sampleLog());
+		tool.setSink(sink);
+		tool.replayFast().run();
+
+		List<RecordingReplaySink.Action> actions = sink.getActions();
+		assertEquals(
+			"[MOUSE_MOVE 10 20, MOUSE_MOVE 30 40, MOUSE_PRESS " + InputEvent.BUTTON1_MASK
+				+ ", KEY_PRESS 65, KEY_RELEASE 65, MOUSE_RELEASE " + InputEvent.BUTTON1_MASK + "]",
+			actions.toString()
+		);
+
+	}
+
+	@Test
+	public void testKeyframeTracker() {
+
+		MousePressedEvent press = at(new MousePressedEvent(), 5, 5);
+		press.setButtonCode(3);
+		MouseDraggedEvent drag = at(new MouseDraggedEvent(), 6, 6);
+		drag.setButtonCode(3);
+		MouseClickedEvent click = at(new MouseClickedEvent(), 7, 7);
+		click.setButtonCode(2);
+		MouseReleasedEvent release = at(new MouseReleasedEvent(), 8, 8);
+		release.setButtonCode(1);
+
+		List<LogEvent> events = Arrays.asList(
+			new KeyEvent(KeyEvent.Type.PRESSED, 16, '\0'),
+			at(new MouseMovedEvent(), 1, 2),
+			press, drag, press, click, press,
+			new KeyEvent(KeyEvent.Type.TYPED, 65, 'a'),
+			at(new MouseWheelMovedEvent(), 3, 4),
+			release,
+			new KeyEvent(KeyEvent.Type.RELEASED, 16, '\0')
+		);
+
+		// the writer's state follows the state of a replay of the same events
+		ReplayState replayed = new ReplayState();
+		KeyframeTracker tracked = new KeyframeTracker();
+
+		for (LogEvent event : events) {
+			ReplayTool.replayEvent(replayed, event);
+			tracked.update(event);
+			assertEquals(event.toString(), replayed.toKeyframe(), tracked.toKeyframe());
+		}
+
+	}
+
+	@Test
+	public void testCustomReplayer() {
+
+		RecordingReplaySink sink = new RecordingReplaySink();
+
+		ReplayTool tool = new ReplayTool(sampleLog());
+		tool.setSink(sink);
+
+		// ignore key events, and move to the origin for every mouse press
+		tool.getDispatcher().register(LogEvents.KEY_EVENT, null);
+		tool.getDispatcher().register(LogEvents.MOUSE_PRESSED, new EventReplayer() {
+			@Override
+			public void replay(ReplaySink sink, LogEvent event) {
+				sink.mouseMove(0, 0);
+			}
+		});
+
+		tool.replayFast().run();
+
+		assertEquals("[MOUSE_MOVE 10 20, MOUSE_MOVE 0 0]", sink.getActions().toString());
+
+	}
+
+	@Test
+	public void testStreamedTimedReplay() throws Exception {
+
+		File file = File.createTempFile("zedlog-test", ".zlog");
+
+		try {
+
+			List<LogEntry> logEntries = new ArrayList<>();
+			for (int i = 0; i < 1000; i++)
+				logEntries.add(entry(1000 + i * 2, at(new MouseMovedEvent(), i, i)));
+
+			try (LogEntryWriter writer = LogFormat.BINARY.newWriter(file, new ArrayList<String>())) {
+				for (LogEntry logEntry : logEntries)
+					writer.write(logEntry);
+			}
+
+			RecordingReplaySink sink = new RecordingReplaySink();
+
+			ReplayTool tool = new ReplayTool(file);
+			tool.setSink(sink);
+			tool.setSpeed(10.0);
+
+			long start = System.nanoTime();
+			tool.replayTimed().run();
+			long elapsed = (System.nanoTime() - start) / 1000000;
+
+			assertEquals(1000, sink.size());
+			assertEquals(999, sink.getActions().get(999).getFirst());
+
+			// 1998ms of log at 10x
+			assertTrue(elapsed >= 199);
+
+		} finally {
+			file.delete();
+		}
+
+	}
+
+	@Test
+	public void testPartialReplay() throws Exception {
+
+		File file = File.createTempFile("zedlog-test", ".zlog");
+
+		try {
+
+			// moves every 10ms, with the left button held from 1500 to 4500
+			try (BinaryLogWriter writer = new BinaryLogWriter(
+					new FileOutputStream(file), new ArrayList<String>(), 100)) {
+
+				for (int i = 0; i < 1000; i++) {
+
+					MouseEvent event = new MouseMovedEvent();
+					if (i == 150) {
+						MousePressedEvent press = new MousePressedEvent();
+						press.setButtonCode(1);
+						event = press;
+					} else if (i == 450) {
+						MouseReleasedEvent release = new MouseReleasedEvent();
+						release.setButtonCode(1);
+						event = release;
+					}
+
+					writer.write(entry(i * 10, at(event, i, i)));
+
+				}
+
+			}
+
+			RecordingReplaySink sink = new RecordingReplaySink();
+
+			ReplayTool tool = new ReplayTool(file);
+			tool.setSink(sink);
+			tool.setRange(2500, 2520);
+			tool.replayFast().run();
+
+			// the held button is pressed before, and released after, the range
+			assertEquals(
+				"[MOUSE_MOVE 249 249, MOUSE_PRESS " + InputEvent.BUTTON1_MASK
+					+ ", MOUSE_MOVE 250 250, MOUSE_MOVE 251 251, MOUSE_MOVE 252 252"
+					+ ", MOUSE_RELEASE " + InputEvent.BUTTON1_MASK + "]",
+				sink.getActions().toString()
+			);
+
+		} finally {
+			file.delete();
+		}
+
+	}
+
+	@Test
+	public void testStopReleases() {
+
+		final RecordingReplaySink recording = new RecordingReplaySink();
+		final ReplayTool tool = new ReplayTool(sampleLog());
+
+		// stops the replay once the button is pressed
+		tool.setSink(new ReplaySink() {
+
+			@Override
+			public void mouseMove(int x, int y) {
+				recording.mouseMove(x, y);
+			}
+
+			@Override
+			public void mousePress(int buttons) {
+				recording.mousePress(buttons);
+				tool.stop();
+			}
+
+			@Override
+			public void mouseRelease(int buttons) {
+				recording.mouseRelease(buttons);
+			}
+
+			@Override
+			public void mouseWheel(int rotation) {
+				recording.mouseWheel(rotation);
+			}
+
+			@Override
+			public void keyPress(int keyCode) {
+				recording.keyPress(keyCode);
+			}
+
+			@Override
+			public void keyRelease(int keyCode) {
+				recording.keyRelease(keyCode);
+			}
+
+			@Override
+			public void sync() {
+				recording.sync();
+			}
+
+		});
+
+		tool.replayFast().run();
+
+		// the held button is released when stopped
+		assertEquals(
+			"[MOUSE_MOVE 10 20, MOUSE_MOVE 30 40, MOUSE_PRESS " + InputEvent.BUTTON1_MASK
+				+ ", MOUSE_RELEASE " + InputEvent.BUTTON1_MASK + "]",
+			recording.getActions().toString()
+		);
+
+	}
+
+	// a sink which stalls on the first move, recording to the given sink
+	private static ReplaySink stallingSink(final RecordingReplaySink recording) {
+
+		return new ReplaySink() {
+
+			private boolean stalled = false;
+
+			@Override
+			public void mouseMove(int x, int y) {
+
+				if (!stalled) {
+
+					stalled = true;
+
+					try {
+						Thread.sleep(100);
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+
+				}
+
+				recording.mouseMove(x, y);
+
+			}
+
+			@Override
+			public void mousePress(int buttons) {
+				recording.mousePress(buttons);
+			}
+
+			@Override
+			public void mouseRelease(int buttons) {
+				recording.mouseRelease(buttons);
+			}
+
+			@Override
+			public void mouseWheel(int rotation) {
+				recording.mouseWheel(rotation);
+			}
+
+			@Override
+			public void keyPress(int keyCode) {
+				recording.keyPress(keyCode);
+			}
+
+			@Override
+			public void keyRelease(int keyCode) {
+				recording.keyRelease(keyCode);
+			}
+
+			@Override
+			public void sync() {
+				recording.sync();
+			}
+
+		};
+
+	}
+
+	@Test
+	public void testCatchUp() {
+
+		// a move each ms for 60ms, with a key typed at 30ms
+		List<LogEntry> logEntries = new ArrayList<>();
+		for (int i = 0; i <= 60; i++) {
+			if (i == 30) {
+				logEntries.add(entry(1000 + i, new KeyEvent(KeyEvent.Type.TYPED, 65, 'A')));
+			} else {
+				logEntries.add(entry(1000 + i, at(new MouseMovedEvent(), i, i)));
+			}
+		}
+
+		RecordingReplaySink sink = new RecordingReplaySink();
+
+		ReplayTool tool = new ReplayTool(logEntries);
+		tool.setSink(stallingSink(sink));
+		tool.setCatchUp(true);
+		tool.replayTimed().run();
+
+		// the moves before the key and at the end are not superseded
+		assertEquals(
+			"[MOUSE_MOVE 0 0, MOUSE_MOVE 29 29, KEY_PRESS 65, KEY_RELEASE 65, MOUSE_MOVE 60 60]",
+			sink.getActions().toString()
+		);
+		assertEquals(57, tool.getSkipped());
+
+		// every event replayed without catching up
+		sink.clear();
+
+		tool.setCatchUp(false);
+		tool.replayTimed().run();
+
+		assertEquals(62, sink.size());
+		assertEquals(0, tool.getSkipped());
+
+	}
+
+	// returns the number of syncs replaying the sample log with the policy
+	private static int syncCount(String policy) {
+
+		RecordingReplaySink sink = new RecordingReplaySink();
+
+		ReplayTool tool = new ReplayTool(sampleLog());
+		tool.setSink(sink);
+		tool.setSync(SyncPolicy.parse(policy));
+		tool.replayFast().run();
+
+		// the same input, however often synced
+		// NOTE including the release of the button held at the end
+		assertEquals(6, sink.size());
+
+		return sink.getSyncCount();
+
+	}
+
+	@Test
+	public void testSyncPolicy() {
+
+		// NOTE each count includes the sync after the final release
+		assertEquals(4, syncCount("each"));
+		assertEquals(1, syncCount("none"));
+		assertEquals(2, syncCount("2"));
+
+		// before and after the press, after the key and after the release
+		assertEquals(4, syncCount("discrete"));
+
+		assertEquals("discrete+10+50ms", SyncPolicy.parse("discrete+50ms+10").toString());
+		assertEquals(SyncPolicy.EACH_EVENT, SyncPolicy.parse("each"));
+
+		// NOTE a zero part is valid alongside another
+		assertEquals("discrete", SyncPolicy.parse("0+discrete").toString());
+
+		for (String invalid : new String[] {"", "0", "0ms", "fast", "10+", "10+20",
+				"5ms+10ms", "discrete+discrete", "-1+discrete"}) {
+			try {
+				SyncPolicy.parse(invalid);
+				assertTrue(invalid, false);
+			} catch (IllegalArgumentException ex) {
+				// expected
+			}
+		}
+
+	}
+
+}
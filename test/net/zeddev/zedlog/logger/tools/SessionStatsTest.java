@@ -0,0 +1,144 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.StringWriter;
+
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.impl.event.MouseMovedEvent;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.SessionStats}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class SessionStatsTest {
+
+	// creates a log entry at the given time
+	private static LogEntry entry(long timestamp, boolean move) {
+
+		LogEntry logEntry = new LogEntry();
+		logEntry.setTimestamp(timestamp);
+		logEntry.setMessage("test");
+
+		if (move) {
+
+			MouseMovedEvent event = new MouseMovedEvent();
+			event.setX(1);
+			event.setY(2);
+
+			logEntry.setEvent(event);
+
+		} else {
+			logEntry.setEvent(new KeyEvent(KeyEvent.Type.PRESSED, 65, 'A'));
+		}
+
+		return logEntry;
+
+	}
+
+	@Test
+	public void testLoggerType() {
+		assertEquals("MouseMovement", SessionStats.loggerType(entry(0, true)));
+		assertEquals("KeyPressed", SessionStats.loggerType(entry(0, false)));
+	}
+
+	@Test
+	public void testRatesAndGaps() {
+
+		SessionStats stats = new SessionStats(1000);
+
+		// a move every 10ms for 10 seconds, with a burst of 50 in the 5th
+		long time = 100000;
+		for (int i = 0; i < 1000; i++) {
+
+			stats.add(entry(time, true));
+
+			if (i == 400) {
+				for (int j = 0; j < 50; j++)
+					stats.add(entry(time, true));
+			}
+
+			time += 10;
+
+		}
+
+		// a key press every second
+		for (long key = 100000; key < time; key += 1000)
+			stats.add(entry(key + 5, false));
+
+		assertEquals(1050, stats.getCount("MouseMovement"));
+		assertEquals(10, stats.getCount("KeyPressed"));
+		assertEquals(1060, stats.getCount(SessionStats.ALL));
+
+		assertEquals(9990, stats.getDuration("MouseMovement"));
+		assertEquals(150, stats.getPeakCount("MouseMovement"));
+		assertEquals(1, stats.getPeakCount("KeyPressed"));
+
+		LogHistogram gaps = stats.getGaps("MouseMovement");
+		assertEquals(1049, gaps.getCount());
+		assertEquals(0, gaps.getMin());
+		assertEquals(10, gaps.getPercentile(90));
+
+		assertEquals(1000, stats.getGaps("KeyPressed").getPercentile(50));
+
+		// the key presses were added after the moves
+		assertTrue(stats.getOutOfOrder(SessionStats.ALL) > 0);
+
+		StringWriter csv = new StringWriter();
+		stats.writeCsv(csv);
+
+		String[] lines = csv.toString().split("\n");
+		assertEquals(4, lines.length);
+		assertTrue(lines[1].startsWith("KeyPressed,10,"));
+		assertTrue(lines[3].startsWith("All,1060,"));
+
+	}
+
+	@Test
+	public void testOutOfOrder() {
+
+		SessionStats stats = new SessionStats(1000);
+
+		// 50 moves over 500ms, crossing a window, with an earlier move last
+		for (int i = 0; i < 50; i++)
+			stats.add(entry(10700 + i * 10, true));
+		stats.add(entry(8000, true));
+
+		assertEquals(1, stats.getOutOfOrder("MouseMovement"));
+		assertEquals(8000, stats.getFirst("MouseMovement"));
+		assertEquals(11190, stats.getLast("MouseMovement"));
+		assertEquals(3190, stats.getDuration("MouseMovement"));
+		assertEquals(3190, stats.getDuration(SessionStats.ALL));
+
+		// NOTE the mean is over the whole span
+		assertEquals(51 * 1000.0 / 3190, stats.getMeanRate("MouseMovement"), 0.001);
+
+		// a short session is no faster on average than at its peak
+		SessionStats burst = new SessionStats(1000);
+		for (int i = 0; i < 50; i++)
+			burst.add(entry(10700 + i * 10, true));
+
+		assertEquals(30, burst.getPeakCount("MouseMovement"));
+		assertEquals(30.0, burst.getMeanRate("MouseMovement"), 0.001);
+
+	}
+
+}
@@ -0,0 +1,100 @@
+package net.zeddev.zedlog.logger.tools;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.TestDataLogger;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.io.ListLogReader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.logger.tools.TextExporter}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class TextExporterTest {
+
+	// the event of every entry
+	private static final KeyEvent TYPED_A = new KeyEvent(KeyEvent.Type.TYPED, 65, 'A');
+
+	@Test
+	public void testExport() throws Exception {
+
+		DataLogger typed = new TestDataLogger("typed");
+		DataLogger clicks = new TestDataLogger("clicks");
+
+		List<LogEntry> logEntries = new ArrayList<>();
+		logEntries.add(new LogEntry(typed, "a", TYPED_A));
+		logEntries.add(new LogEntry(typed, "b", TYPED_A));
+		logEntries.add(new LogEntry(clicks, "click\n", TYPED_A));
+		logEntries.add(new LogEntry(typed, "c", TYPED_A));
+		logEntries.add(new LogEntry(clicks, "click\n", TYPED_A));
+
+		StringWriter output = new StringWriter();
+		TextExporter exporter = new TextExporter(2);
+
+		assertTrue(exporter.export(new ListLogReader(logEntries), output));
+		assertEquals("ab\nclick\nc\nclick\n", output.toString());
+		assertEquals(logEntries.size(), exporter.getEntriesWritten());
+
+	}
+
+	@Test
+	public void testChunksAndCancel() throws Exception {
+
+		DataLogger typed = new TestDataLogger("typed");
+
+		List<LogEntry> logEntries = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+			logEntries.add(new LogEntry(typed, "x", TYPED_A));
+
+		final List<Long> progress = new ArrayList<>();
+
+		TextExporter exporter = new TextExporter(100) {
+
+			@Override
+			protected void progress(long entriesWritten) {
+
+				progress.add(entriesWritten);
+
+				if (entriesWritten == 300)
+					cancel();
+
+			}
+
+		};
+
+		StringWriter output = new StringWriter();
+
+		assertFalse(exporter.export(new ListLogReader(logEntries), output));
+		assertTrue(exporter.isCancelled());
+		assertEquals(300, exporter.getEntriesWritten());
+		assertEquals(300, output.toString().length());
+		assertEquals(3, progress.size());
+		assertEquals(100L, (long) progress.get(0));
+
+	}
+
+}
@@ -0,0 +1,173 @@
+package net.zeddev.zedlog.management;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.DataLoggerNotificationThread;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.TestDataLogger;
+import net.zeddev.zedlog.logger.impl.CompositeDataLogger;
+import net.zeddev.zedlog.logger.tools.SessionStats;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link net.zeddev.zedlog.management.ManagementRegistry}.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class ManagementRegistryTest {
+
+	private MBeanServer server;
+	private CompositeDataLogger loggers;
+	private DataLogger typed;
+	private SessionStats stats;
+	private ManagementRegistry registry;
+
+	@Before
+	public void setUp() throws Exception {
+
+		server = MBeanServerFactory.newMBeanServer();
+
+		typed = new TestDataLogger("CharTyped");
+
+		loggers = new CompositeDataLogger();
+		loggers.addLogger(typed);
+
+		stats = new SessionStats();
+		registry = new ManagementRegistry(server, loggers, stats);
+
+	}
+
+	@After
+	public void tearDown() {
+		loggers.shutdown();
+		typed.shutdown();
+	}
+
+	@Test
+	public void testRegistration() throws Exception {
+
+		registry.registerAll();
+
+		assertTrue(server.isRegistered(ManagementRegistry.COMPOSITE_NAME));
+		assertTrue(server.isRegistered(ManagementRegistry.LOG_FILE_NAME));
+
+		ObjectName typedName = registry.register(typed);
+		assertNotNull(typedName);
+		assertTrue(server.isRegistered(typedName));
+		assertEquals("\"CharTyped\"", typedName.getKeyProperty("name"));
+
+		// NOTE registering again has no effect
+		assertEquals(typedName, registry.register(typed));
+
+		registry.unregister(typed);
+		assertFalse(server.isRegistered(typedName));
+
+		registry.unregisterAll();
+		assertFalse(server.isRegistered(ManagementRegistry.COMPOSITE_NAME));
+		assertFalse(server.isRegistered(ManagementRegistry.LOG_FILE_NAME));
+
+	}
+
+	@Test
+	public void testAttributes() throws Exception {
+
+		registry.registerAll();
+		ObjectName typedName = registry.register(typed);
+
+		assertArrayEquals(
+			new String[] {"CharTyped"},
+			(String[]) server.getAttribute(ManagementRegistry.COMPOSITE_NAME, "LoggerTypes")
+		);
+
+		assertEquals(0L, server.getAttribute(typedName, "EntryCount"));
+
+		for (long timestamp = 0; timestamp < 2000; timestamp += 100)
+			stats.add("CharTyped", timestamp);
+
+		assertEquals(20L, server.getAttribute(typedName, "EntryCount"));
+		assertEquals(20L, server.getAttribute(ManagementRegistry.COMPOSITE_NAME, "EntryCount"));
+		assertEquals(1900L, server.getAttribute(typedName, "LastEntryTime"));
+		assertEquals(10.0, (Double) server.getAttribute(typedName, "PeakRate"), 0.001);
+
+		assertNull(server.getAttribute(ManagementRegistry.LOG_FILE_NAME, "Path"));
+		assertEquals(-1L, server.getAttribute(ManagementRegistry.LOG_FILE_NAME, "MillisSinceFlush"));
+
+	}
+
+	@Test
+	public void testPauseAndResume() throws Exception {
+
+		registry.registerAll();
+		ObjectName typedName = registry.register(typed);
+
+		server.invoke(ManagementRegistry.COMPOSITE_NAME, "pause", null, null);
+		assertFalse(loggers.isRecording());
+		assertFalse(typed.isRecording());
+
+		server.invoke(typedName, "resume", null, null);
+		assertTrue(typed.isRecording());
+		assertFalse(loggers.isRecording());
+
+		server.invoke(ManagementRegistry.COMPOSITE_NAME, "resume", null, null);
+		assertEquals(Boolean.TRUE, server.getAttribute(ManagementRegistry.COMPOSITE_NAME, "Recording"));
+
+	}
+
+	@Test
+	public void testQueueAttributes() throws Exception {
+
+		TestDataLogger flood = new TestDataLogger("Flood");
+
+		try {
+
+			ObjectName floodName = registry.register(flood);
+
+			assertEquals(0, server.getAttribute(floodName, "QueueLength"));
+			assertEquals(0L, server.getAttribute(floodName, "DroppedCount"));
+
+			// NOTE far faster than the queue is drained
+			int count = DataLoggerNotificationThread.QUEUE_SIZE * 4;
+			for (int i = 0; i < count; i++)
+				flood.log(new LogEntry());
+
+			int queued = (Integer) server.getAttribute(floodName, "QueueLength");
+			long dropped = (Long) server.getAttribute(floodName, "DroppedCount");
+
+			assertTrue(queued <= DataLoggerNotificationThread.QUEUE_SIZE);
+			assertTrue(dropped > 0);
+
+		} finally {
+			flood.shutdown();
+		}
+
+	}
+
+}
@@ -0,0 +1,194 @@
+package net.zeddev.zedlog.management.jfr;
+/* Copyright (C) 2013  Zachary Scott <zscott.dev@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import net.zeddev.zedlog.logger.DataLogger;
+import net.zeddev.zedlog.logger.DataLoggerObserver;
+import net.zeddev.zedlog.logger.LogEntry;
+import net.zeddev.zedlog.logger.TestDataLogger;
+import net.zeddev.zedlog.logger.impl.event.KeyEvent;
+import net.zeddev.zedlog.logger.io.LogEntryWriter;
+import net.zeddev.zedlog.logger.io.LogFormat;
+import net.zeddev.zedlog.logger.tools.RecordingReplaySink;
+import net.zeddev.zedlog.logger.tools.ReplayTool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for the flight recorder events (i.e.
+ * {@link net.zeddev.zedlog.management.jfr.DeliveryEvent}), checking each is
+ * recorded along the logging and replay paths.
+ *
+ * @author Zachary Scott <zscott.dev@gmail.com>
+ */
+public class FlightEventsTest {
+
+	private static final int ENTRY_COUNT = 5;
+
+	private Recording recording;
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+
+		recording = new Recording();
+		for (String name : Arrays.asList("Enqueue", "Dequeue", "Delivery", "Encode", "Flush", "Replay"))
+			recording.enable("net.zeddev.zedlog." + name).withoutStackTrace();
+
+		recording.start();
+
+		file = File.createTempFile("zedlog-test", ".zlog");
+
+	}
+
+	@After
+	public void tearDown() {
+		recording.close();
+		file.delete();
+	}
+
+	// creates an entry with the given parent
+	private static LogEntry newEntry(DataLogger parent) {
+		return new LogEntry(parent, "A", new KeyEvent(KeyEvent.Type.TYPED, 65, 'A'));
+	}
+
+	// stops the recording, returning the events with the given name
+	private List<RecordedEvent> stop(String name) throws Exception {
+
+		recording.stop();
+
+		File dump = File.createTempFile("zedlog-test", ".jfr");
+
+		try {
+
+			recording.dump(dump.toPath());
+
+			List<RecordedEvent> events = new ArrayList<>();
+			for (RecordedEvent event : RecordingFile.readAllEvents(dump.toPath())) {
+				if (event.getEventType().getName().equals("net.zeddev.zedlog." + name))
+					events.add(event);
+			}
+
+			return events;
+
+		} finally {
+			dump.delete();
+		}
+
+	}
+
+	@Test
+	public void testDispatchEvents() throws Exception {
+
+		TestDataLogger typed = new TestDataLogger("CharTyped");
+
+		final List<LogEntry> delivered = new ArrayList<>();
+		typed.addObserver(new DataLoggerObserver() {
+
+			@Override
+			public void notifyLog(DataLogger logger, LogEntry logEntry) {
+				synchronized (delivered) {
+					delivered.add(logEntry);
+				}
+			}
+
+		});
+
+		for (int i = 0; i < ENTRY_COUNT; i++)
+			typed.log(newEntry(typed));
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < deadline) {
+
+			synchronized (delivered) {
+				if (delivered.size() == ENTRY_COUNT)
+					break;
+			}
+
+			Thread.sleep(10);
+
+		}
+
+		typed.shutdown();
+
+		List<RecordedEvent> deliveries = stop("Delivery");
+		assertEquals(ENTRY_COUNT, deliveries.size());
+		assertEquals("CharTyped", deliveries.get(0).getString("loggerType"));
+
+	}
+
+	@Test
+	public void testPersistEvents() throws Exception {
+
+		List<LogEntry> logEntries = new ArrayList<>();
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			LogEntry logEntry = new LogEntry();
+			logEntry.setEvent(new KeyEvent(KeyEvent.Type.TYPED, 65, 'A'));
+			logEntry.setMessage("A");
+			logEntries.add(logEntry);
+		}
+
+		try (LogEntryWriter writer = LogFormat.BINARY.newWriter(file, Arrays.asList("CharTyped"))) {
+
+			for (LogEntry logEntry : logEntries)
+				writer.write(logEntry);
+
+			writer.flush();
+
+		}
+
+		List<RecordedEvent> encodes = stop("Encode");
+		assertEquals(1, encodes.size());
+		assertEquals(ENTRY_COUNT, encodes.get(0).getInt("entries"));
+		assertTrue(encodes.get(0).getLong("size") > 0);
+
+	}
+
+	@Test
+	public void testReplayEvents() throws Exception {
+
+		List<LogEntry> logEntries = new ArrayList<>();
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			LogEntry logEntry = new LogEntry();
+			logEntry.setTimestamp(i);
+			logEntry.setEvent(new KeyEvent(KeyEvent.Type.TYPED, 65, 'A'));
+			logEntry.setMessage("A");
+			logEntries.add(logEntry);
+		}
+
+		ReplayTool tool = new ReplayTool(logEntries);
+		tool.setSink(new RecordingReplaySink());
+		tool.replayFast().run();
+
+		List<RecordedEvent> replays = stop("Replay");
+		assertEquals(ENTRY_COUNT, replays.size());
+		assertEquals("KeyEvent", replays.get(0).getString("eventType"));
+
+	}
+
+}